@@ -23,6 +23,7 @@ dependencies {
     api("com.rabbitmq:amqp-client:5.20.0")
     api("com.fasterxml.jackson.core:jackson-databind:2.17.1")
     api("com.fasterxml.jackson.datatype:jackson-datatype-jsr310:2.17.1")
+    api("com.fasterxml.jackson.datatype:jackson-datatype-jdk8:2.17.1")
     api("com.squareup.okhttp3:okhttp:4.12.0")
     api("com.squareup.okhttp3:logging-interceptor:4.12.0")
     api("org.slf4j:slf4j-api:2.0.13")
@@ -48,6 +49,42 @@ tasks.test {
     useJUnitPlatform()
 }
 
+// JMH benchmarks of the decode and dispatch hot path live in src/jmh.
+// Run with ./gradlew jmh, optionally narrowed with -Pjmh.includes=<regex>
+// (e.g. -Pjmh.includes=TypedFeedAdapter). Results go to build/reports/jmh/results.json.
+val jmh: SourceSet by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output
+    runtimeClasspath += sourceSets.main.get().output
+}
+
+// No logging backend on the benchmark classpath: the SDK's DEBUG file appenders would skew results
+configurations[jmh.implementationConfigurationName].extendsFrom(configurations.implementation.get())
+
+dependencies {
+    "jmhImplementation"("org.openjdk.jmh:jmh-core:1.37")
+    "jmhAnnotationProcessor"("org.openjdk.jmh:jmh-generator-annprocess:1.37")
+}
+
+tasks.register<JavaExec>("jmh") {
+    group = "verification"
+    description = "Runs the JMH benchmarks in src/jmh."
+    classpath = jmh.runtimeClasspath
+    mainClass.set("org.openjdk.jmh.Main")
+    val results = layout.buildDirectory.file("reports/jmh/results.json")
+    args(providers.gradleProperty("jmh.includes").getOrElse(".*"), "-rf", "json", "-rff", results.get().asFile.path)
+    doFirst { results.get().asFile.parentFile.mkdirs() }
+}
+
+// End-to-end latency/throughput of RabbitMQFeed against an in-process fake broker, e.g.
+// ./gradlew feedHarness -Pharness.args="--rate 20000 --dispatcher-threads 4 --policy CONFLATE"
+tasks.register<JavaExec>("feedHarness") {
+    group = "verification"
+    description = "Runs the RabbitMQFeed latency and throughput harness against an in-process broker."
+    classpath = jmh.runtimeClasspath
+    mainClass.set("com.pandascore.sdk.rmq.FeedLatencyHarness")
+    args(providers.gradleProperty("harness.args").getOrElse("").split(" ").filter { it.isNotBlank() })
+}
+
 tasks.javadoc {
     options.encoding = "UTF-8"
     (options as StandardJavadocDocletOptions).addBooleanOption("Xdoclint:none", true)
@@ -0,0 +1,36 @@
+package com.pandascore.sdk.benchmark;
+
+import com.pandascore.sdk.model.feed.fixtures.FixtureAction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link FixtureAction#fromValue} for an early constant, a late constant, and an action this
+ * SDK version does not know.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FixtureActionBenchmark {
+
+    @Param({"created", "started", "live_not_available", "match_paused"})
+    public String value;
+
+    @Benchmark
+    public FixtureAction fromValue() {
+        return FixtureAction.fromValue(value);
+    }
+}
@@ -0,0 +1,59 @@
+package com.pandascore.sdk.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pandascore.sdk.RawFeedMessage;
+import com.pandascore.sdk.config.JsonMapperFactory;
+import com.pandascore.sdk.config.SDKConfig;
+import com.pandascore.sdk.rmq.RoutingKey;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * First decode step of every delivery: the full tree parse used for JSON sinks versus the
+ * header peek used for typed listeners.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonDecodeBenchmark {
+
+    @Param({"markets-small", "markets-large", "fixture-small", "fixture-large", "scoreboard-small", "scoreboard-large"})
+    public String payload;
+
+    private final ObjectMapper mapper = JsonMapperFactory.create();
+    private byte[] body;
+    private RoutingKey routingKey;
+
+    @Setup
+    public void setup() {
+        SDKConfig.setOptions(Payloads.options().build());
+        body = Payloads.body(payload);
+        routingKey = Payloads.routingKey(payload);
+    }
+
+    @Benchmark
+    public JsonNode readTree() throws IOException {
+        return mapper.readTree(body);
+    }
+
+    @Benchmark
+    public RawFeedMessage peek() throws IOException {
+        return RawFeedMessage.peek(body, routingKey);
+    }
+}
@@ -0,0 +1,71 @@
+package com.pandascore.sdk.benchmark;
+
+import com.pandascore.sdk.config.SDKOptions;
+import com.pandascore.sdk.rmq.RoutingKey;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Recorded-shape payload fixtures under {@code src/jmh/resources/payloads}.
+ * <p>
+ * Each name has a small variant (one market, bare fixture, single-map scoreboard) and a
+ * large one (full live-match market set, fixture with league/serie/tournament/games/streams,
+ * best-of-three scoreboard).
+ */
+final class Payloads {
+
+    private Payloads() {}
+
+    /**
+     * @param name fixture name, e.g. {@code markets-large}
+     * @return the compact JSON body as delivered by the broker
+     */
+    static byte[] body(String name) {
+        try (InputStream in = Payloads.class.getResourceAsStream("/payloads/" + name + ".json")) {
+            if (in == null) {
+                throw new IllegalArgumentException("No payload fixture " + name);
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int n;
+            while ((n = in.read(buffer)) > 0) {
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Options for {@code SDKConfig.setOptions} in a benchmark's setup. Decoding a market
+     * selection reads {@code SDKConfig}, which throws on every selection until it is set.
+     *
+     * @return a builder with placeholder credentials, ready to build
+     */
+    static SDKOptions.SDKOptionsBuilder options() {
+        return SDKOptions.builder()
+            .apiToken("benchmark")
+            .companyId(1)
+            .email("benchmark@example.com")
+            .password("benchmark")
+            .queueBinding(SDKOptions.QueueBinding.builder().queueName("benchmark").routingKey("#").build());
+    }
+
+    /**
+     * @param name fixture name
+     * @return the routing key the fixture would be delivered with
+     */
+    static RoutingKey routingKey(String name) {
+        if (name.startsWith("markets")) {
+            return RoutingKey.parse("v2.cs-go.match.1078342.markets.odds_changed");
+        }
+        if (name.startsWith("fixture")) {
+            return RoutingKey.parse("v2.cs-go.match.1078342.fixture.updated");
+        }
+        return RoutingKey.parse("v2.cs-go.scoreboard.1078342.scoreboard.updated");
+    }
+}
@@ -0,0 +1,55 @@
+package com.pandascore.sdk.benchmark;
+
+import com.pandascore.sdk.config.SDKConfig;
+import com.pandascore.sdk.model.feed.markets.MarketsMessageSelection;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * American and fractional odds conversion run by the {@link MarketsMessageSelection} odds
+ * setters during decode, per selection.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SelectionOddsBenchmark {
+
+    @Param({"none", "american", "fractional", "both"})
+    public String conversions;
+
+    private static final double[] ODDS = {1.05, 1.37, 1.72, 1.91, 2.0, 2.45, 3.8, 7.5, 15.0, 41.0};
+
+    private final MarketsMessageSelection selection = new MarketsMessageSelection();
+    private int next;
+
+    @Setup
+    public void setup() {
+        SDKConfig.setOptions(Payloads.options()
+            .americanOdds(conversions.equals("american") || conversions.equals("both"))
+            .fractionalOdds(conversions.equals("fractional") || conversions.equals("both"))
+            .build());
+    }
+
+    @Benchmark
+    public MarketsMessageSelection convert() {
+        double odds = ODDS[next];
+        next = (next + 1) % ODDS.length;
+        selection.setOddsDecimal(odds);
+        selection.setOddsDecimalWithOverround(odds * 0.95);
+        return selection;
+    }
+}
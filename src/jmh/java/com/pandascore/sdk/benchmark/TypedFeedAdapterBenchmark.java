@@ -0,0 +1,90 @@
+package com.pandascore.sdk.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pandascore.sdk.FeedListener;
+import com.pandascore.sdk.RawFeedMessage;
+import com.pandascore.sdk.TypedFeedAdapter;
+import com.pandascore.sdk.config.JsonMapperFactory;
+import com.pandascore.sdk.config.SDKConfig;
+import com.pandascore.sdk.model.feed.fixtures.FixtureMessage;
+import com.pandascore.sdk.model.feed.markets.MarketsMessage;
+import com.pandascore.sdk.model.feed.scoreboard.ScoreboardCs;
+import com.pandascore.sdk.rmq.RoutingKey;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Body-to-listener decode of markets, fixture and scoreboard messages through
+ * {@link TypedFeedAdapter#accept}, on the raw path {@code RabbitMQFeed} takes for typed
+ * listeners and on the tree path taken when a {@code JsonNode} is handed in.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TypedFeedAdapterBenchmark {
+
+    @Param({"markets-small", "markets-large", "fixture-small", "fixture-large", "scoreboard-small", "scoreboard-large"})
+    public String payload;
+
+    private final ObjectMapper mapper = JsonMapperFactory.create();
+    private final CapturingListener listener = new CapturingListener();
+    private final TypedFeedAdapter adapter = new TypedFeedAdapter(listener);
+    private byte[] body;
+    private RoutingKey routingKey;
+
+    @Setup
+    public void setup() {
+        SDKConfig.setOptions(Payloads.options().build());
+        body = Payloads.body(payload);
+        routingKey = Payloads.routingKey(payload);
+    }
+
+    @Benchmark
+    public Object acceptRaw() throws IOException {
+        adapter.accept(RawFeedMessage.peek(body, routingKey));
+        return listener.last;
+    }
+
+    @Benchmark
+    public Object acceptTree() throws IOException {
+        adapter.accept(mapper.readTree(body));
+        return listener.last;
+    }
+
+    /**
+     * Keeps the decoded message reachable so the decode cannot be eliminated.
+     */
+    private static final class CapturingListener implements FeedListener {
+        private Object last;
+
+        @Override
+        public void onMarkets(MarketsMessage message) {
+            last = message;
+        }
+
+        @Override
+        public void onFixture(FixtureMessage message) {
+            last = message;
+        }
+
+        @Override
+        public void onScoreboard(ScoreboardCs scoreboard) {
+            last = scoreboard;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.pandascore.sdk.rmq;
+
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.Connection;
+import com.rabbitmq.client.ConnectionFactory;
+import com.rabbitmq.client.DeliverCallback;
+import com.rabbitmq.client.Delivery;
+import com.rabbitmq.client.Envelope;
+import com.rabbitmq.client.ShutdownListener;
+import com.rabbitmq.client.ShutdownSignalException;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process stand-in for the broker side of one AMQP connection.
+ * <p>
+ * {@link #connectionFactory()} hands {@link RabbitMQFeed} a {@link Connection} and
+ * {@link Channel} backed by dynamic proxies: declarations and QoS are accepted and ignored,
+ * {@code basicConsume} captures the consumer's {@link DeliverCallback}, and acks are counted.
+ * {@link #publish} then calls that callback on the caller's thread, which plays the client
+ * library's consumer thread. No sockets are opened.
+ */
+final class FakeBroker {
+
+    private static final String EXCHANGE = "pandascore.feed";
+
+    private final List<ShutdownListener> shutdownListeners = new CopyOnWriteArrayList<>();
+    private final AtomicLong acked = new AtomicLong();
+    private final AtomicLong nacked = new AtomicLong();
+    private volatile DeliverCallback consumer;
+    private volatile String consumerTag;
+    private volatile boolean open = true;
+    private long nextDeliveryTag = 1;
+    private long lastSettled;
+    private final Connection connection = proxy(Connection.class, this::onConnection);
+    private final Channel channel = proxy(Channel.class, this::onChannel);
+
+    /**
+     * @return a factory whose connections are this broker; TLS and URI settings are accepted and unused
+     */
+    ConnectionFactory connectionFactory() {
+        return new ConnectionFactory() {
+            @Override
+            public Connection newConnection() {
+                open = true;
+                return connection;
+            }
+        };
+    }
+
+    /**
+     * Delivers one message to the consumer on the calling thread.
+     *
+     * @param routingKey routing key
+     * @param body       message body, handed over without copying
+     * @throws IOException if the consumer callback fails
+     * @throws IllegalStateException if no consumer is registered
+     */
+    void publish(String routingKey, byte[] body) throws IOException {
+        DeliverCallback callback = consumer;
+        if (callback == null) {
+            throw new IllegalStateException("No consumer registered");
+        }
+        callback.handle(consumerTag, new Delivery(
+            new Envelope(nextDeliveryTag++, false, EXCHANGE, routingKey), null, body));
+    }
+
+    /**
+     * @return delivery tags acknowledged (a cumulative ack counts every tag it covers)
+     */
+    long ackedCount() {
+        return acked.get();
+    }
+
+    long nackedCount() {
+        return nacked.get();
+    }
+
+    private Object onConnection(Method method, Object[] args) {
+        switch (method.getName()) {
+            case "createChannel":
+                return channel;
+            case "addShutdownListener":
+                shutdownListeners.add((ShutdownListener) args[0]);
+                return null;
+            case "isOpen":
+                return open;
+            case "close":
+            case "abort":
+                if (open) {
+                    open = false;
+                    consumer = null;
+                    ShutdownSignalException cause = new ShutdownSignalException(true, true, null, connection);
+                    shutdownListeners.forEach(listener -> listener.shutdownCompleted(cause));
+                }
+                return null;
+            default:
+                return defaultValue(method);
+        }
+    }
+
+    private Object onChannel(Method method, Object[] args) {
+        switch (method.getName()) {
+            case "basicConsume":
+                if (args.length == 5 && args[3] instanceof DeliverCallback) {
+                    consumerTag = (String) args[2];
+                    consumer = (DeliverCallback) args[3];
+                    return consumerTag;
+                }
+                throw new UnsupportedOperationException("basicConsume overload not supported by FakeBroker");
+            case "basicAck":
+                ack((Long) args[0], (Boolean) args[1], acked);
+                return null;
+            case "basicNack":
+                ack((Long) args[0], (Boolean) args[1], nacked);
+                return null;
+            case "isOpen":
+                return open;
+            default:
+                return defaultValue(method);
+        }
+    }
+
+    private synchronized void ack(long deliveryTag, boolean multiple, AtomicLong counter) {
+        // Cumulative acks cover every tag since the last one; single acks on lanes may arrive out of order
+        counter.addAndGet(multiple ? Math.max(0, deliveryTag - lastSettled) : 1);
+        lastSettled = Math.max(lastSettled, deliveryTag);
+    }
+
+    private static Object defaultValue(Method method) {
+        Class<?> type = method.getReturnType();
+        if (!type.isPrimitive() || type == void.class) {
+            return null;
+        }
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        if (type == int.class) {
+            return 0;
+        }
+        if (type == double.class) {
+            return 0d;
+        }
+        if (type == float.class) {
+            return 0f;
+        }
+        if (type == short.class) {
+            return (short) 0;
+        }
+        return type == byte.class ? (Object) (byte) 0 : (Object) '\0';
+    }
+
+    @FunctionalInterface
+    private interface Handler {
+        Object handle(Method method, Object[] args) throws Throwable;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, Handler handler) {
+        InvocationHandler invocation = (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                switch (method.getName()) {
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "equals":
+                        return proxy == args[0];
+                    default:
+                        return "FakeBroker " + type.getSimpleName();
+                }
+            }
+            return handler.handle(method, args != null ? args : new Object[0]);
+        };
+        return (T) Proxy.newProxyInstance(FakeBroker.class.getClassLoader(), new Class<?>[]{type}, invocation);
+    }
+}
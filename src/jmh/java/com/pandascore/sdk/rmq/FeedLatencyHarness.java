@@ -0,0 +1,355 @@
+package com.pandascore.sdk.rmq;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.pandascore.sdk.FeedListener;
+import com.pandascore.sdk.config.JsonMapperFactory;
+import com.pandascore.sdk.config.SDKConfig;
+import com.pandascore.sdk.config.SDKOptions;
+import com.pandascore.sdk.config.SDKOptions.BackpressurePolicy;
+import com.pandascore.sdk.events.EventHandler;
+import com.pandascore.sdk.model.feed.fixtures.FixtureMessage;
+import com.pandascore.sdk.model.feed.markets.MarketsMessage;
+import com.pandascore.sdk.model.feed.scoreboard.ScoreboardCs;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * End-to-end latency and throughput of {@link RabbitMQFeed} against a {@link FakeBroker}.
+ * <p>
+ * Traffic comes from {@link SyntheticFeed} (markets, fixture, CS scoreboard and heartbeat
+ * messages) and goes through {@code connect(FeedListener)} exactly as from a broker: routing-key
+ * parse, raw decode, optional dispatcher lanes, typed listener and ack. Every business body is
+ * stamped with its send time in its {@code at} / {@code updated_at} field, and the listener
+ * records the time from send to its own completion. When a rate is set, the send time is the
+ * scheduled one, so a stalled consumer shows up as latency rather than as a slower sender.
+ * <p>
+ * Phases: warm-up (not recorded), steady state at the configured rate, then a recovery cycle
+ * in which messages are buffered between {@code startRecovery()} and {@code endRecovery()}
+ * and the replay is timed.
+ * <p>
+ * Run with {@code ./gradlew feedHarness -Pharness.args="--rate 20000 --dispatcher-threads 4"}.
+ * Options: {@code --rate} (messages per second, 0 = flat out), {@code --messages},
+ * {@code --warmup}, {@code --recovery}, {@code --matches}, {@code --dispatcher-threads},
+ * {@code --queue-capacity}, {@code --policy} (BLOCK, DROP_OLDEST, CONFLATE),
+ * {@code --ack-batch}, {@code --mdc} (FULL, MINIMAL, NONE) and {@code --seed}.
+ */
+public final class FeedLatencyHarness {
+
+    // Send times are written as a fixed-width instant on this day, so bodies are patched in place
+    private static final Instant ORIGIN = Instant.parse("2026-01-01T00:00:00Z");
+    private static final String STAMP_PLACEHOLDER = "2026-01-01T00:00:00.000000000Z";
+    private static final byte[] STAMP_PREFIX = "2026-01-01T".getBytes(StandardCharsets.US_ASCII);
+
+    private final Map<String, String> options;
+    private final FakeBroker broker = new FakeBroker();
+    private final ObjectMapper mapper = JsonMapperFactory.create();
+    private final AtomicLong completed = new AtomicLong();
+    private volatile Recorder recorder;
+    private long originNanos;
+
+    private FeedLatencyHarness(Map<String, String> options) {
+        this.options = options;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Expected --option value, got " + args[i]);
+            }
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        new FeedLatencyHarness(options).run();
+    }
+
+    private void run() throws Exception {
+        double rate = Double.parseDouble(option("rate", "0"));
+        int warmup = Integer.parseInt(option("warmup", "50000"));
+        int measured = Integer.parseInt(option("messages", "200000"));
+        int recovery = Integer.parseInt(option("recovery", "20000"));
+        SDKOptions sdkOptions = SDKOptions.builder()
+            .apiToken("harness")
+            .companyId(1)
+            .email("harness@example.com")
+            .password("harness")
+            .apiBaseUrl("http://localhost:1")
+            .queueBinding(SDKOptions.QueueBinding.builder().queueName("harness").routingKey("#").build())
+            .recoverOnReconnect(false)
+            .activitySummaryIntervalMs(60_000)
+            .mdcMode(SDKOptions.MdcMode.valueOf(option("mdc", "FULL")))
+            .dispatcherThreads(Integer.parseInt(option("dispatcher-threads", "0")))
+            .dispatchQueueCapacity(Integer.parseInt(option("queue-capacity", "0")))
+            .backpressurePolicy(BackpressurePolicy.valueOf(option("policy", "BLOCK")))
+            .ackBatchSize(Integer.parseInt(option("ack-batch", "1")))
+            .build();
+        SDKConfig.setOptions(sdkOptions);
+
+        Message[] messages = generate(warmup + measured + recovery, rate);
+        System.out.printf("Feed harness: rate=%s matches=%s dispatcherThreads=%d queueCapacity=%d policy=%s ackBatch=%d mdc=%s%n",
+            rate > 0 ? String.valueOf((long) rate) : "max", option("matches", "100"), sdkOptions.getDispatcherThreads(),
+            sdkOptions.getDispatchQueueCapacity(), sdkOptions.getBackpressurePolicy(), sdkOptions.getAckBatchSize(),
+            sdkOptions.getMdcMode());
+
+        EventHandler handler = new EventHandler(event -> {});
+        RabbitMQFeed feed = new RabbitMQFeed(handler);
+        feed.setConnectionFactory(broker::connectionFactory);
+        try {
+            feed.connect(new TimingListener());
+            originNanos = System.nanoTime();
+
+            // Warm-up: JIT and lanes, nothing recorded
+            int next = publish(messages, 0, warmup, rate, feed);
+            awaitCompletion(businessCount(messages, next), feed);
+
+            Recorder steady = new Recorder(measured);
+            recorder = steady;
+            long start = System.nanoTime();
+            next = publish(messages, next, next + measured, rate, feed);
+            awaitCompletion(businessCount(messages, next), feed);
+            long elapsed = System.nanoTime() - start;
+            recorder = null;
+            steady.report("steady", elapsed);
+
+            // Recovery: buffer a burst, then time the replay of the buffer
+            Recorder replay = new Recorder(recovery);
+            feed.startRecovery();
+            next = publish(messages, next, next + recovery, 0, feed);
+            recorder = replay;
+            long replayStart = System.nanoTime();
+            feed.endRecovery();
+            long replayElapsed = System.nanoTime() - replayStart;
+            recorder = null;
+            replay.report("recovery replay", replayElapsed);
+
+            System.out.printf("acked=%d nacked=%d dropped=%d conflated=%d%n", broker.ackedCount(), broker.nackedCount(),
+                feed.getDispatchDroppedCount(), feed.getDispatchConflatedCount());
+        } finally {
+            feed.close();
+            handler.close();
+        }
+    }
+
+    private String option(String name, String defaultValue) {
+        return options.getOrDefault(name, defaultValue);
+    }
+
+    // ========================================================================
+    // Traffic
+    // ========================================================================
+
+    /**
+     * A synthetic delivery with the offset of its send-time stamp, or -1 for heartbeats.
+     */
+    private static final class Message {
+        private final String routingKey;
+        private final byte[] body;
+        private final int stampOffset;
+
+        Message(String routingKey, byte[] body, int stampOffset) {
+            this.routingKey = routingKey;
+            this.body = body;
+            this.stampOffset = stampOffset;
+        }
+    }
+
+    private Message[] generate(int count, double rate) throws IOException {
+        SyntheticFeed feed = SyntheticFeed.builder()
+            .matches(Integer.parseInt(option("matches", "100")))
+            .messagesPerSecond(rate)
+            .messages(count)
+            .seed(Long.parseLong(option("seed", "42")))
+            .build();
+        List<Message> messages = new ArrayList<>(count + count / 100);
+        JournalRecord record;
+        while ((record = feed.next()) != null) {
+            messages.add(stampable(record));
+        }
+        return messages.toArray(new Message[0]);
+    }
+
+    private Message stampable(JournalRecord record) throws IOException {
+        ObjectNode json = (ObjectNode) mapper.readTree(record.getBody());
+        String field = json.has("updated_at") ? "updated_at" : json.has("type") ? "at" : null;
+        if (field == null) {
+            return new Message(record.getRoutingKey(), record.getBody(), -1);
+        }
+        json.put(field, STAMP_PLACEHOLDER);
+        byte[] body = mapper.writeValueAsBytes(json);
+        String text = new String(body, StandardCharsets.US_ASCII);
+        return new Message(record.getRoutingKey(), body, text.indexOf(STAMP_PLACEHOLDER));
+    }
+
+    /**
+     * @return business messages among the first {@code end}
+     */
+    private static long businessCount(Message[] messages, int end) {
+        long count = 0;
+        for (int i = 0; i < end; i++) {
+            if (messages[i].stampOffset >= 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Publishes messages [from, to) at the rate (0 = back to back), stamping each with its send time.
+     *
+     * @return the index after the last message published
+     */
+    private int publish(Message[] messages, int from, int to, double rate, RabbitMQFeed feed) throws IOException {
+        to = Math.min(to, messages.length);
+        long start = System.nanoTime();
+        for (int i = from; i < to; i++) {
+            long sendAt;
+            if (rate > 0) {
+                sendAt = start + (long) ((i - from) * 1e9 / rate);
+                long wait;
+                while ((wait = sendAt - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+            } else {
+                sendAt = System.nanoTime();
+            }
+            Message message = messages[i];
+            if (message.stampOffset >= 0) {
+                stamp(message.body, message.stampOffset, sendAt - originNanos);
+            }
+            broker.publish(message.routingKey, message.body);
+        }
+        return to;
+    }
+
+    /**
+     * Waits until every business message published so far was completed, dropped or conflated.
+     */
+    private void awaitCompletion(long expected, RabbitMQFeed feed) {
+        long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(2);
+        while (completed.get() + feed.getDispatchDroppedCount() + feed.getDispatchConflatedCount() < expected) {
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("Timed out: " + completed.get() + " of " + expected + " completed");
+            }
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100));
+        }
+    }
+
+    // ========================================================================
+    // Send-time stamps
+    // ========================================================================
+
+    /**
+     * Writes {@code 2026-01-01THH:mm:ss.nnnnnnnnnZ} for a time since the origin (under a day).
+     */
+    private static void stamp(byte[] body, int offset, long nanos) {
+        System.arraycopy(STAMP_PREFIX, 0, body, offset, STAMP_PREFIX.length);
+        long seconds = nanos / 1_000_000_000L;
+        int p = offset + STAMP_PREFIX.length;
+        p = digits(body, p, seconds / 3600, 2);
+        body[p++] = ':';
+        p = digits(body, p, seconds / 60 % 60, 2);
+        body[p++] = ':';
+        p = digits(body, p, seconds % 60, 2);
+        body[p++] = '.';
+        p = digits(body, p, nanos % 1_000_000_000L, 9);
+        body[p] = 'Z';
+    }
+
+    private static int digits(byte[] body, int p, long value, int width) {
+        for (int i = width - 1; i >= 0; i--) {
+            body[p + i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        return p + width;
+    }
+
+    /**
+     * @return nanoseconds since the origin encoded by {@link #stamp}
+     */
+    private static long stampNanos(String at) {
+        return ((at.charAt(11) - '0') * 10L + (at.charAt(12) - '0')) * 3_600_000_000_000L
+            + ((at.charAt(14) - '0') * 10L + (at.charAt(15) - '0')) * 60_000_000_000L
+            + ((at.charAt(17) - '0') * 10L + (at.charAt(18) - '0')) * 1_000_000_000L
+            + Long.parseLong(at, 20, 29, 10);
+    }
+
+    private static long stampNanos(Instant at) {
+        return (at.getEpochSecond() - ORIGIN.getEpochSecond()) * 1_000_000_000L + at.getNano();
+    }
+
+    // ========================================================================
+    // Recording
+    // ========================================================================
+
+    private final class TimingListener implements FeedListener {
+        @Override
+        public void onMarkets(MarketsMessage message) {
+            done(stampNanos(message.getAt()));
+        }
+
+        @Override
+        public void onFixture(FixtureMessage message) {
+            done(stampNanos(message.getAt()));
+        }
+
+        @Override
+        public void onScoreboard(ScoreboardCs scoreboard) {
+            done(stampNanos(scoreboard.getUpdatedAt()));
+        }
+
+        private void done(long sentNanos) {
+            Recorder r = recorder;
+            if (r != null) {
+                r.record(System.nanoTime() - originNanos - sentNanos);
+            }
+            completed.incrementAndGet();
+        }
+    }
+
+    /**
+     * Latencies of one phase; exact percentiles from the sorted samples.
+     */
+    private static final class Recorder {
+        private final long[] samples;
+        private final AtomicInteger count = new AtomicInteger();
+
+        Recorder(int capacity) {
+            this.samples = new long[capacity];
+        }
+
+        void record(long nanos) {
+            int i = count.getAndIncrement();
+            if (i < samples.length) {
+                samples[i] = nanos;
+            }
+        }
+
+        void report(String phase, long elapsedNanos) {
+            int n = Math.min(count.get(), samples.length);
+            long[] sorted = Arrays.copyOf(samples, n);
+            Arrays.sort(sorted);
+            System.out.printf("%-16s messages=%d elapsed=%dms throughput=%.0f msg/s%n", phase, n,
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos), elapsedNanos > 0 ? n * 1e9 / elapsedNanos : 0);
+            if (n > 0) {
+                System.out.printf("%-16s latency us: p50=%.1f p90=%.1f p99=%.1f p999=%.1f max=%.1f%n", "",
+                    percentile(sorted, 0.50), percentile(sorted, 0.90), percentile(sorted, 0.99),
+                    percentile(sorted, 0.999), sorted[n - 1] / 1e3);
+            }
+        }
+
+        private static double percentile(long[] sorted, double q) {
+            return sorted[Math.min(sorted.length - 1, (int) Math.ceil(q * sorted.length) - 1)] / 1e3;
+        }
+    }
+}
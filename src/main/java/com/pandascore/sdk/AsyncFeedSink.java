@@ -0,0 +1,32 @@
+package com.pandascore.sdk;
+
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Asynchronous variant of the raw {@code Consumer<Object>} sink.
+ * <p>
+ * Pass an implementation to {@link com.pandascore.sdk.rmq.RabbitMQFeed#connectAsync(AsyncFeedSink)}.
+ * Each message is acknowledged only when the returned stage completes normally,
+ * so work handed off to another thread (e.g. an async database writer) keeps
+ * at-least-once delivery. A stage that completes exceptionally causes the
+ * message to be rejected and requeued.
+ * <p>
+ * Because the consumer thread does not wait for the stage, several messages can
+ * be in flight at once; raise {@code SDKOptions.prefetchCount} to let the broker
+ * deliver ahead.
+ *
+ * <pre>{@code
+ * feed.connectAsync(msg -> writer.saveAsync((JsonNode) msg));
+ * }</pre>
+ */
+@FunctionalInterface
+public interface AsyncFeedSink {
+
+    /**
+     * Starts processing a business message.
+     *
+     * @param message the parsed message ({@code JsonNode})
+     * @return a stage that completes once the message may be acknowledged
+     */
+    CompletionStage<?> accept(Object message);
+}
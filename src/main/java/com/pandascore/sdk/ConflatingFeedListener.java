@@ -0,0 +1,347 @@
+package com.pandascore.sdk;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.pandascore.sdk.model.feed.fixtures.FixtureMessage;
+import com.pandascore.sdk.model.feed.markets.MarketAction;
+import com.pandascore.sdk.model.feed.markets.MarketsMessage;
+import com.pandascore.sdk.model.feed.markets.MarketsMessageMarket;
+import com.pandascore.sdk.model.feed.markets.MarketsMessageSelection;
+import com.pandascore.sdk.rmq.RoutingKey;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link FeedListener} decorator that conflates pending price updates per market
+ * for a listener that cannot keep up.
+ * <p>
+ * Callbacks are queued and replayed to the delegate on a dedicated thread. While
+ * the delegate is busy, a new {@code odds_changed} / {@code margin_changed} update
+ * for a market whose latest pending update is also a price update with the same
+ * market status (same match, same market id) is merged into it: selections are
+ * replaced by id, selections the newer update omits keep their pending values, and
+ * the market's other fields take the newer values. The merged update takes the
+ * position of the newer one, so updates across markets are still replayed in the
+ * order their latest change arrived. A listener that is seconds behind therefore
+ * catches up to the current prices in one step.
+ * <p>
+ * Status transitions are never coalesced: {@code suspended}, {@code settled},
+ * {@code deactivated} and every other non-price action, as well as price updates
+ * that change a market's status, are replayed exactly once, and later updates of
+ * that market queue behind them instead of merging across them. Fixtures,
+ * scoreboards and unknown messages are replayed unchanged, in arrival order.
+ * <p>
+ * Consecutive pending updates of the same match and action are replayed as one
+ * {@link MarketsMessage}. Messages are acknowledged once queued here, so pending
+ * updates are lost if the process stops; recovery restores the current state.
+ *
+ * <pre>{@code
+ * ConflatingFeedListener conflating = new ConflatingFeedListener(myListener);
+ * feed.connect(conflating);
+ * // ...
+ * conflating.close();
+ * }</pre>
+ */
+public final class ConflatingFeedListener implements FeedListener, AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConflatingFeedListener.class);
+
+    private final FeedListener delegate;
+    private final Thread worker;
+    // Pending callbacks in replay order: PendingMarket entries or plain Runnables
+    private final ArrayDeque<Object> pending = new ArrayDeque<>();
+    // Latest pending price update per market, i.e. the entry a newer price update may merge into
+    private final Map<MarketKey, PendingMarket> mergeable = new HashMap<>();
+    private final AtomicLong conflated = new AtomicLong();
+    private int pendingCount;
+    private boolean closed;
+
+    /**
+     * Starts the replay thread.
+     *
+     * @param delegate the listener that receives conflated callbacks
+     */
+    public ConflatingFeedListener(FeedListener delegate) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("FeedListener must not be null");
+        }
+        this.delegate = delegate;
+        this.worker = new Thread(this::replayLoop, "feed-conflator");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @Override
+    public void onMarkets(MarketsMessage message) {
+        onMarkets(message, null);
+    }
+
+    @Override
+    public void onMarkets(MarketsMessage message, RoutingKey routingKey) {
+        List<MarketsMessageMarket> markets = message.getMarkets();
+        if (markets == null || markets.isEmpty() || message.getMatchId() == null) {
+            enqueue(() -> delegate.onMarkets(message, routingKey));
+            return;
+        }
+        boolean priceUpdate = isPriceUpdate(message.getAction());
+        synchronized (this) {
+            if (closed) {
+                logger.warn("ConflatingFeedListener is closed, dropping markets for match {}", message.getMatchId());
+                return;
+            }
+            for (MarketsMessageMarket market : markets) {
+                MarketKey key = new MarketKey(message.getMatchId(), market.getId());
+                PendingMarket update = new PendingMarket(message, market, routingKey);
+                PendingMarket previous = mergeable.remove(key);
+                if (priceUpdate && previous != null
+                        && Objects.equals(previous.market.getStatus(), market.getStatus())) {
+                    update.mergeOlder(previous);
+                    previous.superseded = true;
+                    pendingCount--;
+                    conflated.incrementAndGet();
+                }
+                if (priceUpdate && market.getId() != null) {
+                    mergeable.put(key, update);
+                }
+                pending.addLast(update);
+                pendingCount++;
+            }
+            notifyAll();
+        }
+    }
+
+    @Override
+    public void onFixture(FixtureMessage message) {
+        onFixture(message, null);
+    }
+
+    @Override
+    public void onFixture(FixtureMessage message, RoutingKey routingKey) {
+        enqueue(() -> delegate.onFixture(message, routingKey));
+    }
+
+    @Override
+    public void onScoreboard(JsonNode raw, String scoreboardType) {
+        onScoreboard(raw, scoreboardType, null);
+    }
+
+    @Override
+    public void onScoreboard(JsonNode raw, String scoreboardType, RoutingKey routingKey) {
+        enqueue(() -> delegate.onScoreboard(raw, scoreboardType, routingKey));
+    }
+
+    @Override
+    public void onUnknown(JsonNode raw) {
+        onUnknown(raw, null);
+    }
+
+    @Override
+    public void onUnknown(JsonNode raw, RoutingKey routingKey) {
+        enqueue(() -> delegate.onUnknown(raw, routingKey));
+    }
+
+    /**
+     * @return callbacks waiting to be replayed, counting each pending market once
+     */
+    public synchronized int pendingCount() {
+        return pendingCount;
+    }
+
+    /**
+     * @return number of market updates merged into a newer one since creation
+     */
+    public long conflatedCount() {
+        return conflated.get();
+    }
+
+    /**
+     * Stops accepting callbacks and waits (up to 5 seconds) for the pending ones to be replayed.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            closed = true;
+            notifyAll();
+        }
+        try {
+            worker.join(5_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private synchronized void enqueue(Runnable callback) {
+        if (closed) {
+            logger.warn("ConflatingFeedListener is closed, dropping callback");
+            return;
+        }
+        pending.addLast(callback);
+        pendingCount++;
+        notifyAll();
+    }
+
+    private void replayLoop() {
+        List<Object> batch = new ArrayList<>();
+        while (true) {
+            synchronized (this) {
+                while (pending.isEmpty() && !closed) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (pending.isEmpty()) {
+                    return;
+                }
+                batch.addAll(pending);
+                pending.clear();
+                // Entries handed to the replay thread can no longer absorb newer updates
+                mergeable.clear();
+                pendingCount = 0;
+            }
+            replay(batch);
+            batch.clear();
+        }
+    }
+
+    private void replay(List<Object> batch) {
+        List<PendingMarket> run = new ArrayList<>();
+        for (Object entry : batch) {
+            if (entry instanceof PendingMarket) {
+                PendingMarket market = (PendingMarket) entry;
+                if (market.superseded) {
+                    continue;
+                }
+                if (!run.isEmpty() && !run.get(0).sameMessageGroup(market)) {
+                    deliverMarkets(run);
+                    run = new ArrayList<>();
+                }
+                run.add(market);
+            } else {
+                if (!run.isEmpty()) {
+                    deliverMarkets(run);
+                    run = new ArrayList<>();
+                }
+                runSafely((Runnable) entry);
+            }
+        }
+        if (!run.isEmpty()) {
+            deliverMarkets(run);
+        }
+    }
+
+    private void deliverMarkets(List<PendingMarket> run) {
+        PendingMarket last = run.get(run.size() - 1);
+        MarketsMessage merged = last.headerCopy();
+        List<MarketsMessageMarket> markets = new ArrayList<>(run.size());
+        for (PendingMarket market : run) {
+            markets.add(market.market);
+        }
+        merged.setMarkets(markets);
+        runSafely(() -> delegate.onMarkets(merged, last.routingKey));
+    }
+
+    private static void runSafely(Runnable callback) {
+        try {
+            callback.run();
+        } catch (RuntimeException e) {
+            logger.error("Conflated listener callback failed", e);
+        }
+    }
+
+    private static boolean isPriceUpdate(MarketAction action) {
+        return action == MarketAction.odds_changed || action == MarketAction.margin_changed;
+    }
+
+    private static final class MarketKey {
+        private final long matchId;
+        private final String marketId;
+
+        MarketKey(long matchId, String marketId) {
+            this.matchId = matchId;
+            this.marketId = marketId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof MarketKey)) {
+                return false;
+            }
+            MarketKey other = (MarketKey) o;
+            return matchId == other.matchId && Objects.equals(marketId, other.marketId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(matchId) * 31 + Objects.hashCode(marketId);
+        }
+    }
+
+    /** One market's pending update together with the header of the message it came in. */
+    private static final class PendingMarket {
+        private final MarketsMessage source;
+        private final MarketsMessageMarket market;
+        private final RoutingKey routingKey;
+        // Set under the listener lock once a newer update has absorbed this one
+        private boolean superseded;
+
+        PendingMarket(MarketsMessage source, MarketsMessageMarket market, RoutingKey routingKey) {
+            this.source = source;
+            this.market = market;
+            this.routingKey = routingKey;
+        }
+
+        /**
+         * Folds an older pending update of the same market into this one:
+         * selections missing from this update keep their older values.
+         */
+        void mergeOlder(PendingMarket older) {
+            List<MarketsMessageSelection> olderSelections = older.market.getSelections();
+            List<MarketsMessageSelection> newerSelections = market.getSelections();
+            if (olderSelections == null || olderSelections.isEmpty()) {
+                return;
+            }
+            if (newerSelections == null) {
+                market.setSelections(olderSelections);
+                return;
+            }
+            Map<String, MarketsMessageSelection> byId = new LinkedHashMap<>();
+            for (MarketsMessageSelection s : olderSelections) {
+                byId.put(s.getId(), s);
+            }
+            for (MarketsMessageSelection s : newerSelections) {
+                byId.put(s.getId(), s);
+            }
+            market.setSelections(new ArrayList<>(byId.values()));
+        }
+
+        boolean sameMessageGroup(PendingMarket other) {
+            return Objects.equals(source.getMatchId(), other.source.getMatchId())
+                && source.getAction() == other.source.getAction()
+                && Objects.equals(source.getGamePosition(), other.source.getGamePosition());
+        }
+
+        MarketsMessage headerCopy() {
+            MarketsMessage copy = new MarketsMessage();
+            copy.setType(source.getType());
+            copy.setAt(source.getAt());
+            copy.setAction(source.getAction());
+            copy.setEventType(source.getEventType());
+            copy.setEventId(source.getEventId());
+            copy.setVideogameSlug(source.getVideogameSlug());
+            copy.setMatchId(source.getMatchId());
+            copy.setTournamentTier(source.getTournamentTier());
+            copy.setGamePosition(source.getGamePosition());
+            return copy;
+        }
+    }
+}
@@ -3,6 +3,15 @@ package com.pandascore.sdk;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.pandascore.sdk.model.feed.fixtures.FixtureMessage;
 import com.pandascore.sdk.model.feed.markets.MarketsMessage;
+import com.pandascore.sdk.model.feed.scoreboard.ScoreboardCs;
+import com.pandascore.sdk.model.feed.scoreboard.ScoreboardDota2;
+import com.pandascore.sdk.model.feed.scoreboard.ScoreboardEbasketball;
+import com.pandascore.sdk.model.feed.scoreboard.ScoreboardEhockey;
+import com.pandascore.sdk.model.feed.scoreboard.ScoreboardEsoccer;
+import com.pandascore.sdk.model.feed.scoreboard.ScoreboardEtennis;
+import com.pandascore.sdk.model.feed.scoreboard.ScoreboardLol;
+import com.pandascore.sdk.model.feed.scoreboard.ScoreboardValorant;
+import com.pandascore.sdk.rmq.RoutingKey;
 
 /**
  * Typed callback interface for PandaScore feed messages.
@@ -19,6 +28,11 @@ import com.pandascore.sdk.model.feed.markets.MarketsMessage;
  *     }
  * });
  * }</pre>
+ * <p>
+ * Each callback also has an overload receiving the message's {@link RoutingKey}
+ * (null if the message was not delivered with a business routing key). By default those delegate
+ * to the single-argument methods; override them instead to route on videogame,
+ * event id or action without inspecting the payload.
  */
 public interface FeedListener {
 
@@ -29,6 +43,17 @@ public interface FeedListener {
      */
     default void onMarkets(MarketsMessage message) {}
 
+    /**
+     * Called for messages with {@code type = "markets"}, with their routing key.
+     * Delegates to {@link #onMarkets(MarketsMessage)} by default.
+     *
+     * @param message    deserialized markets message
+     * @param routingKey the routing key, or null if unknown
+     */
+    default void onMarkets(MarketsMessage message, RoutingKey routingKey) {
+        onMarkets(message);
+    }
+
     /**
      * Called for messages with {@code type = "fixture"}.
      *
@@ -36,24 +61,72 @@ public interface FeedListener {
      */
     default void onFixture(FixtureMessage message) {}
 
+    /**
+     * Called for messages with {@code type = "fixture"}, with their routing key.
+     * Delegates to {@link #onFixture(FixtureMessage)} by default.
+     *
+     * @param message    deserialized fixture message
+     * @param routingKey the routing key, or null if unknown
+     */
+    default void onFixture(FixtureMessage message, RoutingKey routingKey) {
+        onFixture(message);
+    }
+
     /**
      * Called for messages with {@code type = "scoreboard"}.
      * <p>
      * Scoreboard messages are game-specific (CS, Dota2, LoL, Valorant, etc.)
      * and are differentiated by the {@code scoreboard_type} JSON field.
-     * The raw JSON is provided so you can deserialize to the specific model:
-     * <pre>{@code
-     * switch (scoreboardType) {
-     *     case "cs"   -> mapper.treeToValue(raw, ScoreboardCs.class);
-     *     case "lol"  -> mapper.treeToValue(raw, ScoreboardLol.class);
-     *     // ...
-     * }
-     * }</pre>
+     * Prefer the typed overloads below (e.g. {@link #onScoreboard(ScoreboardLol)}):
+     * {@link TypedFeedAdapter} decodes the body straight into the model of the
+     * scoreboard type, and only builds this tree if a raw callback is overridden.
+     * <p>
+     * By default, decodes the tree and calls the typed overload if this listener
+     * overrides it, so typed callbacks also work behind decorating listeners that
+     * forward raw scoreboards.
      *
      * @param raw            the raw JSON node
      * @param scoreboardType the scoreboard_type field value (e.g. "cs", "lol", "dota2")
      */
-    default void onScoreboard(JsonNode raw, String scoreboardType) {}
+    default void onScoreboard(JsonNode raw, String scoreboardType) {
+        ScoreboardDispatch.fromTree(this, raw, scoreboardType);
+    }
+
+    /**
+     * Called for messages with {@code type = "scoreboard"}, with their routing key.
+     * Delegates to {@link #onScoreboard(JsonNode, String)} by default.
+     *
+     * @param raw            the raw JSON node
+     * @param scoreboardType the scoreboard_type field value
+     * @param routingKey     the routing key, or null if unknown
+     */
+    default void onScoreboard(JsonNode raw, String scoreboardType, RoutingKey routingKey) {
+        onScoreboard(raw, scoreboardType);
+    }
+
+    /** Called for scoreboards with {@code scoreboard_type = "cs"}. */
+    default void onScoreboard(ScoreboardCs scoreboard) {}
+
+    /** Called for scoreboards with {@code scoreboard_type = "lol"}. */
+    default void onScoreboard(ScoreboardLol scoreboard) {}
+
+    /** Called for scoreboards with {@code scoreboard_type = "dota2"}. */
+    default void onScoreboard(ScoreboardDota2 scoreboard) {}
+
+    /** Called for scoreboards with {@code scoreboard_type = "valorant"}. */
+    default void onScoreboard(ScoreboardValorant scoreboard) {}
+
+    /** Called for scoreboards with {@code scoreboard_type = "esoccer"}. */
+    default void onScoreboard(ScoreboardEsoccer scoreboard) {}
+
+    /** Called for scoreboards with {@code scoreboard_type = "ebasketball"}. */
+    default void onScoreboard(ScoreboardEbasketball scoreboard) {}
+
+    /** Called for scoreboards with {@code scoreboard_type = "ehockey"}. */
+    default void onScoreboard(ScoreboardEhockey scoreboard) {}
+
+    /** Called for scoreboards with {@code scoreboard_type = "etennis"}. */
+    default void onScoreboard(ScoreboardEtennis scoreboard) {}
 
     /**
      * Called for messages with an unrecognized or missing {@code type} field.
@@ -61,4 +134,15 @@ public interface FeedListener {
      * @param raw the raw JSON node
      */
     default void onUnknown(JsonNode raw) {}
+
+    /**
+     * Called for unrecognized messages, with their routing key.
+     * Delegates to {@link #onUnknown(JsonNode)} by default.
+     *
+     * @param raw        the raw JSON node
+     * @param routingKey the routing key, or null if unknown
+     */
+    default void onUnknown(JsonNode raw, RoutingKey routingKey) {
+        onUnknown(raw);
+    }
 }
@@ -0,0 +1,473 @@
+package com.pandascore.sdk;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.pandascore.sdk.events.ConnectionEvent;
+import com.pandascore.sdk.model.feed.fixtures.FixtureAction;
+import com.pandascore.sdk.model.feed.fixtures.FixtureMatch;
+import com.pandascore.sdk.model.feed.fixtures.FixtureMessage;
+import com.pandascore.sdk.model.feed.fixtures.MatchStatus;
+import com.pandascore.sdk.model.feed.markets.MarketsMessage;
+import com.pandascore.sdk.rmq.RoutingKey;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Predicate;
+
+/**
+ * Latest {@link FixtureMatch} per match id, maintained from fixture messages, with
+ * secondary indexes for the usual queries.
+ * <p>
+ * Every fixture message carrying a match replaces the stored one; {@code deleted}
+ * removes it. When a match-level message carries no status, its action implies one
+ * ({@code started} &rarr; live, {@code postponed}, {@code finished}, {@code settled},
+ * {@code canceled}). Matches are indexed by league, tournament, serie, videogame slug,
+ * status and the hour of {@code scheduled_at}, so queries such as
+ * {@code find("cs-go", "live")} cost the size of the smaller index set rather than a
+ * scan of every match.
+ * <p>
+ * Updates are serialized on the registry; reads never lock. Index sets are updated
+ * one after another, so a query racing with an update re-checks every candidate
+ * against its current entry and only returns matches that satisfy it.
+ * <p>
+ * The registry is a {@link FeedListener}; with a downstream listener it applies each
+ * fixture first and then forwards every callback.
+ *
+ * <pre>{@code
+ * FixtureRegistry fixtures = new FixtureRegistry(myListener);
+ * feed.connect(fixtures);
+ * List<FixtureMatch> liveCs = fixtures.find("cs-go", MatchStatus.LIVE.getValue());
+ * }</pre>
+ */
+public final class FixtureRegistry implements FeedListener {
+
+    private static final long BUCKET_SECONDS = 3600;
+
+    private final FeedListener downstream;
+    private final ConcurrentHashMap<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final Index<Long> byLeague = new Index<>(new ConcurrentHashMap<>());
+    private final Index<Long> byTournament = new Index<>(new ConcurrentHashMap<>());
+    private final Index<Long> bySerie = new Index<>(new ConcurrentHashMap<>());
+    private final Index<String> byVideogame = new Index<>(new ConcurrentHashMap<>());
+    private final Index<String> byStatus = new Index<>(new ConcurrentHashMap<>());
+    private final ConcurrentSkipListMap<Long, Set<Long>> scheduledHours = new ConcurrentSkipListMap<>();
+    private final Index<Long> byScheduledHour = new Index<>(scheduledHours);
+
+    /**
+     * Creates a registry that only indexes fixtures.
+     */
+    public FixtureRegistry() {
+        this(null);
+    }
+
+    /**
+     * @param downstream listener receiving every callback after it has been applied, or null
+     */
+    public FixtureRegistry(FeedListener downstream) {
+        this.downstream = downstream;
+    }
+
+    // ========================================================================
+    // FeedListener
+    // ========================================================================
+
+    @Override
+    public void onFixture(FixtureMessage message) {
+        onFixture(message, null);
+    }
+
+    @Override
+    public void onFixture(FixtureMessage message, RoutingKey routingKey) {
+        apply(message);
+        if (downstream != null) {
+            downstream.onFixture(message, routingKey);
+        }
+    }
+
+    @Override
+    public void onMarkets(MarketsMessage message) {
+        onMarkets(message, null);
+    }
+
+    @Override
+    public void onMarkets(MarketsMessage message, RoutingKey routingKey) {
+        if (downstream != null) {
+            downstream.onMarkets(message, routingKey);
+        }
+    }
+
+    @Override
+    public void onScoreboard(JsonNode raw, String scoreboardType) {
+        onScoreboard(raw, scoreboardType, null);
+    }
+
+    @Override
+    public void onScoreboard(JsonNode raw, String scoreboardType, RoutingKey routingKey) {
+        if (downstream != null) {
+            downstream.onScoreboard(raw, scoreboardType, routingKey);
+        }
+    }
+
+    @Override
+    public void onUnknown(JsonNode raw) {
+        onUnknown(raw, null);
+    }
+
+    @Override
+    public void onUnknown(JsonNode raw, RoutingKey routingKey) {
+        if (downstream != null) {
+            downstream.onUnknown(raw, routingKey);
+        }
+    }
+
+    // ========================================================================
+    // Updates
+    // ========================================================================
+
+    /**
+     * Applies one fixture message.
+     *
+     * @param message the fixture message
+     */
+    public synchronized void apply(FixtureMessage message) {
+        FixtureMatch match = message.getMatch();
+        Long matchId = message.getMatchId() != null ? message.getMatchId() : match != null ? match.getId() : null;
+        if (matchId == null) {
+            return;
+        }
+        if (message.getAction() == FixtureAction.deleted) {
+            remove(matchId);
+            return;
+        }
+        String implied = message.getGamePosition() == null ? statusOf(message.getAction()) : null;
+        Entry current = entries.get(matchId);
+        if (match == null) {
+            // Status-only transition of a match we already know
+            if (current != null && implied != null) {
+                replace(current, new Entry(matchId, current.match, implied));
+            }
+            return;
+        }
+        String status = match.getStatus() != null ? match.getStatus() : implied;
+        if (status == null && current != null) {
+            status = current.status;
+        }
+        replace(current, new Entry(matchId, match, status));
+    }
+
+    /**
+     * Stores matches fetched over HTTP, e.g. from {@code MatchesClient.fetchMatchesRange}.
+     *
+     * @param matches the matches
+     */
+    public synchronized void putAll(Collection<FixtureMatch> matches) {
+        if (matches == null) {
+            return;
+        }
+        for (FixtureMatch match : matches) {
+            if (match.getId() != null) {
+                replace(entries.get(match.getId()), new Entry(match.getId(), match, match.getStatus()));
+            }
+        }
+    }
+
+    /**
+     * Stores a match with the status the registry tracked for it, e.g. when restoring a
+     * {@link StateCheckpoint}.
+     */
+    synchronized void restore(FixtureMatch match, String status) {
+        if (match.getId() != null) {
+            replace(entries.get(match.getId()), new Entry(match.getId(), match, status));
+        }
+    }
+
+    /**
+     * Connection event hook: stores the matches recovered on reconnection.
+     *
+     * @param event the connection event
+     */
+    public void onConnectionEvent(ConnectionEvent event) {
+        if (event.getRecoveryData() != null) {
+            putAll(event.getRecoveryData().getMatches());
+        }
+    }
+
+    /**
+     * Removes a match and its index entries.
+     *
+     * @param matchId the match id
+     * @return true if the match was registered
+     */
+    public synchronized boolean remove(long matchId) {
+        Entry current = entries.remove(matchId);
+        if (current == null) {
+            return false;
+        }
+        unindex(current);
+        return true;
+    }
+
+    private void replace(Entry current, Entry updated) {
+        entries.put(updated.matchId, updated);
+        if (current != null) {
+            unindex(current);
+        }
+        byLeague.add(updated.leagueId, updated.matchId);
+        byTournament.add(updated.tournamentId, updated.matchId);
+        bySerie.add(updated.serieId, updated.matchId);
+        byVideogame.add(updated.videogame, updated.matchId);
+        byStatus.add(updated.status, updated.matchId);
+        byScheduledHour.add(updated.scheduledHour, updated.matchId);
+    }
+
+    private void unindex(Entry entry) {
+        Entry now = entries.get(entry.matchId);
+        // Keys shared with the replacing entry stay indexed
+        if (now == null || !Objects.equals(now.leagueId, entry.leagueId)) {
+            byLeague.remove(entry.leagueId, entry.matchId);
+        }
+        if (now == null || !Objects.equals(now.tournamentId, entry.tournamentId)) {
+            byTournament.remove(entry.tournamentId, entry.matchId);
+        }
+        if (now == null || !Objects.equals(now.serieId, entry.serieId)) {
+            bySerie.remove(entry.serieId, entry.matchId);
+        }
+        if (now == null || !Objects.equals(now.videogame, entry.videogame)) {
+            byVideogame.remove(entry.videogame, entry.matchId);
+        }
+        if (now == null || !Objects.equals(now.status, entry.status)) {
+            byStatus.remove(entry.status, entry.matchId);
+        }
+        if (now == null || !Objects.equals(now.scheduledHour, entry.scheduledHour)) {
+            byScheduledHour.remove(entry.scheduledHour, entry.matchId);
+        }
+    }
+
+    private static String statusOf(FixtureAction action) {
+        if (action == null) {
+            return null;
+        }
+        switch (action) {
+            case started:
+                return MatchStatus.LIVE.getValue();
+            case postponed:
+                return MatchStatus.POSTPONED.getValue();
+            case finished:
+                return MatchStatus.FINISHED.getValue();
+            case settled:
+                return MatchStatus.SETTLED.getValue();
+            case canceled:
+                return MatchStatus.CANCELED.getValue();
+            default:
+                return null;
+        }
+    }
+
+    // ========================================================================
+    // Queries
+    // ========================================================================
+
+    /**
+     * @param matchId the match id
+     * @return the latest match, or null if unknown
+     */
+    public FixtureMatch get(long matchId) {
+        Entry entry = entries.get(matchId);
+        return entry != null ? entry.match : null;
+    }
+
+    /**
+     * @param matchId the match id
+     * @return the match status as tracked by the registry, or null if unknown
+     */
+    public String status(long matchId) {
+        Entry entry = entries.get(matchId);
+        return entry != null ? entry.status : null;
+    }
+
+    /**
+     * @param leagueId the league id
+     * @return matches of that league
+     */
+    public List<FixtureMatch> byLeague(long leagueId) {
+        return collect(byLeague.get(leagueId), e -> Objects.equals(e.leagueId, leagueId));
+    }
+
+    /**
+     * @param tournamentId the tournament id
+     * @return matches of that tournament
+     */
+    public List<FixtureMatch> byTournament(long tournamentId) {
+        return collect(byTournament.get(tournamentId), e -> Objects.equals(e.tournamentId, tournamentId));
+    }
+
+    /**
+     * @param serieId the serie id
+     * @return matches of that serie
+     */
+    public List<FixtureMatch> bySerie(long serieId) {
+        return collect(bySerie.get(serieId), e -> Objects.equals(e.serieId, serieId));
+    }
+
+    /**
+     * @param videogameSlug videogame slug, e.g. {@code "league-of-legends"}
+     * @return matches of that videogame
+     */
+    public List<FixtureMatch> byVideogame(String videogameSlug) {
+        return collect(byVideogame.get(videogameSlug), e -> Objects.equals(e.videogame, videogameSlug));
+    }
+
+    /**
+     * @param status match status value, see {@link MatchStatus#getValue()}
+     * @return matches with that status
+     */
+    public List<FixtureMatch> byStatus(String status) {
+        return collect(byStatus.get(status), e -> Objects.equals(e.status, status));
+    }
+
+    /**
+     * Matches of one videogame with one status, e.g. every live CS match. Iterates only
+     * the smaller of the two index sets.
+     *
+     * @param videogameSlug videogame slug
+     * @param status        match status value
+     * @return the matching matches
+     */
+    public List<FixtureMatch> find(String videogameSlug, String status) {
+        Set<Long> games = byVideogame.get(videogameSlug);
+        Set<Long> statuses = byStatus.get(status);
+        Set<Long> smaller = games.size() <= statuses.size() ? games : statuses;
+        return collect(smaller, e -> Objects.equals(e.videogame, videogameSlug) && Objects.equals(e.status, status));
+    }
+
+    /**
+     * Matches scheduled in {@code [from, to)}.
+     *
+     * @param from inclusive start
+     * @param to   exclusive end
+     * @return matches whose {@code scheduled_at} falls in the range
+     */
+    public List<FixtureMatch> scheduledBetween(Instant from, Instant to) {
+        long fromSecond = from.getEpochSecond();
+        long toSecond = to.getEpochSecond();
+        List<FixtureMatch> result = new ArrayList<>();
+        for (Set<Long> ids : scheduledHours.subMap(Math.floorDiv(fromSecond, BUCKET_SECONDS), true,
+                Math.floorDiv(toSecond, BUCKET_SECONDS), true).values()) {
+            result.addAll(collect(ids, e -> e.scheduledSecond != null
+                && e.scheduledSecond >= fromSecond && e.scheduledSecond < toSecond));
+        }
+        return result;
+    }
+
+    /**
+     * @return every registered match
+     */
+    public List<FixtureMatch> all() {
+        List<FixtureMatch> result = new ArrayList<>(entries.size());
+        for (Entry entry : entries.values()) {
+            result.add(entry.match);
+        }
+        return result;
+    }
+
+    /**
+     * @return number of registered matches
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    private List<FixtureMatch> collect(Set<Long> ids, Predicate<Entry> stillMatches) {
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<FixtureMatch> result = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Entry entry = entries.get(id);
+            if (entry != null && stillMatches.test(entry)) {
+                result.add(entry.match);
+            }
+        }
+        return result;
+    }
+
+    /** Registered match with the index keys derived from it. */
+    private static final class Entry {
+        private final long matchId;
+        private final FixtureMatch match;
+        private final String status;
+        private final Long leagueId;
+        private final Long tournamentId;
+        private final Long serieId;
+        private final String videogame;
+        private final Long scheduledSecond;
+        private final Long scheduledHour;
+
+        Entry(long matchId, FixtureMatch match, String status) {
+            this.matchId = matchId;
+            this.match = match;
+            this.status = status;
+            this.leagueId = match.getLeagueId() != null ? match.getLeagueId()
+                : match.getLeague() != null ? match.getLeague().getId() : null;
+            this.tournamentId = match.getTournamentId() != null ? match.getTournamentId()
+                : match.getTournament() != null ? match.getTournament().getId() : null;
+            this.serieId = match.getSerieId() != null ? match.getSerieId()
+                : match.getSerie() != null ? match.getSerie().getId() : null;
+            this.videogame = match.getVideogame() != null ? match.getVideogame().getSlug() : null;
+            this.scheduledSecond = epochSecond(match.getScheduledAt());
+            this.scheduledHour = scheduledSecond != null ? Math.floorDiv(scheduledSecond, BUCKET_SECONDS) : null;
+        }
+
+        private static Long epochSecond(String timestamp) {
+            if (timestamp == null) {
+                return null;
+            }
+            try {
+                return Instant.parse(timestamp).getEpochSecond();
+            } catch (DateTimeParseException e) {
+                return null;
+            }
+        }
+    }
+
+    /** Key &rarr; ids of the matches with that key. */
+    private static final class Index<K> {
+        private final ConcurrentMap<K, Set<Long>> sets;
+
+        Index(ConcurrentMap<K, Set<Long>> sets) {
+            this.sets = sets;
+        }
+
+        void add(K key, long matchId) {
+            if (key != null) {
+                sets.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(matchId);
+            }
+        }
+
+        void remove(K key, long matchId) {
+            if (key == null) {
+                return;
+            }
+            Set<Long> ids = sets.get(key);
+            if (ids != null) {
+                ids.remove(matchId);
+                if (ids.isEmpty()) {
+                    sets.remove(key, ids);
+                }
+            }
+        }
+
+        Set<Long> get(K key) {
+            Set<Long> ids = key != null ? sets.get(key) : null;
+            return ids != null ? ids : Collections.emptySet();
+        }
+    }
+}
@@ -0,0 +1,619 @@
+package com.pandascore.sdk;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.pandascore.sdk.events.ConnectionEvent;
+import com.pandascore.sdk.http.MatchesClient;
+import com.pandascore.sdk.model.feed.fixtures.FixtureAction;
+import com.pandascore.sdk.model.feed.fixtures.FixtureMessage;
+import com.pandascore.sdk.model.feed.markets.MarketAction;
+import com.pandascore.sdk.model.feed.markets.MarketsMessage;
+import com.pandascore.sdk.model.feed.markets.MarketsMessageMarket;
+import com.pandascore.sdk.model.feed.markets.MarketsMessageSelection;
+import com.pandascore.sdk.model.feed.markets.MarketsRecoveryGame;
+import com.pandascore.sdk.model.feed.markets.MarketsRecoveryMatch;
+import com.pandascore.sdk.rmq.RoutingKey;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Live current state of every market, materialized from the markets stream.
+ * <p>
+ * The book keeps match &rarr; game &rarr; market &rarr; selection. Each markets message
+ * upserts the markets it carries: the market takes the newer fields, selections are
+ * replaced by id (selections the update omits keep their previous values) and the status
+ * follows the market's {@code status}, or the action for {@code suspended},
+ * {@code deactivated} and {@code settled} updates that carry none; a
+ * {@code rollback_settlement} without a status reopens the market as {@code active}.
+ * Markets without a {@code game_position} belong to the match itself.
+ * <p>
+ * Reads never lock: every match is an immutable {@link MatchSnapshot} that an update
+ * replaces as a whole (copying only the game it touches), so a pricing thread sees either
+ * the state before or after a message, never half of it. Updates of one match are
+ * serialized; updates of different matches proceed in parallel.
+ * <p>
+ * The book is a {@link FeedListener}; with a downstream listener it applies each message
+ * first and then forwards it, so the downstream listener already reads the updated state.
+ * Recovered markets are applied with {@link #applyRecovery(List)}, {@link #recover(String)}
+ * or {@link #onConnectionEvent(ConnectionEvent)}. A match is evicted once a match-level
+ * fixture {@code settled}, {@code canceled} or {@code deleted} has been forwarded.
+ *
+ * <pre>{@code
+ * MarketBook book = new MarketBook(myListener);
+ * EventHandler handler = new EventHandler(book::onConnectionEvent);
+ * RabbitMQFeed feed = new RabbitMQFeed(handler);
+ * feed.connect(book);
+ * // any thread:
+ * MarketBook.MarketSnapshot winner = book.market(matchId, 1, marketId);
+ * }</pre>
+ */
+public final class MarketBook implements FeedListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(MarketBook.class);
+
+    private final FeedListener downstream;
+    private final ConcurrentHashMap<Long, MatchSnapshot> matches = new ConcurrentHashMap<>();
+    // Book-wide change counter; every applied message or recovered match takes the next value
+    private final AtomicLong version = new AtomicLong();
+    // Latest message at fully applied to the book, see processedAt()
+    private final AtomicReference<String> processedAt = new AtomicReference<>();
+    // Version at the last disconnection, see onConnectionEvent
+    private volatile long disconnectedAtVersion;
+
+    /**
+     * Creates a book that only materializes state.
+     */
+    public MarketBook() {
+        this(null);
+    }
+
+    /**
+     * @param downstream listener receiving every callback after it has been applied, or null
+     */
+    public MarketBook(FeedListener downstream) {
+        this.downstream = downstream;
+    }
+
+    // ========================================================================
+    // FeedListener
+    // ========================================================================
+
+    @Override
+    public void onMarkets(MarketsMessage message) {
+        onMarkets(message, null);
+    }
+
+    @Override
+    public void onMarkets(MarketsMessage message, RoutingKey routingKey) {
+        apply(message);
+        if (downstream != null) {
+            downstream.onMarkets(message, routingKey);
+        }
+    }
+
+    @Override
+    public void onFixture(FixtureMessage message) {
+        onFixture(message, null);
+    }
+
+    @Override
+    public void onFixture(FixtureMessage message, RoutingKey routingKey) {
+        if (downstream != null) {
+            downstream.onFixture(message, routingKey);
+        }
+        if (message.getMatchId() != null && message.getGamePosition() == null && endsMatch(message.getAction())) {
+            removeMatch(message.getMatchId());
+        }
+    }
+
+    @Override
+    public void onScoreboard(JsonNode raw, String scoreboardType) {
+        onScoreboard(raw, scoreboardType, null);
+    }
+
+    @Override
+    public void onScoreboard(JsonNode raw, String scoreboardType, RoutingKey routingKey) {
+        if (downstream != null) {
+            downstream.onScoreboard(raw, scoreboardType, routingKey);
+        }
+    }
+
+    @Override
+    public void onUnknown(JsonNode raw) {
+        onUnknown(raw, null);
+    }
+
+    @Override
+    public void onUnknown(JsonNode raw, RoutingKey routingKey) {
+        if (downstream != null) {
+            downstream.onUnknown(raw, routingKey);
+        }
+    }
+
+    // ========================================================================
+    // Updates
+    // ========================================================================
+
+    /**
+     * Applies one markets message. Messages without a match id or markets are ignored,
+     * as are markets without an id.
+     *
+     * @param message the markets message
+     */
+    public void apply(MarketsMessage message) {
+        List<MarketsMessageMarket> markets = message.getMarkets();
+        Long matchId = message.getMatchId();
+        if (matchId == null || markets == null || markets.isEmpty()) {
+            return;
+        }
+        matches.compute(matchId, (id, current) -> {
+            long v = version.incrementAndGet();
+            MatchSnapshot match = current != null ? current : MatchSnapshot.empty(id);
+            Integer position = message.getGamePosition();
+            Map<String, MarketSnapshot> updated = new HashMap<>(match.marketsOf(position));
+            for (MarketsMessageMarket market : markets) {
+                if (market.getId() == null) {
+                    continue;
+                }
+                MarketSnapshot previous = updated.get(market.getId());
+                updated.put(market.getId(), MarketSnapshot.update(previous, market, position,
+                    message.getAction(), message.getAt(), v));
+            }
+            return match.withMarkets(position, null, updated, v);
+        });
+        // Advanced only once the update is visible, so the mark never runs ahead of the state
+        if (message.getAt() != null) {
+            advanceProcessedAt(message.getAt());
+        }
+    }
+
+    private void advanceProcessedAt(String at) {
+        String current;
+        do {
+            current = processedAt.get();
+            if (current != null && !after(at, current)) {
+                return;
+            }
+        } while (!processedAt.compareAndSet(current, at));
+    }
+
+    /**
+     * @return true if the ISO-8601 timestamp {@code candidate} is later than {@code current}
+     */
+    static boolean after(String candidate, String current) {
+        // Timestamps of one format order as strings; only parse when the formats differ
+        if (candidate.length() == current.length()) {
+            return candidate.compareTo(current) > 0;
+        }
+        try {
+            return Instant.parse(candidate).isAfter(Instant.parse(current));
+        } catch (DateTimeParseException e) {
+            return candidate.compareTo(current) > 0;
+        }
+    }
+
+    /**
+     * Applies the result of {@link MatchesClient#recoverMarkets(String)}. Every recovered
+     * market replaces the book's state of that market; markets not in the recovery are kept.
+     *
+     * @param recovered the recovered matches
+     */
+    public void applyRecovery(List<MarketsRecoveryMatch> recovered) {
+        applyRecovery(recovered, Long.MAX_VALUE);
+    }
+
+    /**
+     * Applies a recovery fetched while live updates kept flowing. Markets that received a
+     * live update after {@code fetchedAtVersion} already hold newer state and are kept.
+     *
+     * @param recovered        the recovered matches
+     * @param fetchedAtVersion {@link #version()} read before the recovery was requested
+     */
+    public void applyRecovery(List<MarketsRecoveryMatch> recovered, long fetchedAtVersion) {
+        if (recovered == null) {
+            return;
+        }
+        for (MarketsRecoveryMatch match : recovered) {
+            if (match.getId() == null) {
+                continue;
+            }
+            matches.compute(match.getId(), (id, current) -> {
+                long v = version.incrementAndGet();
+                MatchSnapshot result = current != null ? current : MatchSnapshot.empty(id);
+                result = recoverMarkets(result, null, null, match.getMarkets(), fetchedAtVersion, v);
+                if (match.getGames() != null) {
+                    for (MarketsRecoveryGame game : match.getGames()) {
+                        result = recoverMarkets(result, game.getPosition(), game.getId(),
+                            game.getMarkets(), fetchedAtVersion, v);
+                    }
+                }
+                return result;
+            });
+        }
+    }
+
+    /**
+     * Fetches markets changed since the given time and applies them, keeping markets
+     * updated by the feed while the request was in flight.
+     *
+     * @param since ISO-8601 timestamp
+     * @throws IOException on network or parsing errors
+     */
+    public void recover(String since) throws IOException {
+        long before = version.get();
+        List<MarketsRecoveryMatch> recovered = MatchesClient.recoverMarkets(since);
+        applyRecovery(recovered, before);
+        logger.info("MarketBook recovered {} matches since {}", recovered != null ? recovered.size() : 0, since);
+    }
+
+    /**
+     * Connection event hook: pass it to the {@link com.pandascore.sdk.events.EventHandler}
+     * sink (or call it from yours). On reconnection the recovered markets are applied,
+     * except markets the feed has updated since the disconnection.
+     *
+     * @param event the connection event
+     */
+    public void onConnectionEvent(ConnectionEvent event) {
+        if (event.getCode() == ConnectionEvent.CODE_DISCONNECTION) {
+            disconnectedAtVersion = version.get();
+        } else if (event.getRecoveryData() != null) {
+            applyRecovery(event.getRecoveryData().getMarkets(), disconnectedAtVersion);
+        }
+    }
+
+    /**
+     * Removes a match and all its markets.
+     *
+     * @param matchId the match id
+     * @return true if the match was in the book
+     */
+    public boolean removeMatch(long matchId) {
+        return matches.remove(matchId) != null;
+    }
+
+    /**
+     * Removes every match.
+     */
+    public void clear() {
+        matches.clear();
+    }
+
+    // ========================================================================
+    // Reads
+    // ========================================================================
+
+    /**
+     * @param matchId the match id
+     * @return the current snapshot of the match, or null if the book holds no markets for it
+     */
+    public MatchSnapshot match(long matchId) {
+        return matches.get(matchId);
+    }
+
+    /**
+     * @param matchId      the match id
+     * @param gamePosition the game position, or null for a match-level market
+     * @param marketId     the market id
+     * @return the current state of the market, or null if unknown
+     */
+    public MarketSnapshot market(long matchId, Integer gamePosition, String marketId) {
+        MatchSnapshot match = matches.get(matchId);
+        return match != null ? match.marketsOf(gamePosition).get(marketId) : null;
+    }
+
+    /**
+     * @return ids of the matches currently in the book (a live, weakly consistent view)
+     */
+    public Set<Long> matchIds() {
+        return Collections.unmodifiableSet(matches.keySet());
+    }
+
+    /**
+     * @return number of matches in the book
+     */
+    public int size() {
+        return matches.size();
+    }
+
+    /**
+     * Latest {@code at} of the markets messages applied so far. Every message applied after
+     * this value is read carries the same or a later {@code at} (assuming the feed's own order),
+     * so state read after this call plus a recovery since the returned value covers the book.
+     *
+     * @return the latest applied {@code at}, or null if no message has been applied
+     */
+    public String processedAt() {
+        return processedAt.get();
+    }
+
+    /**
+     * Monotonic change counter, increased by every applied message and recovered match.
+     *
+     * @return the current version
+     */
+    public long version() {
+        return version.get();
+    }
+
+    private static MatchSnapshot recoverMarkets(MatchSnapshot match, Integer position, Long gameId,
+                                                List<MarketsMessageMarket> markets, long fetchedAtVersion, long v) {
+        Map<String, MarketSnapshot> current = match.marketsOf(position);
+        Map<String, MarketSnapshot> updated = new HashMap<>(current);
+        if (markets != null) {
+            for (MarketsMessageMarket market : markets) {
+                if (market.getId() == null) {
+                    continue;
+                }
+                MarketSnapshot previous = updated.get(market.getId());
+                if (previous != null && previous.getLastAction() != null && previous.getVersion() > fetchedAtVersion) {
+                    continue;
+                }
+                updated.put(market.getId(), MarketSnapshot.update(null, market, position, null, null, v));
+            }
+        }
+        return match.withMarkets(position, gameId, updated, v);
+    }
+
+    /**
+     * Status implied by an action whose update carries no market status.
+     *
+     * @param action the market action
+     * @return the implied status, or null if the action leaves the status unchanged
+     */
+    static String statusOf(MarketAction action) {
+        if (action == MarketAction.suspended) {
+            return "suspended";
+        }
+        if (action == MarketAction.deactivated) {
+            return "deactivated";
+        }
+        if (action == MarketAction.settled) {
+            return "settled";
+        }
+        if (action == MarketAction.rollback_settlement) {
+            // The settlement is undone, so the market trades again
+            return "active";
+        }
+        return null;
+    }
+
+    private static boolean endsMatch(FixtureAction action) {
+        return action == FixtureAction.settled || action == FixtureAction.canceled || action == FixtureAction.deleted;
+    }
+
+    // ========================================================================
+    // Snapshots
+    // ========================================================================
+
+    /**
+     * Immutable state of one match. Replaced as a whole on every update.
+     */
+    public static final class MatchSnapshot {
+        private final long matchId;
+        private final long version;
+        private final Map<String, MarketSnapshot> markets;
+        private final Map<Integer, GameSnapshot> games;
+
+        private MatchSnapshot(long matchId, long version, Map<String, MarketSnapshot> markets,
+                              Map<Integer, GameSnapshot> games) {
+            this.matchId = matchId;
+            this.version = version;
+            this.markets = markets;
+            this.games = games;
+        }
+
+        static MatchSnapshot empty(long matchId) {
+            return new MatchSnapshot(matchId, 0, Collections.emptyMap(), Collections.emptyMap());
+        }
+
+        public long getMatchId() {
+            return matchId;
+        }
+
+        /**
+         * @return the book {@link MarketBook#version() version} of the last change to this match
+         */
+        public long getVersion() {
+            return version;
+        }
+
+        /**
+         * @return match-level markets by id
+         */
+        public Map<String, MarketSnapshot> getMarkets() {
+            return markets;
+        }
+
+        /**
+         * @return games by position
+         */
+        public Map<Integer, GameSnapshot> getGames() {
+            return games;
+        }
+
+        /**
+         * @param position game position
+         * @return the game, or null if the book holds no markets for it
+         */
+        public GameSnapshot getGame(int position) {
+            return games.get(position);
+        }
+
+        Map<String, MarketSnapshot> marketsOf(Integer position) {
+            if (position == null) {
+                return markets;
+            }
+            GameSnapshot game = games.get(position);
+            return game != null ? game.markets : Collections.emptyMap();
+        }
+
+        MatchSnapshot withMarkets(Integer position, Long gameId, Map<String, MarketSnapshot> updated, long v) {
+            Map<String, MarketSnapshot> frozen = Collections.unmodifiableMap(updated);
+            if (position == null) {
+                return new MatchSnapshot(matchId, v, frozen, games);
+            }
+            GameSnapshot previous = games.get(position);
+            Long id = gameId != null ? gameId : previous != null ? previous.gameId : null;
+            Map<Integer, GameSnapshot> updatedGames = new HashMap<>(games);
+            updatedGames.put(position, new GameSnapshot(position, id, frozen));
+            return new MatchSnapshot(matchId, v, markets, Collections.unmodifiableMap(updatedGames));
+        }
+    }
+
+    /**
+     * Immutable state of one game's markets.
+     */
+    public static final class GameSnapshot {
+        private final int position;
+        private final Long gameId;
+        private final Map<String, MarketSnapshot> markets;
+
+        private GameSnapshot(int position, Long gameId, Map<String, MarketSnapshot> markets) {
+            this.position = position;
+            this.gameId = gameId;
+            this.markets = markets;
+        }
+
+        public int getPosition() {
+            return position;
+        }
+
+        /**
+         * @return the game id, known once the game has been recovered; null otherwise
+         */
+        public Long getGameId() {
+            return gameId;
+        }
+
+        /**
+         * @return markets of the game by id
+         */
+        public Map<String, MarketSnapshot> getMarkets() {
+            return markets;
+        }
+    }
+
+    /**
+     * Immutable state of one market.
+     * <p>
+     * {@link #getMarket()} is the model object of the latest update and must be treated as
+     * read-only; its selection list may be partial, use {@link #getSelections()} instead.
+     */
+    public static final class MarketSnapshot {
+        private final MarketsMessageMarket market;
+        private final Integer gamePosition;
+        private final String status;
+        private final MarketAction lastAction;
+        private final String at;
+        private final long version;
+        private final Map<String, MarketsMessageSelection> selections;
+
+        private MarketSnapshot(MarketsMessageMarket market, Integer gamePosition, String status,
+                               MarketAction lastAction, String at, long version,
+                               Map<String, MarketsMessageSelection> selections) {
+            this.market = market;
+            this.gamePosition = gamePosition;
+            this.status = status;
+            this.lastAction = lastAction;
+            this.at = at;
+            this.version = version;
+            this.selections = selections;
+        }
+
+        static MarketSnapshot update(MarketSnapshot previous, MarketsMessageMarket market, Integer gamePosition,
+                                     MarketAction action, String at, long version) {
+            Map<String, MarketsMessageSelection> selections;
+            List<MarketsMessageSelection> incoming = market.getSelections();
+            if (incoming == null || incoming.isEmpty()) {
+                selections = previous != null ? previous.selections : Collections.emptyMap();
+            } else {
+                Map<String, MarketsMessageSelection> merged = previous != null
+                    ? new LinkedHashMap<>(previous.selections)
+                    : new LinkedHashMap<>();
+                for (MarketsMessageSelection selection : incoming) {
+                    merged.put(selection.getId(), selection);
+                }
+                selections = Collections.unmodifiableMap(merged);
+            }
+            String status = market.getStatus();
+            if (status == null) {
+                status = statusOf(action);
+            }
+            if (status == null && previous != null) {
+                status = previous.status;
+            }
+            return new MarketSnapshot(market, gamePosition, status, action, at, version, selections);
+        }
+
+        public String getId() {
+            return market.getId();
+        }
+
+        /**
+         * @return the market model of the latest update (read-only)
+         */
+        public MarketsMessageMarket getMarket() {
+            return market;
+        }
+
+        /**
+         * @return the game position, or null for a match-level market
+         */
+        public Integer getGamePosition() {
+            return gamePosition;
+        }
+
+        public String getStatus() {
+            return status;
+        }
+
+        /**
+         * @return action of the latest live update, or null if the state comes from recovery
+         */
+        public MarketAction getLastAction() {
+            return lastAction;
+        }
+
+        /**
+         * @return {@code at} timestamp of the latest live update, or null if the state comes from recovery
+         */
+        public String getAt() {
+            return at;
+        }
+
+        /**
+         * @return the book {@link MarketBook#version() version} of the latest update
+         */
+        public long getVersion() {
+            return version;
+        }
+
+        /**
+         * @return a copy of every known selection of the market, in first-seen order
+         */
+        public List<MarketsMessageSelection> getSelections() {
+            return new ArrayList<>(selections.values());
+        }
+
+        /**
+         * @param selectionId the selection id
+         * @return the selection, or null if unknown
+         */
+        public MarketsMessageSelection getSelection(String selectionId) {
+            return selections.get(selectionId);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.pandascore.sdk;
+
+import com.pandascore.sdk.model.feed.markets.MarketAction;
+import com.pandascore.sdk.model.feed.markets.MarketsMessageSelection;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * What one markets update actually changed in one market: the selections whose
+ * prices or result moved, with their previous and new values, and the status change.
+ * Produced by {@link MarketDiffer}; unchanged markets produce no delta.
+ */
+public final class MarketDelta {
+
+    private final long matchId;
+    private final Integer gamePosition;
+    private final String marketId;
+    private final MarketAction action;
+    private final String at;
+    private final String previousStatus;
+    private final String status;
+    private final boolean newMarket;
+    private final List<SelectionChange> changes;
+
+    MarketDelta(long matchId, Integer gamePosition, String marketId, MarketAction action, String at,
+                String previousStatus, String status, boolean newMarket, List<SelectionChange> changes) {
+        this.matchId = matchId;
+        this.gamePosition = gamePosition;
+        this.marketId = marketId;
+        this.action = action;
+        this.at = at;
+        this.previousStatus = previousStatus;
+        this.status = status;
+        this.newMarket = newMarket;
+        this.changes = Collections.unmodifiableList(changes);
+    }
+
+    public long getMatchId() {
+        return matchId;
+    }
+
+    /**
+     * @return the game position, or null for a match-level market
+     */
+    public Integer getGamePosition() {
+        return gamePosition;
+    }
+
+    public String getMarketId() {
+        return marketId;
+    }
+
+    public MarketAction getAction() {
+        return action;
+    }
+
+    public String getAt() {
+        return at;
+    }
+
+    /**
+     * @return the status before the update, or null if the market was unknown
+     */
+    public String getPreviousStatus() {
+        return previousStatus;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public boolean isStatusChanged() {
+        return !Objects.equals(previousStatus, status);
+    }
+
+    /**
+     * @return true if the market was not known before this update
+     */
+    public boolean isNewMarket() {
+        return newMarket;
+    }
+
+    /**
+     * @return the selections that changed, in the order of the update
+     */
+    public List<SelectionChange> getChanges() {
+        return changes;
+    }
+
+    @Override
+    public String toString() {
+        return "MarketDelta{match=" + matchId + ", game=" + gamePosition + ", market=" + marketId
+            + ", action=" + action + ", status=" + previousStatus + "->" + status
+            + ", changes=" + changes.size() + "}";
+    }
+
+    /**
+     * One selection's previous and new state.
+     */
+    public static final class SelectionChange {
+        private final MarketsMessageSelection previous;
+        private final MarketsMessageSelection current;
+
+        SelectionChange(MarketsMessageSelection previous, MarketsMessageSelection current) {
+            this.previous = previous;
+            this.current = current;
+        }
+
+        public String getSelectionId() {
+            return current.getId();
+        }
+
+        /**
+         * @return the selection before the update, or null if it is new
+         */
+        public MarketsMessageSelection getPrevious() {
+            return previous;
+        }
+
+        public MarketsMessageSelection getCurrent() {
+            return current;
+        }
+
+        /**
+         * @return previous decimal odds, or null if unknown
+         */
+        public Double getPreviousOdds() {
+            return previous != null ? previous.getOddsDecimal() : null;
+        }
+
+        /**
+         * @return new decimal odds
+         */
+        public Double getOdds() {
+            return current.getOddsDecimal();
+        }
+
+        /**
+         * Whether two states of a selection differ in price, probability or result.
+         */
+        static boolean differs(MarketsMessageSelection a, MarketsMessageSelection b) {
+            return !Objects.equals(a.getOddsDecimal(), b.getOddsDecimal())
+                || !Objects.equals(a.getOddsDecimalWithOverround(), b.getOddsDecimalWithOverround())
+                || !Objects.equals(a.getOddsDecimalWithMargin(), b.getOddsDecimalWithMargin())
+                || !Objects.equals(a.getProbability(), b.getProbability())
+                || !Objects.equals(a.getProbabilityWithOverround(), b.getProbabilityWithOverround())
+                || !Objects.equals(a.getProbabilityWithMargin(), b.getProbabilityWithMargin())
+                || !Objects.equals(a.getResult(), b.getResult());
+        }
+    }
+}
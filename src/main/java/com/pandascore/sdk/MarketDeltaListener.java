@@ -0,0 +1,20 @@
+package com.pandascore.sdk;
+
+import com.pandascore.sdk.model.feed.markets.MarketsMessage;
+
+import java.util.List;
+
+/**
+ * Receives the {@link MarketDelta}s computed by a {@link MarketDiffer}.
+ */
+@FunctionalInterface
+public interface MarketDeltaListener {
+
+    /**
+     * Called once per markets message that changed at least one market.
+     *
+     * @param deltas  one delta per changed market, never empty
+     * @param message the message the deltas were computed from
+     */
+    void onMarketDeltas(List<MarketDelta> deltas, MarketsMessage message);
+}
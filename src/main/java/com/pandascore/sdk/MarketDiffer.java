@@ -0,0 +1,205 @@
+package com.pandascore.sdk;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.pandascore.sdk.events.ConnectionEvent;
+import com.pandascore.sdk.model.feed.fixtures.FixtureMessage;
+import com.pandascore.sdk.model.feed.markets.MarketsMessage;
+import com.pandascore.sdk.model.feed.markets.MarketsMessageMarket;
+import com.pandascore.sdk.model.feed.markets.MarketsMessageSelection;
+import com.pandascore.sdk.rmq.RoutingKey;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Turns the markets stream into {@link MarketDelta}s: each incoming market is compared
+ * against its last known state and only what changed is delivered.
+ * <p>
+ * A market produces a delta when its status changed or when at least one selection it
+ * carries differs from the known selection in odds, probability or result; the delta
+ * lists only those selections. Markets the update repeats unchanged are skipped, and a
+ * message that changes nothing does not reach the {@link MarketDeltaListener} at all.
+ * <p>
+ * The last known state is a {@link MarketBook} owned by the differ and readable through
+ * {@link #book()}. Recovered markets ({@link #onConnectionEvent(ConnectionEvent)}) update
+ * that state without producing deltas, and match eviction follows the book's rules.
+ * With a downstream listener every callback is forwarded after the deltas of the message
+ * have been delivered.
+ *
+ * <pre>{@code
+ * MarketDiffer differ = new MarketDiffer((deltas, message) -> reprice(deltas));
+ * EventHandler handler = new EventHandler(differ::onConnectionEvent);
+ * new RabbitMQFeed(handler).connect(differ);
+ * }</pre>
+ */
+public final class MarketDiffer implements FeedListener {
+
+    private final MarketDeltaListener deltas;
+    private final FeedListener downstream;
+    private final MarketBook book;
+
+    /**
+     * @param deltas listener receiving the deltas of every message that changed something
+     */
+    public MarketDiffer(MarketDeltaListener deltas) {
+        this(deltas, null);
+    }
+
+    /**
+     * @param deltas     listener receiving the deltas of every message that changed something
+     * @param downstream listener receiving every callback after its deltas, or null
+     */
+    public MarketDiffer(MarketDeltaListener deltas, FeedListener downstream) {
+        if (deltas == null) {
+            throw new IllegalArgumentException("deltas listener must not be null");
+        }
+        this.deltas = deltas;
+        this.downstream = downstream;
+        this.book = new MarketBook(downstream);
+    }
+
+    // ========================================================================
+    // FeedListener
+    // ========================================================================
+
+    @Override
+    public void onMarkets(MarketsMessage message) {
+        onMarkets(message, null);
+    }
+
+    @Override
+    public void onMarkets(MarketsMessage message, RoutingKey routingKey) {
+        List<MarketDelta> changed = apply(message);
+        if (!changed.isEmpty()) {
+            deltas.onMarketDeltas(changed, message);
+        }
+        if (downstream != null) {
+            downstream.onMarkets(message, routingKey);
+        }
+    }
+
+    @Override
+    public void onFixture(FixtureMessage message) {
+        onFixture(message, null);
+    }
+
+    @Override
+    public void onFixture(FixtureMessage message, RoutingKey routingKey) {
+        book.onFixture(message, routingKey);
+    }
+
+    @Override
+    public void onScoreboard(JsonNode raw, String scoreboardType) {
+        onScoreboard(raw, scoreboardType, null);
+    }
+
+    @Override
+    public void onScoreboard(JsonNode raw, String scoreboardType, RoutingKey routingKey) {
+        book.onScoreboard(raw, scoreboardType, routingKey);
+    }
+
+    @Override
+    public void onUnknown(JsonNode raw) {
+        onUnknown(raw, null);
+    }
+
+    @Override
+    public void onUnknown(JsonNode raw, RoutingKey routingKey) {
+        book.onUnknown(raw, routingKey);
+    }
+
+    /**
+     * Connection event hook, see {@link MarketBook#onConnectionEvent(ConnectionEvent)}.
+     * Recovered markets become the new baseline without producing deltas.
+     *
+     * @param event the connection event
+     */
+    public void onConnectionEvent(ConnectionEvent event) {
+        book.onConnectionEvent(event);
+    }
+
+    // ========================================================================
+    // Diffing
+    // ========================================================================
+
+    /**
+     * Applies one markets message to the known state and returns what it changed,
+     * without notifying any listener.
+     *
+     * @param message the markets message
+     * @return one delta per changed market, in message order; empty if nothing changed
+     */
+    public List<MarketDelta> apply(MarketsMessage message) {
+        Long matchId = message.getMatchId();
+        List<MarketsMessageMarket> markets = message.getMarkets();
+        if (matchId == null || markets == null || markets.isEmpty()) {
+            return Collections.emptyList();
+        }
+        // Updates of one match arrive in order on one thread, so the snapshot read before
+        // apply is exactly the state the message is applied to
+        MarketBook.MatchSnapshot before = book.match(matchId);
+        book.apply(message);
+        MarketBook.MatchSnapshot after = book.match(matchId);
+        if (after == null) {
+            return Collections.emptyList();
+        }
+
+        Integer position = message.getGamePosition();
+        Map<String, MarketBook.MarketSnapshot> previousMarkets =
+            before != null ? before.marketsOf(position) : Collections.emptyMap();
+        Map<String, MarketBook.MarketSnapshot> currentMarkets = after.marketsOf(position);
+        List<MarketDelta> result = null;
+        for (MarketsMessageMarket market : markets) {
+            if (market.getId() == null) {
+                continue;
+            }
+            MarketBook.MarketSnapshot previous = previousMarkets.get(market.getId());
+            MarketBook.MarketSnapshot current = currentMarkets.get(market.getId());
+            List<MarketDelta.SelectionChange> changes = changedSelections(previous, market);
+            String previousStatus = previous != null ? previous.getStatus() : null;
+            String status = current != null ? current.getStatus() : market.getStatus();
+            if (changes.isEmpty() && Objects.equals(previousStatus, status)) {
+                continue;
+            }
+            if (result == null) {
+                result = new ArrayList<>(markets.size());
+            }
+            result.add(new MarketDelta(matchId, position, market.getId(), message.getAction(), message.getAt(),
+                previousStatus, status, previous == null, changes));
+        }
+        return result != null ? result : Collections.emptyList();
+    }
+
+    /**
+     * @return the last known state the differ compares against
+     */
+    public MarketBook book() {
+        return book;
+    }
+
+    private static List<MarketDelta.SelectionChange> changedSelections(MarketBook.MarketSnapshot previous,
+                                                                       MarketsMessageMarket market) {
+        List<MarketsMessageSelection> incoming = market.getSelections();
+        if (incoming == null || incoming.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<MarketDelta.SelectionChange> changes = null;
+        for (MarketsMessageSelection selection : incoming) {
+            if (selection.getId() == null) {
+                continue;
+            }
+            MarketsMessageSelection known = previous != null ? previous.getSelection(selection.getId()) : null;
+            if (known != null && !MarketDelta.SelectionChange.differs(known, selection)) {
+                continue;
+            }
+            if (changes == null) {
+                changes = new ArrayList<>(incoming.size());
+            }
+            changes.add(new MarketDelta.SelectionChange(known, selection));
+        }
+        return changes != null ? changes : Collections.emptyList();
+    }
+}
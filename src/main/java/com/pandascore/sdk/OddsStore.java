@@ -0,0 +1,449 @@
+package com.pandascore.sdk;
+
+import com.pandascore.sdk.model.feed.markets.MarketsMessage;
+import com.pandascore.sdk.model.feed.markets.MarketsMessageMarket;
+import com.pandascore.sdk.model.feed.markets.MarketsMessageSelection;
+import com.pandascore.sdk.model.feed.markets.MarketsRecoveryGame;
+import com.pandascore.sdk.model.feed.markets.MarketsRecoveryMatch;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.IntConsumer;
+
+/**
+ * Compact store for the current odds and probabilities of every live selection.
+ * <p>
+ * Instead of keeping {@link MarketsMessageSelection} objects (two dozen boxed fields
+ * each) resident, every selection gets an {@code int} handle and its prices are copied
+ * into primitive {@code double} columns. Absent values are stored as {@code NaN}.
+ * Columns live in fixed-size chunks that never move, so the store grows without
+ * copying, and the garbage collector has nothing to trace inside them.
+ * <p>
+ * Reads do not allocate: look a selection's handle up once with
+ * {@link #handle(long, String)}, then read it with {@link #get(int, Column)} or copy
+ * every column at once with {@link #read(int, double[])}. Reads are optimistic (one
+ * {@link StampedLock} per chunk) and only fall back to a read lock when they race with
+ * an update of the same chunk, so a reader never sees half of a selection's update.
+ * Updates are serialized on the store.
+ * <p>
+ * A handle stays valid until its match is removed; removed handles are reused.
+ *
+ * <pre>{@code
+ * OddsStore odds = new OddsStore();
+ * feed.connect(new FeedListener() {
+ *     public void onMarkets(MarketsMessage m) { odds.apply(m); }
+ *     ...
+ * });
+ * // any thread:
+ * int h = odds.handle(matchId, selectionId);
+ * double price = h < 0 ? Double.NaN : odds.get(h, OddsStore.Column.ODDS_DECIMAL_WITH_MARGIN);
+ * }</pre>
+ */
+public final class OddsStore {
+
+    /**
+     * Price columns kept per selection.
+     */
+    public enum Column {
+        ODDS_DECIMAL,
+        ODDS_DECIMAL_WITH_OVERROUND,
+        ODDS_DECIMAL_WITH_MARGIN,
+        PROBABILITY,
+        PROBABILITY_WITH_OVERROUND,
+        PROBABILITY_WITH_MARGIN
+    }
+
+    private static final Column[] COLUMNS = Column.values();
+    private static final int CHUNK_SHIFT = 10;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    /** Maximum distinct market statuses; further ones read back as null. */
+    static final int MAX_STATUSES = 64;
+
+    // Chunk directory; only the reference array is copied when the store grows
+    private volatile Chunk[] chunks = new Chunk[0];
+    private final ConcurrentHashMap<Long, MatchIndex> matches = new ConcurrentHashMap<>();
+    // Status dictionary: code -> name (copy-on-write), name -> code (writer only)
+    private volatile String[] statusNames = new String[0];
+    private final Map<String, Integer> statusCodes = new HashMap<>();
+    // Handles released by removeMatch, reused before new rows are allocated
+    private int[] freeHandles = new int[16];
+    private int freeCount;
+    private int nextHandle;
+    private long version;
+
+    // ========================================================================
+    // Updates
+    // ========================================================================
+
+    /**
+     * Copies the prices of every selection in the message into the store.
+     * Messages without a match id are ignored, as are selections without an id.
+     *
+     * @param message the markets message
+     */
+    public synchronized void apply(MarketsMessage message) {
+        if (message.getMatchId() == null || message.getMarkets() == null) {
+            return;
+        }
+        version++;
+        String implied = MarketBook.statusOf(message.getAction());
+        for (MarketsMessageMarket market : message.getMarkets()) {
+            applyMarket(message.getMatchId(), market,
+                market.getStatus() != null ? market.getStatus() : implied, Long.MAX_VALUE);
+        }
+    }
+
+    /**
+     * Copies the prices of every recovered selection into the store.
+     *
+     * @param recovered the result of {@code MatchesClient.recoverMarkets}
+     */
+    public void applyRecovery(List<MarketsRecoveryMatch> recovered) {
+        applyRecovery(recovered, Long.MAX_VALUE);
+    }
+
+    /**
+     * Applies a recovery fetched while live updates kept flowing. Selections that received
+     * a live update after {@code fetchedAtVersion} already hold newer prices and are kept.
+     *
+     * @param recovered        the result of {@code MatchesClient.recoverMarkets}
+     * @param fetchedAtVersion {@link #version()} read before the recovery was requested
+     */
+    public synchronized void applyRecovery(List<MarketsRecoveryMatch> recovered, long fetchedAtVersion) {
+        if (recovered == null) {
+            return;
+        }
+        version++;
+        for (MarketsRecoveryMatch match : recovered) {
+            if (match.getId() == null) {
+                continue;
+            }
+            applyMarkets(match.getId(), match.getMarkets(), fetchedAtVersion);
+            if (match.getGames() != null) {
+                for (MarketsRecoveryGame game : match.getGames()) {
+                    applyMarkets(match.getId(), game.getMarkets(), fetchedAtVersion);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the version of the latest update; pass it to
+     *         {@link #applyRecovery(List, long)} for a recovery requested now
+     */
+    public synchronized long version() {
+        return version;
+    }
+
+    /**
+     * Removes every selection of a match and releases its handles for reuse.
+     *
+     * @param matchId the match id
+     * @return number of selections removed
+     */
+    public synchronized int removeMatch(long matchId) {
+        MatchIndex removed = matches.remove(matchId);
+        if (removed == null) {
+            return 0;
+        }
+        for (int handle : removed.selections.values()) {
+            Chunk chunk = chunks[handle >>> CHUNK_SHIFT];
+            long stamp = chunk.lock.writeLock();
+            try {
+                chunk.clear(handle & CHUNK_MASK);
+            } finally {
+                chunk.lock.unlockWrite(stamp);
+            }
+            if (freeCount == freeHandles.length) {
+                freeHandles = Arrays.copyOf(freeHandles, freeCount * 2);
+            }
+            freeHandles[freeCount++] = handle;
+        }
+        return removed.selections.size();
+    }
+
+    private void applyMarkets(long matchId, List<MarketsMessageMarket> markets, long fetchedAtVersion) {
+        if (markets != null) {
+            for (MarketsMessageMarket market : markets) {
+                applyMarket(matchId, market, market.getStatus(), fetchedAtVersion);
+            }
+        }
+    }
+
+    private void applyMarket(long matchId, MarketsMessageMarket market, String status, long fetchedAtVersion) {
+        if (market.getId() == null) {
+            return;
+        }
+        MatchIndex index = matches.computeIfAbsent(matchId, id -> new MatchIndex());
+        int statusCode = status != null ? statusCode(status) : -1;
+        List<MarketsMessageSelection> selections = market.getSelections();
+        if (selections == null) {
+            selections = Collections.emptyList();
+        }
+        for (MarketsMessageSelection selection : selections) {
+            if (selection.getId() == null) {
+                continue;
+            }
+            int handle = index.handleFor(market.getId(), selection.getId(), this);
+            Chunk chunk = chunks[handle >>> CHUNK_SHIFT];
+            int row = handle & CHUNK_MASK;
+            long stamp = chunk.lock.writeLock();
+            try {
+                if (newerThan(chunk.versions[row], fetchedAtVersion)) {
+                    continue;
+                }
+                chunk.versions[row] = version;
+                double[][] c = chunk.columns;
+                c[Column.ODDS_DECIMAL.ordinal()][row] = value(selection.getOddsDecimal());
+                c[Column.ODDS_DECIMAL_WITH_OVERROUND.ordinal()][row] = value(selection.getOddsDecimalWithOverround());
+                c[Column.ODDS_DECIMAL_WITH_MARGIN.ordinal()][row] = value(selection.getOddsDecimalWithMargin());
+                c[Column.PROBABILITY.ordinal()][row] = value(selection.getProbability());
+                c[Column.PROBABILITY_WITH_OVERROUND.ordinal()][row] = value(selection.getProbabilityWithOverround());
+                c[Column.PROBABILITY_WITH_MARGIN.ordinal()][row] = value(selection.getProbabilityWithMargin());
+            } finally {
+                chunk.lock.unlockWrite(stamp);
+            }
+        }
+        // The status belongs to the market: also covers selections this update omits
+        int[] known = index.markets.get(market.getId());
+        if (known != null && statusCode >= 0) {
+            for (int handle : known) {
+                updateStatus(handle, statusCode, fetchedAtVersion);
+            }
+        }
+    }
+
+    /**
+     * A row written after the recovery was fetched, by an earlier update than the current
+     * one, holds newer state than the recovery.
+     */
+    private boolean newerThan(long rowVersion, long fetchedAtVersion) {
+        return rowVersion > fetchedAtVersion && rowVersion < version;
+    }
+
+    private void updateStatus(int handle, int statusCode, long fetchedAtVersion) {
+        Chunk chunk = chunks[handle >>> CHUNK_SHIFT];
+        long stamp = chunk.lock.writeLock();
+        try {
+            if (newerThan(chunk.versions[handle & CHUNK_MASK], fetchedAtVersion)) {
+                return;
+            }
+            chunk.statuses[handle & CHUNK_MASK] = statusCode;
+            chunk.versions[handle & CHUNK_MASK] = version;
+        } finally {
+            chunk.lock.unlockWrite(stamp);
+        }
+    }
+
+    private int newHandle() {
+        return freeCount > 0 ? freeHandles[--freeCount] : allocate();
+    }
+
+    private int allocate() {
+        int handle = nextHandle++;
+        int chunkIndex = handle >>> CHUNK_SHIFT;
+        if (chunkIndex == chunks.length) {
+            Chunk[] grown = Arrays.copyOf(chunks, chunkIndex + 1);
+            grown[chunkIndex] = new Chunk();
+            chunks = grown;
+        }
+        return handle;
+    }
+
+    private int statusCode(String status) {
+        Integer code = statusCodes.get(status);
+        if (code != null) {
+            return code;
+        }
+        if (statusCodes.size() >= MAX_STATUSES) {
+            return -1;
+        }
+        int next = statusCodes.size();
+        String[] names = Arrays.copyOf(statusNames, next + 1);
+        names[next] = status;
+        statusNames = names;
+        statusCodes.put(status, next);
+        return next;
+    }
+
+    private static double value(Double d) {
+        return d != null ? d : Double.NaN;
+    }
+
+    // ========================================================================
+    // Reads
+    // ========================================================================
+
+    /**
+     * @param matchId     the match id
+     * @param selectionId the selection id
+     * @return the selection's handle, or -1 if the store holds no prices for it
+     */
+    public int handle(long matchId, String selectionId) {
+        MatchIndex index = matches.get(matchId);
+        if (index == null) {
+            return -1;
+        }
+        Integer handle = index.selections.get(selectionId);
+        return handle != null ? handle : -1;
+    }
+
+    /**
+     * Calls the consumer with the handle of every selection of a match.
+     *
+     * @param matchId  the match id
+     * @param consumer receives each handle
+     */
+    public void forEachHandle(long matchId, IntConsumer consumer) {
+        MatchIndex index = matches.get(matchId);
+        if (index != null) {
+            for (int handle : index.selections.values()) {
+                consumer.accept(handle);
+            }
+        }
+    }
+
+    /**
+     * @param handle a handle from {@link #handle(long, String)}
+     * @param column the column to read
+     * @return the value, or {@code NaN} if absent
+     */
+    public double get(int handle, Column column) {
+        Chunk chunk = chunk(handle);
+        double[] values = chunk.columns[column.ordinal()];
+        int row = handle & CHUNK_MASK;
+        long stamp = chunk.lock.tryOptimisticRead();
+        double value = values[row];
+        if (!chunk.lock.validate(stamp)) {
+            stamp = chunk.lock.readLock();
+            try {
+                value = values[row];
+            } finally {
+                chunk.lock.unlockRead(stamp);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Copies every column of a selection, all from the same update, into {@code into}
+     * (indexed by {@link Column#ordinal()}).
+     *
+     * @param handle a handle from {@link #handle(long, String)}
+     * @param into   destination with at least {@code Column.values().length} elements
+     * @return the store version of the update that was read
+     */
+    public long read(int handle, double[] into) {
+        Chunk chunk = chunk(handle);
+        int row = handle & CHUNK_MASK;
+        long stamp = chunk.lock.tryOptimisticRead();
+        long v = chunk.copyRow(row, into);
+        if (!chunk.lock.validate(stamp)) {
+            stamp = chunk.lock.readLock();
+            try {
+                v = chunk.copyRow(row, into);
+            } finally {
+                chunk.lock.unlockRead(stamp);
+            }
+        }
+        return v;
+    }
+
+    /**
+     * @param handle a handle from {@link #handle(long, String)}
+     * @return the status of the selection's market, or null if unknown
+     */
+    public String status(int handle) {
+        Chunk chunk = chunk(handle);
+        int row = handle & CHUNK_MASK;
+        long stamp = chunk.lock.tryOptimisticRead();
+        int code = chunk.statuses[row];
+        if (!chunk.lock.validate(stamp)) {
+            stamp = chunk.lock.readLock();
+            try {
+                code = chunk.statuses[row];
+            } finally {
+                chunk.lock.unlockRead(stamp);
+            }
+        }
+        String[] names = statusNames;
+        return code >= 0 && code < names.length ? names[code] : null;
+    }
+
+    /**
+     * @return number of selections in the store
+     */
+    public int size() {
+        int n = 0;
+        for (MatchIndex index : matches.values()) {
+            n += index.selections.size();
+        }
+        return n;
+    }
+
+    private Chunk chunk(int handle) {
+        Chunk[] current = chunks;
+        int index = handle >>> CHUNK_SHIFT;
+        if (handle < 0 || index >= current.length) {
+            throw new IllegalArgumentException("Unknown handle " + handle);
+        }
+        return current[index];
+    }
+
+    /** Handles of one match's selections. */
+    private static final class MatchIndex {
+        // selectionId -> handle, read by any thread
+        private final ConcurrentHashMap<String, Integer> selections = new ConcurrentHashMap<>();
+        // marketId -> handles of its selections, writer only
+        private final Map<String, int[]> markets = new HashMap<>();
+
+        int handleFor(String marketId, String selectionId, OddsStore store) {
+            Integer existing = selections.get(selectionId);
+            if (existing != null) {
+                return existing;
+            }
+            int handle = store.newHandle();
+            selections.put(selectionId, handle);
+            int[] known = markets.get(marketId);
+            int[] grown = known == null ? new int[1] : Arrays.copyOf(known, known.length + 1);
+            grown[grown.length - 1] = handle;
+            markets.put(marketId, grown);
+            return handle;
+        }
+    }
+
+    /** A fixed block of rows with its own lock. */
+    private static final class Chunk {
+        private final StampedLock lock = new StampedLock();
+        private final double[][] columns = new double[COLUMNS.length][CHUNK_SIZE];
+        private final long[] versions = new long[CHUNK_SIZE];
+        private final int[] statuses = new int[CHUNK_SIZE];
+
+        Chunk() {
+            for (int row = 0; row < CHUNK_SIZE; row++) {
+                clear(row);
+            }
+        }
+
+        void clear(int row) {
+            for (double[] column : columns) {
+                column[row] = Double.NaN;
+            }
+            versions[row] = 0;
+            statuses[row] = -1;
+        }
+
+        long copyRow(int row, double[] into) {
+            for (int i = 0; i < columns.length; i++) {
+                into[i] = columns[i][row];
+            }
+            return versions[row];
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.pandascore.sdk;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.pandascore.sdk.rmq.RoutingKey;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * An undecoded feed message: the raw AMQP body together with the top-level
+ * fields needed to route it, read with a streaming parser.
+ * <p>
+ * {@link com.pandascore.sdk.rmq.RabbitMQFeed} hands these to a
+ * {@link TypedFeedAdapter} instead of a {@code JsonNode}, so markets and
+ * fixture messages are deserialized straight from the bytes in a single pass
+ * rather than being materialized as a tree first.
+ */
+public final class RawFeedMessage {
+
+    private static final JsonFactory factory = new JsonFactory();
+
+    private final byte[] body;
+    private final String type;
+    private final Long matchId;
+    private final String scoreboardType;
+    private final boolean heartbeat;
+    private final RoutingKey routingKey;
+
+    private RawFeedMessage(byte[] body, String type, Long matchId, String scoreboardType,
+                           boolean heartbeat, RoutingKey routingKey) {
+        this.body = body;
+        this.type = type;
+        this.matchId = matchId;
+        this.scoreboardType = scoreboardType;
+        this.heartbeat = heartbeat;
+        this.routingKey = routingKey;
+    }
+
+    /**
+     * Scans the top-level fields of a JSON object for {@code type}, {@code match_id},
+     * {@code scoreboard_type} and {@code at} without building a tree. Nested objects and
+     * arrays are skipped, and the scan stops as soon as both {@code type} and
+     * {@code match_id} (plus {@code scoreboard_type} for scoreboards) are found.
+     *
+     * @param body the raw message body
+     * @return the peeked message, still holding a reference to {@code body}
+     * @throws IOException if the body is not a well-formed JSON object
+     */
+    public static RawFeedMessage peek(byte[] body) throws IOException {
+        return peek(body, null);
+    }
+
+    /**
+     * Same as {@link #peek(byte[])}, attaching the routing key the message was delivered with.
+     *
+     * @param body       the raw message body
+     * @param routingKey the parsed routing key, or null for non-business keys
+     * @return the peeked message
+     * @throws IOException if the body is not a well-formed JSON object
+     */
+    public static RawFeedMessage peek(byte[] body, RoutingKey routingKey) throws IOException {
+        String type = null;
+        Long matchId = null;
+        String scoreboardType = null;
+        boolean hasType = false;
+        boolean hasAt = false;
+        try (JsonParser p = factory.createParser(body)) {
+            if (p.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Feed message is not a JSON object");
+            }
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String field = p.currentName();
+                JsonToken value = p.nextToken();
+                if ("type".equals(field)) {
+                    hasType = true;
+                    // Mirrors JsonNode.asText(): scalars as text, containers as ""
+                    type = value.isScalarValue() ? p.getText() : "";
+                } else if ("match_id".equals(field)) {
+                    matchId = value == JsonToken.VALUE_NUMBER_INT ? p.getLongValue() : null;
+                } else if ("scoreboard_type".equals(field)) {
+                    scoreboardType = value.isScalarValue() ? p.getText() : "";
+                } else if ("at".equals(field)) {
+                    hasAt = true;
+                }
+                if (hasType && matchId != null && (scoreboardType != null || !"scoreboard".equals(type))) {
+                    break;
+                }
+                p.skipChildren();
+            }
+        }
+        // Heartbeats have an "at" field but no "type" field (see RabbitMQFeed.isHeartbeatMessage)
+        return new RawFeedMessage(body, type, matchId, scoreboardType, hasAt && !hasType, routingKey);
+    }
+
+    /**
+     * @return the raw message body; callers must not modify it
+     */
+    public byte[] getBody() {
+        return body;
+    }
+
+    /**
+     * @return the top-level {@code type} field, or null if absent
+     */
+    public String getType() {
+        return type;
+    }
+
+    /**
+     * @return the top-level {@code match_id} field, or null if absent or not an integer
+     */
+    public Long getMatchId() {
+        return matchId;
+    }
+
+    /**
+     * @return the top-level {@code scoreboard_type} field, or null if absent
+     */
+    public String getScoreboardType() {
+        return scoreboardType;
+    }
+
+    /**
+     * @return true if the message has an {@code at} field but no {@code type} field
+     */
+    public boolean isHeartbeat() {
+        return heartbeat;
+    }
+
+    /**
+     * @return the routing key the message was delivered with, or null if unknown
+     */
+    public RoutingKey getRoutingKey() {
+        return routingKey;
+    }
+
+    /**
+     * Returns the body decoded as UTF-8. Only evaluated when actually logged.
+     */
+    @Override
+    public String toString() {
+        return new String(body, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,177 @@
+package com.pandascore.sdk;
+
+import com.pandascore.sdk.rmq.RoutingKey;
+
+import java.util.function.Function;
+
+/**
+ * Predicate on the AMQP routing key, evaluated before the message body is parsed.
+ * <p>
+ * Business routing keys have the format
+ * {@code {version}.{videogame_slug}.{event_type}.{event_id}.{type}.{action}}.
+ * Messages whose key is rejected are acknowledged and dropped immediately, so
+ * unwanted traffic costs no JSON parsing and never reaches the sink. Keys that
+ * are not in the business format (such as heartbeats) bypass the filter.
+ * <p>
+ * The feed evaluates filters on the already parsed {@link RoutingKey} through
+ * {@link #accept(RoutingKey)}; the built-in filters and their combinations compare the
+ * parsed segments there instead of scanning the key again. A lambda only implements
+ * {@link #accept(String)}, which the default overload calls with the full key.
+ * <p>
+ * Set it globally via {@code SDKOptions.routingKeyFilter}:
+ *
+ * <pre>{@code
+ * SDKOptions.builder()
+ *     // ...
+ *     .routingKeyFilter(RoutingKeyFilter.videogames("cs-go", "dota-2")
+ *         .and(RoutingKeyFilter.types("fixture")))
+ *     .build();
+ * }</pre>
+ */
+@FunctionalInterface
+public interface RoutingKeyFilter {
+
+    /**
+     * @param routingKey the business routing key of the delivery
+     * @return true to process the message, false to ack and drop it
+     */
+    boolean accept(String routingKey);
+
+    /**
+     * @param routingKey the parsed business routing key of the delivery
+     * @return true to process the message, false to ack and drop it
+     */
+    default boolean accept(RoutingKey routingKey) {
+        return accept(routingKey.toString());
+    }
+
+    /**
+     * @param other filter that must also accept
+     * @return a filter accepting keys accepted by both filters
+     */
+    default RoutingKeyFilter and(RoutingKeyFilter other) {
+        return new RoutingKeyFilter() {
+            @Override
+            public boolean accept(String routingKey) {
+                return RoutingKeyFilter.this.accept(routingKey) && other.accept(routingKey);
+            }
+
+            @Override
+            public boolean accept(RoutingKey routingKey) {
+                return RoutingKeyFilter.this.accept(routingKey) && other.accept(routingKey);
+            }
+        };
+    }
+
+    /**
+     * @param other alternative filter
+     * @return a filter accepting keys accepted by either filter
+     */
+    default RoutingKeyFilter or(RoutingKeyFilter other) {
+        return new RoutingKeyFilter() {
+            @Override
+            public boolean accept(String routingKey) {
+                return RoutingKeyFilter.this.accept(routingKey) || other.accept(routingKey);
+            }
+
+            @Override
+            public boolean accept(RoutingKey routingKey) {
+                return RoutingKeyFilter.this.accept(routingKey) || other.accept(routingKey);
+            }
+        };
+    }
+
+    /**
+     * @return a filter accepting exactly the keys this filter rejects
+     */
+    default RoutingKeyFilter negate() {
+        return new RoutingKeyFilter() {
+            @Override
+            public boolean accept(String routingKey) {
+                return !RoutingKeyFilter.this.accept(routingKey);
+            }
+
+            @Override
+            public boolean accept(RoutingKey routingKey) {
+                return !RoutingKeyFilter.this.accept(routingKey);
+            }
+        };
+    }
+
+    /**
+     * Accepts messages for the given videogames.
+     *
+     * @param slugs videogame slugs as they appear in the routing key (e.g. {@code "cs-go"})
+     * @return filter on the {@code videogame_slug} segment
+     */
+    static RoutingKeyFilter videogames(String... slugs) {
+        return segmentIn(5, RoutingKey::videogame, slugs);
+    }
+
+    /**
+     * Accepts messages for the given event types.
+     *
+     * @param eventTypes event types as they appear in the routing key (e.g. {@code "match"})
+     * @return filter on the {@code event_type} segment
+     */
+    static RoutingKeyFilter eventTypes(String... eventTypes) {
+        return segmentIn(4, RoutingKey::eventType, eventTypes);
+    }
+
+    /**
+     * Accepts messages of the given types.
+     *
+     * @param types message types (e.g. {@code "markets"}, {@code "fixture"}, {@code "scoreboard"})
+     * @return filter on the {@code type} segment
+     */
+    static RoutingKeyFilter types(String... types) {
+        return segmentIn(2, RoutingKey::type, types);
+    }
+
+    /**
+     * Accepts messages with the given actions.
+     *
+     * @param actions actions as they appear in the routing key (e.g. {@code "odds_changed"})
+     * @return filter on the {@code action} segment
+     */
+    static RoutingKeyFilter actions(String... actions) {
+        return segmentIn(1, RoutingKey::action, actions);
+    }
+
+    private static RoutingKeyFilter segmentIn(int fromEnd, Function<RoutingKey, String> segment, String... values) {
+        String[] allowed = values.clone();
+        return new RoutingKeyFilter() {
+            @Override
+            public boolean accept(String rk) {
+                // Walk back over the dots and compare in place instead of splitting the key
+                int end = rk.length();
+                for (int i = 1; i < fromEnd; i++) {
+                    end = rk.lastIndexOf('.', end - 1);
+                    if (end < 0) {
+                        return false;
+                    }
+                }
+                int start = rk.lastIndexOf('.', end - 1) + 1;
+                int len = end - start;
+                for (String value : allowed) {
+                    if (value.length() == len && rk.regionMatches(start, value, 0, len)) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+
+            @Override
+            public boolean accept(RoutingKey routingKey) {
+                // Segments are resolved once per key and shared, so this is a plain comparison
+                String value = segment.apply(routingKey);
+                for (String candidate : allowed) {
+                    if (candidate.equals(value)) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+        };
+    }
+}
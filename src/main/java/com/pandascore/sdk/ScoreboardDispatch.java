@@ -0,0 +1,160 @@
+package com.pandascore.sdk;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+import com.pandascore.sdk.config.JsonMapperFactory;
+import com.pandascore.sdk.model.feed.scoreboard.ScoreboardCs;
+import com.pandascore.sdk.model.feed.scoreboard.ScoreboardDota2;
+import com.pandascore.sdk.model.feed.scoreboard.ScoreboardEbasketball;
+import com.pandascore.sdk.model.feed.scoreboard.ScoreboardEhockey;
+import com.pandascore.sdk.model.feed.scoreboard.ScoreboardEsoccer;
+import com.pandascore.sdk.model.feed.scoreboard.ScoreboardEtennis;
+import com.pandascore.sdk.model.feed.scoreboard.ScoreboardLol;
+import com.pandascore.sdk.model.feed.scoreboard.ScoreboardValorant;
+import com.pandascore.sdk.rmq.RoutingKey;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Precomputed {@code scoreboard_type} &rarr; model dispatch table for the typed
+ * {@code FeedListener.onScoreboard(ScoreboardXxx)} callbacks.
+ * <p>
+ * Each entry holds a reader bound to the model class (snake_case names, {@code Optional}
+ * support) and a direct call to the matching listener overload. Which overloads a
+ * listener class overrides is resolved once per class, so a listener that does not
+ * override the typed callback of a scoreboard type never pays for decoding it.
+ */
+final class ScoreboardDispatch {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScoreboardDispatch.class);
+
+    private static final ObjectMapper mapper = JsonMapperFactory.create()
+        .registerModule(new Jdk8Module())
+        .setPropertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE);
+
+    private static final Map<String, Entry> TABLE;
+
+    static {
+        Map<String, Entry> table = new HashMap<>();
+        register(table, 0, "cs", ScoreboardCs.class, (l, s) -> l.onScoreboard((ScoreboardCs) s));
+        register(table, 1, "lol", ScoreboardLol.class, (l, s) -> l.onScoreboard((ScoreboardLol) s));
+        register(table, 2, "dota2", ScoreboardDota2.class, (l, s) -> l.onScoreboard((ScoreboardDota2) s));
+        register(table, 3, "valorant", ScoreboardValorant.class, (l, s) -> l.onScoreboard((ScoreboardValorant) s));
+        register(table, 4, "esoccer", ScoreboardEsoccer.class, (l, s) -> l.onScoreboard((ScoreboardEsoccer) s));
+        register(table, 5, "ebasketball", ScoreboardEbasketball.class, (l, s) -> l.onScoreboard((ScoreboardEbasketball) s));
+        register(table, 6, "ehockey", ScoreboardEhockey.class, (l, s) -> l.onScoreboard((ScoreboardEhockey) s));
+        register(table, 7, "etennis", ScoreboardEtennis.class, (l, s) -> l.onScoreboard((ScoreboardEtennis) s));
+        TABLE = Collections.unmodifiableMap(table);
+    }
+
+    private static final ClassValue<Overrides> OVERRIDES = new ClassValue<Overrides>() {
+        @Override
+        protected Overrides computeValue(Class<?> type) {
+            return new Overrides(type);
+        }
+    };
+
+    private ScoreboardDispatch() {
+    }
+
+    private static void register(Map<String, Entry> table, int index, String type, Class<?> model,
+                                 BiConsumer<FeedListener, Object> invoker) {
+        table.put(type, new Entry(index, model, mapper.readerFor(model), invoker));
+    }
+
+    /**
+     * @param scoreboardType the {@code scoreboard_type} value
+     * @return the table entry, or null if the type has no model
+     */
+    static Entry entry(String scoreboardType) {
+        return scoreboardType != null ? TABLE.get(scoreboardType) : null;
+    }
+
+    /**
+     * @return whether the listener's class overrides the typed callback of this entry
+     */
+    static boolean wantsTyped(FeedListener listener, Entry entry) {
+        return entry != null && OVERRIDES.get(listener.getClass()).typed[entry.index];
+    }
+
+    /**
+     * @return whether the listener's class overrides either raw {@code onScoreboard} callback
+     */
+    static boolean wantsRaw(FeedListener listener) {
+        return OVERRIDES.get(listener.getClass()).raw;
+    }
+
+    /**
+     * Default behaviour of the raw callback: decodes the tree for a listener that only
+     * overrides the typed callback, e.g. when a decorating listener forwards raw scoreboards.
+     */
+    static void fromTree(FeedListener listener, JsonNode raw, String scoreboardType) {
+        Entry entry = entry(scoreboardType);
+        if (!wantsTyped(listener, entry)) {
+            return;
+        }
+        try {
+            entry.invoke(listener, entry.read(raw));
+        } catch (IOException e) {
+            logger.error("Failed to deserialize '{}' scoreboard", scoreboardType, e);
+        }
+    }
+
+    /** One scoreboard type: its model, reader and listener overload. */
+    static final class Entry {
+        private final int index;
+        private final Class<?> model;
+        private final ObjectReader reader;
+        private final BiConsumer<FeedListener, Object> invoker;
+
+        Entry(int index, Class<?> model, ObjectReader reader, BiConsumer<FeedListener, Object> invoker) {
+            this.index = index;
+            this.model = model;
+            this.reader = reader;
+            this.invoker = invoker;
+        }
+
+        Object read(byte[] body) throws IOException {
+            return reader.readValue(body);
+        }
+
+        Object read(JsonNode tree) throws IOException {
+            return reader.readValue(tree);
+        }
+
+        void invoke(FeedListener listener, Object scoreboard) {
+            invoker.accept(listener, scoreboard);
+        }
+    }
+
+    /** Which scoreboard callbacks a listener class overrides. */
+    private static final class Overrides {
+        private final boolean[] typed = new boolean[TABLE.size()];
+        private final boolean raw;
+
+        Overrides(Class<?> type) {
+            for (Entry entry : TABLE.values()) {
+                typed[entry.index] = overrides(type, entry.model);
+            }
+            raw = overrides(type, JsonNode.class, String.class)
+                || overrides(type, JsonNode.class, String.class, RoutingKey.class);
+        }
+
+        private static boolean overrides(Class<?> type, Class<?>... parameters) {
+            try {
+                return type.getMethod("onScoreboard", parameters).getDeclaringClass() != FeedListener.class;
+            } catch (NoSuchMethodException e) {
+                return false;
+            }
+        }
+    }
+}
@@ -0,0 +1,347 @@
+package com.pandascore.sdk;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import com.pandascore.sdk.config.JsonMapperFactory;
+import com.pandascore.sdk.http.MatchesClient;
+import com.pandascore.sdk.model.feed.fixtures.FixtureMatch;
+import com.pandascore.sdk.model.feed.markets.MarketsMessageMarket;
+import com.pandascore.sdk.model.feed.markets.MarketsRecoveryGame;
+import com.pandascore.sdk.model.feed.markets.MarketsRecoveryMatch;
+import lombok.Data;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Checkpoints {@link MarketBook} and {@link FixtureRegistry} state to a memory-mapped
+ * snapshot file for a warm restart.
+ * <p>
+ * A checkpoint stores every market (with its merged selections and status) and every
+ * registered match, together with the latest {@code at} the book has processed. On startup
+ * {@link #warmStart()} restores the file and recovers only what changed since that
+ * {@code at}, instead of a wide {@link MatchesClient#recoverMarkets(String)} window.
+ * <p>
+ * The file is written to a sibling temporary file through a mapped buffer, forced to disk
+ * and then renamed over the previous checkpoint, so a crash leaves either the old or the new
+ * checkpoint, never a torn one. A header with a magic number, format version and CRC32 of
+ * the contents rejects foreign or damaged files; {@link #restore()} then returns null and the
+ * caller falls back to a cold start.
+ *
+ * <pre>{@code
+ * MarketBook book = new MarketBook(myListener);
+ * FixtureRegistry fixtures = new FixtureRegistry(book);
+ * StateCheckpoint checkpoint = new StateCheckpoint(Paths.get("/var/lib/feed/state.snap"), book, fixtures);
+ * checkpoint.warmStart();                  // before connecting
+ * checkpoint.start(Duration.ofSeconds(30)); // periodic checkpoints
+ * feed.connect(fixtures);
+ * }</pre>
+ */
+public final class StateCheckpoint implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(StateCheckpoint.class);
+
+    /** "PSCK" */
+    static final int MAGIC = 0x5053434B;
+    static final int FORMAT_VERSION = 1;
+    // magic, format version, written-at millis, payload length, CRC32 of at and payload, at length
+    static final int HEADER_BYTES = 4 + 4 + 8 + 4 + 8 + 4;
+
+    private static final ObjectMapper mapper = JsonMapperFactory.create();
+    private static final ObjectReader stateReader = mapper.readerFor(State.class);
+
+    private final Path file;
+    private final MarketBook book;
+    private final FixtureRegistry fixtures;
+    private ScheduledExecutorService scheduler;
+    // Latest at known to be covered by the book, carried over from the restored checkpoint
+    private volatile String restoredAt;
+
+    /**
+     * @param file     the snapshot file
+     * @param book     the market state to checkpoint, or null
+     * @param fixtures the fixture state to checkpoint, or null
+     */
+    public StateCheckpoint(Path file, MarketBook book, FixtureRegistry fixtures) {
+        if (file == null) {
+            throw new IllegalArgumentException("file must not be null");
+        }
+        this.file = file;
+        this.book = book;
+        this.fixtures = fixtures;
+    }
+
+    // ========================================================================
+    // Checkpointing
+    // ========================================================================
+
+    /**
+     * Writes a checkpoint of the current state. Safe to call while updates are applied:
+     * every match is written as one consistent snapshot, and the checkpoint's {@code at} is
+     * the book's {@link MarketBook#processedAt()} read before any state, so an update that
+     * lands while the matches are written is either in the file or recovered on warm start.
+     *
+     * @return the {@code at} the checkpoint covers
+     * @throws IOException if the file cannot be written
+     */
+    public synchronized String write() throws IOException {
+        State state = capture();
+        byte[] at = state.at.getBytes(StandardCharsets.UTF_8);
+        byte[] payload = mapper.writeValueAsBytes(state);
+        CRC32 crc = new CRC32();
+        crc.update(at, 0, at.length);
+        crc.update(payload, 0, payload.length);
+
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                (long) HEADER_BYTES + at.length + payload.length);
+            buffer.putInt(MAGIC)
+                .putInt(FORMAT_VERSION)
+                .putLong(System.currentTimeMillis())
+                .putInt(payload.length)
+                .putLong(crc.getValue())
+                .putInt(at.length)
+                .put(at)
+                .put(payload);
+            buffer.force();
+        }
+        try {
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+        logger.debug("Checkpoint written to {}: {} matches, {} fixtures, at {}", file,
+            state.markets.size(), state.fixtures.size(), state.at);
+        return state.at;
+    }
+
+    /**
+     * Writes a checkpoint every {@code interval} on a daemon thread until {@link #close()}.
+     *
+     * @param interval time between checkpoints
+     */
+    public synchronized void start(Duration interval) {
+        if (scheduler != null) {
+            throw new IllegalStateException("checkpointing already started");
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "state-checkpoint");
+            t.setDaemon(true);
+            return t;
+        });
+        long millis = interval.toMillis();
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                write();
+            } catch (Exception e) {
+                logger.error("Failed to write checkpoint to {}", file, e);
+            }
+        }, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops periodic checkpoints and writes a final one.
+     *
+     * @throws IOException if the final checkpoint cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+        ScheduledExecutorService s;
+        synchronized (this) {
+            s = scheduler;
+            scheduler = null;
+        }
+        if (s != null) {
+            s.shutdown();
+            try {
+                s.awaitTermination(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        write();
+    }
+
+    // ========================================================================
+    // Restore
+    // ========================================================================
+
+    /**
+     * Loads the checkpoint into the book and the registry.
+     *
+     * @return the {@code at} the checkpoint covers, or null if there is no usable checkpoint
+     * @throws IOException if the file exists but cannot be read
+     */
+    public String restore() throws IOException {
+        State state;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            state = decode(buffer);
+        } catch (NoSuchFileException e) {
+            logger.info("No checkpoint at {}", file);
+            return null;
+        }
+        if (state == null) {
+            logger.warn("Ignoring invalid checkpoint at {}", file);
+            return null;
+        }
+        if (book != null && state.markets != null) {
+            book.applyRecovery(state.markets);
+        }
+        if (fixtures != null && state.fixtures != null) {
+            for (FixtureState fixture : state.fixtures) {
+                fixtures.restore(fixture.match, fixture.status);
+            }
+        }
+        restoredAt = state.at;
+        logger.info("Restored checkpoint from {}: {} matches, {} fixtures, at {}", file,
+            state.markets != null ? state.markets.size() : 0,
+            state.fixtures != null ? state.fixtures.size() : 0, state.at);
+        return state.at;
+    }
+
+    /**
+     * Restores the checkpoint and recovers markets and matches changed since it.
+     *
+     * @return true if a checkpoint was restored; false means a cold start is needed
+     * @throws IOException on read, network or parsing errors
+     */
+    public boolean warmStart() throws IOException {
+        String at = restore();
+        if (at == null) {
+            return false;
+        }
+        if (book != null) {
+            book.recover(at);
+        }
+        if (fixtures != null) {
+            fixtures.putAll(MatchesClient.fetchMatchesRange(at, Instant.now().toString()));
+        }
+        return true;
+    }
+
+    static State decode(ByteBuffer buffer) throws IOException {
+        if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+            return null;
+        }
+        buffer.getLong();
+        int payloadLength = buffer.getInt();
+        long expectedCrc = buffer.getLong();
+        int atLength = buffer.getInt();
+        if (atLength < 0 || payloadLength < 0 || buffer.remaining() != atLength + payloadLength) {
+            return null;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.duplicate());
+        if (crc.getValue() != expectedCrc) {
+            return null;
+        }
+        buffer.position(buffer.position() + atLength);
+        ByteBuffer payload = buffer.slice();
+        return stateReader.readValue(new ByteBufferBackedInputStream(payload));
+    }
+
+    // ========================================================================
+    // Capture
+    // ========================================================================
+
+    private State capture() {
+        State state = new State();
+        state.markets = new ArrayList<>();
+        state.fixtures = new ArrayList<>();
+        // Read the mark first: everything applied afterwards is recovered since it
+        String at = book != null ? book.processedAt() : null;
+        if (at == null) {
+            at = restoredAt;
+        }
+        if (at == null) {
+            // Nothing processed yet: the state read below is complete as of now
+            at = Instant.now().toString();
+        }
+        if (book != null) {
+            for (Long matchId : book.matchIds()) {
+                MarketBook.MatchSnapshot match = book.match(matchId);
+                if (match == null) {
+                    continue;
+                }
+                MarketsRecoveryMatch recovered = new MarketsRecoveryMatch();
+                recovered.setId(matchId);
+                recovered.setMarkets(markets(match.getMarkets()));
+                List<MarketsRecoveryGame> games = new ArrayList<>(match.getGames().size());
+                for (MarketBook.GameSnapshot game : match.getGames().values()) {
+                    MarketsRecoveryGame g = new MarketsRecoveryGame();
+                    g.setId(game.getGameId());
+                    g.setPosition(game.getPosition());
+                    g.setMarkets(markets(game.getMarkets()));
+                    games.add(g);
+                }
+                recovered.setGames(games);
+                state.markets.add(recovered);
+            }
+        }
+        if (fixtures != null) {
+            for (FixtureMatch match : fixtures.all()) {
+                FixtureState fixture = new FixtureState();
+                fixture.match = match;
+                fixture.status = fixtures.status(match.getId());
+                state.fixtures.add(fixture);
+            }
+        }
+        state.at = at;
+        return state;
+    }
+
+    private static List<MarketsMessageMarket> markets(Map<String, MarketBook.MarketSnapshot> snapshots) {
+        List<MarketsMessageMarket> result = new ArrayList<>(snapshots.size());
+        for (MarketBook.MarketSnapshot snapshot : snapshots.values()) {
+            // The latest update may carry only some selections and no status: write the merged state
+            MarketsMessageMarket market = mapper.convertValue(snapshot.getMarket(), MarketsMessageMarket.class);
+            market.setStatus(snapshot.getStatus());
+            market.setSelections(snapshot.getSelections());
+            result.add(market);
+        }
+        return result;
+    }
+
+    // ========================================================================
+    // Payload
+    // ========================================================================
+
+    /** Checkpoint payload. */
+    @Data
+    static final class State {
+        private String at;
+        private List<MarketsRecoveryMatch> markets;
+        private List<FixtureState> fixtures;
+    }
+
+    /** A registered match with the status the registry tracked for it. */
+    @Data
+    static final class FixtureState {
+        private FixtureMatch match;
+        private String status;
+    }
+}
@@ -2,12 +2,17 @@ package com.pandascore.sdk;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.pandascore.sdk.config.JsonMapperFactory;
+import com.pandascore.sdk.metrics.FeedMetrics;
 import com.pandascore.sdk.model.feed.fixtures.FixtureMessage;
 import com.pandascore.sdk.model.feed.markets.MarketsMessage;
+import com.pandascore.sdk.rmq.RoutingKey;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.function.Consumer;
 
 /**
@@ -17,59 +22,239 @@ import java.util.function.Consumer;
  * Inspects the {@code type} field of each incoming JSON message,
  * deserializes it to the appropriate model class, and dispatches
  * to the corresponding listener method.
+ * <p>
+ * When fed a {@link RawFeedMessage} (as {@link com.pandascore.sdk.rmq.RabbitMQFeed}
+ * does for typed listeners), markets and fixture messages are deserialized
+ * directly from the body bytes without an intermediate {@code JsonNode}, and the
+ * listener's routing-key overloads receive the delivery's {@link RoutingKey}.
+ * <p>
+ * Scoreboards are routed by {@code scoreboard_type} to the typed
+ * {@code onScoreboard(ScoreboardXxx)} overload the listener overrides, decoded straight
+ * into that model; the raw {@code onScoreboard(JsonNode, ...)} callback is only called
+ * (and a tree only built) when the listener overrides it.
+ * <p>
+ * With {@link FeedMetrics}, decoding and listener time are recorded separately, in
+ * {@code decodeNanos} and {@code listenerNanos}. {@code RabbitMQFeed} attaches its
+ * connection's metrics to the adapter it is given.
  */
 public final class TypedFeedAdapter implements Consumer<Object> {
 
     private static final Logger logger = LoggerFactory.getLogger(TypedFeedAdapter.class);
     private static final ObjectMapper mapper = JsonMapperFactory.create();
+    private static final ObjectReader marketsReader = mapper.readerFor(MarketsMessage.class);
+    private static final ObjectReader fixtureReader = mapper.readerFor(FixtureMessage.class);
 
     private final FeedListener listener;
+    // Null when not recording
+    private final FeedMetrics metrics;
 
     /**
      * @param listener the typed listener to dispatch to
      */
     public TypedFeedAdapter(FeedListener listener) {
+        this(listener, null);
+    }
+
+    /**
+     * @param listener the typed listener to dispatch to
+     * @param metrics  metrics to record decode and listener time into, or null
+     */
+    public TypedFeedAdapter(FeedListener listener, FeedMetrics metrics) {
         if (listener == null) {
             throw new IllegalArgumentException("FeedListener must not be null");
         }
         this.listener = listener;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Returns an adapter for the same listener that records into the given metrics.
+     *
+     * @param metrics metrics to record into, or null
+     * @return this adapter if it already records into {@code metrics}, otherwise a new one
+     */
+    public TypedFeedAdapter withMetrics(FeedMetrics metrics) {
+        return metrics == this.metrics ? this : new TypedFeedAdapter(listener, metrics);
     }
 
     @Override
     public void accept(Object message) {
+        if (message instanceof RawFeedMessage) {
+            acceptRaw((RawFeedMessage) message);
+            return;
+        }
         if (!(message instanceof JsonNode)) {
             logger.warn("Unexpected message type: {}", message.getClass().getName());
             return;
         }
-        JsonNode json = (JsonNode) message;
+        dispatch((JsonNode) message, null);
+    }
+
+    private void dispatch(JsonNode json, RoutingKey routingKey) {
         String type = json.has("type") ? json.get("type").asText() : null;
 
         if (type == null) {
-            listener.onUnknown(json);
+            listener.onUnknown(json, routingKey);
             return;
         }
 
+        long start = start();
         try {
             switch (type) {
                 case "markets":
-                    listener.onMarkets(mapper.treeToValue(json, MarketsMessage.class));
+                    MarketsMessage markets = mapper.treeToValue(json, MarketsMessage.class);
+                    start = decoded(start);
+                    listener.onMarkets(markets, routingKey);
                     break;
                 case "fixture":
-                    listener.onFixture(mapper.treeToValue(json, FixtureMessage.class));
+                    FixtureMessage fixture = mapper.treeToValue(json, FixtureMessage.class);
+                    start = decoded(start);
+                    listener.onFixture(fixture, routingKey);
                     break;
                 case "scoreboard":
                     String scoreboardType = json.has("scoreboard_type")
                         ? json.get("scoreboard_type").asText()
                         : "unknown";
-                    listener.onScoreboard(json, scoreboardType);
+                    ScoreboardDispatch.Entry entry = ScoreboardDispatch.entry(scoreboardType);
+                    boolean wantsRaw = ScoreboardDispatch.wantsRaw(listener);
+                    if (ScoreboardDispatch.wantsTyped(listener, entry)) {
+                        Object scoreboard = null;
+                        try {
+                            scoreboard = entry.read(json);
+                        } catch (Exception e) {
+                            if (!wantsRaw) {
+                                throw e;
+                            }
+                            scoreboardDecodeFailed(scoreboardType, e);
+                        }
+                        if (scoreboard != null) {
+                            start = decoded(start);
+                            entry.invoke(listener, scoreboard);
+                        }
+                    }
+                    if (wantsRaw) {
+                        listener.onScoreboard(json, scoreboardType, routingKey);
+                    }
                     break;
                 default:
-                    listener.onUnknown(json);
+                    listener.onUnknown(json, routingKey);
                     break;
             }
+            listened(start);
         } catch (Exception e) {
             logger.error("Failed to deserialize message of type '{}', dispatching as unknown", type, e);
-            listener.onUnknown(json);
+            if (metrics != null) {
+                metrics.getDecodeErrors().increment();
+            }
+            listener.onUnknown(json, routingKey);
+        }
+    }
+
+    /**
+     * Dispatches a raw message, decoding markets, fixtures and typed scoreboards in one
+     * pass from the bytes. Raw scoreboard callbacks and unknown messages are exposed to
+     * the listener as trees, so those are parsed once and routed through the
+     * {@code JsonNode} path.
+     */
+    private void acceptRaw(RawFeedMessage raw) {
+        String type = raw.getType();
+        RoutingKey routingKey = raw.getRoutingKey();
+        long start = start();
+        try {
+            if ("markets".equals(type)) {
+                MarketsMessage markets = marketsReader.readValue(raw.getBody());
+                start = decoded(start);
+                listener.onMarkets(markets, routingKey);
+                listened(start);
+                return;
+            }
+            if ("fixture".equals(type)) {
+                FixtureMessage fixture = fixtureReader.readValue(raw.getBody());
+                start = decoded(start);
+                listener.onFixture(fixture, routingKey);
+                listened(start);
+                return;
+            }
+            if ("scoreboard".equals(type)) {
+                String scoreboardType = raw.getScoreboardType() != null ? raw.getScoreboardType() : "unknown";
+                ScoreboardDispatch.Entry entry = ScoreboardDispatch.entry(scoreboardType);
+                boolean wantsRaw = ScoreboardDispatch.wantsRaw(listener);
+                if (ScoreboardDispatch.wantsTyped(listener, entry)) {
+                    Object scoreboard = null;
+                    try {
+                        scoreboard = entry.read(raw.getBody());
+                    } catch (Exception e) {
+                        if (!wantsRaw) {
+                            throw e;
+                        }
+                        scoreboardDecodeFailed(scoreboardType, e);
+                    }
+                    if (scoreboard != null) {
+                        start = decoded(start);
+                        entry.invoke(listener, scoreboard);
+                    }
+                }
+                if (wantsRaw) {
+                    listener.onScoreboard(readTree(raw), scoreboardType, routingKey);
+                }
+                listened(start);
+                return;
+            }
+        } catch (Exception e) {
+            logger.error("Failed to deserialize message of type '{}', dispatching as unknown", type, e);
+            if (metrics != null) {
+                metrics.getDecodeErrors().increment();
+            }
+            listener.onUnknown(readTree(raw), routingKey);
+            return;
+        }
+        dispatch(readTree(raw), routingKey);
+    }
+
+    /**
+     * A typed scoreboard that cannot be decoded still reaches a listener's raw callback,
+     * so only the typed overload misses it.
+     */
+    private void scoreboardDecodeFailed(String scoreboardType, Exception e) {
+        logger.error("Failed to deserialize '{}' scoreboard, dispatching to the raw callback only",
+            scoreboardType, e);
+        if (metrics != null) {
+            metrics.getDecodeErrors().increment();
+        }
+    }
+
+    private long start() {
+        return metrics != null ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Records decode time since {@code start}.
+     *
+     * @return the time listener calls are measured from
+     */
+    private long decoded(long start) {
+        if (metrics == null) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        metrics.getDecodeNanos().record(now - start);
+        return now;
+    }
+
+    /**
+     * Records listener time since {@code start}.
+     */
+    private void listened(long start) {
+        if (metrics != null) {
+            metrics.getListenerNanos().record(System.nanoTime() - start);
+        }
+    }
+
+    private static JsonNode readTree(RawFeedMessage raw) {
+        try {
+            return mapper.readTree(raw.getBody());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Malformed feed message body", e);
         }
     }
 }
@@ -0,0 +1,37 @@
+package com.pandascore.sdk.config;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+import com.fasterxml.jackson.databind.deser.std.StringDeserializer;
+
+import java.io.IOException;
+
+/**
+ * String deserializer that maps values onto canonical instances from the shared
+ * {@link StringInternTable}.
+ * <p>
+ * Used on model fields with few distinct values that repeat across messages:
+ * {@code @JsonDeserialize(using = InterningStringDeserializer.class)}. String tokens are
+ * looked up straight from the parser's character buffer, so a repeated value neither
+ * allocates a new {@code String} nor adds one to the retained heap of caches holding
+ * the models.
+ */
+public final class InterningStringDeserializer extends StdScalarDeserializer<String> {
+
+    private static final long serialVersionUID = 1L;
+
+    public InterningStringDeserializer() {
+        super(String.class);
+    }
+
+    @Override
+    public String deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if (p.hasToken(JsonToken.VALUE_STRING)) {
+            return StringInternTable.shared().intern(p.getTextCharacters(), p.getTextOffset(), p.getTextLength());
+        }
+        // Numbers, booleans, embedded objects...: keep Jackson's coercion rules
+        return StringInternTable.shared().intern(StringDeserializer.instance.deserialize(p, ctxt));
+    }
+}
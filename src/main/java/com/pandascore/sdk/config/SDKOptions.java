@@ -1,5 +1,6 @@
 package com.pandascore.sdk.config;
 
+import com.pandascore.sdk.RoutingKeyFilter;
 import lombok.Builder;
 import lombok.Data;
 import lombok.Singular;
@@ -58,6 +59,34 @@ public class SDKOptions {
     @Builder.Default
     private final boolean alwaysLogPayload = false;
 
+    /**
+     * Log the payload of one message in every N per message type at INFO.
+     * Default: 0 (no sampling). Ignored when {@link #alwaysLogPayload} is true.
+     * <p>
+     * Useful to keep a trickle of payloads in production logs without rendering
+     * every message; the first message of each type is always logged.
+     */
+    @Builder.Default
+    private final int payloadLogSampleRate = 0;
+
+    /**
+     * Interval in milliseconds between aggregated feed-activity summaries.
+     * Default: 0 (each business event is logged on its own INFO line).
+     * <p>
+     * When positive, events are counted per videogame, type and action, one
+     * {@code Feed activity} line is logged at INFO per interval, and the per-event
+     * line moves to TRACE.
+     */
+    @Builder.Default
+    private final long activitySummaryIntervalMs = 0;
+
+    /**
+     * How much logging context (SLF4J MDC) is set on the consumer thread per message.
+     * Default: {@link MdcMode#FULL}.
+     */
+    @Builder.Default
+    private final MdcMode mdcMode = MdcMode.FULL;
+
     /**
      * If true, compute American odds for each selection and expose them via
      * {@code oddsAmerican} and {@code oddsAmericanWithOverround} fields.
@@ -85,6 +114,112 @@ public class SDKOptions {
     @Builder.Default
     private final int prefetchCount = 1;
 
+    /**
+     * Number of worker lanes used to run the listener off the AMQP consumer thread.
+     * Default: 0 (the listener runs inline on the consumer thread).
+     * <p>
+     * When positive, each business message is hashed by {@code match_id} (falling back
+     * to the event id from the routing key) onto one of N single-threaded lanes.
+     * Messages for the same match are processed in order on one lane and acknowledged
+     * only after the listener returns; different matches proceed in parallel.
+     * <p>
+     * Lanes can only be kept busy if the broker delivers ahead, so raise
+     * {@link #prefetchCount} accordingly (e.g. a few messages per lane).
+     */
+    @Builder.Default
+    private final int dispatcherThreads = 0;
+
+    /**
+     * Maximum number of messages queued per dispatcher lane. Default: 0 (unbounded).
+     * Only used when {@link #dispatcherThreads} is positive.
+     * <p>
+     * When a lane's queue is full, {@link #backpressurePolicy} decides what happens.
+     */
+    @Builder.Default
+    private final int dispatchQueueCapacity = 0;
+
+    /**
+     * What to do when a bounded dispatcher lane is full. Default: {@link BackpressurePolicy#BLOCK}.
+     */
+    @Builder.Default
+    private final BackpressurePolicy backpressurePolicy = BackpressurePolicy.BLOCK;
+
+    /**
+     * Number of processed messages to acknowledge with a single cumulative
+     * {@code basicAck(tag, multiple=true)}. Default: 1 (every message is acked on its own).
+     * <p>
+     * Pending acks are also flushed every {@link #ackBatchIntervalMs}, when recovery
+     * starts, and before the channel is closed. A broker-side disconnect loses pending
+     * acks, so up to this many already-processed messages may be redelivered.
+     * Keep it below {@link #prefetchCount}, otherwise batches only fill on the timer.
+     */
+    @Builder.Default
+    private final int ackBatchSize = 1;
+
+    /**
+     * Maximum time in milliseconds a processed message waits for its batched ack.
+     * Only used when {@link #ackBatchSize} is above 1. Default: 100. Set to 0 to
+     * flush on batch size (and recovery/close) only.
+     */
+    @Builder.Default
+    private final long ackBatchIntervalMs = 100;
+
+    /**
+     * Predicate on the routing key evaluated before the message body is parsed.
+     * Default: null (every message is processed).
+     * <p>
+     * Rejected business messages are acknowledged and dropped without JSON parsing
+     * and never reach the sink. Heartbeats always pass.
+     */
+    private final RoutingKeyFilter routingKeyFilter;
+
+    /**
+     * Directory of the raw message journal. Default: null (no journal).
+     * <p>
+     * When set, every delivery is appended with its routing key, receive time and
+     * delivery metadata to memory-mapped segment files by a background writer
+     * ({@code com.pandascore.sdk.rmq.FeedJournal}). Each connection writes to a
+     * subdirectory named after its queues.
+     */
+    private final String journalDirectory;
+
+    /**
+     * Size in bytes of each journal segment file, between 4 KiB and 2 GiB - 1
+     * (a segment is mapped as one buffer). Default: 64 MiB.
+     */
+    @Builder.Default
+    private final long journalSegmentBytes = 64L * 1024 * 1024;
+
+    /**
+     * Maximum time in milliseconds journaled messages wait to be forced to disk.
+     * Default: 100. Set to 0 to force after every written batch.
+     * <p>
+     * Messages written in the same interval share one force (group commit); a crash
+     * loses at most this window of the journal.
+     */
+    @Builder.Default
+    private final long journalFsyncIntervalMs = 100;
+
+    /**
+     * Maximum number of messages waiting for the journal writer. Default: 65536.
+     * <p>
+     * When full, messages are still processed but not journaled, see
+     * {@code RabbitMQFeed.getJournalDroppedCount()}.
+     */
+    @Builder.Default
+    private final int journalQueueCapacity = 65536;
+
+    /**
+     * Whether feeds and the HTTP client record metrics. Default: false (opt-in).
+     * <p>
+     * Counters and latency histograms are published per connection label through
+     * {@code com.pandascore.sdk.metrics.SDKMetrics}: as JMX MBeans in the
+     * {@code com.pandascore.sdk} domain, and to any registered {@code MetricsReporter}.
+     * Recording costs a few clock reads and atomic increments per message.
+     */
+    @Builder.Default
+    private final boolean metricsEnabled = false;
+
     /**
      * Whether to automatically trigger recovery (recoverMarkets + fetchMatchesRange)
      * when reconnection occurs. Default: true.
@@ -100,6 +235,48 @@ public class SDKOptions {
      */
     public static final int MAX_QUEUES_PER_CONNECTION = 10;
 
+    /**
+     * Policy applied when a bounded dispatcher lane is full.
+     */
+    public enum BackpressurePolicy {
+        /**
+         * The AMQP consumer thread waits for space. Acks stop, the prefetch window fills,
+         * and the broker stops delivering until listeners catch up. Nothing is lost.
+         */
+        BLOCK,
+        /**
+         * The oldest queued {@code fixture} message on the lane is acked and discarded to make
+         * room; the next fixture update for the match carries its current state. Markets and
+         * scoreboard messages are never dropped, so settlements, suspensions and rollbacks are
+         * not lost: when no fixture is queued they wait for space as with {@link #BLOCK}.
+         */
+        DROP_OLDEST,
+        /**
+         * A queued price update ({@code odds_changed} / {@code margin_changed}) for the same
+         * match and the same market ids is acked and discarded in favour of the new one.
+         * Messages with nothing to conflate against wait for space as with {@link #BLOCK}.
+         */
+        CONFLATE
+    }
+
+    /**
+     * Logging-context propagation on the message delivery path.
+     */
+    public enum MdcMode {
+        /** No MDC is touched per message. */
+        NONE,
+        /**
+         * Only a {@code connection} key holding the connection label is set, once per
+         * thread rather than per message.
+         */
+        MINIMAL,
+        /**
+         * The connection context plus {@code routingKey}, {@code messageType} and
+         * {@code feed} are set for every message and propagated to dispatcher lanes.
+         */
+        FULL
+    }
+
     /**
      * Represents a single RabbitMQ queue + routing-key pair.
      */
@@ -135,6 +312,38 @@ public class SDKOptions {
         Objects.requireNonNull(feedHost, "feedHost must not be null");
         Objects.requireNonNull(apiBaseUrl, "apiBaseUrl must not be null");
         Objects.requireNonNull(queueBindings, "queueBindings must not be null");
+        Objects.requireNonNull(mdcMode, "mdcMode must not be null");
+        if (payloadLogSampleRate < 0) {
+            throw new IllegalArgumentException("payloadLogSampleRate must not be negative");
+        }
+        if (activitySummaryIntervalMs < 0) {
+            throw new IllegalArgumentException("activitySummaryIntervalMs must not be negative");
+        }
+        if (dispatcherThreads < 0) {
+            throw new IllegalArgumentException("dispatcherThreads must not be negative");
+        }
+        if (dispatchQueueCapacity < 0) {
+            throw new IllegalArgumentException("dispatchQueueCapacity must not be negative");
+        }
+        Objects.requireNonNull(backpressurePolicy, "backpressurePolicy must not be null");
+        if (ackBatchSize < 1) {
+            throw new IllegalArgumentException("ackBatchSize must be at least 1");
+        }
+        if (ackBatchIntervalMs < 0) {
+            throw new IllegalArgumentException("ackBatchIntervalMs must not be negative");
+        }
+        if (journalSegmentBytes < 4096) {
+            throw new IllegalArgumentException("journalSegmentBytes must be at least 4096");
+        }
+        if (journalSegmentBytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("journalSegmentBytes must be at most " + Integer.MAX_VALUE);
+        }
+        if (journalFsyncIntervalMs < 0) {
+            throw new IllegalArgumentException("journalFsyncIntervalMs must not be negative");
+        }
+        if (journalQueueCapacity < 1) {
+            throw new IllegalArgumentException("journalQueueCapacity must be positive");
+        }
         if (queueBindings.isEmpty()) {
             throw new IllegalArgumentException("queueBindings must not be empty");
         }
@@ -0,0 +1,119 @@
+package com.pandascore.sdk.config;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded, lock-free table of canonical strings for low-cardinality feed values
+ * (templates, statuses, participant types, videogame slugs, ...).
+ * <p>
+ * The table is direct-mapped: each string hashes to one slot, and a new value
+ * replaces whatever occupied its slot. Memory is therefore fixed at {@code capacity}
+ * references, and values that keep recurring stay resident while one-off values are
+ * evicted by the next collision. Lookups from a character buffer compare in place, so
+ * a hit returns the canonical instance without allocating a new {@code String}.
+ * <p>
+ * Interning is an optimization only: a miss returns an equal, non-canonical string.
+ */
+public final class StringInternTable {
+
+    /** Default number of slots of the shared table. */
+    public static final int DEFAULT_CAPACITY = 4096;
+    /** Longer values are never cached; they are unlikely to repeat. */
+    public static final int MAX_LENGTH = 64;
+
+    private static final StringInternTable SHARED = new StringInternTable(DEFAULT_CAPACITY);
+
+    private final AtomicReferenceArray<String> slots;
+    private final int mask;
+
+    /**
+     * @param capacity number of slots, rounded up to a power of two
+     * @throws IllegalArgumentException if capacity is not positive
+     */
+    public StringInternTable(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * @return the table used by {@link InterningStringDeserializer}
+     */
+    public static StringInternTable shared() {
+        return SHARED;
+    }
+
+    /**
+     * Returns the canonical instance of the given characters.
+     *
+     * @param buffer characters
+     * @param offset start of the value in {@code buffer}
+     * @param length length of the value
+     * @return a string equal to the characters, canonical if cached
+     */
+    public String intern(char[] buffer, int offset, int length) {
+        if (length > MAX_LENGTH) {
+            return new String(buffer, offset, length);
+        }
+        int h = 0;
+        for (int i = 0; i < length; i++) {
+            h = 31 * h + buffer[offset + i];
+        }
+        int slot = spread(h) & mask;
+        String cached = slots.get(slot);
+        if (cached != null && matches(cached, buffer, offset, length)) {
+            return cached;
+        }
+        String value = new String(buffer, offset, length);
+        slots.lazySet(slot, value);
+        return value;
+    }
+
+    /**
+     * Returns the canonical instance of the given string.
+     *
+     * @param value the string, may be null
+     * @return the canonical instance, or {@code value} itself if it is not cached
+     */
+    public String intern(String value) {
+        if (value == null || value.length() > MAX_LENGTH) {
+            return value;
+        }
+        int slot = spread(value.hashCode()) & mask;
+        String cached = slots.get(slot);
+        if (value.equals(cached)) {
+            return cached;
+        }
+        slots.lazySet(slot, value);
+        return value;
+    }
+
+    /**
+     * @return number of slots
+     */
+    public int capacity() {
+        return slots.length();
+    }
+
+    private static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+
+    private static boolean matches(String cached, char[] buffer, int offset, int length) {
+        if (cached.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (cached.charAt(i) != buffer[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
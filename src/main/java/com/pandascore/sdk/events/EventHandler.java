@@ -6,6 +6,7 @@ import org.slf4j.MDC;
 
 import com.pandascore.sdk.config.SDKConfig;
 import com.pandascore.sdk.http.MatchesClient;
+import com.pandascore.sdk.metrics.FeedMetrics;
 import com.pandascore.sdk.model.feed.fixtures.FixtureMatch;
 import com.pandascore.sdk.model.feed.markets.MarketsRecoveryMatch;
 import com.pandascore.sdk.rmq.RabbitMQFeed;
@@ -108,6 +109,14 @@ public class EventHandler implements AutoCloseable {
         return f != null ? f.getConnectionLabel() + " " : "";
     }
 
+    /**
+     * Returns the associated feed's metrics, or null if there is no feed or it records none.
+     */
+    private FeedMetrics metrics() {
+        RabbitMQFeed f = feed;
+        return f != null ? f.getMetrics() : null;
+    }
+
     /**
      * Call when a heartbeat message is received to reset the timer and missed-beat counter.
      * If previously disconnected, initiates recovery process before notifying application.
@@ -119,6 +128,7 @@ public class EventHandler implements AutoCloseable {
             if (!disconnected) return;
             disconnected = false;
             Instant up = lastBeat;
+            long recoveryStart = System.nanoTime();
             MDC.put("operation", "reconnect");
             logger.info("{}Heartbeat restored - starting recovery", label());
 
@@ -151,6 +161,15 @@ public class EventHandler implements AutoCloseable {
                 feed.endRecovery();
             }
 
+            FeedMetrics metrics = metrics();
+            if (metrics != null) {
+                metrics.getRecoveries().increment();
+                if (!recoveryComplete) {
+                    metrics.getRecoveryFailures().increment();
+                }
+                metrics.getRecoveryNanos().record(System.nanoTime() - recoveryStart);
+            }
+
             // Notify application AFTER recovery is complete AND buffered messages are processed
             ConnectionEvent.RecoveryData data = new ConnectionEvent.RecoveryData(
                 recoveredMarkets, recoveredMatches, recoveryComplete);
@@ -182,6 +201,7 @@ public class EventHandler implements AutoCloseable {
                 disconnected = true;
                 downAt = Instant.now();
                 missedHeartbeats = 0;
+                countDisconnection();
                 MDC.put("operation", "disconnection");
                 logger.warn("{}Disconnection detected", label());
                 sink.accept(ConnectionEvent.disconnection());
@@ -198,10 +218,15 @@ public class EventHandler implements AutoCloseable {
 
             if (Duration.between(lastBeat, Instant.now()).compareTo(HEARTBEAT_INTERVAL.plus(HEARTBEAT_GRACE)) > 0) {
                 missedHeartbeats++;
+                FeedMetrics metrics = metrics();
+                if (metrics != null) {
+                    metrics.getMissedHeartbeats().increment();
+                }
                 logger.debug("{}Missed heartbeat #{}", label(), missedHeartbeats);
                 if (missedHeartbeats >= MAX_MISSED_COUNT) {
                     disconnected = true;
                     downAt = Instant.now();
+                    countDisconnection();
                     MDC.put("operation", "disconnection");
                     logger.warn("{}Missed {} heartbeats – marking disconnected", label(), missedHeartbeats);
                     sink.accept(ConnectionEvent.disconnection());
@@ -213,6 +238,13 @@ public class EventHandler implements AutoCloseable {
         }
     }
 
+    private void countDisconnection() {
+        FeedMetrics metrics = metrics();
+        if (metrics != null) {
+            metrics.getDisconnections().increment();
+        }
+    }
+
     /**
      * Gracefully stop heartbeat checks and shutdown the executor.
      */
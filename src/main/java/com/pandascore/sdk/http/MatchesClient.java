@@ -6,6 +6,9 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.pandascore.sdk.config.JsonMapperFactory;
 import com.pandascore.sdk.config.SDKConfig;
 import com.pandascore.sdk.config.SDKOptions;
+import com.pandascore.sdk.metrics.LatencyHistogram;
+import com.pandascore.sdk.metrics.MetricSet;
+import com.pandascore.sdk.metrics.SDKMetrics;
 import com.pandascore.sdk.model.feed.fixtures.FixtureMatch;
 import com.pandascore.sdk.model.feed.markets.MarketsMessageMarket;
 import com.pandascore.sdk.model.feed.markets.MarketsRecoveryMatch;
@@ -23,6 +26,7 @@ import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
 
 /**
@@ -44,6 +48,21 @@ public final class MatchesClient {
     // Prevent instantiation
     private MatchesClient() {}
 
+    /**
+     * Request metrics, published as the {@code Http} set named {@code "MatchesClient"}
+     * on the first request made with {@link SDKOptions#isMetricsEnabled()} set.
+     */
+    private static final class Metrics {
+        private static final MetricSet SET = new MetricSet("Http", "MatchesClient");
+        static final LongAdder REQUESTS = SET.counter("requests");
+        static final LongAdder FAILURES = SET.counter("failures");
+        static final LatencyHistogram REQUEST_NANOS = SET.histogram("requestNanos");
+
+        static {
+            SDKMetrics.register(SET);
+        }
+    }
+
     /**
      * Executes an HTTP GET request, logs duration and result count,
      * and deserializes JSON to the specified type.
@@ -57,13 +76,21 @@ public final class MatchesClient {
     private static <T> T get(String url, TypeReference<T> ref) throws IOException {
         String requestId = UUID.randomUUID().toString();
         Instant start = Instant.now();
+        long startNanos = System.nanoTime();
+        boolean recordMetrics = SDKConfig.getInstance().getOptions().isMetricsEnabled();
         logger.info("HTTP GET {} (requestId={})", url, requestId);
+        if (recordMetrics) {
+            Metrics.REQUESTS.increment();
+        }
         try (Response res = HTTP.newCall(new Request.Builder().url(url).get().build()).execute()) {
             if (!res.isSuccessful()) {
                 logger.error("HTTP GET {} failed with status {}", url, res.code());
                 throw new IOException("HTTP " + res.code());
             }
             T body = mapper.readValue(res.body().byteStream(), ref);
+            if (recordMetrics) {
+                Metrics.REQUEST_NANOS.record(System.nanoTime() - startNanos);
+            }
             long tookMs = Duration.between(start, Instant.now()).toMillis();
             int count = body instanceof List<?> ? ((List<?>) body).size() : -1;
             logger.info("HTTP GET {} returned {} records in {}ms", url, count, tookMs);
@@ -77,6 +104,9 @@ public final class MatchesClient {
         } catch (IOException e) {
             long tookMs = Duration.between(start, Instant.now()).toMillis();
             logger.error("HTTP GET {} error after {}ms: {}", url, tookMs, e.toString());
+            if (recordMetrics) {
+                Metrics.FAILURES.increment();
+            }
             throw e;
         }
     }
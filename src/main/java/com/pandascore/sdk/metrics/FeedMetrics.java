@@ -0,0 +1,190 @@
+package com.pandascore.sdk.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics of one feed connection, recorded by {@code RabbitMQFeed}, its {@code EventHandler}
+ * and {@code TypedFeedAdapter}, and published as the {@code Feed} set named after the
+ * connection label.
+ * <p>
+ * The feed adds gauges for the recovery-buffer depth, dispatcher queue depth and drop
+ * counts; process-wide AMQP connection counts are published separately as the
+ * {@code Connections} set.
+ */
+public final class FeedMetrics {
+
+    /** Metric set type of feed connections. */
+    public static final String TYPE = "Feed";
+
+    private final MetricSet metricSet;
+
+    private final LongAdder messages;
+    private final LongAdder heartbeats;
+    private final LongAdder filtered;
+    private final LongAdder recoveryBuffered;
+    private final LongAdder listenerErrors;
+    private final LongAdder decodeErrors;
+    private final LongAdder connects;
+    private final LongAdder reconnects;
+    private final LongAdder disconnections;
+    private final LongAdder missedHeartbeats;
+    private final LongAdder recoveries;
+    private final LongAdder recoveryFailures;
+
+    private final LatencyHistogram parseNanos;
+    private final LatencyHistogram decodeNanos;
+    private final LatencyHistogram listenerNanos;
+    private final LatencyHistogram ackNanos;
+    private final LatencyHistogram recoveryNanos;
+
+    /**
+     * @param connectionLabel the feed's connection label, the set name
+     */
+    public FeedMetrics(String connectionLabel) {
+        this.metricSet = new MetricSet(TYPE, connectionLabel);
+        this.messages = metricSet.counter("messages");
+        this.heartbeats = metricSet.counter("heartbeats");
+        this.filtered = metricSet.counter("filtered");
+        this.recoveryBuffered = metricSet.counter("recoveryBuffered");
+        this.listenerErrors = metricSet.counter("listenerErrors");
+        this.decodeErrors = metricSet.counter("decodeErrors");
+        this.connects = metricSet.counter("connects");
+        this.reconnects = metricSet.counter("reconnects");
+        this.disconnections = metricSet.counter("disconnections");
+        this.missedHeartbeats = metricSet.counter("missedHeartbeats");
+        this.recoveries = metricSet.counter("recoveries");
+        this.recoveryFailures = metricSet.counter("recoveryFailures");
+        this.parseNanos = metricSet.histogram("parseNanos");
+        this.decodeNanos = metricSet.histogram("decodeNanos");
+        this.listenerNanos = metricSet.histogram("listenerNanos");
+        this.ackNanos = metricSet.histogram("ackNanos");
+        this.recoveryNanos = metricSet.histogram("recoveryNanos");
+    }
+
+    /**
+     * @return the underlying set, as published through {@link SDKMetrics}
+     */
+    public MetricSet getMetricSet() {
+        return metricSet;
+    }
+
+    /**
+     * @return business messages received, including those buffered during recovery
+     */
+    public LongAdder getMessages() {
+        return messages;
+    }
+
+    /**
+     * @return heartbeats received
+     */
+    public LongAdder getHeartbeats() {
+        return heartbeats;
+    }
+
+    /**
+     * @return business messages dropped by the routing-key filter before parsing
+     */
+    public LongAdder getFiltered() {
+        return filtered;
+    }
+
+    /**
+     * @return business messages buffered while recovery was running
+     */
+    public LongAdder getRecoveryBuffered() {
+        return recoveryBuffered;
+    }
+
+    /**
+     * @return messages whose sink threw or whose async stage failed, nacked with requeue
+     */
+    public LongAdder getListenerErrors() {
+        return listenerErrors;
+    }
+
+    /**
+     * @return messages the typed adapter could not decode and passed to {@code onUnknown}
+     */
+    public LongAdder getDecodeErrors() {
+        return decodeErrors;
+    }
+
+    /**
+     * @return successful connections, the first one included
+     */
+    public LongAdder getConnects() {
+        return connects;
+    }
+
+    /**
+     * @return scheduled reconnection attempts
+     */
+    public LongAdder getReconnects() {
+        return reconnects;
+    }
+
+    /**
+     * @return disconnections detected from AMQP shutdowns or missed heartbeats
+     */
+    public LongAdder getDisconnections() {
+        return disconnections;
+    }
+
+    /**
+     * @return heartbeats that did not arrive in time
+     */
+    public LongAdder getMissedHeartbeats() {
+        return missedHeartbeats;
+    }
+
+    /**
+     * @return recoveries run after the heartbeat returned
+     */
+    public LongAdder getRecoveries() {
+        return recoveries;
+    }
+
+    /**
+     * @return recoveries whose API calls failed
+     */
+    public LongAdder getRecoveryFailures() {
+        return recoveryFailures;
+    }
+
+    /**
+     * @return consumer-thread time spent parsing the body: the header peek for typed listeners,
+     *         the full tree otherwise
+     */
+    public LatencyHistogram getParseNanos() {
+        return parseNanos;
+    }
+
+    /**
+     * @return typed adapter time deserializing a message into its model
+     */
+    public LatencyHistogram getDecodeNanos() {
+        return decodeNanos;
+    }
+
+    /**
+     * @return time spent in the listener, or in the whole sink when it is not a typed adapter
+     */
+    public LatencyHistogram getListenerNanos() {
+        return listenerNanos;
+    }
+
+    /**
+     * @return time from delivery to acknowledgement (hand-off to the ack batch when batching)
+     */
+    public LatencyHistogram getAckNanos() {
+        return ackNanos;
+    }
+
+    /**
+     * @return duration of recovery, from the returning heartbeat to replayed buffer
+     */
+    public LatencyHistogram getRecoveryNanos() {
+        return recoveryNanos;
+    }
+}
@@ -0,0 +1,181 @@
+package com.pandascore.sdk.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanException;
+import javax.management.MBeanInfo;
+import javax.management.MBeanOperationInfo;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Publishes each {@link MetricSet} on the platform MBean server as a read-only MBean named
+ * {@code com.pandascore.sdk:type=<type>,name="<name>"}.
+ * <p>
+ * Counters and gauges appear as {@code long} attributes under their own names. Each histogram
+ * {@code xNanos} appears as {@code xNanosCount}, {@code xNanosMean}, {@code xNanosP50},
+ * {@code xNanosP90}, {@code xNanosP99}, {@code xNanosP999} and {@code xNanosMax}, cumulative
+ * since the set was created.
+ */
+final class JmxMetricsReporter implements MetricsReporter {
+    private static final Logger logger = LoggerFactory.getLogger(JmxMetricsReporter.class);
+
+    static final String DOMAIN = "com.pandascore.sdk";
+
+    private static final String[] PERCENTILE_SUFFIXES = {"P50", "P90", "P99", "P999"};
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+    private static final String[] PERCENTILE_NAMES = {"50th", "90th", "99th", "99.9th"};
+
+    private final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+    @Override
+    public void added(MetricSet metrics) {
+        try {
+            ObjectName name = objectName(metrics);
+            // A previous set under this name belongs to a component that was replaced
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+            server.registerMBean(new MetricSetMBean(metrics), name);
+        } catch (JMException e) {
+            logger.warn("Could not publish {} over JMX", metrics, e);
+        }
+    }
+
+    @Override
+    public void removed(MetricSet metrics) {
+        try {
+            server.unregisterMBean(objectName(metrics));
+        } catch (InstanceNotFoundException e) {
+            // Already replaced by a newer set
+        } catch (JMException e) {
+            logger.warn("Could not withdraw {} from JMX", metrics, e);
+        }
+    }
+
+    static ObjectName objectName(MetricSet metrics) throws MalformedObjectNameException {
+        return new ObjectName(DOMAIN + ":type=" + metrics.getType()
+            + ",name=" + ObjectName.quote(metrics.getName()));
+    }
+
+    /**
+     * Read-only view of one metric set. The attribute list is rebuilt on each
+     * {@link #getMBeanInfo()} call, so metrics created after registration show up.
+     */
+    static final class MetricSetMBean implements DynamicMBean {
+        private final MetricSet metrics;
+
+        MetricSetMBean(MetricSet metrics) {
+            this.metrics = metrics;
+        }
+
+        @Override
+        public Object getAttribute(String attribute) throws AttributeNotFoundException {
+            return read(attribute, new HashMap<>());
+        }
+
+        @Override
+        public AttributeList getAttributes(String[] attributes) {
+            // One snapshot per histogram however many of its attributes are requested
+            Map<String, LatencyHistogram.Snapshot> snapshots = new HashMap<>();
+            AttributeList list = new AttributeList();
+            for (String attribute : attributes) {
+                try {
+                    list.add(new Attribute(attribute, read(attribute, snapshots)));
+                } catch (AttributeNotFoundException e) {
+                    // Skipped, as the DynamicMBean contract allows
+                }
+            }
+            return list;
+        }
+
+        private Object read(String attribute, Map<String, LatencyHistogram.Snapshot> snapshots)
+                throws AttributeNotFoundException {
+            if (metrics.getCounters().containsKey(attribute)) {
+                return metrics.getCounters().get(attribute).sum();
+            }
+            if (metrics.getGauges().containsKey(attribute)) {
+                return metrics.getGauges().get(attribute).getAsLong();
+            }
+            for (Map.Entry<String, LatencyHistogram> histogram : metrics.getHistograms().entrySet()) {
+                String name = histogram.getKey();
+                if (!attribute.startsWith(name)) {
+                    continue;
+                }
+                String suffix = attribute.substring(name.length());
+                LatencyHistogram.Snapshot snapshot = snapshots.computeIfAbsent(name,
+                    n -> histogram.getValue().snapshot());
+                switch (suffix) {
+                    case "Count":
+                        return snapshot.getCount();
+                    case "Mean":
+                        return snapshot.getMean();
+                    case "Max":
+                        return snapshot.getMax();
+                    default:
+                        for (int i = 0; i < PERCENTILE_SUFFIXES.length; i++) {
+                            if (PERCENTILE_SUFFIXES[i].equals(suffix)) {
+                                return snapshot.percentile(PERCENTILES[i]);
+                            }
+                        }
+                }
+            }
+            throw new AttributeNotFoundException(attribute);
+        }
+
+        @Override
+        public MBeanInfo getMBeanInfo() {
+            List<MBeanAttributeInfo> attributes = new ArrayList<>();
+            for (String counter : metrics.getCounters().keySet()) {
+                attributes.add(attribute(counter, "long", "Count since creation"));
+            }
+            for (String gauge : metrics.getGauges().keySet()) {
+                attributes.add(attribute(gauge, "long", "Current value"));
+            }
+            for (String histogram : metrics.getHistograms().keySet()) {
+                attributes.add(attribute(histogram + "Count", "long", "Recorded durations"));
+                attributes.add(attribute(histogram + "Mean", "double", "Mean duration in nanoseconds"));
+                for (int i = 0; i < PERCENTILE_SUFFIXES.length; i++) {
+                    attributes.add(attribute(histogram + PERCENTILE_SUFFIXES[i], "long",
+                        PERCENTILE_NAMES[i] + " percentile duration in nanoseconds"));
+                }
+                attributes.add(attribute(histogram + "Max", "long", "Longest duration in nanoseconds"));
+            }
+            return new MBeanInfo(MetricSetMBean.class.getName(), "PandaScore SDK metrics: " + metrics,
+                attributes.toArray(new MBeanAttributeInfo[0]), null, new MBeanOperationInfo[0], null);
+        }
+
+        private static MBeanAttributeInfo attribute(String name, String type, String description) {
+            return new MBeanAttributeInfo(name, type, description, true, false, false);
+        }
+
+        @Override
+        public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+            throw new AttributeNotFoundException("Metrics are read-only: " + attribute.getName());
+        }
+
+        @Override
+        public AttributeList setAttributes(AttributeList attributes) {
+            return new AttributeList();
+        }
+
+        @Override
+        public Object invoke(String actionName, Object[] params, String[] signature) throws MBeanException {
+            throw new MBeanException(new UnsupportedOperationException(actionName));
+        }
+    }
+}
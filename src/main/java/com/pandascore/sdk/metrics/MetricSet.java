@@ -0,0 +1,111 @@
+package com.pandascore.sdk.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Named group of metrics published together, e.g. everything one feed connection records.
+ * <p>
+ * Three kinds of metric, each keyed by name:
+ * <ul>
+ *   <li>counters — {@link LongAdder}s, striped so concurrent consumer threads and
+ *       dispatcher lanes increment without contending on one cache line</li>
+ *   <li>gauges — read on demand from a {@link LongSupplier}, e.g. a queue depth</li>
+ *   <li>histograms — {@link LatencyHistogram}s of durations in nanoseconds</li>
+ * </ul>
+ * Components look their metrics up once and keep the references, so recording never
+ * goes through the maps. Publish a set with {@link SDKMetrics#register(MetricSet)}.
+ */
+public final class MetricSet {
+
+    private final String type;
+    private final String name;
+    private final NavigableMap<String, LongAdder> counters = new ConcurrentSkipListMap<>();
+    private final NavigableMap<String, LongSupplier> gauges = new ConcurrentSkipListMap<>();
+    private final NavigableMap<String, LatencyHistogram> histograms = new ConcurrentSkipListMap<>();
+
+    /**
+     * @param type kind of component, e.g. {@code "Feed"}; the JMX {@code type} key, so letters,
+     *             digits, {@code _}, {@code .} and {@code -} only
+     * @param name instance of that component, e.g. a connection label; the JMX {@code name} key
+     * @throws IllegalArgumentException if type is not a plain identifier or name is null or empty
+     */
+    public MetricSet(String type, String name) {
+        if (type == null || !type.matches("[A-Za-z0-9_.-]+")) {
+            throw new IllegalArgumentException("type must be a non-empty identifier: " + type);
+        }
+        if (name == null || name.isEmpty()) {
+            throw new IllegalArgumentException("name must not be empty");
+        }
+        this.type = type;
+        this.name = name;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the counter with the given name, creating it on first use.
+     *
+     * @param name counter name
+     * @return the counter
+     */
+    public LongAdder counter(String name) {
+        return counters.computeIfAbsent(name, n -> new LongAdder());
+    }
+
+    /**
+     * Returns the histogram with the given name, creating it on first use.
+     *
+     * @param name histogram name, by convention ending in {@code Nanos}
+     * @return the histogram
+     */
+    public LatencyHistogram histogram(String name) {
+        return histograms.computeIfAbsent(name, n -> new LatencyHistogram());
+    }
+
+    /**
+     * Registers a gauge, replacing any gauge of the same name.
+     *
+     * @param name  gauge name
+     * @param value supplier read each time the gauge is reported; must be thread-safe
+     */
+    public void gauge(String name, LongSupplier value) {
+        gauges.put(name, value);
+    }
+
+    /**
+     * @return counters by name, sorted
+     */
+    public Map<String, LongAdder> getCounters() {
+        return Collections.unmodifiableMap(counters);
+    }
+
+    /**
+     * @return gauges by name, sorted
+     */
+    public Map<String, LongSupplier> getGauges() {
+        return Collections.unmodifiableMap(gauges);
+    }
+
+    /**
+     * @return histograms by name, sorted
+     */
+    public Map<String, LatencyHistogram> getHistograms() {
+        return Collections.unmodifiableMap(histograms);
+    }
+
+    @Override
+    public String toString() {
+        return type + " " + name;
+    }
+}
@@ -0,0 +1,32 @@
+package com.pandascore.sdk.metrics;
+
+/**
+ * Service provider interface for publishing SDK metrics to a monitoring system.
+ * <p>
+ * Reporters are told when a {@link MetricSet} is published or withdrawn and read its
+ * counters, gauges and histogram snapshots on their own schedule, e.g. by registering
+ * function-backed meters in a Micrometer or Prometheus registry.
+ * <p>
+ * Implementations are discovered with {@link java.util.ServiceLoader} (list the class in
+ * {@code META-INF/services/com.pandascore.sdk.metrics.MetricsReporter}) or added at runtime
+ * with {@link SDKMetrics#addReporter(MetricsReporter)}. JMX publishing is built in.
+ * Callbacks run on the thread that creates or closes the component, so keep them short.
+ */
+public interface MetricsReporter {
+
+    /**
+     * Called when a metric set is published, and for every already published set when
+     * the reporter is added.
+     *
+     * @param metrics the published set
+     */
+    void added(MetricSet metrics);
+
+    /**
+     * Called when a metric set is withdrawn, either because its component closed or
+     * because a newer set with the same type and name replaced it.
+     *
+     * @param metrics the withdrawn set
+     */
+    void removed(MetricSet metrics);
+}
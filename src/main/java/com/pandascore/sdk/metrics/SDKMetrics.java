@@ -0,0 +1,135 @@
+package com.pandascore.sdk.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Process-wide registry of published {@link MetricSet}s.
+ * <p>
+ * Each set is identified by its type and name, e.g. one {@code Feed} set per connection
+ * label. Registered {@link MetricsReporter}s are notified as sets come and go; the JMX
+ * reporter, which exposes every set as an MBean named
+ * {@code com.pandascore.sdk:type=<type>,name="<name>"}, is always installed, and further
+ * reporters are loaded with {@link ServiceLoader} on first use.
+ */
+public final class SDKMetrics {
+    private static final Logger logger = LoggerFactory.getLogger(SDKMetrics.class);
+
+    private static final Map<String, MetricSet> sets = new ConcurrentHashMap<>();
+    private static final List<MetricsReporter> reporters = new CopyOnWriteArrayList<>();
+
+    static {
+        reporters.add(new JmxMetricsReporter());
+        try {
+            for (MetricsReporter reporter : ServiceLoader.load(MetricsReporter.class)) {
+                reporters.add(reporter);
+                logger.info("Loaded metrics reporter {}", reporter.getClass().getName());
+            }
+        } catch (ServiceConfigurationError e) {
+            logger.warn("Could not load metrics reporters", e);
+        }
+    }
+
+    // Prevent instantiation
+    private SDKMetrics() {}
+
+    /**
+     * Publishes a metric set, replacing (and withdrawing) any set with the same type and name.
+     *
+     * @param metrics the set to publish
+     */
+    public static synchronized void register(MetricSet metrics) {
+        MetricSet previous = sets.put(key(metrics), metrics);
+        if (previous != null && previous != metrics) {
+            notifyRemoved(previous);
+        }
+        if (previous != metrics) {
+            for (MetricsReporter reporter : reporters) {
+                notifyAdded(reporter, metrics);
+            }
+        }
+    }
+
+    /**
+     * Withdraws a metric set. Does nothing if the set was already replaced by a newer one.
+     *
+     * @param metrics the set to withdraw
+     */
+    public static synchronized void unregister(MetricSet metrics) {
+        if (sets.remove(key(metrics), metrics)) {
+            notifyRemoved(metrics);
+        }
+    }
+
+    /**
+     * Returns the published set with the given type and name.
+     *
+     * @param type set type, e.g. {@code "Feed"}
+     * @param name set name, e.g. a connection label
+     * @return the set, or null if none is published
+     */
+    public static MetricSet find(String type, String name) {
+        return sets.get(type + '\u0000' + name);
+    }
+
+    /**
+     * @return a copy of all published sets
+     */
+    public static List<MetricSet> all() {
+        return new ArrayList<>(sets.values());
+    }
+
+    /**
+     * Adds a reporter and announces every already published set to it.
+     *
+     * @param reporter the reporter to add
+     */
+    public static synchronized void addReporter(MetricsReporter reporter) {
+        if (reporter == null) {
+            throw new IllegalArgumentException("MetricsReporter must not be null");
+        }
+        reporters.add(reporter);
+        for (MetricSet metrics : sets.values()) {
+            notifyAdded(reporter, metrics);
+        }
+    }
+
+    /**
+     * Removes a reporter. Sets it already published are not withdrawn from it.
+     *
+     * @param reporter the reporter to remove
+     */
+    public static synchronized void removeReporter(MetricsReporter reporter) {
+        reporters.remove(reporter);
+    }
+
+    private static void notifyAdded(MetricsReporter reporter, MetricSet metrics) {
+        try {
+            reporter.added(metrics);
+        } catch (RuntimeException e) {
+            logger.warn("Metrics reporter {} failed to add {}", reporter.getClass().getName(), metrics, e);
+        }
+    }
+
+    private static void notifyRemoved(MetricSet metrics) {
+        for (MetricsReporter reporter : reporters) {
+            try {
+                reporter.removed(metrics);
+            } catch (RuntimeException e) {
+                logger.warn("Metrics reporter {} failed to remove {}", reporter.getClass().getName(), metrics, e);
+            }
+        }
+    }
+
+    private static String key(MetricSet metrics) {
+        return metrics.getType() + '\u0000' + metrics.getName();
+    }
+}
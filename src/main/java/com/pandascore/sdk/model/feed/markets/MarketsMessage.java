@@ -2,6 +2,8 @@ package com.pandascore.sdk.model.feed.markets;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.pandascore.sdk.config.InterningStringDeserializer;
 import lombok.Data;
 import java.util.List;
 
@@ -18,14 +20,17 @@ public class MarketsMessage {
     /** Action that occurred on the market. */
     private MarketAction action;
     /** Event type such as "match" or "game". */
+    @JsonDeserialize(using = InterningStringDeserializer.class)
     @JsonProperty("event_type") private String eventType;
     /** Identifier of the related event. */
     @JsonProperty("event_id") private Long eventId;
     /** Slug of the videogame associated with the event. */
+    @JsonDeserialize(using = InterningStringDeserializer.class)
     @JsonProperty("videogame_slug") private String videogameSlug;
     /** Match identifier if applicable. */
     @JsonProperty("match_id") private Long matchId;
     /** Tier of the tournament. */
+    @JsonDeserialize(using = InterningStringDeserializer.class)
     @JsonProperty("tournament_tier") private String tournamentTier;
     /** Position of the game inside the match. */
     @JsonProperty("game_position") private Integer gamePosition;
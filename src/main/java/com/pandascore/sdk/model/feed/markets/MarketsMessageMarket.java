@@ -3,6 +3,8 @@ package com.pandascore.sdk.model.feed.markets;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.pandascore.sdk.config.InterningStringDeserializer;
 import lombok.Data;
 import java.util.List;
 
@@ -20,12 +22,15 @@ public class MarketsMessageMarket {
     /** Display name of the market. */
     private String name;
     /** Current status of the market. */
+    @JsonDeserialize(using = InterningStringDeserializer.class)
     private String status;
     /** Template used to build this market. */
+    @JsonDeserialize(using = InterningStringDeserializer.class)
     private String template;
     /** Identifier of the participant the market refers to. */
     @JsonProperty("participant_id") private Long participantId;
     /** Type of participant (team, player…). */
+    @JsonDeserialize(using = InterningStringDeserializer.class)
     @JsonProperty("participant_type") private String participantType;
     /** Overround applied to the market probabilities. */
     private Double overround;
@@ -58,6 +63,7 @@ public class MarketsMessageMarket {
     /** Grouping key for dynamic lines. */
     @JsonProperty("dynamic_line_grouping_key") private String dynamicLineGroupingKey;
     /** Side of the participant, when relevant. */
+    @JsonDeserialize(using = InterningStringDeserializer.class)
     @JsonProperty("participant_side") private String participantSide;
     /** Identifier of the away player for the market. */
     @JsonProperty("player_away_id") private Long playerAwayId;
@@ -2,6 +2,8 @@ package com.pandascore.sdk.model.feed.markets;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.pandascore.sdk.config.InterningStringDeserializer;
 import com.pandascore.sdk.config.SDKConfig;
 import com.pandascore.sdk.config.SDKOptions;
 import lombok.Data;
@@ -17,16 +19,20 @@ public class MarketsMessageSelection {
     /** Position of the selection within the market. */
     private Integer position;
     /** Display name of the selection. */
+    @JsonDeserialize(using = InterningStringDeserializer.class)
     private String name;
     /** Template used for this selection. */
+    @JsonDeserialize(using = InterningStringDeserializer.class)
     private String template;
     /** Line associated with the selection. */
     private String line;
     /** Type of participant the selection refers to. */
+    @JsonDeserialize(using = InterningStringDeserializer.class)
     @JsonProperty("participant_type") private String participantType;
     /** Identifier of the participant. */
     @JsonProperty("participant_id") private Long participantId;
     /** Opponent type when the selection represents a matchup. */
+    @JsonDeserialize(using = InterningStringDeserializer.class)
     @JsonProperty("opponent_type") private String opponentType;
     /** Raw probability of the selection. */
     private Double probability;
@@ -43,6 +49,7 @@ public class MarketsMessageSelection {
     /** Handicap value for spread markets. */
     private Double handicap;
     /** Side of the participant, if relevant. */
+    @JsonDeserialize(using = InterningStringDeserializer.class)
     @JsonProperty("participant_side") private String participantSide;
     /** Away team score used when settling the selection. */
     @JsonProperty("score_away") private Integer scoreAway;
@@ -57,6 +64,7 @@ public class MarketsMessageSelection {
     /** Minimum value for range selections. */
     @JsonProperty("range_min") private Double rangeMin;
     /** Settlement result for the selection. */
+    @JsonDeserialize(using = InterningStringDeserializer.class)
     private String result;
 
     /** American odds calculated from the decimal values when enabled. */
@@ -0,0 +1,125 @@
+package com.pandascore.sdk.rmq;
+
+import com.rabbitmq.client.Channel;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Acknowledges the deliveries of one channel cumulatively as they complete,
+ * possibly out of order.
+ * <p>
+ * Every delivery on the channel must be {@link #register registered} in delivery
+ * order before it is completed. {@link #ack} then sends one
+ * {@code basicAck(tag, multiple=true)} covering the longest prefix of completed
+ * deliveries. A delivery that completes early stays unacked until everything
+ * delivered before it has completed, which keeps at-least-once semantics.
+ * <p>
+ * With a batch size above one, the cumulative ack is deferred until that many
+ * deliveries are ackable or {@link #flush()} is called (on a timer and before
+ * the channel is closed), trading a little redelivery exposure for far fewer
+ * ack frames.
+ * <p>
+ * Acks are sent while holding the tracker's lock: the broker rejects a
+ * cumulative ack whose tag was already covered, so they must not be reordered.
+ */
+final class AckTracker {
+
+    private final Channel channel;
+    private final int batchSize;
+    // Registered tags not yet acked or rejected, in delivery order
+    private final ArrayDeque<Long> outstanding = new ArrayDeque<>();
+    // Tags that completed while an earlier tag was still outstanding
+    private final Set<Long> completed = new HashSet<>();
+    // Highest tag of the completed prefix not yet acked (-1 = none) and how many deliveries it covers
+    private long ackableUpTo = -1;
+    private int ackableCount;
+
+    /**
+     * Creates a tracker that acks as soon as a completed prefix is available.
+     *
+     * @param channel the channel whose deliveries are tracked
+     */
+    AckTracker(Channel channel) {
+        this(channel, 1);
+    }
+
+    /**
+     * @param channel   the channel whose deliveries are tracked
+     * @param batchSize number of ackable deliveries to accumulate before acking
+     * @throws IllegalArgumentException if batchSize is less than 1
+     */
+    AckTracker(Channel channel, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be at least 1");
+        }
+        this.channel = channel;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Records a delivery. Must be called on the consumer thread, in delivery order.
+     *
+     * @param deliveryTag the delivery tag
+     */
+    synchronized void register(long deliveryTag) {
+        outstanding.addLast(deliveryTag);
+    }
+
+    /**
+     * Marks a delivery as processed and acks every contiguous completed delivery.
+     *
+     * @param deliveryTag a registered delivery tag
+     * @throws IOException if the ack cannot be sent
+     */
+    synchronized void ack(long deliveryTag) throws IOException {
+        completed.add(deliveryTag);
+        ackCompletedPrefix();
+    }
+
+    /**
+     * Rejects a delivery with requeue, then acks any completed deliveries it was holding back.
+     *
+     * @param deliveryTag a registered delivery tag
+     * @throws IOException if the nack or ack cannot be sent
+     */
+    synchronized void nack(long deliveryTag) throws IOException {
+        outstanding.remove(deliveryTag);
+        channel.basicNack(deliveryTag, false, true);
+        ackCompletedPrefix();
+    }
+
+    /**
+     * Sends the deferred cumulative ack, if any.
+     *
+     * @throws IOException if the ack cannot be sent
+     */
+    synchronized void flush() throws IOException {
+        if (ackableUpTo >= 0) {
+            long upTo = ackableUpTo;
+            ackableUpTo = -1;
+            ackableCount = 0;
+            channel.basicAck(upTo, true);
+        }
+    }
+
+    /**
+     * @return number of registered deliveries not yet acked or rejected,
+     *         including completed ones whose ack is deferred
+     */
+    synchronized int outstandingCount() {
+        return outstanding.size() + ackableCount;
+    }
+
+    private void ackCompletedPrefix() throws IOException {
+        while (!outstanding.isEmpty() && completed.remove(outstanding.peekFirst())) {
+            ackableUpTo = outstanding.pollFirst();
+            ackableCount++;
+        }
+        if (ackableCount >= batchSize) {
+            flush();
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.pandascore.sdk.rmq;
+
+import com.pandascore.sdk.config.SDKOptions.BackpressurePolicy;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Work queue of one dispatcher lane, optionally bounded, with a policy for a full queue.
+ * <ul>
+ *   <li>{@link BackpressurePolicy#BLOCK}: the producer waits for space. On the AMQP
+ *       consumer thread this stops acks, the prefetch window fills, and the broker
+ *       stops delivering.</li>
+ *   <li>{@link BackpressurePolicy#DROP_OLDEST}: the oldest
+ *       {@link PartitionedDispatcher.Task#droppable() droppable} task is discarded
+ *       to make room.</li>
+ *   <li>{@link BackpressurePolicy#CONFLATE}: a queued task with the same
+ *       {@link PartitionedDispatcher.Task#conflationKey() conflation key} is discarded
+ *       and the new one appended behind it.</li>
+ * </ul>
+ * When DROP_OLDEST or CONFLATE find nothing to discard, the producer blocks as with BLOCK.
+ * Discarded tasks are handed back to the caller, which must call
+ * {@link PartitionedDispatcher.Task#drop()} on them outside any lock.
+ */
+final class DispatchQueue {
+
+    private final int capacity;
+    private final BackpressurePolicy policy;
+    private final ArrayDeque<Runnable> tasks = new ArrayDeque<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder conflated = new LongAdder();
+    private boolean closed;
+
+    /**
+     * @param capacity maximum queued tasks, or 0 for unbounded
+     * @param policy   what to do when a bounded queue is full
+     */
+    DispatchQueue(int capacity, BackpressurePolicy policy) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("capacity must not be negative");
+        }
+        this.capacity = capacity;
+        this.policy = Objects.requireNonNull(policy, "policy");
+    }
+
+    /**
+     * Enqueues a task, applying the backpressure policy if the queue is full.
+     *
+     * @param task the task
+     * @return a task discarded to make room, or null
+     * @throws InterruptedException       if interrupted while blocked
+     * @throws RejectedExecutionException if the queue has been closed
+     */
+    PartitionedDispatcher.Task put(Runnable task) throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            PartitionedDispatcher.Task victim = null;
+            while (!closed && capacity > 0 && tasks.size() >= capacity) {
+                victim = policy == BackpressurePolicy.DROP_OLDEST ? removeOldestDroppable()
+                    : policy == BackpressurePolicy.CONFLATE ? removeSameKey(task)
+                    : null;
+                if (victim != null) {
+                    break;
+                }
+                notFull.await();
+            }
+            if (closed) {
+                throw new RejectedExecutionException("Dispatch queue closed");
+            }
+            tasks.addLast(task);
+            notEmpty.signal();
+            return victim;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Enqueues a task regardless of capacity. Used for internal markers that must not
+     * be dropped and must not wait behind the producer they are synchronizing with.
+     *
+     * @throws RejectedExecutionException if the queue has been closed
+     */
+    void putUnbounded(Runnable task) {
+        lock.lock();
+        try {
+            if (closed) {
+                throw new RejectedExecutionException("Dispatch queue closed");
+            }
+            tasks.addLast(task);
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes the next task, waiting while the queue is empty.
+     *
+     * @return the next task, or null once the queue is closed and drained
+     * @throws InterruptedException if interrupted while waiting
+     */
+    Runnable take() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (tasks.isEmpty()) {
+                if (closed) {
+                    return null;
+                }
+                notEmpty.await();
+            }
+            Runnable task = tasks.pollFirst();
+            notFull.signal();
+            return task;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Rejects further tasks and wakes blocked producers and the consumer.
+     * Tasks already queued are still handed out by {@link #take()}.
+     */
+    void close() {
+        lock.lock();
+        try {
+            closed = true;
+            notFull.signalAll();
+            notEmpty.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return number of queued tasks
+     */
+    int size() {
+        lock.lock();
+        try {
+            return tasks.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return tasks discarded by {@link BackpressurePolicy#DROP_OLDEST}
+     */
+    long droppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * @return tasks replaced by a newer one under {@link BackpressurePolicy#CONFLATE}
+     */
+    long conflatedCount() {
+        return conflated.sum();
+    }
+
+    private PartitionedDispatcher.Task removeOldestDroppable() {
+        for (Iterator<Runnable> it = tasks.iterator(); it.hasNext(); ) {
+            Runnable queued = it.next();
+            if (queued instanceof PartitionedDispatcher.Task
+                    && ((PartitionedDispatcher.Task) queued).droppable()) {
+                it.remove();
+                dropped.increment();
+                return (PartitionedDispatcher.Task) queued;
+            }
+        }
+        return null;
+    }
+
+    private PartitionedDispatcher.Task removeSameKey(Runnable task) {
+        if (!(task instanceof PartitionedDispatcher.Task)) {
+            return null;
+        }
+        Object key = ((PartitionedDispatcher.Task) task).conflationKey();
+        if (key == null) {
+            return null;
+        }
+        // Newest first: that is the one the incoming update directly supersedes
+        for (Iterator<Runnable> it = tasks.descendingIterator(); it.hasNext(); ) {
+            Runnable queued = it.next();
+            if (queued instanceof PartitionedDispatcher.Task
+                    && key.equals(((PartitionedDispatcher.Task) queued).conflationKey())) {
+                it.remove();
+                conflated.increment();
+                return (PartitionedDispatcher.Task) queued;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,96 @@
+package com.pandascore.sdk.rmq;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts business messages per videogame, type and action between two summaries.
+ * <p>
+ * Counters are {@link LongAdder}s so consumer threads and dispatcher lanes can
+ * record concurrently without contending on one cache line. Lookups go through
+ * nested maps keyed by the component strings, so recording allocates nothing
+ * once a combination has been seen. The number of distinct combinations is
+ * bounded; messages beyond the bound are counted under {@code "other"}.
+ */
+final class FeedActivitySummary {
+
+    static final int MAX_COMBINATIONS = 1024;
+    static final String OTHER = "other";
+
+    private final ConcurrentHashMap<String, ConcurrentHashMap<String, ConcurrentHashMap<String, LongAdder>>> counts =
+        new ConcurrentHashMap<>();
+    private final AtomicInteger combinations = new AtomicInteger();
+    private final LongAdder overflow = new LongAdder();
+    private final LongAdder filtered = new LongAdder();
+
+    /**
+     * Counts one business message.
+     *
+     * @param videogame videogame slug from the routing key
+     * @param type      message type
+     * @param action    action from the routing key
+     */
+    void record(String videogame, String type, String action) {
+        counter(videogame, type, action).increment();
+    }
+
+    /**
+     * Counts one message dropped by the routing-key filter.
+     */
+    void recordFiltered() {
+        filtered.increment();
+    }
+
+    /**
+     * Renders the counts since the previous call and resets them.
+     * Combinations seen before are kept (at zero) so steady traffic never re-allocates.
+     *
+     * @param intervalMs length of the interval being summarized, for the log line
+     * @return a single-line summary, e.g.
+     *         {@code intervalMs=10000 total=3 filtered=0 counts={cs-go/markets/odds_changed=3}}
+     */
+    String drain(long intervalMs) {
+        Map<String, Long> snapshot = new TreeMap<>();
+        long total = 0;
+        for (Map.Entry<String, ConcurrentHashMap<String, ConcurrentHashMap<String, LongAdder>>> game : counts.entrySet()) {
+            for (Map.Entry<String, ConcurrentHashMap<String, LongAdder>> type : game.getValue().entrySet()) {
+                for (Map.Entry<String, LongAdder> action : type.getValue().entrySet()) {
+                    long n = action.getValue().sumThenReset();
+                    if (n > 0) {
+                        snapshot.put(game.getKey() + "/" + type.getKey() + "/" + action.getKey(), n);
+                        total += n;
+                    }
+                }
+            }
+        }
+        long other = overflow.sumThenReset();
+        if (other > 0) {
+            snapshot.put(OTHER, other);
+            total += other;
+        }
+        return "intervalMs=" + intervalMs + " total=" + total
+            + " filtered=" + filtered.sumThenReset() + " counts=" + snapshot;
+    }
+
+    private LongAdder counter(String videogame, String type, String action) {
+        ConcurrentHashMap<String, ConcurrentHashMap<String, LongAdder>> byType = counts.get(videogame);
+        ConcurrentHashMap<String, LongAdder> byAction = byType != null ? byType.get(type) : null;
+        LongAdder counter = byAction != null ? byAction.get(action) : null;
+        if (counter != null) {
+            return counter;
+        }
+        if (combinations.get() >= MAX_COMBINATIONS) {
+            return overflow;
+        }
+        return counts
+            .computeIfAbsent(videogame, g -> new ConcurrentHashMap<>())
+            .computeIfAbsent(type, t -> new ConcurrentHashMap<>())
+            .computeIfAbsent(action, a -> {
+                combinations.incrementAndGet();
+                return new LongAdder();
+            });
+    }
+}
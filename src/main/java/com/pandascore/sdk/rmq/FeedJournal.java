@@ -0,0 +1,322 @@
+package com.pandascore.sdk.rmq;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal of raw deliveries in size-rolled, memory-mapped segment files.
+ * <p>
+ * {@link #append} only enqueues the delivery (the body array is not copied), so the
+ * consumer thread never touches the disk. A single writer thread drains the queue in
+ * batches, copies records into the mapped segment and forces it to disk at most once per
+ * {@code fsyncIntervalMs} (group commit): a crash loses at most that window. When the queue
+ * is full the delivery is not journaled and counted in {@link #droppedCount()}; the feed is
+ * never slowed down by the journal.
+ * <p>
+ * Segment files are named {@code journal-<first sequence>.seg}. Each starts with a magic
+ * number and format version, followed by records:
+ * <pre>
+ * int   length of the rest of the record
+ * long  sequence
+ * long  receive time (epoch millis)
+ * long  delivery tag
+ * byte  flags (bit 0: redelivered)
+ * short exchange length, exchange (UTF-8)
+ * short routing key length, routing key (UTF-8)
+ * int   body length, body
+ * int   CRC32 of sequence through body
+ * </pre>
+ * A zero length marks the end of a segment. A new journal on an existing directory starts a
+ * new segment and continues the sequence. Records are read back with {@link JournalReader}.
+ */
+public final class FeedJournal implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(FeedJournal.class);
+
+    /** "PSJ1" */
+    static final int SEGMENT_MAGIC = 0x50534A31;
+    static final int FORMAT_VERSION = 1;
+    static final int SEGMENT_HEADER_BYTES = 8;
+    // sequence, receive time, delivery tag, flags, exchange length, routing key length, body length, crc
+    static final int RECORD_OVERHEAD = 8 + 8 + 8 + 1 + 2 + 2 + 4 + 4;
+    static final String SEGMENT_PREFIX = "journal-";
+    static final String SEGMENT_SUFFIX = ".seg";
+
+    private static final int BATCH_SIZE = 256;
+    private static final long IDLE_POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final long fsyncIntervalNanos;
+    private final BlockingQueue<Entry> queue;
+    private final LongAdder dropped = new LongAdder();
+    private final Thread writer;
+    private final CRC32 crc = new CRC32();
+
+    // Writer thread state
+    private long nextSequence;
+    private FileChannel channel;
+    private MappedByteBuffer segment;
+    private boolean dirty;
+    private long lastForce;
+    private volatile boolean closed;
+
+    /**
+     * Opens a journal in the given directory, creating it if needed.
+     *
+     * @param directory       directory holding the segment files
+     * @param segmentBytes    size of each segment file
+     * @param fsyncIntervalMs maximum time between forces of written records; 0 forces after every batch
+     * @param queueCapacity   maximum deliveries waiting for the writer
+     * @param threadName      name of the writer thread
+     * @throws IOException if the directory or an existing segment cannot be read
+     */
+    public FeedJournal(Path directory, long segmentBytes, long fsyncIntervalMs, int queueCapacity,
+                       String threadName) throws IOException {
+        if (segmentBytes <= SEGMENT_HEADER_BYTES + RECORD_OVERHEAD + 4) {
+            throw new IllegalArgumentException("segmentBytes too small: " + segmentBytes);
+        }
+        if (segmentBytes > Integer.MAX_VALUE) {
+            // A segment is mapped as a single buffer
+            throw new IllegalArgumentException("segmentBytes too large: " + segmentBytes);
+        }
+        if (fsyncIntervalMs < 0) {
+            throw new IllegalArgumentException("fsyncIntervalMs must not be negative");
+        }
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("queueCapacity must be positive");
+        }
+        this.directory = Files.createDirectories(directory);
+        this.segmentBytes = segmentBytes;
+        this.fsyncIntervalNanos = TimeUnit.MILLISECONDS.toNanos(fsyncIntervalMs);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.nextSequence = nextSequence(directory);
+        this.lastForce = System.nanoTime();
+        this.writer = new Thread(this::run, threadName);
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Queues one delivery for the journal. Never blocks.
+     *
+     * @param exchange         exchange the message was published to
+     * @param routingKey       routing key
+     * @param deliveryTag      AMQP delivery tag
+     * @param redelivered      AMQP redelivered flag
+     * @param receivedAtMillis receive time in epoch milliseconds
+     * @param body             message body, not copied and must not be modified afterwards
+     * @return false if the journal is full or closed and the delivery was not recorded
+     */
+    public boolean append(String exchange, String routingKey, long deliveryTag, boolean redelivered,
+                          long receivedAtMillis, byte[] body) {
+        if (closed || !queue.offer(new Entry(exchange, routingKey, deliveryTag, redelivered, receivedAtMillis, body))) {
+            dropped.increment();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return deliveries not recorded because the queue was full or the journal closed
+     */
+    public long droppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * @return deliveries waiting for the writer
+     */
+    public int queueDepth() {
+        return queue.size();
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Writes and forces every queued delivery, then stops the writer.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.debug("Interrupted while awaiting journal writer", e);
+        }
+    }
+
+    // ========================================================================
+    // Writer thread
+    // ========================================================================
+
+    private void run() {
+        List<Entry> batch = new ArrayList<>(BATCH_SIZE);
+        try {
+            while (!closed || !queue.isEmpty()) {
+                // Not interrupted on close: an interrupt would close the mapped segment's channel
+                long wait = dirty ? Math.max(0, lastForce + fsyncIntervalNanos - System.nanoTime()) : IDLE_POLL_NANOS;
+                Entry first;
+                try {
+                    first = queue.poll(Math.min(wait, IDLE_POLL_NANOS), TimeUnit.NANOSECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, BATCH_SIZE - 1);
+                    for (Entry entry : batch) {
+                        write(entry);
+                    }
+                    batch.clear();
+                }
+                if (dirty && System.nanoTime() - lastForce >= fsyncIntervalNanos) {
+                    force();
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.error("Journal writer in {} failed; further deliveries are not journaled", directory, e);
+            closed = true;
+        } finally {
+            if (dirty) {
+                force();
+            }
+            closeSegment();
+        }
+    }
+
+    private void write(Entry entry) throws IOException {
+        byte[] exchange = utf8(entry.exchange);
+        byte[] routingKey = utf8(entry.routingKey);
+        byte[] body = entry.body != null ? entry.body : new byte[0];
+        int length = RECORD_OVERHEAD + exchange.length + routingKey.length + body.length;
+        // Room for the length prefix, the record and the end-of-segment marker
+        if (segment == null || segment.remaining() < 4 + length + 4) {
+            roll(4 + length + 4);
+        }
+        long sequence = nextSequence++;
+        segment.putInt(length);
+        int start = segment.position();
+        segment.putLong(sequence)
+            .putLong(entry.receivedAtMillis)
+            .putLong(entry.deliveryTag)
+            .put((byte) (entry.redelivered ? 1 : 0))
+            .putShort((short) exchange.length).put(exchange)
+            .putShort((short) routingKey.length).put(routingKey)
+            .putInt(body.length).put(body);
+        crc.reset();
+        ByteBuffer view = segment.duplicate();
+        view.position(start);
+        view.limit(segment.position());
+        crc.update(view);
+        segment.putInt((int) crc.getValue());
+        dirty = true;
+    }
+
+    private void roll(int needed) throws IOException {
+        if (dirty) {
+            force();
+        }
+        closeSegment();
+        Path file = directory.resolve(segmentName(nextSequence));
+        channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(segmentBytes, SEGMENT_HEADER_BYTES + needed));
+        segment.putInt(SEGMENT_MAGIC).putInt(FORMAT_VERSION);
+        logger.debug("Journal segment {} opened", file);
+    }
+
+    private void force() {
+        if (segment != null) {
+            segment.force();
+        }
+        dirty = false;
+        lastForce = System.nanoTime();
+    }
+
+    private void closeSegment() {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                logger.warn("Failed to close journal segment in {}", directory, e);
+            }
+        }
+        channel = null;
+        segment = null;
+    }
+
+    // ========================================================================
+    // Segments
+    // ========================================================================
+
+    static String segmentName(long firstSequence) {
+        return String.format("%s%020d%s", SEGMENT_PREFIX, firstSequence, SEGMENT_SUFFIX);
+    }
+
+    /**
+     * Sequence of the first record a journal opened on the directory writes, which also
+     * names its first segment.
+     */
+    private static long nextSequence(Path directory) throws IOException {
+        List<Path> segments = JournalReader.segments(directory);
+        if (segments.isEmpty()) {
+            return 1;
+        }
+        // Only the newest segment can hold the highest sequence
+        long first = JournalReader.firstSequence(segments.get(segments.size() - 1));
+        long last = first - 1;
+        try (JournalReader reader = new JournalReader(directory, first)) {
+            JournalRecord record;
+            while ((record = reader.next()) != null) {
+                last = record.getSequence();
+            }
+        }
+        // A newest segment without a readable record (crash right after it was created) still
+        // owns the file name of its first sequence, so continue past it
+        return Math.max(last, first) + 1;
+    }
+
+    private static byte[] utf8(String value) {
+        // AMQP short strings (exchange, routing key) are at most 255 bytes
+        return value != null ? value.getBytes(StandardCharsets.UTF_8) : new byte[0];
+    }
+
+    private static final class Entry {
+        private final String exchange;
+        private final String routingKey;
+        private final long deliveryTag;
+        private final boolean redelivered;
+        private final long receivedAtMillis;
+        private final byte[] body;
+
+        Entry(String exchange, String routingKey, long deliveryTag, boolean redelivered,
+              long receivedAtMillis, byte[] body) {
+            this.exchange = exchange;
+            this.routingKey = routingKey;
+            this.deliveryTag = deliveryTag;
+            this.redelivered = redelivered;
+            this.receivedAtMillis = receivedAtMillis;
+            this.body = body;
+        }
+    }
+}
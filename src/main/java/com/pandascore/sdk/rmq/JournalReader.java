@@ -0,0 +1,187 @@
+package com.pandascore.sdk.rmq;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Reads the records of a {@link FeedJournal} directory in sequence order.
+ * <p>
+ * Segments are mapped read-only one at a time. A segment ends at its end-of-segment
+ * marker; a torn or corrupt record (e.g. after a crash between group commits) ends the
+ * segment too and is logged, so reading continues with the next segment.
+ *
+ * <pre>{@code
+ * try (JournalReader reader = new JournalReader(Paths.get("/var/lib/feed/journal"))) {
+ *     JournalRecord record;
+ *     while ((record = reader.next()) != null) {
+ *         inspect(record.getRoutingKey(), record.getBody());
+ *     }
+ * }
+ * }</pre>
+ */
+public final class JournalReader implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(JournalReader.class);
+
+    private final List<Path> segments;
+    private final long fromSequence;
+    private final CRC32 crc = new CRC32();
+    private int nextSegment;
+    private MappedByteBuffer current;
+    private Path currentPath;
+
+    /**
+     * Reads every record of the journal.
+     *
+     * @param directory the journal directory
+     * @throws IOException if the directory cannot be listed
+     */
+    public JournalReader(Path directory) throws IOException {
+        this(directory, 0);
+    }
+
+    /**
+     * Reads records from a sequence on, skipping whole segments before it.
+     *
+     * @param directory    the journal directory
+     * @param fromSequence first sequence to return
+     * @throws IOException if the directory cannot be listed
+     */
+    public JournalReader(Path directory, long fromSequence) throws IOException {
+        List<Path> all = segments(directory);
+        int start = 0;
+        for (int i = 1; i < all.size(); i++) {
+            if (firstSequence(all.get(i)) <= fromSequence) {
+                start = i;
+            }
+        }
+        this.segments = all.subList(start, all.size());
+        this.fromSequence = fromSequence;
+    }
+
+    /**
+     * @return the next record, or null once every segment has been read
+     * @throws IOException if a segment cannot be mapped
+     */
+    public JournalRecord next() throws IOException {
+        while (true) {
+            if (current == null) {
+                if (nextSegment >= segments.size()) {
+                    return null;
+                }
+                open(segments.get(nextSegment++));
+                continue;
+            }
+            JournalRecord record = read(current);
+            if (record == null) {
+                current = null;
+            } else if (record.getSequence() >= fromSequence) {
+                return record;
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        current = null;
+        nextSegment = segments.size();
+    }
+
+    private void open(Path segment) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < FeedJournal.SEGMENT_HEADER_BYTES
+                    || buffer.getInt() != FeedJournal.SEGMENT_MAGIC
+                    || buffer.getInt() != FeedJournal.FORMAT_VERSION) {
+                logger.warn("Skipping {}: not a journal segment", segment);
+                return;
+            }
+            current = buffer;
+            currentPath = segment;
+        }
+    }
+
+    private JournalRecord read(ByteBuffer buffer) {
+        if (buffer.remaining() < 4) {
+            return null;
+        }
+        int start = buffer.position();
+        int length = buffer.getInt();
+        if (length == 0) {
+            return null;
+        }
+        if (length < FeedJournal.RECORD_OVERHEAD || length > buffer.remaining()) {
+            logger.warn("Torn record at offset {} of {}, skipping the rest of the segment", start, currentPath);
+            return null;
+        }
+        int contents = buffer.position();
+        ByteBuffer checked = buffer.duplicate();
+        checked.limit(contents + length - 4);
+        crc.reset();
+        crc.update(checked);
+        if ((int) crc.getValue() != buffer.getInt(contents + length - 4)) {
+            logger.warn("Corrupt record at offset {} of {}, skipping the rest of the segment", start, currentPath);
+            return null;
+        }
+        long sequence = buffer.getLong();
+        long receivedAt = buffer.getLong();
+        long deliveryTag = buffer.getLong();
+        boolean redelivered = (buffer.get() & 1) != 0;
+        String exchange = string(buffer, buffer.getShort() & 0xFFFF);
+        String routingKey = string(buffer, buffer.getShort() & 0xFFFF);
+        byte[] payload = new byte[buffer.getInt()];
+        buffer.get(payload);
+        buffer.position(contents + length);
+        return new JournalRecord(sequence, receivedAt, deliveryTag, redelivered, exchange, routingKey, payload);
+    }
+
+    private static String string(ByteBuffer buffer, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // ========================================================================
+    // Segments
+    // ========================================================================
+
+    /**
+     * @return the segment files of a journal directory, oldest first
+     */
+    static List<Path> segments(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return Collections.emptyList();
+        }
+        List<Path> result = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory,
+                FeedJournal.SEGMENT_PREFIX + "*" + FeedJournal.SEGMENT_SUFFIX)) {
+            for (Path path : stream) {
+                result.add(path);
+            }
+        }
+        // Zero-padded sequence numbers sort by name
+        Collections.sort(result);
+        return result;
+    }
+
+    static long firstSequence(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(FeedJournal.SEGMENT_PREFIX.length(),
+            name.length() - FeedJournal.SEGMENT_SUFFIX.length()));
+    }
+}
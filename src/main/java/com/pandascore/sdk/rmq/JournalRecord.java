@@ -0,0 +1,64 @@
+package com.pandascore.sdk.rmq;
+
+/**
+ * One delivery as recorded by {@link FeedJournal}: the raw body with its routing key,
+ * receive time and AMQP delivery metadata.
+ */
+public final class JournalRecord {
+
+    private final long sequence;
+    private final long receivedAtMillis;
+    private final long deliveryTag;
+    private final boolean redelivered;
+    private final String exchange;
+    private final String routingKey;
+    private final byte[] body;
+
+    public JournalRecord(long sequence, long receivedAtMillis, long deliveryTag, boolean redelivered,
+                         String exchange, String routingKey, byte[] body) {
+        this.sequence = sequence;
+        this.receivedAtMillis = receivedAtMillis;
+        this.deliveryTag = deliveryTag;
+        this.redelivered = redelivered;
+        this.exchange = exchange;
+        this.routingKey = routingKey;
+        this.body = body;
+    }
+
+    /**
+     * @return position of the record in the journal, increasing across segments and restarts
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * @return wall-clock time the delivery reached the consumer, in epoch milliseconds
+     */
+    public long getReceivedAtMillis() {
+        return receivedAtMillis;
+    }
+
+    public long getDeliveryTag() {
+        return deliveryTag;
+    }
+
+    public boolean isRedelivered() {
+        return redelivered;
+    }
+
+    public String getExchange() {
+        return exchange;
+    }
+
+    public String getRoutingKey() {
+        return routingKey;
+    }
+
+    /**
+     * @return the message body as received (not copied; do not modify)
+     */
+    public byte[] getBody() {
+        return body;
+    }
+}
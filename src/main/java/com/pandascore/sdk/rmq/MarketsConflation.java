@@ -0,0 +1,118 @@
+package com.pandascore.sdk.rmq;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.pandascore.sdk.RawFeedMessage;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Conflation keys for markets messages under {@code BackpressurePolicy.CONFLATE}.
+ * <p>
+ * Two queued markets updates are interchangeable when they are price updates
+ * ({@code odds_changed} or {@code margin_changed}) for the same match and carry
+ * exactly the same set of market ids: the newer one then holds the current state
+ * of every market the older one touched. Status transitions (suspended, settled,
+ * deactivated, ...) and all other message types get no key and are never conflated.
+ * <p>
+ * Keys are only computed when a bounded lane is full, so the extra streaming
+ * scan over the body costs nothing while listeners keep up.
+ */
+final class MarketsConflation {
+
+    private static final JsonFactory factory = new JsonFactory();
+
+    private MarketsConflation() {
+    }
+
+    /**
+     * @param payload the delivered payload ({@link RawFeedMessage} or {@code JsonNode})
+     * @param action  the action from the routing key
+     * @return the conflation key, or null if the message must not be conflated
+     */
+    static String key(Object payload, String action) {
+        if (!"odds_changed".equals(action) && !"margin_changed".equals(action)) {
+            return null;
+        }
+        if (payload instanceof RawFeedMessage) {
+            RawFeedMessage raw = (RawFeedMessage) payload;
+            if (!"markets".equals(raw.getType()) || raw.getMatchId() == null) {
+                return null;
+            }
+            try {
+                return key(raw.getMatchId(), marketIds(raw.getBody()));
+            } catch (IOException e) {
+                return null;
+            }
+        }
+        if (payload instanceof JsonNode) {
+            JsonNode json = (JsonNode) payload;
+            JsonNode matchId = json.get("match_id");
+            JsonNode markets = json.get("markets");
+            if (!"markets".equals(json.path("type").asText()) || matchId == null
+                    || !matchId.canConvertToLong() || markets == null || !markets.isArray()) {
+                return null;
+            }
+            List<String> ids = new ArrayList<>();
+            for (JsonNode market : markets) {
+                JsonNode id = market.get("id");
+                if (id == null) {
+                    return null;
+                }
+                ids.add(id.asText());
+            }
+            return key(matchId.asLong(), ids);
+        }
+        return null;
+    }
+
+    private static String key(long matchId, List<String> marketIds) {
+        if (marketIds == null || marketIds.isEmpty()) {
+            return null;
+        }
+        Collections.sort(marketIds);
+        return matchId + ":" + String.join(",", marketIds);
+    }
+
+    /**
+     * Reads the ids of the top-level {@code markets} array, or null if any market lacks one.
+     */
+    private static List<String> marketIds(byte[] body) throws IOException {
+        try (JsonParser p = factory.createParser(body)) {
+            if (p.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String field = p.currentName();
+                JsonToken value = p.nextToken();
+                if ("markets".equals(field) && value == JsonToken.START_ARRAY) {
+                    List<String> ids = new ArrayList<>();
+                    while (p.nextToken() == JsonToken.START_OBJECT) {
+                        String id = null;
+                        while (p.nextToken() == JsonToken.FIELD_NAME) {
+                            String marketField = p.currentName();
+                            JsonToken marketValue = p.nextToken();
+                            if ("id".equals(marketField) && marketValue.isScalarValue()) {
+                                id = p.getText();
+                            } else {
+                                p.skipChildren();
+                            }
+                        }
+                        if (id == null) {
+                            return null;
+                        }
+                        ids.add(id);
+                    }
+                    return ids;
+                }
+                p.skipChildren();
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,226 @@
+package com.pandascore.sdk.rmq;
+
+import com.pandascore.sdk.config.SDKOptions.BackpressurePolicy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fans deliveries out over a fixed number of single-threaded worker lanes.
+ * <p>
+ * Tasks submitted with the same partition key always run on the same lane,
+ * so they execute one at a time in submission order. Tasks for different
+ * keys usually land on different lanes and run in parallel.
+ * <p>
+ * {@link RabbitMQFeed} partitions by match id, so odds for one match are
+ * never reordered while a slow listener on one match does not stall the others.
+ * <p>
+ * Each lane's queue can be bounded, with a {@link BackpressurePolicy} deciding
+ * what happens when it is full (see {@link DispatchQueue}).
+ */
+final class PartitionedDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(PartitionedDispatcher.class);
+
+    /**
+     * A task the backpressure policy may discard instead of running.
+     */
+    interface Task extends Runnable {
+
+        /**
+         * Called instead of {@link #run()} when the task is discarded,
+         * e.g. to acknowledge the message it carries.
+         */
+        void drop();
+
+        /**
+         * Whether {@link BackpressurePolicy#DROP_OLDEST} may discard this task. Only
+         * messages that a later message makes redundant should return true; state
+         * transitions such as settlements must never be lost.
+         *
+         * @return true if the task may be dropped
+         */
+        default boolean droppable() {
+            return false;
+        }
+
+        /**
+         * Tasks with equal non-null keys supersede each other under
+         * {@link BackpressurePolicy#CONFLATE}. Called under the lane's lock,
+         * so implementations should compute the key once and cache it.
+         *
+         * @return the conflation key, or null if the task must never be conflated
+         */
+        default Object conflationKey() {
+            return null;
+        }
+    }
+
+    private final DispatchQueue[] queues;
+    private final Thread[] threads;
+
+    /**
+     * Creates a dispatcher with unbounded lane queues.
+     *
+     * @param laneCount number of worker lanes (one thread each)
+     * @param name      thread name prefix, suffixed with the lane index
+     * @throws IllegalArgumentException if laneCount is not positive
+     */
+    PartitionedDispatcher(int laneCount, String name) {
+        this(laneCount, name, 0, BackpressurePolicy.BLOCK);
+    }
+
+    /**
+     * @param laneCount     number of worker lanes (one thread each)
+     * @param name          thread name prefix, suffixed with the lane index
+     * @param queueCapacity maximum queued tasks per lane, or 0 for unbounded
+     * @param policy        what to do when a lane's queue is full
+     * @throws IllegalArgumentException if laneCount is not positive or queueCapacity is negative
+     */
+    PartitionedDispatcher(int laneCount, String name, int queueCapacity, BackpressurePolicy policy) {
+        if (laneCount <= 0) {
+            throw new IllegalArgumentException("laneCount must be positive");
+        }
+        this.queues = new DispatchQueue[laneCount];
+        this.threads = new Thread[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            DispatchQueue queue = new DispatchQueue(queueCapacity, policy);
+            queues[i] = queue;
+            threads[i] = new Thread(() -> runLane(queue), name + "-" + i);
+            threads[i].setDaemon(true);
+            threads[i].start();
+        }
+    }
+
+    /**
+     * @return the number of worker lanes
+     */
+    int laneCount() {
+        return queues.length;
+    }
+
+    /**
+     * Returns the lane index a partition key maps to.
+     * The key's high bits are folded in so sequential ids spread evenly.
+     *
+     * @param key partition key (e.g. a match id)
+     * @return lane index in {@code [0, laneCount)}
+     */
+    int laneFor(long key) {
+        int h = Long.hashCode(key);
+        h ^= (h >>> 16);
+        return Math.floorMod(h, queues.length);
+    }
+
+    /**
+     * Queues a task on the lane owning the given key. With a bounded queue under
+     * {@link BackpressurePolicy#BLOCK} this waits for space; under the other policies
+     * a queued {@link Task} may be discarded (and its {@link Task#drop()} called) instead.
+     *
+     * @param key  partition key
+     * @param task work to run on that lane
+     * @throws RejectedExecutionException if the dispatcher has been shut down, or the
+     *                                    caller was interrupted while waiting for space
+     */
+    void dispatch(long key, Runnable task) {
+        Task victim;
+        try {
+            victim = queues[laneFor(key)].put(task);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for dispatch queue space", e);
+        }
+        if (victim != null) {
+            victim.drop();
+        }
+    }
+
+    /**
+     * @return tasks currently queued across all lanes (excluding the ones running)
+     */
+    int queueDepth() {
+        int depth = 0;
+        for (DispatchQueue queue : queues) {
+            depth += queue.size();
+        }
+        return depth;
+    }
+
+    /**
+     * @return tasks discarded by {@link BackpressurePolicy#DROP_OLDEST} since creation
+     */
+    long droppedCount() {
+        long n = 0;
+        for (DispatchQueue queue : queues) {
+            n += queue.droppedCount();
+        }
+        return n;
+    }
+
+    /**
+     * @return tasks superseded under {@link BackpressurePolicy#CONFLATE} since creation
+     */
+    long conflatedCount() {
+        long n = 0;
+        for (DispatchQueue queue : queues) {
+            n += queue.conflatedCount();
+        }
+        return n;
+    }
+
+    /**
+     * Blocks until every task queued before this call has finished on all lanes.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    void awaitIdle() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(queues.length);
+        for (DispatchQueue queue : queues) {
+            queue.putUnbounded(latch::countDown);
+        }
+        latch.await();
+    }
+
+    /**
+     * Stops accepting tasks and waits for queued tasks to finish.
+     *
+     * @param timeout maximum time to wait per lane
+     * @param unit    unit of {@code timeout}
+     */
+    void shutdown(long timeout, TimeUnit unit) {
+        for (DispatchQueue queue : queues) {
+            queue.close();
+        }
+        try {
+            for (Thread thread : threads) {
+                thread.join(unit.toMillis(timeout));
+                if (thread.isAlive()) {
+                    thread.interrupt();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            for (Thread thread : threads) {
+                thread.interrupt();
+            }
+        }
+    }
+
+    private static void runLane(DispatchQueue queue) {
+        try {
+            Runnable task;
+            while ((task = queue.take()) != null) {
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    logger.warn("Dispatcher task failed", e);
+                }
+            }
+        } catch (InterruptedException e) {
+            // Shutdown timed out: remaining tasks are abandoned, their messages stay unacked
+        }
+    }
+}
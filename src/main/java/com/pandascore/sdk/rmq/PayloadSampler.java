@@ -0,0 +1,47 @@
+package com.pandascore.sdk.rmq;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Picks one message in every N per message type for payload logging.
+ * <p>
+ * The first message of each type is always sampled. Counters are kept per type
+ * so a chatty type cannot starve a rare one; the number of distinct types is
+ * bounded, and types beyond the bound share one counter.
+ */
+final class PayloadSampler {
+
+    static final int MAX_TYPES = 64;
+
+    private final int everyN;
+    private final ConcurrentHashMap<String, AtomicLong> counters = new ConcurrentHashMap<>();
+    private final AtomicLong overflow = new AtomicLong();
+
+    /**
+     * @param everyN sample one message in this many per type; 0 disables sampling
+     */
+    PayloadSampler(int everyN) {
+        if (everyN < 0) {
+            throw new IllegalArgumentException("everyN must not be negative");
+        }
+        this.everyN = everyN;
+    }
+
+    /**
+     * @param type the message type
+     * @return true if this message's payload should be logged
+     */
+    boolean sample(String type) {
+        if (everyN == 0) {
+            return false;
+        }
+        AtomicLong counter = counters.get(type);
+        if (counter == null) {
+            counter = counters.size() < MAX_TYPES
+                ? counters.computeIfAbsent(type, t -> new AtomicLong())
+                : overflow;
+        }
+        return counter.getAndIncrement() % everyN == 0;
+    }
+}
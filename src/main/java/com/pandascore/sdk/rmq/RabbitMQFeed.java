@@ -2,12 +2,19 @@ package com.pandascore.sdk.rmq;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pandascore.sdk.AsyncFeedSink;
 import com.pandascore.sdk.FeedListener;
+import com.pandascore.sdk.RawFeedMessage;
+import com.pandascore.sdk.RoutingKeyFilter;
 import com.pandascore.sdk.TypedFeedAdapter;
 import com.pandascore.sdk.config.JsonMapperFactory;
 import com.pandascore.sdk.config.SDKConfig;
 import com.pandascore.sdk.config.SDKOptions;
 import com.pandascore.sdk.events.EventHandler;
+import com.pandascore.sdk.metrics.FeedMetrics;
+import com.pandascore.sdk.metrics.LatencyHistogram;
+import com.pandascore.sdk.metrics.MetricSet;
+import com.pandascore.sdk.metrics.SDKMetrics;
 import com.rabbitmq.client.BuiltinExchangeType;
 import com.rabbitmq.client.Channel;
 import com.rabbitmq.client.Connection;
@@ -20,22 +27,28 @@ import org.slf4j.MDC;
 import javax.net.ssl.SSLContext;
 import javax.net.ssl.TrustManagerFactory;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
 import java.security.KeyStore;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Queue;
 import java.util.UUID;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * RabbitMQFeed handles connecting to the PandaScore feed over AMQPS,
@@ -55,9 +68,13 @@ public final class RabbitMQFeed implements AutoCloseable {
 
     /** Global counter of active AMQP connections across all RabbitMQFeed instances. */
     private static final AtomicInteger activeConnections = new AtomicInteger(0);
+    /** Highest value {@link #activeConnections} has reached. */
+    private static final AtomicInteger peakConnections = new AtomicInteger(0);
 
     private final SDKOptions opts = SDKConfig.getInstance().getOptions();
     private final boolean alwaysLogPayload = opts.isAlwaysLogPayload();
+    private final SDKOptions.MdcMode mdcMode = opts.getMdcMode();
+    private final PayloadSampler payloadSampler = new PayloadSampler(opts.getPayloadLogSampleRate());
     private final EventHandler handler;
     private Connection conn;
     private Channel chan;
@@ -78,14 +95,33 @@ public final class RabbitMQFeed implements AutoCloseable {
 
     // Recovery state: when true, buffer messages instead of processing them
     private volatile boolean recovering = false;
-    // Buffer for messages received during recovery
-    private final Queue<JsonNode> recoveryBuffer = new ConcurrentLinkedQueue<>();
+    // Buffer for messages received during recovery (JsonNode, or RawFeedMessage for typed sinks)
+    private final Queue<Object> recoveryBuffer = new ConcurrentLinkedQueue<>();
     // Customer sink reference (needed for processing buffered messages)
     private volatile Consumer<Object> customerSink;
     // Flag to indicate intentional shutdown (prevents spurious disconnection events)
     private volatile boolean closing = false;
     // Pending reconnect task (stored so it can be cancelled on close)
     private volatile ScheduledFuture<?> pendingReconnect;
+    // Worker lanes for listener execution (null = run inline on the consumer thread)
+    private final PartitionedDispatcher dispatcher;
+    // Number of ackable messages per cumulative ack (1 = ack each message on its own)
+    private final int ackBatchSize = opts.getAckBatchSize();
+    // Pre-parse routing-key filter (null = process everything)
+    private final RoutingKeyFilter routingKeyFilter = opts.getRoutingKeyFilter();
+    // Cumulative ack tracker for the current channel (null when acking each message directly)
+    private volatile AckTracker ackTracker;
+    // Periodic flush of batched acks (null unless ackBatchSize > 1 with a positive interval)
+    private final ScheduledExecutorService ackFlusher;
+    // Per-interval activity counters; null when every event is logged individually at INFO
+    private final FeedActivitySummary activity;
+    private final ScheduledExecutorService activityReporter;
+    // Raw message journal; null unless SDKOptions.journalDirectory is set
+    private final FeedJournal journal;
+    // Source of AMQP connection factories; replaced by in-process fakes in tests and harnesses
+    private volatile Supplier<ConnectionFactory> connectionFactories = ConnectionFactory::new;
+    // Metrics published under the connection label; null unless SDKOptions.metricsEnabled
+    private final FeedMetrics metrics;
 
     /**
      * Constructs a new RabbitMQFeed with the given EventHandler.
@@ -145,6 +181,64 @@ public final class RabbitMQFeed implements AutoCloseable {
         this.connectionLabel = "[" + effective.stream()
             .map(SDKOptions.QueueBinding::getQueueName)
             .collect(java.util.stream.Collectors.joining(", ")) + "]";
+        // Opened before any thread is started, so a journal that cannot be opened leaks nothing
+        if (opts.getJournalDirectory() != null) {
+            String subdirectory = effective.stream()
+                .map(SDKOptions.QueueBinding::getQueueName)
+                .collect(java.util.stream.Collectors.joining("+"))
+                .replaceAll("[^A-Za-z0-9._+-]", "_");
+            try {
+                this.journal = new FeedJournal(Paths.get(opts.getJournalDirectory()).resolve(subdirectory),
+                    opts.getJournalSegmentBytes(), opts.getJournalFsyncIntervalMs(), opts.getJournalQueueCapacity(),
+                    "rmq-journal");
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot open journal in " + opts.getJournalDirectory(), e);
+            }
+        } else {
+            this.journal = null;
+        }
+        this.dispatcher = opts.getDispatcherThreads() > 0
+            ? new PartitionedDispatcher(opts.getDispatcherThreads(), "rmq-dispatch",
+                opts.getDispatchQueueCapacity(), opts.getBackpressurePolicy())
+            : null;
+        if (ackBatchSize > 1 && opts.getAckBatchIntervalMs() > 0) {
+            this.ackFlusher = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "rmq-ack-flush");
+                t.setDaemon(true);
+                return t;
+            });
+            ackFlusher.scheduleAtFixedRate(this::flushAcks,
+                opts.getAckBatchIntervalMs(), opts.getAckBatchIntervalMs(), TimeUnit.MILLISECONDS);
+        } else {
+            this.ackFlusher = null;
+        }
+        long summaryInterval = opts.getActivitySummaryIntervalMs();
+        if (summaryInterval > 0) {
+            this.activity = new FeedActivitySummary();
+            this.activityReporter = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "rmq-activity-summary");
+                t.setDaemon(true);
+                return t;
+            });
+            activityReporter.scheduleAtFixedRate(() -> logger.info("{} Feed activity: {}",
+                connectionLabel, activity.drain(summaryInterval)), summaryInterval, summaryInterval, TimeUnit.MILLISECONDS);
+        } else {
+            this.activity = null;
+            this.activityReporter = null;
+        }
+        if (opts.isMetricsEnabled()) {
+            this.metrics = new FeedMetrics(connectionLabel);
+            MetricSet set = metrics.getMetricSet();
+            set.gauge("recoveryBufferDepth", recoveryBuffer::size);
+            set.gauge("dispatchQueueDepth", this::getDispatchQueueDepth);
+            set.gauge("dispatchDropped", this::getDispatchDroppedCount);
+            set.gauge("dispatchConflated", this::getDispatchConflatedCount);
+            set.gauge("journalDropped", this::getJournalDroppedCount);
+            SDKMetrics.register(set);
+            ConnectionMetrics.register();
+        } else {
+            this.metrics = null;
+        }
     }
 
     /**
@@ -157,6 +251,16 @@ public final class RabbitMQFeed implements AutoCloseable {
         return connectionLabel;
     }
 
+    /**
+     * Returns the metrics this connection records, published as the
+     * {@link FeedMetrics#TYPE Feed} metric set named after {@link #getConnectionLabel()}.
+     *
+     * @return the metrics, or null when {@link SDKOptions#isMetricsEnabled()} is false
+     */
+    public FeedMetrics getMetrics() {
+        return metrics;
+    }
+
     /**
      * Returns whether this connection should trigger recovery APIs on reconnect.
      * Uses the per-connection setting if provided, otherwise falls back to the global config.
@@ -167,6 +271,45 @@ public final class RabbitMQFeed implements AutoCloseable {
         return recoverOnReconnect != null ? recoverOnReconnect : opts.isRecoverOnReconnect();
     }
 
+    /**
+     * Returns the number of business messages waiting on dispatcher lanes.
+     *
+     * @return queued messages across all lanes, or 0 when no dispatcher is configured
+     */
+    public int getDispatchQueueDepth() {
+        return dispatcher != null ? dispatcher.queueDepth() : 0;
+    }
+
+    /**
+     * Returns how many messages the {@link SDKOptions.BackpressurePolicy#DROP_OLDEST} policy
+     * has discarded since this feed was created.
+     *
+     * @return dropped message count
+     */
+    public long getDispatchDroppedCount() {
+        return dispatcher != null ? dispatcher.droppedCount() : 0;
+    }
+
+    /**
+     * Returns how many deliveries were not journaled because the journal writer fell
+     * behind by more than {@link SDKOptions#getJournalQueueCapacity()} messages.
+     *
+     * @return unjournaled delivery count, 0 without a journal
+     */
+    public long getJournalDroppedCount() {
+        return journal != null ? journal.droppedCount() : 0;
+    }
+
+    /**
+     * Returns how many messages the {@link SDKOptions.BackpressurePolicy#CONFLATE} policy
+     * has replaced with a newer update since this feed was created.
+     *
+     * @return conflated message count
+     */
+    public long getDispatchConflatedCount() {
+        return dispatcher != null ? dispatcher.conflatedCount() : 0;
+    }
+
     /**
      * Returns the effective queue bindings for this connection.
      * Uses per-connection bindings if provided, otherwise falls back to global config.
@@ -182,6 +325,10 @@ public final class RabbitMQFeed implements AutoCloseable {
      * @param sink consumer to process each incoming JSON event
      */
     public synchronized void connect(Consumer<Object> sink) {
+        // Typed adapters record decode and listener time into this connection's metrics
+        if (metrics != null && sink instanceof TypedFeedAdapter) {
+            sink = ((TypedFeedAdapter) sink).withMetrics(metrics);
+        }
         this.customerSink = sink;  // Store reference for buffer processing
 
         // Wire up feed reference to handler for recovery control
@@ -203,6 +350,9 @@ public final class RabbitMQFeed implements AutoCloseable {
                 // triggering recovery — recovery should only start when a real
                 // heartbeat message arrives from the server.
                 handler.resetTimer();
+                if (metrics != null) {
+                    metrics.getConnects().increment();
+                }
                 logger.info("{} Connected successfully", connectionLabel);
                 attempt = 1;
             } catch (Exception e) {
@@ -232,6 +382,26 @@ public final class RabbitMQFeed implements AutoCloseable {
         connect(new TypedFeedAdapter(listener));
     }
 
+    /**
+     * Connects to the RabbitMQ feed with an asynchronous sink.
+     * <p>
+     * Each business message is acknowledged when the stage returned by the sink
+     * completes, rather than when the consumer thread returns. Completed messages
+     * are acked cumulatively ({@code multiple=true}) once every message delivered
+     * before them has completed too. Pair with a larger
+     * {@link SDKOptions#getPrefetchCount() prefetchCount} so several messages can be
+     * in flight at once.
+     *
+     * @param sink asynchronous callback for business events ({@code JsonNode} messages)
+     * @see AsyncFeedSink
+     */
+    public void connectAsync(AsyncFeedSink sink) {
+        if (sink == null) {
+            throw new IllegalArgumentException("AsyncFeedSink must not be null");
+        }
+        connect(new AsyncSinkAdapter(sink));
+    }
+
     /**
      * Establishes the AMQPS connection and declares exchange and queues.
      * Closes any existing connection before creating a new one to prevent leaks.
@@ -255,7 +425,7 @@ public final class RabbitMQFeed implements AutoCloseable {
             vhost
         );
 
-        ConnectionFactory factory = new ConnectionFactory();
+        ConnectionFactory factory = connectionFactories.get();
         factory.setRequestedHeartbeat(10);
         factory.setAutomaticRecoveryEnabled(false);
 
@@ -273,8 +443,15 @@ public final class RabbitMQFeed implements AutoCloseable {
         // Count the connection immediately and enforce the limit.
         // No shutdown listener yet — the explicit decrement on rejection is correct.
         int count = activeConnections.incrementAndGet();
+        peakConnections.accumulateAndGet(count, Math::max);
+        if (metrics != null) {
+            ConnectionMetrics.OPENED.increment();
+        }
         if (count > MAX_CONNECTIONS) {
             activeConnections.decrementAndGet();
+            if (metrics != null) {
+                ConnectionMetrics.REJECTED.increment();
+            }
             conn.close();
             conn = null;
             chan = null;
@@ -338,73 +515,182 @@ public final class RabbitMQFeed implements AutoCloseable {
 
     /**
      * Starts consumers on all configured queues, dispatching messages to the sink.
-     * The {@code feed} MDC tag is updated to the event type for each message
-     * while {@code messageType} holds the raw {@code type} field from the JSON.
+     * In {@link SDKOptions.MdcMode#FULL} mode the {@code feed} MDC tag is updated to the
+     * event type for each message while {@code messageType} holds the raw {@code type}
+     * field from the JSON; the other modes skip this per-message MDC work.
+     * <p>
+     * A {@link TypedFeedAdapter} sink receives {@link RawFeedMessage}s so it can
+     * deserialize straight from the body bytes; any other sink receives a {@code JsonNode}.
+     * <p>
+     * If {@link SDKOptions#getDispatcherThreads()} is positive, the sink runs on a worker
+     * lane chosen by match id and the message is acknowledged from that lane.
+     * <p>
+     * Business messages rejected by {@link SDKOptions#getRoutingKeyFilter()} are acked
+     * and dropped before their body is parsed.
+     * <p>
+     * With an async sink or {@link SDKOptions#getAckBatchSize()} above 1, every delivery
+     * on the channel (heartbeats included) is acked through an {@link AckTracker}.
      *
      * @param sink consumer callback for business events
      * @throws IOException on consumer setup errors
      */
     private void startConsumers(Consumer<Object> sink) throws IOException {
         Map<String, String> savedMap = MDC.getCopyOfContextMap();
+        boolean fullMdc = mdcMode == SDKOptions.MdcMode.FULL;
+        boolean rawDecode = sink instanceof TypedFeedAdapter;
+        AsyncFeedSink async = sink instanceof AsyncSinkAdapter ? ((AsyncSinkAdapter) sink).async : null;
+        // Delivery tags are scoped to the channel, so acks must go to the one that delivered
+        Channel channel = chan;
+        // Async completions arrive out of order and batched acks are deferred, so in either
+        // case every delivery is tracked and acked cumulatively
+        AckTracker tracker = async != null || ackBatchSize > 1 ? new AckTracker(channel, ackBatchSize) : null;
+        ackTracker = tracker;
+        if (ackBatchSize > 1 && opts.getPrefetchCount() > 0 && ackBatchSize > opts.getPrefetchCount()) {
+            logger.warn("{} ackBatchSize {} exceeds prefetchCount {} - batches will only flush on the timer",
+                connectionLabel, ackBatchSize, opts.getPrefetchCount());
+        }
+        // A typed adapter times its own listener calls, separately from decoding
+        LatencyHistogram sinkTime = metrics != null && !rawDecode ? metrics.getListenerNanos() : null;
+        MessageHandler handle = async != null
+            ? (payload, tag, key, rk, action, receivedAt) ->
+                deliverAsync(tracker, async, payload, tag, key, rk, action, receivedAt)
+            : (payload, tag, key, rk, action, receivedAt) ->
+                deliver(channel, tracker, sink, sinkTime, payload, tag, key, rk, action, receivedAt);
         DeliverCallback cb = (consumerTag, msg) -> {
-            MDC.setContextMap(savedMap);
+            long receivedAt = metrics != null ? System.nanoTime() : 0;
+            if (fullMdc) {
+                MDC.setContextMap(savedMap);
+            } else {
+                labelThread();
+            }
+            long deliveryTag = msg.getEnvelope().getDeliveryTag();
+            if (tracker != null) {
+                tracker.register(deliveryTag);
+            }
             String rk = msg.getEnvelope().getRoutingKey();
-            MDC.put("routingKey", rk);
+            if (journal != null) {
+                journal.append(msg.getEnvelope().getExchange(), rk, deliveryTag,
+                    msg.getEnvelope().isRedeliver(), System.currentTimeMillis(), msg.getBody());
+            }
+            // Null for heartbeats and other keys outside the business format
+            RoutingKey key = RoutingKey.parse(rk);
+            if (routingKeyFilter != null && key != null && !routingKeyFilter.accept(key)) {
+                logger.trace("Filtered out routingKey={}", rk);
+                if (activity != null) {
+                    activity.recordFiltered();
+                }
+                if (metrics != null) {
+                    metrics.getFiltered().increment();
+                }
+                ack(channel, tracker, deliveryTag);
+                return;
+            }
+            if (fullMdc) {
+                MDC.put("routingKey", rk);
+            }
 
-            JsonNode json = mapper.readTree(msg.getBody());
-            String type = json.has("type") ? json.get("type").asText() : rk;
-            MDC.put("messageType", type);
-            MDC.put("feed", type); // show event type in 'feed' tag
+            Object payload;
+            String type;
+            boolean isHeartbeat;
+            long parseStart = metrics != null ? System.nanoTime() : 0;
+            if (rawDecode) {
+                RawFeedMessage raw = RawFeedMessage.peek(msg.getBody(), key);
+                payload = raw;
+                type = raw.getType() != null ? raw.getType() : rk;
+                isHeartbeat = raw.isHeartbeat();
+            } else {
+                JsonNode json = mapper.readTree(msg.getBody());
+                payload = json;
+                type = json.has("type") ? json.get("type").asText() : rk;
+                // Heartbeat detection: has "at" field but no "type" field
+                // (matches TypeScript SDK convention: message.at && !message.type)
+                isHeartbeat = isHeartbeatMessage(json);
+            }
+            if (metrics != null) {
+                metrics.getParseNanos().record(System.nanoTime() - parseStart);
+            }
+            if (fullMdc) {
+                MDC.put("messageType", type);
+                MDC.put("feed", type); // show event type in 'feed' tag
+            }
 
-            // Heartbeat detection: has "at" field but no "type" field
-            // (matches TypeScript SDK convention: message.at && !message.type)
-            boolean isHeartbeat = isHeartbeatMessage(json);
             if (isHeartbeat) {
+                if (metrics != null) {
+                    metrics.getHeartbeats().increment();
+                }
                 handler.heartbeat();
                 logger.debug("Received heartbeat");
-                chan.basicAck(msg.getEnvelope().getDeliveryTag(), false);
+                ack(channel, tracker, deliveryTag);
             } else {
                 // Business event processing
-                String[] parts = rk.split("\\.");
-                String eventType = parts[parts.length - 4];
-                String eventId   = parts[parts.length - 3];
-                String action    = parts[parts.length - 1];
+                // The event id is only copied out of the routing key when a line is written
+                String eventType = key != null ? key.eventType() : "";
+                String action    = key != null ? key.action() : "";
+                if (activity != null) {
+                    activity.record(key != null ? key.videogame() : "unknown", type, action);
+                }
+                if (metrics != null) {
+                    metrics.getMessages().increment();
+                }
 
                 // Check if we're in recovery mode
                 if (recovering) {
                     // Buffer message for later processing
-                    recoveryBuffer.add(json);
-                    logger.debug("Buffered message during recovery: type={} eventType={} eventId={} action={}",
-                        type, eventType, eventId, action);
-                    chan.basicAck(msg.getEnvelope().getDeliveryTag(), false);
+                    recoveryBuffer.add(payload);
+                    if (metrics != null) {
+                        metrics.getRecoveryBuffered().increment();
+                    }
+                    if (logger.isDebugEnabled()) {
+                        logger.debug("Buffered message during recovery: type={} eventType={} eventId={} action={}",
+                            type, eventType, eventId(key, rk), action);
+                    }
+                    ack(channel, tracker, deliveryTag);
                 } else {
-                    // Normal processing
-                    logger.info("Event: type={} eventType={} eventId={} action={}",
-                        type, eventType, eventId, action
-                    );
-                    if (alwaysLogPayload) {
+                    // Normal processing. Guarded so the varargs array is not built when disabled;
+                    // the payload itself is only rendered if a line is actually written.
+                    if (activity != null) {
+                        // Summary mode: the per-event line is reserved for TRACE
+                        if (logger.isTraceEnabled()) {
+                            logger.trace("Event: type={} eventType={} eventId={} action={}",
+                                type, eventType, eventId(key, rk), action
+                            );
+                        }
+                    } else if (logger.isInfoEnabled()) {
+                        logger.info("Event: type={} eventType={} eventId={} action={}",
+                            type, eventType, eventId(key, rk), action
+                        );
+                    }
+                    if (alwaysLogPayload || payloadSampler.sample(type)) {
                         logger.info("Payload for eventType={} eventId={}: {}",
-                            eventType, eventId, json.toString()
+                            eventType, eventId(key, rk), payload
                         );
-                    } else {
+                    } else if (logger.isDebugEnabled()) {
                         logger.debug("Payload for eventType={} eventId={}: {}",
-                            eventType, eventId, json.toString()
+                            eventType, eventId(key, rk), payload
                         );
                     }
 
-                    try {
-                        sink.accept(json);
-                        chan.basicAck(msg.getEnvelope().getDeliveryTag(), false);
-                    } catch (Exception e) {
-                        logger.error("Error processing eventId={} action={}",
-                            eventId, action, e);
-                        chan.basicNack(msg.getEnvelope().getDeliveryTag(), false, true);
+                    if (dispatcher == null) {
+                        handle.handle(payload, deliveryTag, key, rk, action, receivedAt);
+                    } else {
+                        Map<String, String> laneMdc = fullMdc ? MDC.getCopyOfContextMap() : null;
+                        try {
+                            dispatcher.dispatch(partitionKey(payload, key, rk), new LaneTask(
+                                handle, channel, tracker, payload, deliveryTag, key, rk, action, laneMdc, receivedAt));
+                        } catch (RejectedExecutionException e) {
+                            if (logger.isDebugEnabled()) {
+                                logger.debug("{} Dispatcher shut down, leaving eventId={} unacked",
+                                    connectionLabel, eventId(key, rk));
+                            }
+                        }
                     }
                 }
             }
-            MDC.remove("routingKey");
-            MDC.remove("messageType");
-            MDC.remove("feed");
+            if (fullMdc) {
+                MDC.remove("routingKey");
+                MDC.remove("messageType");
+                MDC.remove("feed");
+            }
         };
 
         for (SDKOptions.QueueBinding qb : getEffectiveQueueBindings()) {
@@ -418,6 +704,296 @@ public final class RabbitMQFeed implements AutoCloseable {
         }
     }
 
+    /**
+     * Tags the current thread with the connection label in {@link SDKOptions.MdcMode#MINIMAL}
+     * mode. The value is only written when it changes, so a thread that keeps consuming for
+     * the same connection does no MDC work per message.
+     */
+    private void labelThread() {
+        if (mdcMode == SDKOptions.MdcMode.MINIMAL && !connectionLabel.equals(MDC.get("connection"))) {
+            MDC.put("connection", connectionLabel);
+        }
+    }
+
+    /**
+     * A business message queued on a dispatcher lane. Running it invokes the sink and
+     * settles the ack; dropping it (backpressure policy) acks the message unprocessed.
+     */
+    private final class LaneTask implements PartitionedDispatcher.Task {
+        private final MessageHandler handle;
+        private final Channel channel;
+        private final AckTracker tracker;
+        private final Object payload;
+        private final long deliveryTag;
+        private final RoutingKey key;
+        private final String routingKey;
+        private final String action;
+        private final Map<String, String> mdc;
+        private final long receivedAt;
+        private Object conflationKey;
+        private boolean conflationKeyComputed;
+
+        LaneTask(MessageHandler handle, Channel channel, AckTracker tracker, Object payload,
+                 long deliveryTag, RoutingKey key, String routingKey, String action, Map<String, String> mdc,
+                 long receivedAt) {
+            this.handle = handle;
+            this.channel = channel;
+            this.tracker = tracker;
+            this.payload = payload;
+            this.deliveryTag = deliveryTag;
+            this.key = key;
+            this.routingKey = routingKey;
+            this.action = action;
+            this.mdc = mdc;
+            this.receivedAt = receivedAt;
+        }
+
+        @Override
+        public void run() {
+            if (mdc != null) {
+                MDC.setContextMap(mdc);
+            } else {
+                labelThread();
+            }
+            try {
+                handle.handle(payload, deliveryTag, key, routingKey, action, receivedAt);
+            } catch (Exception e) {
+                // Channel gone: the broker redelivers the unacked message
+                logger.warn("{} Could not acknowledge eventId={} action={}",
+                    connectionLabel, eventId(key, routingKey), action, e);
+            } finally {
+                if (mdc != null) {
+                    MDC.clear();
+                }
+            }
+        }
+
+        @Override
+        public void drop() {
+            String eventId = eventId(key, routingKey);
+            logger.debug("{} Dispatch queue full, dropping eventId={} action={}", connectionLabel, eventId, action);
+            try {
+                ack(channel, tracker, deliveryTag);
+            } catch (Exception e) {
+                logger.warn("{} Could not acknowledge dropped eventId={} action={}",
+                    connectionLabel, eventId, action, e);
+            }
+        }
+
+        @Override
+        public boolean droppable() {
+            return RabbitMQFeed.droppable(key);
+        }
+
+        @Override
+        public Object conflationKey() {
+            // Only ever called under the lane lock, so plain fields suffice
+            if (!conflationKeyComputed) {
+                conflationKey = MarketsConflation.key(payload, action);
+                conflationKeyComputed = true;
+            }
+            return conflationKey;
+        }
+    }
+
+    /**
+     * Runs the sink for one business message and settles its acknowledgement.
+     * {@code key} is the parsed routing key, null when {@code routingKey} is not in the business
+     * format; {@code receivedAt} is the {@link System#nanoTime()} of the delivery, 0 without metrics.
+     */
+    @FunctionalInterface
+    private interface MessageHandler {
+        void handle(Object payload, long deliveryTag, RoutingKey key, String routingKey, String action,
+                    long receivedAt) throws IOException;
+    }
+
+    /**
+     * Wraps an {@link AsyncFeedSink} so it can travel through {@link #connect(Consumer)}
+     * and reconnects. Direct calls (recovery-buffer replay) wait for the stage to complete.
+     */
+    static final class AsyncSinkAdapter implements Consumer<Object> {
+        private final AsyncFeedSink async;
+
+        AsyncSinkAdapter(AsyncFeedSink async) {
+            this.async = async;
+        }
+
+        @Override
+        public void accept(Object message) {
+            CompletionStage<?> stage = async.accept(message);
+            if (stage != null) {
+                stage.toCompletableFuture().join();
+            }
+        }
+    }
+
+    /**
+     * Acks a single delivery, through the tracker when deliveries are acked cumulatively.
+     */
+    private static void ack(Channel channel, AckTracker tracker, long deliveryTag) throws IOException {
+        if (tracker != null) {
+            tracker.ack(deliveryTag);
+        } else {
+            channel.basicAck(deliveryTag, false);
+        }
+    }
+
+    /**
+     * Rejects a single delivery with requeue, through the tracker when one is in use.
+     */
+    private static void nack(Channel channel, AckTracker tracker, long deliveryTag) throws IOException {
+        if (tracker != null) {
+            tracker.nack(deliveryTag);
+        } else {
+            channel.basicNack(deliveryTag, false, true);
+        }
+    }
+
+    /**
+     * Sends any batched acks still pending on the current channel.
+     * Called periodically, when recovery starts, and before the channel is closed.
+     */
+    private void flushAcks() {
+        AckTracker tracker = ackTracker;
+        if (tracker == null) {
+            return;
+        }
+        try {
+            tracker.flush();
+        } catch (Exception e) {
+            // Channel gone: the broker redelivers the unacked messages
+            logger.debug("{} Could not flush batched acks", connectionLabel, e);
+        }
+    }
+
+    /**
+     * Hands a message to an async sink; the delivery is acked when the returned stage
+     * completes normally, or nacked with requeue if the sink throws or the stage fails.
+     * A null stage counts as already complete.
+     *
+     * @throws IOException if the ack/nack cannot be sent synchronously
+     */
+    private void deliverAsync(AckTracker tracker, AsyncFeedSink async, Object payload, long deliveryTag,
+                              RoutingKey key, String routingKey, String action, long receivedAt) throws IOException {
+        CompletionStage<?> stage;
+        try {
+            stage = async.accept(payload);
+        } catch (Exception e) {
+            logger.error("Error processing eventId={} action={}",
+                eventId(key, routingKey), action, e);
+            if (metrics != null) {
+                metrics.getListenerErrors().increment();
+            }
+            tracker.nack(deliveryTag);
+            return;
+        }
+        if (stage == null) {
+            tracker.ack(deliveryTag);
+            recordAck(receivedAt);
+            return;
+        }
+        stage.whenComplete((result, error) -> {
+            try {
+                if (error == null) {
+                    tracker.ack(deliveryTag);
+                    recordAck(receivedAt);
+                } else {
+                    logger.error("Error processing eventId={} action={}",
+                        eventId(key, routingKey), action, error);
+                    if (metrics != null) {
+                        metrics.getListenerErrors().increment();
+                    }
+                    tracker.nack(deliveryTag);
+                }
+            } catch (Exception e) {
+                // Channel gone: the broker redelivers the unacked message
+                logger.warn("{} Could not acknowledge eventId={} action={}",
+                    connectionLabel, eventId(key, routingKey), action, e);
+            }
+        });
+    }
+
+    /**
+     * Passes a message to the sink, then acks it, or nacks it with requeue if the sink throws.
+     *
+     * @throws IOException if the ack/nack cannot be sent
+     */
+    private void deliver(Channel channel, AckTracker tracker, Consumer<Object> sink, LatencyHistogram sinkTime,
+                         Object payload, long deliveryTag, RoutingKey key, String routingKey, String action,
+                         long receivedAt)
+            throws IOException {
+        try {
+            if (sinkTime != null) {
+                long start = System.nanoTime();
+                sink.accept(payload);
+                sinkTime.record(System.nanoTime() - start);
+            } else {
+                sink.accept(payload);
+            }
+            ack(channel, tracker, deliveryTag);
+            recordAck(receivedAt);
+        } catch (Exception e) {
+            logger.error("Error processing eventId={} action={}",
+                eventId(key, routingKey), action, e);
+            if (metrics != null) {
+                metrics.getListenerErrors().increment();
+            }
+            nack(channel, tracker, deliveryTag);
+        }
+    }
+
+    /**
+     * Records the time from delivery to acknowledgement of a processed business message.
+     */
+    private void recordAck(long receivedAt) {
+        if (metrics != null) {
+            metrics.getAckNanos().record(System.nanoTime() - receivedAt);
+        }
+    }
+
+    /**
+     * Event id for log lines: the routing-key segment, or the whole key when it is not in
+     * the business format. Copies the segment, so only call it where a line is written.
+     */
+    static String eventId(RoutingKey key, String routingKey) {
+        return key != null ? key.eventId() : routingKey;
+    }
+
+    /**
+     * Whether {@link SDKOptions.BackpressurePolicy#DROP_OLDEST} may discard a queued message:
+     * only fixtures, which the next fixture update for the match supersedes. Markets and
+     * scoreboards carry transitions (settlement, suspension, rollback) that must reach the sink.
+     */
+    static boolean droppable(RoutingKey key) {
+        return key != null && "fixture".equals(key.type());
+    }
+
+    /**
+     * Picks the dispatcher partition key for a message: its {@code match_id} when present,
+     * otherwise the numeric event id from the routing key. Non-numeric ids fall back to
+     * their hash so one event still stays on one lane.
+     *
+     * @param payload    the decoded message ({@link RawFeedMessage} or {@link JsonNode})
+     * @param key        the parsed routing key, or null
+     * @param routingKey the raw routing key
+     * @return partition key
+     */
+    static long partitionKey(Object payload, RoutingKey key, String routingKey) {
+        if (payload instanceof RawFeedMessage) {
+            Long matchId = ((RawFeedMessage) payload).getMatchId();
+            if (matchId != null) {
+                return matchId;
+            }
+        } else if (payload instanceof JsonNode) {
+            JsonNode matchId = ((JsonNode) payload).get("match_id");
+            if (matchId != null && matchId.canConvertToLong()) {
+                return matchId.asLong();
+            }
+        }
+        long eventId = key != null ? key.eventIdAsLong() : -1;
+        return eventId >= 0 ? eventId : eventId(key, routingKey).hashCode();
+    }
+
     /**
      * Schedules a reconnection attempt with exponential backoff.
      *
@@ -429,6 +1005,9 @@ public final class RabbitMQFeed implements AutoCloseable {
         int delay = base + jitter;
         MDC.put("operation", "reconnect");
         logger.warn("{} Reconnecting in {}s (attempt #{})", connectionLabel, delay, attempt);
+        if (metrics != null) {
+            metrics.getReconnects().increment();
+        }
         Map<String, String> savedMap = MDC.getCopyOfContextMap();
         pendingReconnect = retry.schedule(() -> {
             MDC.setContextMap(savedMap);
@@ -443,6 +1022,7 @@ public final class RabbitMQFeed implements AutoCloseable {
      * Called by EventHandler when recovery begins.
      */
     public void startRecovery() {
+        flushAcks();
         recovering = true;
         recoveryBuffer.clear();  // Clear any stale buffered messages
         logger.info("{} Recovery mode started - buffering messages", connectionLabel);
@@ -455,8 +1035,19 @@ public final class RabbitMQFeed implements AutoCloseable {
     public void endRecovery() {
         logger.info("{} Recovery mode ending - processing {} buffered messages", connectionLabel, recoveryBuffer.size());
 
+        // Let messages dispatched before recovery finish first so per-match order is kept
+        if (dispatcher != null) {
+            try {
+                dispatcher.awaitIdle();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RejectedExecutionException e) {
+                logger.debug("{} Dispatcher shut down during recovery", connectionLabel);
+            }
+        }
+
         // Process all buffered messages
-        JsonNode bufferedMessage;
+        Object bufferedMessage;
         int processed = 0;
         while ((bufferedMessage = recoveryBuffer.poll()) != null) {
             try {
@@ -483,6 +1074,7 @@ public final class RabbitMQFeed implements AutoCloseable {
     private void closeExistingConnection() {
         try {
             if (chan != null && chan.isOpen()) {
+                flushAcks();
                 chan.close();
             }
         } catch (Exception e) {
@@ -497,6 +1089,7 @@ public final class RabbitMQFeed implements AutoCloseable {
         } catch (Exception e) {
             logger.debug("Error closing existing connection", e);
         }
+        ackTracker = null;
         chan = null;
         conn = null;
     }
@@ -514,6 +1107,12 @@ public final class RabbitMQFeed implements AutoCloseable {
             pending.cancel(false);
         }
         retry.shutdownNow();
+        if (ackFlusher != null) {
+            ackFlusher.shutdownNow();
+        }
+        if (activityReporter != null) {
+            activityReporter.shutdownNow();
+        }
         try {
             retry.awaitTermination(5, TimeUnit.SECONDS);
         } catch (InterruptedException e) {
@@ -525,7 +1124,17 @@ public final class RabbitMQFeed implements AutoCloseable {
         } catch (Exception e) {
             logger.warn("Error shutting down event handler", e);
         }
+        // Drain in-flight listener work while the channel is still open so it can be acked
+        if (dispatcher != null) {
+            dispatcher.shutdown(5, TimeUnit.SECONDS);
+        }
         closeExistingConnection();
+        if (journal != null) {
+            journal.close();
+        }
+        if (metrics != null) {
+            SDKMetrics.unregister(metrics.getMetricSet());
+        }
     }
 
     /**
@@ -540,6 +1149,34 @@ public final class RabbitMQFeed implements AutoCloseable {
     // Visible for testing: reset the global counter
     static void resetActiveConnectionCount() {
         activeConnections.set(0);
+        peakConnections.set(0);
+    }
+
+    // Visible for testing: connect through another ConnectionFactory (e.g. an in-process fake broker)
+    void setConnectionFactory(Supplier<ConnectionFactory> factories) {
+        this.connectionFactories = factories;
+    }
+
+    /**
+     * Process-wide AMQP connection metrics, published as the {@code Connections} set named
+     * {@code "all"} when the first feed that records metrics is created: the
+     * {@code active} and {@code peak} connection counts as gauges, and counters of
+     * connections {@code opened} and {@code rejected} over {@link #MAX_CONNECTIONS}.
+     */
+    private static final class ConnectionMetrics {
+        private static final MetricSet SET = new MetricSet("Connections", "all");
+        static final LongAdder OPENED = SET.counter("opened");
+        static final LongAdder REJECTED = SET.counter("rejected");
+
+        static {
+            SET.gauge("active", activeConnections::get);
+            SET.gauge("peak", peakConnections::get);
+            SDKMetrics.register(SET);
+        }
+
+        // Loading the class publishes the set
+        static void register() {
+        }
     }
 
     /**
@@ -0,0 +1,391 @@
+package com.pandascore.sdk.rmq;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pandascore.sdk.FeedListener;
+import com.pandascore.sdk.RawFeedMessage;
+import com.pandascore.sdk.RoutingKeyFilter;
+import com.pandascore.sdk.TypedFeedAdapter;
+import com.pandascore.sdk.config.JsonMapperFactory;
+import com.pandascore.sdk.config.SDKOptions.BackpressurePolicy;
+import lombok.Builder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Replays recorded deliveries (e.g. a {@link FeedJournal}) into a sink without a broker.
+ * <p>
+ * Messages reach the sink as they would from {@link RabbitMQFeed}: a {@link TypedFeedAdapter}
+ * receives {@link RawFeedMessage}s and any other sink a {@code JsonNode}; heartbeats are not
+ * delivered; the {@code routingKeyFilter} drops business messages before parsing; and with
+ * {@code dispatcherThreads} the sink runs on worker lanes partitioned by match id.
+ * <p>
+ * Timing follows {@code speed}: 1 keeps the recorded gaps between receive times, N replays
+ * N times faster, and 0 (the default) replays as fast as the sink allows.
+ *
+ * <pre>{@code
+ * try (JournalReader reader = new JournalReader(Paths.get("/var/lib/feed/journal/my-queue"))) {
+ *     ReplayFeed.Stats stats = ReplayFeed.builder()
+ *         .source(reader::next)
+ *         .speed(10)
+ *         .dispatcherThreads(4)
+ *         .build()
+ *         .run(myListener);
+ *     System.out.println(stats.getMessagesPerSecond() + " msg/s");
+ * }
+ * }</pre>
+ */
+public final class ReplayFeed {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplayFeed.class);
+
+    /**
+     * Supplies recorded deliveries in order; {@link JournalReader#next()} is one.
+     */
+    @FunctionalInterface
+    public interface Source {
+
+        /**
+         * @return the next record, or null at the end
+         * @throws IOException if the recording cannot be read
+         */
+        JournalRecord next() throws IOException;
+
+        /**
+         * @param records in-memory records
+         * @return a source over the records
+         */
+        static Source of(Iterable<JournalRecord> records) {
+            Iterator<JournalRecord> it = records.iterator();
+            return () -> it.hasNext() ? it.next() : null;
+        }
+    }
+
+    private final ObjectMapper mapper = JsonMapperFactory.create();
+    private final Source source;
+    private final double speed;
+    private final int dispatcherThreads;
+    private final int dispatchQueueCapacity;
+    private final BackpressurePolicy backpressurePolicy;
+    private final RoutingKeyFilter routingKeyFilter;
+    private volatile boolean stopped;
+
+    /**
+     * @param source                recorded deliveries (required)
+     * @param speed                 1 for recorded timing, N for N times faster, 0 for maximum throughput
+     * @param dispatcherThreads     worker lanes partitioned by match id, 0 to run the sink on the caller
+     * @param dispatchQueueCapacity maximum queued messages per lane, 0 for unbounded
+     * @param backpressurePolicy    full-lane policy, default {@link BackpressurePolicy#BLOCK}
+     * @param routingKeyFilter      routing-key predicate for business messages, or null
+     */
+    @Builder
+    private ReplayFeed(Source source, double speed, int dispatcherThreads, int dispatchQueueCapacity,
+                       BackpressurePolicy backpressurePolicy, RoutingKeyFilter routingKeyFilter) {
+        if (source == null) {
+            throw new IllegalArgumentException("source must not be null");
+        }
+        if (speed < 0 || Double.isNaN(speed)) {
+            throw new IllegalArgumentException("speed must not be negative");
+        }
+        if (dispatcherThreads < 0) {
+            throw new IllegalArgumentException("dispatcherThreads must not be negative");
+        }
+        if (dispatchQueueCapacity < 0) {
+            throw new IllegalArgumentException("dispatchQueueCapacity must not be negative");
+        }
+        this.source = source;
+        this.speed = speed;
+        this.dispatcherThreads = dispatcherThreads;
+        this.dispatchQueueCapacity = dispatchQueueCapacity;
+        this.backpressurePolicy = backpressurePolicy != null ? backpressurePolicy : BackpressurePolicy.BLOCK;
+        this.routingKeyFilter = routingKeyFilter;
+    }
+
+    /**
+     * Replays a journal directory as fast as possible.
+     *
+     * @param journalDirectory directory written by {@link FeedJournal}
+     * @param listener         the listener to drive
+     * @return replay statistics
+     * @throws IOException if the journal cannot be read
+     */
+    public static Stats replay(Path journalDirectory, FeedListener listener) throws IOException {
+        try (JournalReader reader = new JournalReader(journalDirectory)) {
+            return builder().source(reader::next).build().run(listener);
+        }
+    }
+
+    /**
+     * Replays every record into a typed listener. Blocks until the source is exhausted,
+     * {@link #stop()} is called, and every dispatched message has been processed.
+     *
+     * @param listener the listener to drive
+     * @return replay statistics
+     * @throws IOException if the source cannot be read
+     */
+    public Stats run(FeedListener listener) throws IOException {
+        return run(new TypedFeedAdapter(listener));
+    }
+
+    /**
+     * Replays every record into a sink. Blocks until the source is exhausted,
+     * {@link #stop()} is called, and every dispatched message has been processed.
+     *
+     * @param sink consumer of business events
+     * @return replay statistics
+     * @throws IOException if the source cannot be read
+     */
+    public Stats run(Consumer<Object> sink) throws IOException {
+        boolean rawDecode = sink instanceof TypedFeedAdapter;
+        PartitionedDispatcher dispatcher = dispatcherThreads > 0
+            ? new PartitionedDispatcher(dispatcherThreads, "replay-dispatch", dispatchQueueCapacity, backpressurePolicy)
+            : null;
+        Stats stats = new Stats();
+        long firstRecordedAt = 0;
+        long start = System.nanoTime();
+        try {
+            JournalRecord record;
+            while (!stopped && (record = source.next()) != null) {
+                if (stats.read == 0) {
+                    firstRecordedAt = record.getReceivedAtMillis();
+                }
+                stats.read++;
+                if (speed > 0) {
+                    pace(start, record.getReceivedAtMillis() - firstRecordedAt);
+                }
+                replay(record, sink, rawDecode, dispatcher, stats);
+            }
+        } finally {
+            if (dispatcher != null) {
+                dispatcher.shutdown(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+                stats.dropped = dispatcher.droppedCount();
+                stats.conflated = dispatcher.conflatedCount();
+            }
+            stats.elapsedNanos = System.nanoTime() - start;
+        }
+        return stats;
+    }
+
+    /**
+     * Stops a running replay after the current record.
+     */
+    public void stop() {
+        stopped = true;
+    }
+
+    private void replay(JournalRecord record, Consumer<Object> sink, boolean rawDecode,
+                        PartitionedDispatcher dispatcher, Stats stats) {
+        String rk = record.getRoutingKey();
+        RoutingKey key = RoutingKey.parse(rk);
+        if (routingKeyFilter != null && key != null && !routingKeyFilter.accept(key)) {
+            stats.filtered++;
+            return;
+        }
+        Object payload;
+        boolean isHeartbeat;
+        try {
+            if (rawDecode) {
+                RawFeedMessage raw = RawFeedMessage.peek(record.getBody(), key);
+                payload = raw;
+                isHeartbeat = raw.isHeartbeat();
+            } else {
+                JsonNode json = mapper.readTree(record.getBody());
+                payload = json;
+                isHeartbeat = RabbitMQFeed.isHeartbeatMessage(json);
+            }
+        } catch (IOException e) {
+            // One malformed record must not end the replay
+            stats.decodeErrors++;
+            logger.error("Skipping undecodable record sequence={} routingKey={}", record.getSequence(), rk, e);
+            return;
+        }
+        if (isHeartbeat) {
+            stats.heartbeats++;
+            return;
+        }
+        if (dispatcher == null) {
+            deliver(sink, payload, key, rk, stats.failures);
+        } else {
+            try {
+                dispatcher.dispatch(RabbitMQFeed.partitionKey(payload, key, rk),
+                    new ReplayTask(sink, payload, key, rk, stats.failures));
+            } catch (RejectedExecutionException e) {
+                stopped = true;
+                return;
+            }
+        }
+        stats.delivered++;
+    }
+
+    private static void deliver(Consumer<Object> sink, Object payload, RoutingKey key, String routingKey,
+                                LongAdder failures) {
+        try {
+            sink.accept(payload);
+        } catch (Exception e) {
+            failures.increment();
+            logger.error("Error replaying eventId={}", RabbitMQFeed.eventId(key, routingKey), e);
+        }
+    }
+
+    /**
+     * A replayed message queued on a dispatcher lane.
+     */
+    private static final class ReplayTask implements PartitionedDispatcher.Task {
+        private final Consumer<Object> sink;
+        private final Object payload;
+        private final RoutingKey key;
+        private final String routingKey;
+        private final LongAdder failures;
+        private Object conflationKey;
+        private boolean conflationKeyComputed;
+
+        ReplayTask(Consumer<Object> sink, Object payload, RoutingKey key, String routingKey, LongAdder failures) {
+            this.sink = sink;
+            this.payload = payload;
+            this.key = key;
+            this.routingKey = routingKey;
+            this.failures = failures;
+        }
+
+        private String action() {
+            return key != null ? key.action() : "";
+        }
+
+        @Override
+        public void run() {
+            deliver(sink, payload, key, routingKey, failures);
+        }
+
+        @Override
+        public void drop() {
+            logger.debug("Replay dispatch queue full, dropping eventId={} action={}",
+                RabbitMQFeed.eventId(key, routingKey), action());
+        }
+
+        @Override
+        public boolean droppable() {
+            return RabbitMQFeed.droppable(key);
+        }
+
+        @Override
+        public Object conflationKey() {
+            // Only ever called under the lane lock, so plain fields suffice
+            if (!conflationKeyComputed) {
+                conflationKey = MarketsConflation.key(payload, action());
+                conflationKeyComputed = true;
+            }
+            return conflationKey;
+        }
+    }
+
+    /**
+     * Waits until the recorded offset, scaled by the speed, has elapsed since the start.
+     */
+    private void pace(long start, long recordedOffsetMillis) {
+        long due = start + (long) (TimeUnit.MILLISECONDS.toNanos(recordedOffsetMillis) / speed);
+        long wait;
+        while (!stopped && (wait = due - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(wait);
+        }
+    }
+
+    // ========================================================================
+    // Statistics
+    // ========================================================================
+
+    /**
+     * Counters of one replay.
+     */
+    public static final class Stats {
+        private long read;
+        private long delivered;
+        private long heartbeats;
+        private long filtered;
+        private long dropped;
+        private long conflated;
+        private long decodeErrors;
+        private final LongAdder failures = new LongAdder();
+        private long elapsedNanos;
+
+        /**
+         * @return records read from the source
+         */
+        public long getRead() {
+            return read;
+        }
+
+        /**
+         * @return business messages handed to the sink (or its lanes)
+         */
+        public long getDelivered() {
+            return delivered;
+        }
+
+        public long getHeartbeats() {
+            return heartbeats;
+        }
+
+        /**
+         * @return business messages rejected by the routing-key filter
+         */
+        public long getFiltered() {
+            return filtered;
+        }
+
+        /**
+         * @return messages discarded by {@link BackpressurePolicy#DROP_OLDEST}
+         */
+        public long getDropped() {
+            return dropped;
+        }
+
+        /**
+         * @return messages superseded under {@link BackpressurePolicy#CONFLATE}
+         */
+        public long getConflated() {
+            return conflated;
+        }
+
+        /**
+         * @return records skipped because their body could not be parsed
+         */
+        public long getDecodeErrors() {
+            return decodeErrors;
+        }
+
+        /**
+         * @return messages whose sink call threw
+         */
+        public long getFailures() {
+            return failures.sum();
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        /**
+         * @return delivered messages per second of wall-clock replay time
+         */
+        public double getMessagesPerSecond() {
+            return elapsedNanos > 0 ? delivered * 1e9 / elapsedNanos : 0;
+        }
+
+        @Override
+        public String toString() {
+            return "read=" + read + " delivered=" + delivered + " heartbeats=" + heartbeats
+                + " filtered=" + filtered + " dropped=" + dropped + " conflated=" + conflated
+                + " decodeErrors=" + decodeErrors + " failures=" + getFailures()
+                + " elapsedMs=" + TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.pandascore.sdk.rmq;
+
+import java.util.Arrays;
+
+/**
+ * Parsed view of a business routing key
+ * {@code {version}.{videogame_slug}.{event_type}.{event_id}.{type}.{action}}.
+ * <p>
+ * Parsing only records where the segments start; nothing is split or copied.
+ * The low-cardinality segments (version, videogame, event type, type, action)
+ * are resolved against small shared tables on first access, so repeated values
+ * return the same {@code String} instance instead of a fresh substring. The
+ * event id is copied on demand, or read as a number with {@link #eventIdAsLong()}.
+ * <p>
+ * Segments are counted from the end of the key, so a key with extra leading
+ * segments still resolves the last six. Instances are immutable and safe to
+ * hand to other threads.
+ */
+public final class RoutingKey {
+
+    // Per-segment tables of previously seen values, bounded so stray keys cannot grow them
+    private static final Interner VERSIONS = new Interner();
+    private static final Interner VIDEOGAMES = new Interner();
+    private static final Interner EVENT_TYPES = new Interner();
+    private static final Interner TYPES = new Interner();
+    private static final Interner ACTIONS = new Interner();
+
+    private final String key;
+    // Positions of the five dots separating the last six segments
+    private final int dot1;
+    private final int dot2;
+    private final int dot3;
+    private final int dot4;
+    private final int dot5;
+    // Lazily resolved components; racy initialization is benign since Strings are immutable
+    private String version;
+    private String videogame;
+    private String eventType;
+    private String eventId;
+    private String type;
+    private String action;
+
+    private RoutingKey(String key, int dot1, int dot2, int dot3, int dot4, int dot5) {
+        this.key = key;
+        this.dot1 = dot1;
+        this.dot2 = dot2;
+        this.dot3 = dot3;
+        this.dot4 = dot4;
+        this.dot5 = dot5;
+    }
+
+    /**
+     * Parses a business routing key.
+     *
+     * @param key the AMQP routing key
+     * @return the parsed view, or null if the key has fewer than six segments
+     *         (heartbeats and other non-business keys)
+     */
+    public static RoutingKey parse(String key) {
+        int dot5 = key.lastIndexOf('.');
+        int dot4 = dot5 > 0 ? key.lastIndexOf('.', dot5 - 1) : -1;
+        int dot3 = dot4 > 0 ? key.lastIndexOf('.', dot4 - 1) : -1;
+        int dot2 = dot3 > 0 ? key.lastIndexOf('.', dot3 - 1) : -1;
+        int dot1 = dot2 > 0 ? key.lastIndexOf('.', dot2 - 1) : -1;
+        if (dot1 < 0) {
+            return null;
+        }
+        return new RoutingKey(key, dot1, dot2, dot3, dot4, dot5);
+    }
+
+    /**
+     * @return the protocol version segment (e.g. {@code "v1"})
+     */
+    public String version() {
+        String v = version;
+        if (v == null) {
+            version = v = VERSIONS.intern(key, key.lastIndexOf('.', dot1 - 1) + 1, dot1);
+        }
+        return v;
+    }
+
+    /**
+     * @return the videogame slug (e.g. {@code "cs-go"})
+     */
+    public String videogame() {
+        String v = videogame;
+        if (v == null) {
+            videogame = v = VIDEOGAMES.intern(key, dot1 + 1, dot2);
+        }
+        return v;
+    }
+
+    /**
+     * @return the event type (e.g. {@code "match"})
+     */
+    public String eventType() {
+        String v = eventType;
+        if (v == null) {
+            eventType = v = EVENT_TYPES.intern(key, dot2 + 1, dot3);
+        }
+        return v;
+    }
+
+    /**
+     * @return the event id segment as a string (copied on first call)
+     */
+    public String eventId() {
+        String v = eventId;
+        if (v == null) {
+            eventId = v = key.substring(dot3 + 1, dot4);
+        }
+        return v;
+    }
+
+    /**
+     * Reads the event id as a number without copying it.
+     *
+     * @return the event id, or -1 if it is not a non-negative decimal that fits in a long
+     */
+    public long eventIdAsLong() {
+        int start = dot3 + 1;
+        if (start == dot4 || dot4 - start > 18) {
+            return -1;
+        }
+        long id = 0;
+        for (int i = start; i < dot4; i++) {
+            char c = key.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            id = id * 10 + (c - '0');
+        }
+        return id;
+    }
+
+    /**
+     * @return the message type (e.g. {@code "markets"}, {@code "fixture"}, {@code "scoreboard"})
+     */
+    public String type() {
+        String v = type;
+        if (v == null) {
+            type = v = TYPES.intern(key, dot4 + 1, dot5);
+        }
+        return v;
+    }
+
+    /**
+     * @return the action (e.g. {@code "odds_changed"})
+     */
+    public String action() {
+        String v = action;
+        if (v == null) {
+            action = v = ACTIONS.intern(key, dot5 + 1, key.length());
+        }
+        return v;
+    }
+
+    /**
+     * @return the full routing key
+     */
+    @Override
+    public String toString() {
+        return key;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof RoutingKey && key.equals(((RoutingKey) o).key);
+    }
+
+    @Override
+    public int hashCode() {
+        return key.hashCode();
+    }
+
+    /**
+     * Bounded copy-on-write table of segment values, matched in place against the key.
+     * Lookups are lock-free; only a miss that still fits takes the lock to append.
+     */
+    static final class Interner {
+        static final int MAX_ENTRIES = 64;
+
+        private volatile String[] values = new String[0];
+
+        String intern(String key, int start, int end) {
+            String found = find(values, key, start, end);
+            if (found != null) {
+                return found;
+            }
+            String value = key.substring(start, end);
+            synchronized (this) {
+                String[] current = values;
+                found = find(current, key, start, end);
+                if (found != null) {
+                    return found;
+                }
+                if (current.length < MAX_ENTRIES) {
+                    String[] grown = Arrays.copyOf(current, current.length + 1);
+                    grown[current.length] = value;
+                    values = grown;
+                }
+            }
+            return value;
+        }
+
+        int size() {
+            return values.length;
+        }
+
+        private static String find(String[] table, String key, int start, int end) {
+            int len = end - start;
+            for (String v : table) {
+                if (v.length() == len && key.regionMatches(start, v, 0, len)) {
+                    return v;
+                }
+            }
+            return null;
+        }
+    }
+}
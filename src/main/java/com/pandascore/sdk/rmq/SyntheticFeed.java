@@ -0,0 +1,309 @@
+package com.pandascore.sdk.rmq;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.pandascore.sdk.FeedListener;
+import com.pandascore.sdk.config.JsonMapperFactory;
+import com.pandascore.sdk.model.feed.fixtures.FixtureAction;
+import com.pandascore.sdk.model.feed.fixtures.FixtureMatch;
+import com.pandascore.sdk.model.feed.fixtures.FixtureMessage;
+import com.pandascore.sdk.model.feed.fixtures.MatchStatus;
+import com.pandascore.sdk.model.feed.fixtures.Videogame;
+import com.pandascore.sdk.model.feed.markets.MarketAction;
+import com.pandascore.sdk.model.feed.markets.MarketsMessage;
+import com.pandascore.sdk.model.feed.markets.MarketsMessageMarket;
+import com.pandascore.sdk.model.feed.markets.MarketsMessageSelection;
+import com.pandascore.sdk.model.feed.scoreboard.ScoreboardCs;
+import lombok.Builder;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
+
+/**
+ * Local stand-in for the PandaScore feed: generates markets, fixture, scoreboard and
+ * heartbeat deliveries for a configurable number of Counter-Strike matches.
+ * <p>
+ * Bodies are serialized from the SDK model classes and routing keys follow the
+ * {@code {version}.{videogame}.{event_type}.{event_id}.{type}.{action}} layout, so the
+ * deliveries take the same decode and dispatch path as broker traffic. Each match keeps
+ * its own state: selection probabilities drift in a random walk (odds follow with the
+ * configured margin), markets are occasionally suspended and reopened, round scores
+ * advance and the fixture moves from {@code created} to {@code started}.
+ * <p>
+ * The feed is a {@link ReplayFeed.Source} whose receive times are spaced at
+ * {@code messagesPerSecond}, with a heartbeat every 10 seconds of feed time. {@link #run}
+ * paces it at that rate; replay it with speed 0 for maximum throughput. Output is
+ * reproducible for a given {@code seed}.
+ *
+ * <pre>{@code
+ * SyntheticFeed feed = SyntheticFeed.builder().matches(500).messagesPerSecond(20_000).messages(1_000_000).build();
+ * ReplayFeed.Stats paced = feed.run(myListener);
+ * ReplayFeed.Stats flatOut = ReplayFeed.builder().source(SyntheticFeed.builder().messages(1_000_000).build())
+ *     .dispatcherThreads(4).build().run(myListener);
+ * }</pre>
+ */
+public final class SyntheticFeed implements ReplayFeed.Source {
+
+    private static final String VIDEOGAME = "cs-go";
+    private static final String EXCHANGE = "pandascore.feed";
+    private static final long HEARTBEAT_INTERVAL_MILLIS = 10_000;
+    private static final long FIRST_MATCH_ID = 1_000_000;
+    private static final String[] MAPS = {"Mirage", "Inferno", "Nuke", "Ancient", "Anubis", "Vertigo", "Dust2"};
+
+    private final ObjectMapper mapper = JsonMapperFactory.create();
+    private final ObjectMapper scoreboardMapper = JsonMapperFactory.create()
+        .setPropertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE)
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private final SplittableRandom random;
+    private final List<MatchState> matches;
+    private final long messages;
+    private final double messagesPerSecond;
+    private final int marketsPerMatch;
+    private final double margin;
+    private final long startMillis;
+
+    private long produced;
+    private long sequence;
+    private long nextHeartbeatMillis;
+
+    /**
+     * @param matches           number of concurrent matches, default 100
+     * @param messagesPerSecond business messages per second of feed time, default 1000
+     * @param messages          business messages to produce, 0 (default) for an endless feed
+     * @param marketsPerMatch   two-way markets per match, default 3
+     * @param margin            bookmaker margin applied to odds, default 0.05
+     * @param seed              random seed, default 42
+     * @param start             feed time of the first message, default now
+     */
+    @Builder
+    private SyntheticFeed(int matches, double messagesPerSecond, long messages, int marketsPerMatch,
+                          double margin, Long seed, Instant start) {
+        if (matches < 0 || messagesPerSecond < 0 || messages < 0 || marketsPerMatch < 0 || margin < 0) {
+            throw new IllegalArgumentException("synthetic feed settings must not be negative");
+        }
+        this.random = new SplittableRandom(seed != null ? seed : 42L);
+        this.messages = messages;
+        this.messagesPerSecond = messagesPerSecond > 0 ? messagesPerSecond : 1000;
+        this.marketsPerMatch = marketsPerMatch > 0 ? marketsPerMatch : 3;
+        this.margin = margin > 0 ? margin : 0.05;
+        this.startMillis = (start != null ? start : Instant.now()).toEpochMilli();
+        this.nextHeartbeatMillis = startMillis;
+        int count = matches > 0 ? matches : 100;
+        List<MatchState> states = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            states.add(new MatchState(FIRST_MATCH_ID + i));
+        }
+        this.matches = Collections.unmodifiableList(states);
+    }
+
+    /**
+     * Drives a typed listener at {@code messagesPerSecond}, as {@link RabbitMQFeed} would.
+     *
+     * @param listener the listener
+     * @return replay statistics
+     * @throws IOException never for a synthetic source; declared by {@link ReplayFeed}
+     */
+    public ReplayFeed.Stats run(FeedListener listener) throws IOException {
+        return ReplayFeed.builder().source(this).speed(1).build().run(listener);
+    }
+
+    /**
+     * Drives a sink at {@code messagesPerSecond}, as {@link RabbitMQFeed} would.
+     *
+     * @param sink consumer of business events
+     * @return replay statistics
+     * @throws IOException never for a synthetic source; declared by {@link ReplayFeed}
+     */
+    public ReplayFeed.Stats run(Consumer<Object> sink) throws IOException {
+        return ReplayFeed.builder().source(this).speed(1).build().run(sink);
+    }
+
+    /**
+     * @return the next delivery, or null once {@code messages} business messages were produced
+     */
+    @Override
+    public JournalRecord next() {
+        if (messages > 0 && produced >= messages) {
+            return null;
+        }
+        long now = startMillis + (long) (produced * 1000 / messagesPerSecond);
+        if (now >= nextHeartbeatMillis) {
+            nextHeartbeatMillis += HEARTBEAT_INTERVAL_MILLIS;
+            ObjectNode beat = mapper.createObjectNode().put("at", Instant.ofEpochMilli(now).toString());
+            return record(now, "heartbeat", beat);
+        }
+        produced++;
+        MatchState match = matches.get(random.nextInt(matches.size()));
+        int roll = random.nextInt(100);
+        if (!match.started || roll < 3) {
+            return fixture(match, now);
+        }
+        if (roll < 18) {
+            return scoreboard(match, now);
+        }
+        return markets(match, now);
+    }
+
+    // ========================================================================
+    // Messages
+    // ========================================================================
+
+    private JournalRecord markets(MatchState match, long now) {
+        int m = random.nextInt(marketsPerMatch);
+        MarketAction action;
+        if (match.suspended[m]) {
+            match.suspended[m] = false;
+            action = MarketAction.odds_changed;
+        } else if (random.nextInt(50) == 0) {
+            match.suspended[m] = true;
+            action = MarketAction.suspended;
+        } else {
+            // Random walk on the home probability, kept away from certainty
+            double p = match.probabilities[m] + (random.nextDouble() - 0.5) * 0.04;
+            match.probabilities[m] = Math.max(0.05, Math.min(0.95, p));
+            action = MarketAction.odds_changed;
+        }
+        double p = match.probabilities[m];
+        MarketsMessageMarket market = new MarketsMessageMarket();
+        market.setId(match.id + "-" + m);
+        market.setName(m == 0 ? "Winner" : "Map " + m + " winner");
+        market.setTemplate(m == 0 ? "winner-2-way" : "map-winner-2-way");
+        market.setStatus(match.suspended[m] ? "suspended" : "active");
+        market.setMargin(margin);
+        List<MarketsMessageSelection> selections = new ArrayList<>(2);
+        selections.add(selection(market.getId() + "-home", "home", p));
+        selections.add(selection(market.getId() + "-away", "away", 1 - p));
+        market.setSelections(selections);
+
+        MarketsMessage message = new MarketsMessage();
+        message.setType("markets");
+        message.setAt(Instant.ofEpochMilli(now).toString());
+        message.setAction(action);
+        message.setEventType("match");
+        message.setEventId(match.id);
+        message.setVideogameSlug(VIDEOGAME);
+        message.setMatchId(match.id);
+        message.setGamePosition(m == 0 ? null : m);
+        message.setMarkets(Collections.singletonList(market));
+        return record(now, routingKey("match", match.id, "markets", action.name()), message);
+    }
+
+    private MarketsMessageSelection selection(String id, String side, double probability) {
+        MarketsMessageSelection s = new MarketsMessageSelection();
+        s.setId(id);
+        s.setName(side);
+        s.setParticipantSide(side);
+        s.setProbability(probability);
+        s.setProbabilityWithMargin(probability * (1 + margin));
+        s.setOddsDecimal(1 / probability);
+        s.setOddsDecimalWithMargin(1 / (probability * (1 + margin)));
+        return s;
+    }
+
+    private JournalRecord fixture(MatchState match, long now) {
+        FixtureAction action = match.started ? FixtureAction.updated : FixtureAction.started;
+        match.started = true;
+        FixtureMatch fixture = new FixtureMatch();
+        fixture.setId(match.id);
+        fixture.setName("Team " + (match.id % 1000) + " vs Team " + (match.id % 1000 + 1));
+        fixture.setStatus(MatchStatus.LIVE.getValue());
+        fixture.setLeagueId(4000 + match.id % 20);
+        fixture.setTournamentId(5000 + match.id % 40);
+        fixture.setSerieId(6000 + match.id % 30);
+        fixture.setNumberOfGames(3);
+        fixture.setScheduledAt(Instant.ofEpochMilli(startMillis).toString());
+        Videogame videogame = new Videogame();
+        videogame.setSlug(VIDEOGAME);
+        fixture.setVideogame(videogame);
+
+        FixtureMessage message = new FixtureMessage();
+        message.setType("fixture");
+        message.setAt(Instant.ofEpochMilli(now).toString());
+        message.setAction(action);
+        message.setEventType("match");
+        message.setEventId(match.id);
+        message.setVideogameSlug(VIDEOGAME);
+        message.setMatchId(match.id);
+        message.setMatch(fixture);
+        return record(now, routingKey("match", match.id, "fixture", action.getValue()), message);
+    }
+
+    private JournalRecord scoreboard(MatchState match, long now) {
+        match.rounds[random.nextInt(2)]++;
+        if (match.rounds[0] + match.rounds[1] >= 24) {
+            match.rounds[0] = 0;
+            match.rounds[1] = 0;
+            match.map = (match.map + 1) % MAPS.length;
+        }
+        ScoreboardCs.CsMap map = new ScoreboardCs.CsMap();
+        map.setId(match.map + 1);
+        map.setName(MAPS[match.map]);
+        List<ScoreboardCs.CsTeam> teams = new ArrayList<>(2);
+        for (int t = 0; t < 2; t++) {
+            ScoreboardCs.CsTeam team = new ScoreboardCs.CsTeam();
+            team.setId(match.id * 10 + t);
+            team.setSide(t == 0 ? "ct" : "terrorist");
+            team.setRoundScore(match.rounds[t]);
+            teams.add(team);
+        }
+        ScoreboardCs.CsGame game = new ScoreboardCs.CsGame();
+        game.setId(match.id * 10);
+        game.setPosition(1);
+        game.setStatus("running");
+        game.setMap(map);
+        game.setTeams(teams);
+        ScoreboardCs scoreboard = new ScoreboardCs();
+        scoreboard.setId(match.id);
+        scoreboard.setUpdatedAt(Instant.ofEpochMilli(now));
+        scoreboard.setGames(Collections.singletonList(game));
+        scoreboard.setScoreboardType("cs");
+
+        ObjectNode body = scoreboardMapper.valueToTree(scoreboard);
+        body.put("type", "scoreboard");
+        body.put("match_id", match.id);
+        return record(now, routingKey("scoreboard", match.id, "scoreboard", "updated"), body);
+    }
+
+    private static String routingKey(String eventType, long eventId, String type, String action) {
+        return "v1." + VIDEOGAME + "." + eventType + "." + eventId + "." + type + "." + action;
+    }
+
+    private JournalRecord record(long now, String routingKey, Object body) {
+        try {
+            byte[] bytes = body instanceof ObjectNode
+                ? scoreboardMapper.writeValueAsBytes(body)
+                : mapper.writeValueAsBytes(body);
+            sequence++;
+            return new JournalRecord(sequence, now, sequence, false, EXCHANGE, routingKey, bytes);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException("Cannot serialize synthetic message", e);
+        }
+    }
+
+    /** Evolving state of one synthetic match. */
+    private final class MatchState {
+        private final long id;
+        private final double[] probabilities = new double[marketsPerMatch];
+        private final boolean[] suspended = new boolean[marketsPerMatch];
+        private final int[] rounds = new int[2];
+        private int map;
+        private boolean started;
+
+        MatchState(long id) {
+            this.id = id;
+            for (int i = 0; i < probabilities.length; i++) {
+                probabilities[i] = 0.3 + random.nextDouble() * 0.4;
+            }
+            this.map = random.nextInt(MAPS.length);
+        }
+    }
+}
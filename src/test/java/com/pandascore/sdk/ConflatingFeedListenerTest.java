@@ -0,0 +1,215 @@
+package com.pandascore.sdk;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pandascore.sdk.model.feed.fixtures.FixtureMessage;
+import com.pandascore.sdk.model.feed.markets.MarketAction;
+import com.pandascore.sdk.model.feed.markets.MarketsMessage;
+import com.pandascore.sdk.model.feed.markets.MarketsMessageMarket;
+import com.pandascore.sdk.model.feed.markets.MarketsMessageSelection;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for ConflatingFeedListener — per-market merging of pending price updates.
+ * The delegate is held on a first "blocker" callback so later updates pile up.
+ */
+class ConflatingFeedListenerTest {
+
+    private final List<String> replayed = new CopyOnWriteArrayList<>();
+    private final List<MarketsMessage> markets = new CopyOnWriteArrayList<>();
+    private final CountDownLatch blocked = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private ConflatingFeedListener conflating;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        conflating = new ConflatingFeedListener(new FeedListener() {
+            @Override
+            public void onMarkets(MarketsMessage message) {
+                markets.add(message);
+                for (MarketsMessageMarket m : message.getMarkets()) {
+                    replayed.add(message.getAction() + ":" + m.getId() + "=" + price(m));
+                }
+            }
+
+            @Override
+            public void onFixture(FixtureMessage message) {
+                blocked.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                replayed.add("fixture");
+            }
+
+            @Override
+            public void onUnknown(JsonNode raw) {
+                replayed.add("unknown");
+            }
+        });
+        // Park the replay thread so the following updates accumulate
+        conflating.onFixture(new FixtureMessage());
+        assertTrue(blocked.await(5, TimeUnit.SECONDS));
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        conflating.close();
+    }
+
+    private void drain() {
+        release.countDown();
+        conflating.close();
+    }
+
+    private static String price(MarketsMessageMarket m) {
+        StringBuilder sb = new StringBuilder();
+        for (MarketsMessageSelection s : m.getSelections()) {
+            sb.append(s.getId()).append('@').append(s.getOddsDecimal()).append(' ');
+        }
+        return sb.toString().trim();
+    }
+
+    private static MarketsMessageSelection selection(String id, double odds) {
+        MarketsMessageSelection s = new MarketsMessageSelection();
+        s.setId(id);
+        s.setOddsDecimal(odds);
+        return s;
+    }
+
+    private static MarketsMessageMarket market(String id, String status, MarketsMessageSelection... selections) {
+        MarketsMessageMarket m = new MarketsMessageMarket();
+        m.setId(id);
+        m.setStatus(status);
+        m.setSelections(new ArrayList<>(List.of(selections)));
+        return m;
+    }
+
+    private static MarketsMessage message(MarketAction action, MarketsMessageMarket... ms) {
+        MarketsMessage msg = new MarketsMessage();
+        msg.setType("markets");
+        msg.setMatchId(42L);
+        msg.setAction(action);
+        msg.setMarkets(new ArrayList<>(List.of(ms)));
+        return msg;
+    }
+
+    // ============================================================
+    //  Merging
+    // ============================================================
+
+    @Test
+    @DisplayName("Pending price updates for one market collapse to the latest prices")
+    void priceUpdates_merged() {
+        conflating.onMarkets(message(MarketAction.odds_changed, market("m1", "active", selection("a", 1.5))));
+        conflating.onMarkets(message(MarketAction.odds_changed, market("m1", "active", selection("a", 1.6))));
+        conflating.onMarkets(message(MarketAction.odds_changed, market("m1", "active", selection("a", 1.7))));
+        assertEquals(1, conflating.pendingCount());
+
+        drain();
+
+        assertEquals(List.of("fixture", "odds_changed:m1=a@1.7"), replayed);
+        assertEquals(2, conflating.conflatedCount());
+    }
+
+    @Test
+    @DisplayName("Selections omitted by the newer update keep their pending values")
+    void selections_mergedById() {
+        conflating.onMarkets(message(MarketAction.odds_changed,
+            market("m1", "active", selection("a", 1.5), selection("b", 2.5))));
+        conflating.onMarkets(message(MarketAction.odds_changed, market("m1", "active", selection("b", 2.4))));
+
+        drain();
+
+        assertEquals(List.of("fixture", "odds_changed:m1=a@1.5 b@2.4"), replayed);
+    }
+
+    @Test
+    @DisplayName("Order across markets follows each market's latest update")
+    void orderAcrossMarkets_preserved() {
+        conflating.onMarkets(message(MarketAction.odds_changed, market("m1", "active", selection("a", 1.5))));
+        conflating.onMarkets(message(MarketAction.odds_changed, market("m2", "active", selection("x", 3.0))));
+        conflating.onMarkets(message(MarketAction.odds_changed, market("m1", "active", selection("a", 1.6))));
+
+        drain();
+
+        assertEquals(List.of("fixture", "odds_changed:m2=x@3.0", "odds_changed:m1=a@1.6"), replayed);
+        // Consecutive updates of the same match and action are replayed as one message
+        assertEquals(1, markets.size());
+    }
+
+    // ============================================================
+    //  Transitions are never coalesced
+    // ============================================================
+
+    @Test
+    @DisplayName("Suspension is replayed and price updates do not merge across it")
+    void suspension_isBarrier() {
+        conflating.onMarkets(message(MarketAction.odds_changed, market("m1", "active", selection("a", 1.5))));
+        conflating.onMarkets(message(MarketAction.suspended, market("m1", "suspended", selection("a", 1.5))));
+        conflating.onMarkets(message(MarketAction.odds_changed, market("m1", "active", selection("a", 1.8))));
+
+        drain();
+
+        assertEquals(List.of("fixture", "odds_changed:m1=a@1.5", "suspended:m1=a@1.5", "odds_changed:m1=a@1.8"),
+            replayed);
+        assertEquals(0, conflating.conflatedCount());
+    }
+
+    @Test
+    @DisplayName("Settled and deactivated updates are each replayed")
+    void settledAndDeactivated_replayed() {
+        conflating.onMarkets(message(MarketAction.settled, market("m1", "settled", selection("a", 1.5))));
+        conflating.onMarkets(message(MarketAction.deactivated, market("m1", "deactivated", selection("a", 1.5))));
+
+        drain();
+
+        assertEquals(List.of("fixture", "settled:m1=a@1.5", "deactivated:m1=a@1.5"), replayed);
+    }
+
+    @Test
+    @DisplayName("A price update that changes the market status is not merged")
+    void statusChange_notMerged() {
+        conflating.onMarkets(message(MarketAction.odds_changed, market("m1", "active", selection("a", 1.5))));
+        conflating.onMarkets(message(MarketAction.odds_changed, market("m1", "suspended", selection("a", 1.5))));
+
+        drain();
+
+        assertEquals(2, replayed.size() - 1);
+        assertEquals(0, conflating.conflatedCount());
+    }
+
+    // ============================================================
+    //  Other callbacks
+    // ============================================================
+
+    @Test
+    @DisplayName("Non-markets callbacks are replayed in arrival order")
+    void otherCallbacks_inOrder() throws Exception {
+        conflating.onMarkets(message(MarketAction.odds_changed, market("m1", "active", selection("a", 1.5))));
+        conflating.onUnknown(new ObjectMapper().readTree("{}"));
+
+        drain();
+
+        assertEquals(List.of("fixture", "odds_changed:m1=a@1.5", "unknown"), replayed);
+    }
+
+    @Test
+    @DisplayName("Null delegate is rejected")
+    void nullDelegate_throws() {
+        assertThrows(IllegalArgumentException.class, () -> new ConflatingFeedListener(null));
+    }
+}
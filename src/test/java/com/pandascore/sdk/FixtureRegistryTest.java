@@ -0,0 +1,174 @@
+package com.pandascore.sdk;
+
+import com.pandascore.sdk.events.ConnectionEvent;
+import com.pandascore.sdk.model.feed.fixtures.FixtureAction;
+import com.pandascore.sdk.model.feed.fixtures.FixtureMatch;
+import com.pandascore.sdk.model.feed.fixtures.FixtureMessage;
+import com.pandascore.sdk.model.feed.fixtures.League;
+import com.pandascore.sdk.model.feed.fixtures.MatchStatus;
+import com.pandascore.sdk.model.feed.fixtures.Videogame;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for FixtureRegistry — fixture actions and secondary index queries.
+ */
+class FixtureRegistryTest {
+
+    private final FixtureRegistry registry = new FixtureRegistry();
+
+    private static FixtureMatch match(long id, String videogame, String status, long leagueId, String scheduledAt) {
+        FixtureMatch match = new FixtureMatch();
+        match.setId(id);
+        Videogame game = new Videogame();
+        game.setSlug(videogame);
+        match.setVideogame(game);
+        match.setStatus(status);
+        match.setLeagueId(leagueId);
+        match.setTournamentId(leagueId * 10);
+        match.setSerieId(leagueId * 100);
+        match.setScheduledAt(scheduledAt);
+        return match;
+    }
+
+    private static FixtureMessage message(FixtureAction action, FixtureMatch match) {
+        FixtureMessage msg = new FixtureMessage();
+        msg.setAction(action);
+        msg.setMatchId(match != null ? match.getId() : null);
+        msg.setMatch(match);
+        return msg;
+    }
+
+    private static List<Long> ids(List<FixtureMatch> matches) {
+        List<Long> ids = new ArrayList<>();
+        for (FixtureMatch m : matches) {
+            ids.add(m.getId());
+        }
+        Collections.sort(ids);
+        return ids;
+    }
+
+    // ========================================================================
+    // Fixture actions
+    // ========================================================================
+
+    @Test
+    @DisplayName("the latest match replaces the previous one and moves between indexes")
+    void latestMatchWins() {
+        registry.apply(message(FixtureAction.created, match(1L, "cs-go", "pre_match", 5L, "2026-01-20T10:00:00Z")));
+        registry.apply(message(FixtureAction.started, match(1L, "cs-go", "live", 5L, "2026-01-20T10:00:00Z")));
+
+        assertEquals("live", registry.get(1L).getStatus());
+        assertEquals(Collections.singletonList(1L), ids(registry.byStatus("live")));
+        assertTrue(registry.byStatus("pre_match").isEmpty());
+        assertEquals(1, registry.size());
+    }
+
+    @Test
+    @DisplayName("deleted removes the match from every index")
+    void deletedRemoves() {
+        registry.apply(message(FixtureAction.created, match(1L, "cs-go", "pre_match", 5L, "2026-01-20T10:00:00Z")));
+        FixtureMessage deleted = message(FixtureAction.deleted, null);
+        deleted.setMatchId(1L);
+        registry.apply(deleted);
+
+        assertNull(registry.get(1L));
+        assertTrue(registry.byVideogame("cs-go").isEmpty());
+        assertTrue(registry.byLeague(5L).isEmpty());
+        assertTrue(registry.scheduledBetween(Instant.parse("2026-01-20T00:00:00Z"),
+            Instant.parse("2026-01-21T00:00:00Z")).isEmpty());
+    }
+
+    @Test
+    @DisplayName("match-level actions imply a status when the message carries none")
+    void actionsImplyStatus() {
+        registry.apply(message(FixtureAction.created, match(1L, "cs-go", "pre_match", 5L, null)));
+
+        FixtureMessage canceled = message(FixtureAction.canceled, null);
+        canceled.setMatchId(1L);
+        registry.apply(canceled);
+        assertEquals(MatchStatus.CANCELED.getValue(), registry.status(1L));
+        assertEquals(Collections.singletonList(1L), ids(registry.byStatus("canceled")));
+
+        FixtureMessage gameFinished = message(FixtureAction.finished, match(1L, "cs-go", null, 5L, null));
+        gameFinished.setGamePosition(1);
+        registry.apply(gameFinished);
+        assertEquals("canceled", registry.status(1L), "game-level actions keep the match status");
+    }
+
+    @Test
+    @DisplayName("opponents_swapped stores the match as sent")
+    void opponentsSwappedReplacesMatch() {
+        FixtureMatch before = match(1L, "cs-go", "pre_match", 5L, null);
+        registry.apply(message(FixtureAction.created, before));
+        FixtureMatch swapped = match(1L, "cs-go", "pre_match", 5L, null);
+        registry.apply(message(FixtureAction.opponents_swapped, swapped));
+
+        assertSame(swapped, registry.get(1L));
+    }
+
+    // ========================================================================
+    // Queries
+    // ========================================================================
+
+    @Test
+    @DisplayName("find combines videogame and status")
+    void findByVideogameAndStatus() {
+        registry.apply(message(FixtureAction.started, match(1L, "cs-go", "live", 5L, null)));
+        registry.apply(message(FixtureAction.created, match(2L, "cs-go", "pre_match", 5L, null)));
+        registry.apply(message(FixtureAction.started, match(3L, "dota-2", "live", 6L, null)));
+        registry.apply(message(FixtureAction.started, match(4L, "cs-go", "live", 7L, null)));
+
+        assertEquals(Arrays.asList(1L, 4L), ids(registry.find("cs-go", "live")));
+        assertEquals(Arrays.asList(1L, 2L, 4L), ids(registry.byVideogame("cs-go")));
+        assertEquals(Arrays.asList(1L, 2L), ids(registry.byLeague(5L)));
+        assertEquals(Collections.singletonList(3L), ids(registry.byTournament(60L)));
+        assertEquals(Collections.singletonList(4L), ids(registry.bySerie(700L)));
+        assertTrue(registry.find("valorant", "live").isEmpty());
+    }
+
+    @Test
+    @DisplayName("league falls back to the nested league object")
+    void leagueFromNestedObject() {
+        FixtureMatch match = match(1L, "cs-go", "live", 5L, null);
+        match.setLeagueId(null);
+        League league = new League();
+        league.setId(9L);
+        match.setLeague(league);
+        registry.apply(message(FixtureAction.created, match));
+
+        assertEquals(Collections.singletonList(1L), ids(registry.byLeague(9L)));
+    }
+
+    @Test
+    @DisplayName("scheduledBetween returns matches in the half-open range")
+    void scheduledRange() {
+        registry.apply(message(FixtureAction.created, match(1L, "cs-go", "pre_match", 5L, "2026-01-20T10:15:00Z")));
+        registry.apply(message(FixtureAction.created, match(2L, "cs-go", "pre_match", 5L, "2026-01-20T10:45:00Z")));
+        registry.apply(message(FixtureAction.created, match(3L, "cs-go", "pre_match", 5L, "2026-01-20T13:00:00Z")));
+        registry.apply(message(FixtureAction.created, match(4L, "cs-go", "pre_match", 5L, "not a date")));
+
+        assertEquals(Arrays.asList(2L, 3L), ids(registry.scheduledBetween(
+            Instant.parse("2026-01-20T10:30:00Z"), Instant.parse("2026-01-20T13:00:01Z"))));
+        assertEquals(Collections.singletonList(1L), ids(registry.scheduledBetween(
+            Instant.parse("2026-01-20T10:00:00Z"), Instant.parse("2026-01-20T10:45:00Z"))));
+    }
+
+    @Test
+    @DisplayName("recovered matches from reconnection events are stored")
+    void recoveryFromConnectionEvent() {
+        registry.onConnectionEvent(ConnectionEvent.reconnection(new ConnectionEvent.RecoveryData(
+            Collections.emptyList(), Collections.singletonList(match(1L, "lol", "finished", 5L, null)))));
+        registry.onConnectionEvent(ConnectionEvent.disconnection());
+
+        assertEquals(Collections.singletonList(1L), ids(registry.byStatus("finished")));
+    }
+}
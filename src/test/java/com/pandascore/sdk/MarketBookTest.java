@@ -0,0 +1,341 @@
+package com.pandascore.sdk;
+
+import com.pandascore.sdk.events.ConnectionEvent;
+import com.pandascore.sdk.model.feed.fixtures.FixtureAction;
+import com.pandascore.sdk.model.feed.fixtures.FixtureMessage;
+import com.pandascore.sdk.model.feed.markets.MarketAction;
+import com.pandascore.sdk.model.feed.markets.MarketsMessage;
+import com.pandascore.sdk.model.feed.markets.MarketsMessageMarket;
+import com.pandascore.sdk.model.feed.markets.MarketsMessageSelection;
+import com.pandascore.sdk.model.feed.markets.MarketsRecoveryGame;
+import com.pandascore.sdk.model.feed.markets.MarketsRecoveryMatch;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for MarketBook — applying market actions, recovery and snapshot reads.
+ */
+class MarketBookTest {
+
+    private final MarketBook book = new MarketBook();
+
+    private static MarketsMessageSelection selection(String id, double odds) {
+        MarketsMessageSelection s = new MarketsMessageSelection();
+        s.setId(id);
+        s.setOddsDecimal(odds);
+        return s;
+    }
+
+    private static MarketsMessageMarket market(String id, String status, MarketsMessageSelection... selections) {
+        MarketsMessageMarket m = new MarketsMessageMarket();
+        m.setId(id);
+        m.setStatus(status);
+        m.setSelections(selections.length == 0 ? null : new ArrayList<>(Arrays.asList(selections)));
+        return m;
+    }
+
+    private static MarketsMessage message(long matchId, Integer gamePosition, MarketAction action,
+                                          MarketsMessageMarket... markets) {
+        MarketsMessage msg = new MarketsMessage();
+        msg.setType("markets");
+        msg.setAt("2026-01-20T10:00:00Z");
+        msg.setMatchId(matchId);
+        msg.setGamePosition(gamePosition);
+        msg.setAction(action);
+        msg.setMarkets(new ArrayList<>(Arrays.asList(markets)));
+        return msg;
+    }
+
+    private double odds(long matchId, Integer position, String marketId, String selectionId) {
+        return book.market(matchId, position, marketId).getSelection(selectionId).getOddsDecimal();
+    }
+
+    // ========================================================================
+    // Market actions
+    // ========================================================================
+
+    @Test
+    @DisplayName("created markets are stored per match and game position")
+    void createdMarketsStoredPerGame() {
+        book.apply(message(1L, null, MarketAction.created,
+            market("winner", "active", selection("a", 1.5), selection("b", 2.5))));
+        book.apply(message(1L, 2, MarketAction.created, market("winner", "active", selection("a", 1.9))));
+
+        MarketBook.MatchSnapshot match = book.match(1L);
+        assertEquals(1, match.getMarkets().size());
+        assertEquals(1, match.getGame(2).getMarkets().size());
+        assertEquals(1.5, odds(1L, null, "winner", "a"));
+        assertEquals(1.9, odds(1L, 2, "winner", "a"));
+        assertNull(book.market(1L, 1, "winner"));
+        assertNull(book.market(2L, null, "winner"));
+    }
+
+    @Test
+    @DisplayName("odds_changed replaces selections by id and keeps omitted ones")
+    void oddsChangedMergesSelections() {
+        book.apply(message(1L, null, MarketAction.created,
+            market("winner", "active", selection("a", 1.5), selection("b", 2.5))));
+        book.apply(message(1L, null, MarketAction.odds_changed, market("winner", "active", selection("b", 2.2))));
+
+        MarketBook.MarketSnapshot market = book.market(1L, null, "winner");
+        assertEquals(1.5, odds(1L, null, "winner", "a"));
+        assertEquals(2.2, odds(1L, null, "winner", "b"));
+        assertEquals(2, market.getSelections().size());
+        assertEquals(MarketAction.odds_changed, market.getLastAction());
+    }
+
+    @Test
+    @DisplayName("status follows the market status, or the action when the update carries none")
+    void statusTransitions() {
+        book.apply(message(1L, null, MarketAction.created, market("winner", "active", selection("a", 1.5))));
+        book.apply(message(1L, null, MarketAction.suspended, market("winner", null)));
+        assertEquals("suspended", book.market(1L, null, "winner").getStatus());
+        assertEquals(1.5, odds(1L, null, "winner", "a"), "selections survive a status-only update");
+
+        book.apply(message(1L, null, MarketAction.settled, market("winner", "settled", selection("a", 1.5))));
+        assertEquals("settled", book.market(1L, null, "winner").getStatus());
+
+        book.apply(message(1L, null, MarketAction.rollback_settlement, market("winner", "active")));
+        assertEquals("active", book.market(1L, null, "winner").getStatus());
+
+        book.apply(message(1L, null, MarketAction.opponent_updated, market("winner", null)));
+        assertEquals("active", book.market(1L, null, "winner").getStatus(), "other actions keep the status");
+    }
+
+    @Test
+    @DisplayName("rollback_settlement without a status reopens a settled market")
+    void rollbackWithoutStatusReopens() {
+        book.apply(message(1L, null, MarketAction.created, market("winner", "active", selection("a", 1.5))));
+        book.apply(message(1L, null, MarketAction.settled, market("winner", null)));
+        assertEquals("settled", book.market(1L, null, "winner").getStatus());
+
+        book.apply(message(1L, null, MarketAction.rollback_settlement, market("winner", null)));
+
+        MarketBook.MarketSnapshot market = book.market(1L, null, "winner");
+        assertEquals("active", market.getStatus());
+        assertEquals(MarketAction.rollback_settlement, market.getLastAction());
+        assertEquals(1.5, odds(1L, null, "winner", "a"));
+    }
+
+    @Test
+    @DisplayName("messages without match id and markets without id are ignored")
+    void incompleteMessagesIgnored() {
+        MarketsMessage noMatch = message(1L, null, MarketAction.created, market("winner", "active"));
+        noMatch.setMatchId(null);
+        book.apply(noMatch);
+        book.apply(message(2L, null, MarketAction.created, market(null, "active")));
+
+        assertNull(book.match(1L));
+        assertTrue(book.match(2L).getMarkets().isEmpty());
+    }
+
+    // ========================================================================
+    // Snapshots
+    // ========================================================================
+
+    @Test
+    @DisplayName("a snapshot taken before an update is not modified by it")
+    void snapshotsAreImmutable() {
+        book.apply(message(1L, null, MarketAction.created, market("winner", "active", selection("a", 1.5))));
+        book.apply(message(1L, 1, MarketAction.created, market("kills", "active", selection("o", 1.8))));
+        MarketBook.MatchSnapshot before = book.match(1L);
+
+        book.apply(message(1L, null, MarketAction.odds_changed, market("winner", "active", selection("a", 1.7))));
+        book.apply(message(1L, 1, MarketAction.created, market("towers", "active")));
+
+        assertEquals(1.5, before.getMarkets().get("winner").getSelection("a").getOddsDecimal());
+        assertEquals(1, before.getGame(1).getMarkets().size());
+        assertEquals(2, book.match(1L).getGame(1).getMarkets().size());
+        assertTrue(book.match(1L).getVersion() > before.getVersion());
+        assertThrows(UnsupportedOperationException.class, () -> before.getMarkets().clear());
+    }
+
+    @Test
+    @DisplayName("untouched games are shared between successive snapshots")
+    void untouchedGamesShared() {
+        book.apply(message(1L, 1, MarketAction.created, market("kills", "active")));
+        MarketBook.GameSnapshot game1 = book.match(1L).getGame(1);
+
+        book.apply(message(1L, 2, MarketAction.created, market("kills", "active")));
+
+        assertSame(game1, book.match(1L).getGame(1));
+    }
+
+    @Test
+    @DisplayName("processedAt is the latest at applied and never moves back")
+    void processedAtOnlyAdvances() {
+        assertNull(book.processedAt());
+        MarketsMessage later = message(1L, null, MarketAction.created, market("winner", "active"));
+        later.setAt("2026-01-20T10:05:00Z");
+        book.apply(later);
+        book.apply(message(2L, null, MarketAction.created, market("winner", "active")));
+        assertEquals("2026-01-20T10:05:00Z", book.processedAt());
+
+        MarketsMessage fractional = message(2L, null, MarketAction.odds_changed, market("winner", null));
+        fractional.setAt("2026-01-20T10:05:00.250Z");
+        book.apply(fractional);
+        assertEquals("2026-01-20T10:05:00.250Z", book.processedAt());
+    }
+
+    @Test
+    @DisplayName("concurrent readers always see a complete market while it is updated")
+    void concurrentReadsSeeCompleteMarkets() throws Exception {
+        book.apply(message(1L, null, MarketAction.created,
+            market("winner", "active", selection("a", 1.0), selection("b", 1.0))));
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicReference<String> failure = new AtomicReference<>();
+        Thread reader = new Thread(() -> {
+            while (running.get()) {
+                MarketBook.MarketSnapshot m = book.market(1L, null, "winner");
+                double a = m.getSelection("a").getOddsDecimal();
+                double b = m.getSelection("b").getOddsDecimal();
+                if (a != b) {
+                    failure.set("torn read: " + a + " vs " + b);
+                }
+            }
+        });
+        reader.start();
+        for (int i = 2; i < 5_000; i++) {
+            book.apply(message(1L, null, MarketAction.odds_changed,
+                market("winner", "active", selection("a", i), selection("b", i))));
+        }
+        running.set(false);
+        reader.join(5_000);
+
+        assertNull(failure.get());
+        assertEquals(4_999.0, odds(1L, null, "winner", "a"));
+    }
+
+    // ========================================================================
+    // Recovery
+    // ========================================================================
+
+    private static MarketsRecoveryMatch recovery(long matchId, List<MarketsMessageMarket> matchMarkets,
+                                                 MarketsRecoveryGame... games) {
+        MarketsRecoveryMatch match = new MarketsRecoveryMatch();
+        match.setId(matchId);
+        match.setMarkets(matchMarkets);
+        match.setGames(Arrays.asList(games));
+        return match;
+    }
+
+    private static MarketsRecoveryGame game(long id, int position, MarketsMessageMarket... markets) {
+        MarketsRecoveryGame game = new MarketsRecoveryGame();
+        game.setId(id);
+        game.setPosition(position);
+        game.setMarkets(Arrays.asList(markets));
+        return game;
+    }
+
+    @Test
+    @DisplayName("recovery replaces recovered markets and keeps the others")
+    void recoveryUpsertsMarkets() {
+        book.apply(message(1L, null, MarketAction.created,
+            market("winner", "active", selection("a", 1.5), selection("b", 2.5))));
+        book.apply(message(1L, null, MarketAction.created, market("handicap", "active", selection("h", 1.9))));
+
+        book.applyRecovery(Collections.singletonList(recovery(1L,
+            Collections.singletonList(market("winner", "suspended", selection("a", 1.6))),
+            game(77L, 1, market("kills", "active", selection("o", 1.8))))));
+
+        MarketBook.MarketSnapshot winner = book.market(1L, null, "winner");
+        assertEquals("suspended", winner.getStatus());
+        assertEquals(1, winner.getSelections().size(), "recovered market state replaces the old one");
+        assertNull(winner.getLastAction());
+        assertEquals(1.9, odds(1L, null, "handicap", "h"));
+        assertEquals(Long.valueOf(77L), book.match(1L).getGame(1).getGameId());
+        assertEquals(1.8, odds(1L, 1, "kills", "o"));
+    }
+
+    @Test
+    @DisplayName("recovery does not roll back markets the feed updated after the given version")
+    void recoveryKeepsNewerLiveUpdates() {
+        book.apply(message(1L, null, MarketAction.created, market("winner", "active", selection("a", 1.5))));
+        book.apply(message(1L, null, MarketAction.created, market("handicap", "active", selection("h", 1.9))));
+        long fetchedAt = book.version();
+        book.apply(message(1L, null, MarketAction.odds_changed, market("winner", "active", selection("a", 1.4))));
+
+        book.applyRecovery(Collections.singletonList(recovery(1L, Arrays.asList(
+            market("winner", "active", selection("a", 1.6)),
+            market("handicap", "active", selection("h", 2.0))))), fetchedAt);
+
+        assertEquals(1.4, odds(1L, null, "winner", "a"));
+        assertEquals(2.0, odds(1L, null, "handicap", "h"));
+    }
+
+    @Test
+    @DisplayName("reconnection events apply recovered markets unless updated since the disconnection")
+    void connectionEventsDriveRecovery() {
+        book.apply(message(1L, null, MarketAction.created, market("winner", "active", selection("a", 1.5))));
+        book.apply(message(1L, null, MarketAction.created, market("handicap", "active", selection("h", 1.9))));
+        book.onConnectionEvent(ConnectionEvent.disconnection());
+        book.apply(message(1L, null, MarketAction.odds_changed, market("winner", "active", selection("a", 1.4))));
+
+        book.onConnectionEvent(ConnectionEvent.reconnection(new ConnectionEvent.RecoveryData(
+            Collections.singletonList(recovery(1L, Arrays.asList(
+                market("winner", "active", selection("a", 1.6)),
+                market("handicap", "suspended")))),
+            Collections.emptyList())));
+
+        assertEquals(1.4, odds(1L, null, "winner", "a"));
+        assertEquals("suspended", book.market(1L, null, "handicap").getStatus());
+    }
+
+    // ========================================================================
+    // Listener
+    // ========================================================================
+
+    @Test
+    @DisplayName("downstream listener reads the updated book and fixtures evict finished matches")
+    void forwardsAndEvicts() {
+        List<Double> seen = new ArrayList<>();
+        MarketBook[] self = new MarketBook[1];
+        MarketBook chained = new MarketBook(new FeedListener() {
+            @Override
+            public void onMarkets(MarketsMessage message) {
+                seen.add(self[0].market(1L, null, "winner").getSelection("a").getOddsDecimal());
+            }
+
+            @Override
+            public void onFixture(FixtureMessage message) {
+                seen.add((double) self[0].size());
+            }
+        });
+        self[0] = chained;
+
+        chained.onMarkets(message(1L, null, MarketAction.created, market("winner", "active", selection("a", 1.5))));
+        FixtureMessage finished = new FixtureMessage();
+        finished.setMatchId(1L);
+        finished.setAction(FixtureAction.settled);
+        chained.onFixture(finished);
+
+        assertEquals(Arrays.asList(1.5, 1.0), seen);
+        assertEquals(0, chained.size());
+    }
+
+    @Test
+    @DisplayName("game-level fixtures and other actions do not evict the match")
+    void gameFixturesDoNotEvict() {
+        book.apply(message(1L, null, MarketAction.created, market("winner", "active")));
+        FixtureMessage gameSettled = new FixtureMessage();
+        gameSettled.setMatchId(1L);
+        gameSettled.setGamePosition(1);
+        gameSettled.setAction(FixtureAction.settled);
+        book.onFixture(gameSettled);
+        FixtureMessage started = new FixtureMessage();
+        started.setMatchId(1L);
+        started.setAction(FixtureAction.started);
+        book.onFixture(started);
+
+        assertEquals(1, book.size());
+    }
+}
@@ -0,0 +1,147 @@
+package com.pandascore.sdk;
+
+import com.pandascore.sdk.model.feed.fixtures.FixtureAction;
+import com.pandascore.sdk.model.feed.fixtures.FixtureMessage;
+import com.pandascore.sdk.model.feed.markets.MarketAction;
+import com.pandascore.sdk.model.feed.markets.MarketsMessage;
+import com.pandascore.sdk.model.feed.markets.MarketsMessageMarket;
+import com.pandascore.sdk.model.feed.markets.MarketsMessageSelection;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for MarketDiffer — deltas against the last known market state.
+ */
+class MarketDifferTest {
+
+    private final List<List<MarketDelta>> delivered = new ArrayList<>();
+    private final MarketDiffer differ = new MarketDiffer((deltas, message) -> delivered.add(deltas));
+
+    private static MarketsMessageSelection selection(String id, double odds) {
+        MarketsMessageSelection s = new MarketsMessageSelection();
+        s.setId(id);
+        s.setOddsDecimal(odds);
+        return s;
+    }
+
+    private static MarketsMessageMarket market(String id, String status, MarketsMessageSelection... selections) {
+        MarketsMessageMarket m = new MarketsMessageMarket();
+        m.setId(id);
+        m.setStatus(status);
+        m.setSelections(selections.length == 0 ? null : new ArrayList<>(Arrays.asList(selections)));
+        return m;
+    }
+
+    private static MarketsMessage message(long matchId, MarketAction action, MarketsMessageMarket... markets) {
+        MarketsMessage msg = new MarketsMessage();
+        msg.setType("markets");
+        msg.setAt("2026-01-20T10:00:00Z");
+        msg.setMatchId(matchId);
+        msg.setAction(action);
+        msg.setMarkets(new ArrayList<>(Arrays.asList(markets)));
+        return msg;
+    }
+
+    // ========================================================================
+    // Deltas
+    // ========================================================================
+
+    @Test
+    @DisplayName("a new market reports every selection with no previous state")
+    void newMarketReportsAllSelections() {
+        differ.onMarkets(message(1L, MarketAction.created,
+            market("winner", "active", selection("a", 1.5), selection("b", 2.5))));
+
+        assertEquals(1, delivered.size());
+        MarketDelta delta = delivered.get(0).get(0);
+        assertTrue(delta.isNewMarket());
+        assertNull(delta.getPreviousStatus());
+        assertEquals("active", delta.getStatus());
+        assertEquals(2, delta.getChanges().size());
+        assertNull(delta.getChanges().get(0).getPreviousOdds());
+        assertEquals(1.5, delta.getChanges().get(0).getOdds());
+    }
+
+    @Test
+    @DisplayName("only selections whose odds moved are reported, with old and new odds")
+    void changedSelectionsOnly() {
+        differ.onMarkets(message(1L, MarketAction.created,
+            market("winner", "active", selection("a", 1.5), selection("b", 2.5))));
+        differ.onMarkets(message(1L, MarketAction.odds_changed,
+            market("winner", "active", selection("a", 1.5), selection("b", 2.2))));
+
+        MarketDelta delta = delivered.get(1).get(0);
+        assertFalse(delta.isNewMarket());
+        assertFalse(delta.isStatusChanged());
+        assertEquals(1, delta.getChanges().size());
+        MarketDelta.SelectionChange change = delta.getChanges().get(0);
+        assertEquals("b", change.getSelectionId());
+        assertEquals(2.5, change.getPreviousOdds());
+        assertEquals(2.2, change.getOdds());
+    }
+
+    @Test
+    @DisplayName("unchanged markets are skipped and an unchanged message is not delivered")
+    void unchangedMarketsSkipped() {
+        differ.onMarkets(message(1L, MarketAction.created,
+            market("winner", "active", selection("a", 1.5)),
+            market("handicap", "active", selection("h", 1.9))));
+        differ.onMarkets(message(1L, MarketAction.odds_changed,
+            market("winner", "active", selection("a", 1.5)),
+            market("handicap", "active", selection("h", 1.8))));
+        differ.onMarkets(message(1L, MarketAction.odds_changed,
+            market("winner", "active", selection("a", 1.5)),
+            market("handicap", "active", selection("h", 1.8))));
+
+        assertEquals(2, delivered.size());
+        assertEquals(1, delivered.get(1).size());
+        assertEquals("handicap", delivered.get(1).get(0).getMarketId());
+    }
+
+    @Test
+    @DisplayName("a status change without selections is reported")
+    void statusChangeReported() {
+        differ.onMarkets(message(1L, MarketAction.created, market("winner", "active", selection("a", 1.5))));
+        differ.onMarkets(message(1L, MarketAction.suspended, market("winner", null)));
+
+        MarketDelta delta = delivered.get(1).get(0);
+        assertTrue(delta.isStatusChanged());
+        assertEquals("active", delta.getPreviousStatus());
+        assertEquals("suspended", delta.getStatus());
+        assertTrue(delta.getChanges().isEmpty());
+        assertEquals(MarketAction.suspended, delta.getAction());
+    }
+
+    @Test
+    @DisplayName("downstream receives every message, changed or not, after the deltas")
+    void downstreamReceivesEveryMessage() {
+        List<String> calls = new ArrayList<>();
+        MarketDiffer chained = new MarketDiffer((deltas, message) -> calls.add("deltas"), new FeedListener() {
+            @Override
+            public void onMarkets(MarketsMessage message) {
+                calls.add("markets");
+            }
+
+            @Override
+            public void onFixture(FixtureMessage message) {
+                calls.add("fixture");
+            }
+        });
+        chained.onMarkets(message(1L, MarketAction.created, market("winner", "active", selection("a", 1.5))));
+        chained.onMarkets(message(1L, MarketAction.odds_changed, market("winner", "active", selection("a", 1.5))));
+
+        FixtureMessage settled = new FixtureMessage();
+        settled.setAction(FixtureAction.settled);
+        settled.setMatchId(1L);
+        chained.onFixture(settled);
+
+        assertEquals(Arrays.asList("deltas", "markets", "markets", "fixture"), calls);
+        assertNull(chained.book().match(1L), "settled matches are evicted from the known state");
+    }
+}
@@ -0,0 +1,213 @@
+package com.pandascore.sdk;
+
+import com.pandascore.sdk.model.feed.markets.MarketAction;
+import com.pandascore.sdk.model.feed.markets.MarketsMessage;
+import com.pandascore.sdk.model.feed.markets.MarketsMessageMarket;
+import com.pandascore.sdk.model.feed.markets.MarketsMessageSelection;
+import com.pandascore.sdk.model.feed.markets.MarketsRecoveryGame;
+import com.pandascore.sdk.model.feed.markets.MarketsRecoveryMatch;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for OddsStore — primitive columns, handles, status and consistent reads.
+ */
+class OddsStoreTest {
+
+    private final OddsStore store = new OddsStore();
+
+    private static MarketsMessageSelection selection(String id, Double odds, Double probability) {
+        MarketsMessageSelection s = new MarketsMessageSelection();
+        s.setId(id);
+        s.setOddsDecimal(odds);
+        s.setProbability(probability);
+        return s;
+    }
+
+    private static MarketsMessageMarket market(String id, String status, MarketsMessageSelection... selections) {
+        MarketsMessageMarket m = new MarketsMessageMarket();
+        m.setId(id);
+        m.setStatus(status);
+        m.setSelections(selections.length == 0 ? null : new ArrayList<>(Arrays.asList(selections)));
+        return m;
+    }
+
+    private static MarketsMessage message(long matchId, MarketAction action, MarketsMessageMarket... markets) {
+        MarketsMessage msg = new MarketsMessage();
+        msg.setMatchId(matchId);
+        msg.setAction(action);
+        msg.setMarkets(new ArrayList<>(Arrays.asList(markets)));
+        return msg;
+    }
+
+    @Test
+    @DisplayName("prices are stored per selection and absent values read as NaN")
+    void storesPrices() {
+        store.apply(message(1L, MarketAction.created,
+            market("winner", "active", selection("a", 1.5, 0.66), selection("b", 2.5, null))));
+
+        int a = store.handle(1L, "a");
+        int b = store.handle(1L, "b");
+        assertTrue(a >= 0 && b >= 0 && a != b);
+        assertEquals(1.5, store.get(a, OddsStore.Column.ODDS_DECIMAL));
+        assertEquals(0.66, store.get(a, OddsStore.Column.PROBABILITY));
+        assertTrue(Double.isNaN(store.get(b, OddsStore.Column.PROBABILITY)));
+        assertTrue(Double.isNaN(store.get(a, OddsStore.Column.ODDS_DECIMAL_WITH_MARGIN)));
+        assertEquals("active", store.status(a));
+        assertEquals(-1, store.handle(1L, "c"));
+        assertEquals(-1, store.handle(2L, "a"));
+        assertEquals(2, store.size());
+    }
+
+    @Test
+    @DisplayName("updates keep the handle and read() copies every column of one update")
+    void updatesInPlace() {
+        store.apply(message(1L, MarketAction.created, market("winner", "active", selection("a", 1.5, 0.6))));
+        int a = store.handle(1L, "a");
+        store.apply(message(1L, MarketAction.odds_changed, market("winner", "active", selection("a", 1.7, 0.55))));
+
+        double[] row = new double[OddsStore.Column.values().length];
+        long version = store.read(a, row);
+
+        assertEquals(a, store.handle(1L, "a"));
+        assertEquals(1.7, row[OddsStore.Column.ODDS_DECIMAL.ordinal()]);
+        assertEquals(0.55, row[OddsStore.Column.PROBABILITY.ordinal()]);
+        assertEquals(2L, version);
+    }
+
+    @Test
+    @DisplayName("market status applies to every known selection, also from status-only updates")
+    void statusFollowsMarket() {
+        store.apply(message(1L, MarketAction.created,
+            market("winner", "active", selection("a", 1.5, null), selection("b", 2.5, null))));
+        store.apply(message(1L, MarketAction.suspended, market("winner", null)));
+
+        assertEquals("suspended", store.status(store.handle(1L, "a")));
+        assertEquals("suspended", store.status(store.handle(1L, "b")));
+        assertEquals(1.5, store.get(store.handle(1L, "a"), OddsStore.Column.ODDS_DECIMAL));
+
+        store.apply(message(1L, MarketAction.odds_changed, market("winner", "active", selection("a", 1.4, null))));
+        assertEquals("active", store.status(store.handle(1L, "b")));
+    }
+
+    @Test
+    @DisplayName("removing a match frees its handles for reuse")
+    void removeMatchReusesHandles() {
+        store.apply(message(1L, MarketAction.created,
+            market("winner", "active", selection("a", 1.5, null), selection("b", 2.5, null))));
+        Set<Integer> freed = new HashSet<>();
+        store.forEachHandle(1L, freed::add);
+
+        assertEquals(2, store.removeMatch(1L));
+        assertEquals(0, store.removeMatch(1L));
+        assertEquals(-1, store.handle(1L, "a"));
+
+        store.apply(message(2L, MarketAction.created, market("winner", "active", selection("x", 3.0, null))));
+        int x = store.handle(2L, "x");
+        assertTrue(freed.contains(x));
+        assertEquals(3.0, store.get(x, OddsStore.Column.ODDS_DECIMAL));
+        assertTrue(Double.isNaN(store.get(x, OddsStore.Column.PROBABILITY)), "reused rows start cleared");
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    @DisplayName("recovered markets of the match and its games are stored")
+    void appliesRecovery() {
+        MarketsRecoveryGame game = new MarketsRecoveryGame();
+        game.setPosition(1);
+        game.setMarkets(Collections.singletonList(market("kills", "active", selection("o", 1.8, null))));
+        MarketsRecoveryMatch match = new MarketsRecoveryMatch();
+        match.setId(1L);
+        match.setMarkets(Collections.singletonList(market("winner", "settled", selection("a", 1.5, null))));
+        match.setGames(Collections.singletonList(game));
+
+        store.applyRecovery(Collections.singletonList(match));
+
+        assertEquals("settled", store.status(store.handle(1L, "a")));
+        assertEquals(1.8, store.get(store.handle(1L, "o"), OddsStore.Column.ODDS_DECIMAL));
+    }
+
+    @Test
+    @DisplayName("a recovery fetched before a live update keeps the newer live prices")
+    void recoveryKeepsNewerLivePrices() {
+        store.apply(message(1L, MarketAction.created,
+            market("winner", "active", selection("a", 1.5, null)),
+            market("handicap", "active", selection("b", 2.5, null))));
+        long fetchedAt = store.version();
+        store.apply(message(1L, MarketAction.odds_changed, market("winner", "active", selection("a", 1.9, null))));
+        store.apply(message(1L, MarketAction.suspended, market("kills", "suspended", selection("o", 3.0, null))));
+
+        MarketsRecoveryMatch match = new MarketsRecoveryMatch();
+        match.setId(1L);
+        match.setMarkets(Arrays.asList(
+            market("winner", "active", selection("a", 1.6, null)),
+            market("handicap", "active", selection("b", 2.2, null)),
+            market("kills", "active", selection("o", 2.8, null))));
+        store.applyRecovery(Collections.singletonList(match), fetchedAt);
+
+        assertEquals(1.9, store.get(store.handle(1L, "a"), OddsStore.Column.ODDS_DECIMAL), "live update kept");
+        assertEquals(2.2, store.get(store.handle(1L, "b"), OddsStore.Column.ODDS_DECIMAL), "stale row recovered");
+        assertEquals(3.0, store.get(store.handle(1L, "o"), OddsStore.Column.ODDS_DECIMAL));
+        assertEquals("suspended", store.status(store.handle(1L, "o")), "live status kept");
+
+        store.applyRecovery(Collections.singletonList(match));
+        assertEquals(1.6, store.get(store.handle(1L, "a"), OddsStore.Column.ODDS_DECIMAL), "unguarded recovery");
+    }
+
+    @Test
+    @DisplayName("the store grows beyond one chunk and rejects unknown handles")
+    void growsAcrossChunks() {
+        List<MarketsMessageSelection> selections = new ArrayList<>();
+        for (int i = 0; i < 3_000; i++) {
+            selections.add(selection("s" + i, 1.0 + i, null));
+        }
+        MarketsMessageMarket big = market("big", "active");
+        big.setSelections(selections);
+        store.apply(message(1L, MarketAction.created, big));
+
+        assertEquals(3_000, store.size());
+        assertEquals(2_999.0 + 1.0, store.get(store.handle(1L, "s2999"), OddsStore.Column.ODDS_DECIMAL));
+        assertThrows(IllegalArgumentException.class, () -> store.get(1 << 20, OddsStore.Column.ODDS_DECIMAL));
+        assertThrows(IllegalArgumentException.class, () -> store.get(-1, OddsStore.Column.ODDS_DECIMAL));
+    }
+
+    @Test
+    @DisplayName("concurrent read() never returns columns from two different updates")
+    void readsAreConsistent() throws Exception {
+        store.apply(message(1L, MarketAction.created, market("winner", "active", selection("a", 1.0, 1.0))));
+        int a = store.handle(1L, "a");
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicReference<String> failure = new AtomicReference<>();
+        Thread reader = new Thread(() -> {
+            double[] row = new double[OddsStore.Column.values().length];
+            while (running.get()) {
+                store.read(a, row);
+                double odds = row[OddsStore.Column.ODDS_DECIMAL.ordinal()];
+                double probability = row[OddsStore.Column.PROBABILITY.ordinal()];
+                if (odds != probability) {
+                    failure.set("torn read: " + odds + " vs " + probability);
+                }
+            }
+        });
+        reader.start();
+        for (int i = 2; i < 20_000; i++) {
+            store.apply(message(1L, MarketAction.odds_changed,
+                market("winner", "active", selection("a", (double) i, (double) i))));
+        }
+        running.set(false);
+        reader.join(5_000);
+
+        assertNull(failure.get());
+    }
+}
@@ -0,0 +1,123 @@
+package com.pandascore.sdk;
+
+import com.pandascore.sdk.rmq.RoutingKey;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for RawFeedMessage — streaming peek of the top-level type/at fields.
+ */
+class RawFeedMessageTest {
+
+    private RawFeedMessage peek(String json) throws IOException {
+        return RawFeedMessage.peek(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // ============================================================
+    //  Type detection
+    // ============================================================
+
+    @Test
+    @DisplayName("Top-level type field is extracted")
+    void peek_extractsType() throws Exception {
+        RawFeedMessage raw = peek("{\"type\": \"markets\", \"match_id\": 42}");
+        assertEquals("markets", raw.getType());
+        assertFalse(raw.isHeartbeat());
+    }
+
+    @Test
+    @DisplayName("Type nested inside an object or array is ignored")
+    void peek_ignoresNestedType() throws Exception {
+        RawFeedMessage raw = peek(
+            "{\"match\": {\"type\": \"nested\"}, \"games\": [{\"type\": \"x\"}], \"type\": \"fixture\"}");
+        assertEquals("fixture", raw.getType());
+    }
+
+    @Test
+    @DisplayName("Missing type field yields null type")
+    void peek_missingType() throws Exception {
+        RawFeedMessage raw = peek("{\"data\": \"no type here\"}");
+        assertNull(raw.getType());
+        assertFalse(raw.isHeartbeat());
+    }
+
+    @Test
+    @DisplayName("Top-level scoreboard_type is extracted even after type and match_id")
+    void peek_extractsScoreboardType() throws Exception {
+        assertEquals("lol", peek("{\"type\": \"scoreboard\", \"scoreboard_type\": \"lol\"}").getScoreboardType());
+        assertEquals("cs", peek(
+            "{\"type\": \"scoreboard\", \"match_id\": 3, \"games\": [], \"scoreboard_type\": \"cs\"}").getScoreboardType());
+        assertNull(peek("{\"type\": \"markets\", \"match_id\": 42}").getScoreboardType());
+    }
+
+    @Test
+    @DisplayName("Top-level match_id is extracted regardless of field order")
+    void peek_extractsMatchId() throws Exception {
+        assertEquals(42L, peek("{\"type\": \"markets\", \"match_id\": 42}").getMatchId());
+        assertEquals(42L, peek("{\"match_id\": 42, \"markets\": [], \"type\": \"markets\"}").getMatchId());
+        assertEquals(7L, peek("{\"type\": \"fixture\", \"match\": {\"id\": 1}, \"match_id\": 7}").getMatchId());
+    }
+
+    @Test
+    @DisplayName("Missing or non-numeric match_id yields null")
+    void peek_missingMatchId() throws Exception {
+        assertNull(peek("{\"type\": \"scoreboard\"}").getMatchId());
+        assertNull(peek("{\"type\": \"markets\", \"match_id\": null}").getMatchId());
+    }
+
+    // ============================================================
+    //  Heartbeat detection (same convention as RabbitMQFeed.isHeartbeatMessage)
+    // ============================================================
+
+    @Test
+    @DisplayName("Message with 'at' and no 'type' is a heartbeat")
+    void peek_heartbeat() throws Exception {
+        assertTrue(peek("{\"at\": \"2025-05-22T14:00:00Z\"}").isHeartbeat());
+    }
+
+    @Test
+    @DisplayName("Message with 'type' and 'at' is NOT a heartbeat, regardless of field order")
+    void peek_typeAndAt_notHeartbeat() throws Exception {
+        assertFalse(peek("{\"at\": \"2025-05-22T14:00:00Z\", \"type\": \"markets\"}").isHeartbeat());
+        assertFalse(peek("{\"type\": \"markets\", \"at\": \"2025-05-22T14:00:00Z\"}").isHeartbeat());
+    }
+
+    @Test
+    @DisplayName("Empty object is NOT a heartbeat")
+    void peek_emptyObject_notHeartbeat() throws Exception {
+        assertFalse(peek("{}").isHeartbeat());
+    }
+
+    // ============================================================
+    //  Body handling
+    // ============================================================
+
+    @Test
+    @DisplayName("Body is retained and toString renders it as UTF-8")
+    void peek_retainsBody() throws Exception {
+        String json = "{\"type\": \"scoreboard\", \"name\": \"Fnatic – G2\"}";
+        RawFeedMessage raw = peek(json);
+        assertArrayEquals(json.getBytes(StandardCharsets.UTF_8), raw.getBody());
+        assertEquals(json, raw.toString());
+    }
+
+    @Test
+    @DisplayName("Routing key passed to peek is retained, absent otherwise")
+    void peek_routingKey() throws Exception {
+        RoutingKey key = RoutingKey.parse("v1.cs-go.match.42.markets.odds_changed");
+        byte[] body = "{\"type\": \"markets\"}".getBytes(StandardCharsets.UTF_8);
+        assertSame(key, RawFeedMessage.peek(body, key).getRoutingKey());
+        assertNull(RawFeedMessage.peek(body).getRoutingKey());
+    }
+
+    @Test
+    @DisplayName("Non-object body is rejected")
+    void peek_nonObject_throws() {
+        assertThrows(IOException.class, () -> peek("[1, 2, 3]"));
+    }
+}
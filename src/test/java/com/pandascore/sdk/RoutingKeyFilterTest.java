@@ -0,0 +1,105 @@
+package com.pandascore.sdk;
+
+import com.pandascore.sdk.rmq.RoutingKey;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for RoutingKeyFilter — segment matching on business routing keys.
+ */
+class RoutingKeyFilterTest {
+
+    private static final String CS_MARKETS = "v1.cs-go.match.1001.markets.odds_changed";
+    private static final String DOTA_FIXTURE = "v1.dota-2.match.2002.fixture.started";
+
+    // ============================================================
+    //  Segment factories
+    // ============================================================
+
+    @Test
+    @DisplayName("videogames matches the videogame slug segment")
+    void videogames_matchesSlug() {
+        RoutingKeyFilter filter = RoutingKeyFilter.videogames("cs-go", "valorant");
+        assertTrue(filter.accept(CS_MARKETS));
+        assertFalse(filter.accept(DOTA_FIXTURE));
+    }
+
+    @Test
+    @DisplayName("types matches the message type segment")
+    void types_matchesType() {
+        RoutingKeyFilter filter = RoutingKeyFilter.types("fixture");
+        assertFalse(filter.accept(CS_MARKETS));
+        assertTrue(filter.accept(DOTA_FIXTURE));
+    }
+
+    @Test
+    @DisplayName("eventTypes and actions match their segments")
+    void eventTypesAndActions_match() {
+        assertTrue(RoutingKeyFilter.eventTypes("match").accept(CS_MARKETS));
+        assertFalse(RoutingKeyFilter.eventTypes("tournament").accept(CS_MARKETS));
+        assertTrue(RoutingKeyFilter.actions("odds_changed").accept(CS_MARKETS));
+        assertFalse(RoutingKeyFilter.actions("odds_changed").accept(DOTA_FIXTURE));
+    }
+
+    @Test
+    @DisplayName("Prefix of a segment value does not match")
+    void segment_prefixDoesNotMatch() {
+        assertFalse(RoutingKeyFilter.videogames("cs").accept(CS_MARKETS));
+        assertFalse(RoutingKeyFilter.types("market").accept(CS_MARKETS));
+    }
+
+    @Test
+    @DisplayName("Key with too few segments is rejected rather than throwing")
+    void shortKey_rejected() {
+        assertFalse(RoutingKeyFilter.videogames("cs-go").accept("markets"));
+    }
+
+    // ============================================================
+    //  Composition
+    // ============================================================
+
+    @Test
+    @DisplayName("and / or / negate compose filters")
+    void composition() {
+        RoutingKeyFilter cs = RoutingKeyFilter.videogames("cs-go");
+        RoutingKeyFilter fixture = RoutingKeyFilter.types("fixture");
+
+        assertFalse(cs.and(fixture).accept(CS_MARKETS));
+        assertTrue(cs.or(fixture).accept(CS_MARKETS));
+        assertTrue(cs.or(fixture).accept(DOTA_FIXTURE));
+        assertFalse(cs.negate().accept(CS_MARKETS));
+    }
+
+    // ============================================================
+    //  Parsed keys
+    // ============================================================
+
+    @Test
+    @DisplayName("Parsed keys get the same answer as the raw string, for factories and compositions")
+    void parsedKey_matchesString() {
+        RoutingKeyFilter cs = RoutingKeyFilter.videogames("cs-go");
+        RoutingKeyFilter fixture = RoutingKeyFilter.types("fixture");
+        List<RoutingKeyFilter> filters = Arrays.asList(cs, fixture,
+            RoutingKeyFilter.eventTypes("match"), RoutingKeyFilter.actions("started"),
+            RoutingKeyFilter.videogames("cs"), cs.and(fixture), cs.or(fixture), cs.negate());
+
+        for (String rk : Arrays.asList(CS_MARKETS, DOTA_FIXTURE, "extra." + CS_MARKETS)) {
+            for (RoutingKeyFilter filter : filters) {
+                assertEquals(filter.accept(rk), filter.accept(RoutingKey.parse(rk)), rk);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("A lambda filter sees the full key through the parsed overload")
+    void lambda_receivesFullKey() {
+        RoutingKeyFilter filter = rk -> rk.endsWith(".started");
+        assertTrue(filter.accept(RoutingKey.parse(DOTA_FIXTURE)));
+        assertFalse(filter.and(RoutingKeyFilter.videogames("dota-2")).accept(RoutingKey.parse(CS_MARKETS)));
+    }
+}
@@ -0,0 +1,220 @@
+package com.pandascore.sdk;
+
+import com.pandascore.sdk.config.SDKConfig;
+import com.pandascore.sdk.config.SDKOptions;
+import com.pandascore.sdk.model.feed.fixtures.FixtureAction;
+import com.pandascore.sdk.model.feed.fixtures.FixtureMatch;
+import com.pandascore.sdk.model.feed.fixtures.FixtureMessage;
+import com.pandascore.sdk.model.feed.markets.MarketAction;
+import com.pandascore.sdk.model.feed.markets.MarketsMessage;
+import com.pandascore.sdk.model.feed.markets.MarketsMessageMarket;
+import com.pandascore.sdk.model.feed.markets.MarketsMessageSelection;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for StateCheckpoint — snapshot file round trip and validation.
+ */
+class StateCheckpointTest {
+
+    @TempDir
+    Path dir;
+
+    private static MarketsMessageSelection selection(String id, double odds) {
+        MarketsMessageSelection s = new MarketsMessageSelection();
+        s.setId(id);
+        s.setOddsDecimal(odds);
+        return s;
+    }
+
+    private static MarketsMessage message(long matchId, Integer gamePosition, MarketAction action, String at,
+                                          String marketId, String status, MarketsMessageSelection... selections) {
+        MarketsMessageMarket market = new MarketsMessageMarket();
+        market.setId(marketId);
+        market.setStatus(status);
+        market.setSelections(selections.length == 0 ? null : new ArrayList<>(Arrays.asList(selections)));
+        MarketsMessage msg = new MarketsMessage();
+        msg.setType("markets");
+        msg.setAt(at);
+        msg.setMatchId(matchId);
+        msg.setGamePosition(gamePosition);
+        msg.setAction(action);
+        msg.setMarkets(new ArrayList<>(Arrays.asList(market)));
+        return msg;
+    }
+
+    private static FixtureMessage fixture(long matchId, FixtureAction action, String status) {
+        FixtureMatch match = new FixtureMatch();
+        match.setId(matchId);
+        match.setStatus(status);
+        FixtureMessage msg = new FixtureMessage();
+        msg.setMatchId(matchId);
+        msg.setAction(action);
+        msg.setMatch(match);
+        return msg;
+    }
+
+    // ========================================================================
+    // Round trip
+    // ========================================================================
+
+    @Test
+    @DisplayName("markets and fixtures are restored with the latest processed at")
+    void roundTrip() throws IOException {
+        Path file = dir.resolve("state.snap");
+        MarketBook book = new MarketBook();
+        FixtureRegistry fixtures = new FixtureRegistry();
+        book.apply(message(1L, null, MarketAction.created, "2026-01-20T10:00:00Z", "winner", "active",
+            selection("a", 1.5), selection("b", 2.5)));
+        book.apply(message(1L, null, MarketAction.odds_changed, "2026-01-20T10:05:00Z", "winner", null,
+            selection("b", 2.2)));
+        book.apply(message(1L, 2, MarketAction.suspended, "2026-01-20T10:02:00Z", "kills", null));
+        fixtures.apply(fixture(1L, FixtureAction.started, "live"));
+
+        assertEquals("2026-01-20T10:05:00Z", new StateCheckpoint(file, book, fixtures).write());
+
+        MarketBook restoredBook = new MarketBook();
+        FixtureRegistry restoredFixtures = new FixtureRegistry();
+        StateCheckpoint restored = new StateCheckpoint(file, restoredBook, restoredFixtures);
+        assertEquals("2026-01-20T10:05:00Z", restored.restore());
+
+        MarketBook.MarketSnapshot winner = restoredBook.market(1L, null, "winner");
+        assertEquals("active", winner.getStatus());
+        assertEquals(1.5, winner.getSelection("a").getOddsDecimal());
+        assertEquals(2.2, winner.getSelection("b").getOddsDecimal());
+        assertEquals("suspended", restoredBook.market(1L, 2, "kills").getStatus());
+        assertEquals("live", restoredFixtures.status(1L));
+
+        assertEquals("2026-01-20T10:05:00Z", restored.write(),
+            "restored state keeps the checkpoint's at until newer updates arrive");
+    }
+
+    // ========================================================================
+    // Concurrent updates
+    // ========================================================================
+
+    /** A market that applies other updates while the checkpoint serializes it. */
+    static final class InterleavingMarket extends MarketsMessageMarket {
+        private Runnable onWrite;
+
+        @Override
+        public String getName() {
+            Runnable r = onWrite;
+            onWrite = null;
+            if (r != null) {
+                r.run();
+            }
+            return super.getName();
+        }
+    }
+
+    @Test
+    @DisplayName("an update to an already written match is recovered on warm start")
+    void updateBetweenMatchSnapshotsRecovered() throws Exception {
+        Path file = dir.resolve("state.snap");
+        MarketBook book = new MarketBook();
+        MarketsMessage first = message(1L, null, MarketAction.created, "2026-01-20T10:00:00Z", "winner", "active",
+            selection("a", 1.5));
+        InterleavingMarket market = new InterleavingMarket();
+        market.setId("winner");
+        market.setStatus("active");
+        market.setSelections(first.getMarkets().get(0).getSelections());
+        first.setMarkets(new ArrayList<>(Arrays.asList(market)));
+        book.apply(first);
+        book.apply(message(2L, null, MarketAction.created, "2026-01-20T10:01:00Z", "winner", "active",
+            selection("x", 3.0)));
+        // Runs once match 1 is written and before match 2 is read
+        market.onWrite = () -> {
+            book.apply(message(1L, null, MarketAction.odds_changed, "2026-01-20T10:03:00Z", "winner", null,
+                selection("a", 1.8)));
+            book.apply(message(2L, null, MarketAction.odds_changed, "2026-01-20T10:04:00Z", "winner", null,
+                selection("x", 2.6)));
+        };
+
+        assertEquals("2026-01-20T10:01:00Z", new StateCheckpoint(file, book, null).write(),
+            "the checkpoint covers what was processed when it started");
+
+        // The API returns the match 1 update to any recovery since 10:03 or earlier
+        MockWebServer server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                String since = request.getRequestUrl().pathSegments().get(3);
+                String body = since.compareTo("2026-01-20T10:03:00Z") <= 0
+                    ? "[{\"id\":1,\"markets\":[{\"id\":\"winner\",\"status\":\"active\","
+                        + "\"selections\":[{\"id\":\"a\",\"odds_decimal\":1.8}]}],\"games\":[]}]"
+                    : "[]";
+                return new MockResponse().setBody(body).addHeader("Content-Type", "application/json");
+            }
+        });
+        server.start();
+        try {
+            SDKConfig.setOptions(SDKOptions.builder()
+                .apiToken("test-api-token")
+                .companyId(42)
+                .email("test@test.com")
+                .password("pass")
+                .apiBaseUrl(server.url("/betting/matches").toString())
+                .queueBinding(SDKOptions.QueueBinding.builder().queueName("q").routingKey("r").build())
+                .build());
+
+            MarketBook restoredBook = new MarketBook();
+            assertTrue(new StateCheckpoint(file, restoredBook, null).warmStart());
+
+            assertEquals(1.8, restoredBook.market(1L, null, "winner").getSelection("a").getOddsDecimal());
+            assertEquals(2.6, restoredBook.market(2L, null, "winner").getSelection("x").getOddsDecimal());
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    // ========================================================================
+    // Validation
+    // ========================================================================
+
+    @Test
+    @DisplayName("a missing file means no checkpoint")
+    void missingFile() throws IOException {
+        assertNull(new StateCheckpoint(dir.resolve("absent.snap"), new MarketBook(), null).restore());
+    }
+
+    @Test
+    @DisplayName("a damaged file is rejected and nothing is restored")
+    void damagedFileRejected() throws IOException {
+        Path file = dir.resolve("state.snap");
+        MarketBook book = new MarketBook();
+        book.apply(message(1L, null, MarketAction.created, "2026-01-20T10:00:00Z", "winner", "active",
+            selection("a", 1.5)));
+        new StateCheckpoint(file, book, null).write();
+
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length - 3] ^= 0x20;
+        Files.write(file, bytes);
+
+        MarketBook restoredBook = new MarketBook();
+        assertNull(new StateCheckpoint(file, restoredBook, null).restore());
+        assertEquals(0, restoredBook.size());
+    }
+
+    @Test
+    @DisplayName("a foreign file is rejected")
+    void foreignFileRejected() throws IOException {
+        Path file = dir.resolve("state.snap");
+        Files.write(file, "{\"not\":\"a checkpoint\"}".getBytes("UTF-8"));
+
+        assertNull(new StateCheckpoint(file, new MarketBook(), null).restore());
+    }
+}
@@ -2,11 +2,16 @@ package com.pandascore.sdk;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pandascore.sdk.metrics.FeedMetrics;
 import com.pandascore.sdk.model.feed.fixtures.FixtureMessage;
 import com.pandascore.sdk.model.feed.markets.MarketsMessage;
+import com.pandascore.sdk.model.feed.scoreboard.ScoreboardCs;
+import com.pandascore.sdk.model.feed.scoreboard.ScoreboardLol;
+import com.pandascore.sdk.rmq.RoutingKey;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.nio.charset.StandardCharsets;
 import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -228,6 +233,315 @@ class TypedFeedAdapterTest {
         assertNotNull(unknownCapture.get());
     }
 
+    // ============================================================
+    //  Raw (single-pass) decoding
+    // ============================================================
+
+    private static RawFeedMessage raw(String json) throws Exception {
+        return RawFeedMessage.peek(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Raw markets message is deserialized directly to MarketsMessage")
+    void rawMarketsMessage_routedToOnMarkets() throws Exception {
+        String json = """
+            {
+              "type": "markets",
+              "match_id": 42,
+              "action": "odds_changed",
+              "markets": [{"id": "m1", "selections": [{"id": "s1", "odds_decimal": 1.85}]}]
+            }
+            """;
+
+        AtomicReference<MarketsMessage> captured = new AtomicReference<>();
+        TypedFeedAdapter adapter = new TypedFeedAdapter(new FeedListener() {
+            @Override
+            public void onMarkets(MarketsMessage message) {
+                captured.set(message);
+            }
+        });
+
+        adapter.accept(raw(json));
+
+        assertNotNull(captured.get());
+        assertEquals(42L, captured.get().getMatchId());
+        assertEquals(1.85, captured.get().getMarkets().get(0).getSelections().get(0).getOddsDecimal());
+    }
+
+    @Test
+    @DisplayName("Raw fixture message is deserialized directly to FixtureMessage")
+    void rawFixtureMessage_routedToOnFixture() throws Exception {
+        AtomicReference<FixtureMessage> captured = new AtomicReference<>();
+        TypedFeedAdapter adapter = new TypedFeedAdapter(new FeedListener() {
+            @Override
+            public void onFixture(FixtureMessage message) {
+                captured.set(message);
+            }
+        });
+
+        adapter.accept(raw("{\"type\": \"fixture\", \"match_id\": 99, \"action\": \"updated\"}"));
+
+        assertNotNull(captured.get());
+        assertEquals(99L, captured.get().getMatchId());
+    }
+
+    @Test
+    @DisplayName("Raw scoreboard message is routed to onScoreboard as a tree")
+    void rawScoreboardMessage_routedToOnScoreboard() throws Exception {
+        AtomicReference<String> capturedType = new AtomicReference<>();
+        AtomicReference<JsonNode> capturedRaw = new AtomicReference<>();
+        TypedFeedAdapter adapter = new TypedFeedAdapter(new FeedListener() {
+            @Override
+            public void onScoreboard(JsonNode raw, String scoreboardType) {
+                capturedRaw.set(raw);
+                capturedType.set(scoreboardType);
+            }
+        });
+
+        adapter.accept(raw("{\"type\": \"scoreboard\", \"scoreboard_type\": \"lol\", \"id\": 7}"));
+
+        assertEquals("lol", capturedType.get());
+        assertEquals(7, capturedRaw.get().get("id").asInt());
+    }
+
+    @Test
+    @DisplayName("Raw message without type is routed to onUnknown")
+    void rawNoType_routedToOnUnknown() throws Exception {
+        AtomicReference<JsonNode> captured = new AtomicReference<>();
+        TypedFeedAdapter adapter = new TypedFeedAdapter(new FeedListener() {
+            @Override
+            public void onUnknown(JsonNode raw) {
+                captured.set(raw);
+            }
+        });
+
+        adapter.accept(raw("{\"data\": \"no type here\"}"));
+
+        assertNotNull(captured.get());
+        assertEquals("no type here", captured.get().get("data").asText());
+    }
+
+    @Test
+    @DisplayName("Raw markets message that fails to deserialize falls back to onUnknown")
+    void rawDeserializationFailure_fallsToOnUnknown() throws Exception {
+        AtomicReference<JsonNode> unknownCapture = new AtomicReference<>();
+        TypedFeedAdapter adapter = new TypedFeedAdapter(new FeedListener() {
+            @Override
+            public void onUnknown(JsonNode raw) {
+                unknownCapture.set(raw);
+            }
+        });
+
+        // match_id must be numeric
+        adapter.accept(raw("{\"type\": \"markets\", \"match_id\": {\"not\": \"a number\"}}"));
+
+        assertNotNull(unknownCapture.get());
+        assertEquals("markets", unknownCapture.get().get("type").asText());
+    }
+
+    // ============================================================
+    //  Routing-key overloads
+    // ============================================================
+
+    @Test
+    @DisplayName("Routing key attached to a raw message reaches the two-argument callback")
+    void rawMessage_routingKeyPassedToListener() throws Exception {
+        RoutingKey key = RoutingKey.parse("v1.cs-go.match.42.markets.odds_changed");
+        AtomicReference<RoutingKey> captured = new AtomicReference<>();
+        TypedFeedAdapter adapter = new TypedFeedAdapter(new FeedListener() {
+            @Override
+            public void onMarkets(MarketsMessage message, RoutingKey routingKey) {
+                captured.set(routingKey);
+            }
+        });
+
+        adapter.accept(RawFeedMessage.peek(
+            "{\"type\": \"markets\", \"match_id\": 42, \"markets\": []}".getBytes(StandardCharsets.UTF_8), key));
+
+        assertSame(key, captured.get());
+        assertEquals("cs-go", captured.get().videogame());
+    }
+
+    @Test
+    @DisplayName("Scoreboard routing-key overload delegates to the single-key callback by default")
+    void routingKeyOverload_delegatesByDefault() throws Exception {
+        AtomicReference<String> capturedType = new AtomicReference<>();
+        TypedFeedAdapter adapter = new TypedFeedAdapter(new FeedListener() {
+            @Override
+            public void onScoreboard(JsonNode raw, String scoreboardType) {
+                capturedType.set(scoreboardType);
+            }
+        });
+
+        adapter.accept(RawFeedMessage.peek(
+            "{\"type\": \"scoreboard\", \"scoreboard_type\": \"cs\"}".getBytes(StandardCharsets.UTF_8),
+            RoutingKey.parse("v1.cs-go.match.42.scoreboard.updated")));
+
+        assertEquals("cs", capturedType.get());
+    }
+
+    @Test
+    @DisplayName("JsonNode input reaches the two-argument callback with a null routing key")
+    void jsonNode_nullRoutingKey() throws Exception {
+        AtomicReference<Boolean> called = new AtomicReference<>(false);
+        TypedFeedAdapter adapter = new TypedFeedAdapter(new FeedListener() {
+            @Override
+            public void onUnknown(JsonNode raw, RoutingKey routingKey) {
+                assertNull(routingKey);
+                called.set(true);
+            }
+        });
+
+        adapter.accept(mapper.readTree("{\"type\": \"other\"}"));
+
+        assertTrue(called.get());
+    }
+
+    // ============================================================
+    //  Typed scoreboards
+    // ============================================================
+
+    private static final String LOL_SCOREBOARD = "{\"type\": \"scoreboard\", \"scoreboard_type\": \"lol\", "
+        + "\"id\": 7, \"updated_at\": \"2025-05-22T14:00:00Z\", \"games\": [{\"id\": 8, \"position\": 1, "
+        + "\"status\": \"running\", \"draft_phase\": \"ban_phase_1\", \"timer\": {\"timer\": 120}}]}";
+
+    @Test
+    @DisplayName("Raw scoreboard is decoded into the typed overload without building a tree")
+    void rawScoreboard_typedOverload() throws Exception {
+        AtomicReference<ScoreboardLol> captured = new AtomicReference<>();
+        AtomicReference<ScoreboardCs> wrongType = new AtomicReference<>();
+        TypedFeedAdapter adapter = new TypedFeedAdapter(new FeedListener() {
+            @Override
+            public void onScoreboard(ScoreboardLol scoreboard) {
+                captured.set(scoreboard);
+            }
+
+            @Override
+            public void onScoreboard(ScoreboardCs scoreboard) {
+                wrongType.set(scoreboard);
+            }
+        });
+
+        adapter.accept(raw(LOL_SCOREBOARD));
+
+        assertNotNull(captured.get());
+        assertNull(wrongType.get());
+        assertEquals(7L, captured.get().getId());
+        assertEquals("lol", captured.get().getScoreboardType());
+        assertEquals("ban_phase_1", captured.get().getGames().get(0).getDraftPhase());
+        assertTrue(captured.get().getGames().get(0).getTimer().isPresent());
+    }
+
+    @Test
+    @DisplayName("JsonNode scoreboard reaches the typed overload")
+    void jsonNodeScoreboard_typedOverload() throws Exception {
+        AtomicReference<ScoreboardCs> captured = new AtomicReference<>();
+        TypedFeedAdapter adapter = new TypedFeedAdapter(new FeedListener() {
+            @Override
+            public void onScoreboard(ScoreboardCs scoreboard) {
+                captured.set(scoreboard);
+            }
+        });
+
+        adapter.accept(mapper.readTree("{\"type\": \"scoreboard\", \"scoreboard_type\": \"cs\", \"id\": 1001}"));
+
+        assertEquals(1001L, captured.get().getId());
+    }
+
+    @Test
+    @DisplayName("Listeners overriding typed and raw callbacks receive both")
+    void scoreboard_typedAndRaw() throws Exception {
+        AtomicReference<ScoreboardLol> typed = new AtomicReference<>();
+        AtomicReference<JsonNode> tree = new AtomicReference<>();
+        TypedFeedAdapter adapter = new TypedFeedAdapter(new FeedListener() {
+            @Override
+            public void onScoreboard(ScoreboardLol scoreboard) {
+                typed.set(scoreboard);
+            }
+
+            @Override
+            public void onScoreboard(JsonNode raw, String scoreboardType) {
+                tree.set(raw);
+            }
+        });
+
+        adapter.accept(raw(LOL_SCOREBOARD));
+
+        assertNotNull(typed.get());
+        assertEquals(7, tree.get().get("id").asInt());
+    }
+
+    @Test
+    @DisplayName("Typed overloads still fire behind a decorator that forwards raw scoreboards")
+    void scoreboard_typedBehindDecorator() throws Exception {
+        AtomicReference<ScoreboardLol> captured = new AtomicReference<>();
+        TypedFeedAdapter adapter = new TypedFeedAdapter(new MarketBook(new FeedListener() {
+            @Override
+            public void onScoreboard(ScoreboardLol scoreboard) {
+                captured.set(scoreboard);
+            }
+        }));
+
+        adapter.accept(raw(LOL_SCOREBOARD));
+
+        assertEquals(7L, captured.get().getId());
+    }
+
+    @Test
+    @DisplayName("Undecodable typed scoreboard is dispatched as unknown")
+    void scoreboard_undecodable_routedToOnUnknown() throws Exception {
+        AtomicReference<JsonNode> unknown = new AtomicReference<>();
+        TypedFeedAdapter adapter = new TypedFeedAdapter(new FeedListener() {
+            @Override
+            public void onScoreboard(ScoreboardCs scoreboard) {
+                fail("should not be called");
+            }
+
+            @Override
+            public void onUnknown(JsonNode raw) {
+                unknown.set(raw);
+            }
+        });
+
+        adapter.accept(raw("{\"type\": \"scoreboard\", \"scoreboard_type\": \"cs\", \"id\": \"not-a-number\"}"));
+
+        assertNotNull(unknown.get());
+    }
+
+    @Test
+    @DisplayName("Undecodable typed scoreboard still reaches the raw callback and counts one decode error")
+    void scoreboard_undecodable_rawCallbackStillFires() throws Exception {
+        String undecodable = "{\"type\": \"scoreboard\", \"scoreboard_type\": \"cs\", \"id\": \"not-a-number\"}";
+        AtomicReference<JsonNode> tree = new AtomicReference<>();
+        AtomicReference<JsonNode> unknown = new AtomicReference<>();
+        FeedMetrics metrics = new FeedMetrics("adapter-test");
+        TypedFeedAdapter adapter = new TypedFeedAdapter(new FeedListener() {
+            @Override
+            public void onScoreboard(ScoreboardCs scoreboard) {
+                fail("should not be called");
+            }
+
+            @Override
+            public void onScoreboard(JsonNode raw, String scoreboardType) {
+                tree.set(raw);
+            }
+
+            @Override
+            public void onUnknown(JsonNode raw) {
+                unknown.set(raw);
+            }
+        }, metrics);
+
+        adapter.accept(raw(undecodable));
+        assertEquals("not-a-number", tree.getAndSet(null).get("id").asText());
+
+        adapter.accept(mapper.readTree(undecodable));
+        assertNotNull(tree.get());
+
+        assertNull(unknown.get());
+        assertEquals(2, metrics.getDecodeErrors().sum());
+    }
+
     // ============================================================
     //  Constructor validation
     // ============================================================
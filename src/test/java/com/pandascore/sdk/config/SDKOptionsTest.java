@@ -6,7 +6,7 @@ import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
- * Tests for SDKOptions configuration, focusing on QoS prefetch defaults.
+ * Tests for SDKOptions configuration, focusing on QoS prefetch, dispatch, ack batching and logging defaults.
  */
 class SDKOptionsTest {
 
@@ -42,4 +42,120 @@ class SDKOptionsTest {
         SDKOptions opts = minimalBuilder().prefetchCount(0).build();
         assertEquals(0, opts.getPrefetchCount());
     }
+
+    @Test
+    @DisplayName("Default dispatcherThreads is 0 (inline delivery)")
+    void defaultDispatcherThreads_is0() {
+        SDKOptions opts = minimalBuilder().build();
+        assertEquals(0, opts.getDispatcherThreads());
+    }
+
+    @Test
+    @DisplayName("Negative dispatcherThreads fails validation")
+    void negativeDispatcherThreads_failsValidation() {
+        SDKOptions opts = minimalBuilder().dispatcherThreads(-1).build();
+        assertThrows(IllegalArgumentException.class, opts::validate);
+    }
+
+    @Test
+    @DisplayName("Default ackBatchSize is 1 with a 100ms flush interval")
+    void defaultAckBatching() {
+        SDKOptions opts = minimalBuilder().build();
+        assertEquals(1, opts.getAckBatchSize());
+        assertEquals(100L, opts.getAckBatchIntervalMs());
+    }
+
+    @Test
+    @DisplayName("ackBatchSize below 1 fails validation")
+    void ackBatchSize_zero_failsValidation() {
+        SDKOptions opts = minimalBuilder().ackBatchSize(0).build();
+        assertThrows(IllegalArgumentException.class, opts::validate);
+    }
+
+    @Test
+    @DisplayName("Negative ackBatchIntervalMs fails validation")
+    void negativeAckBatchInterval_failsValidation() {
+        SDKOptions opts = minimalBuilder().ackBatchIntervalMs(-1).build();
+        assertThrows(IllegalArgumentException.class, opts::validate);
+    }
+
+    @Test
+    @DisplayName("Metrics are opt-in")
+    void defaultMetricsEnabled_isFalse() {
+        assertFalse(minimalBuilder().build().isMetricsEnabled());
+    }
+
+    @Test
+    @DisplayName("Default payloadLogSampleRate is 0 (no sampling)")
+    void defaultPayloadLogSampleRate_is0() {
+        assertEquals(0, minimalBuilder().build().getPayloadLogSampleRate());
+    }
+
+    @Test
+    @DisplayName("Negative payloadLogSampleRate fails validation")
+    void negativePayloadLogSampleRate_failsValidation() {
+        SDKOptions opts = minimalBuilder().payloadLogSampleRate(-1).build();
+        assertThrows(IllegalArgumentException.class, opts::validate);
+    }
+
+    @Test
+    @DisplayName("Default activitySummaryIntervalMs is 0 (per-event INFO lines)")
+    void defaultActivitySummaryInterval_is0() {
+        assertEquals(0L, minimalBuilder().build().getActivitySummaryIntervalMs());
+    }
+
+    @Test
+    @DisplayName("Negative activitySummaryIntervalMs fails validation")
+    void negativeActivitySummaryInterval_failsValidation() {
+        SDKOptions opts = minimalBuilder().activitySummaryIntervalMs(-1).build();
+        assertThrows(IllegalArgumentException.class, opts::validate);
+    }
+
+    @Test
+    @DisplayName("Default mdcMode is FULL")
+    void defaultMdcMode_isFull() {
+        assertEquals(SDKOptions.MdcMode.FULL, minimalBuilder().build().getMdcMode());
+    }
+
+    @Test
+    @DisplayName("Null mdcMode fails validation")
+    void nullMdcMode_failsValidation() {
+        SDKOptions opts = minimalBuilder().mdcMode(null).build();
+        assertThrows(NullPointerException.class, opts::validate);
+    }
+
+    @Test
+    @DisplayName("Default dispatch queue is unbounded with BLOCK policy")
+    void defaultDispatchQueue() {
+        SDKOptions opts = minimalBuilder().build();
+        assertEquals(0, opts.getDispatchQueueCapacity());
+        assertEquals(SDKOptions.BackpressurePolicy.BLOCK, opts.getBackpressurePolicy());
+    }
+
+    @Test
+    @DisplayName("Negative dispatchQueueCapacity fails validation")
+    void negativeDispatchQueueCapacity_failsValidation() {
+        SDKOptions opts = minimalBuilder().dispatchQueueCapacity(-1).build();
+        assertThrows(IllegalArgumentException.class, opts::validate);
+    }
+
+    @Test
+    @DisplayName("Journal is off by default with 64 MiB segments and a 100ms fsync interval")
+    void defaultJournal() {
+        SDKOptions opts = minimalBuilder().build();
+        assertNull(opts.getJournalDirectory());
+        assertEquals(64L * 1024 * 1024, opts.getJournalSegmentBytes());
+        assertEquals(100L, opts.getJournalFsyncIntervalMs());
+        assertEquals(65536, opts.getJournalQueueCapacity());
+    }
+
+    @Test
+    @DisplayName("Invalid journal settings fail validation")
+    void invalidJournal_failsValidation() {
+        assertThrows(IllegalArgumentException.class, minimalBuilder().journalSegmentBytes(1024).build()::validate);
+        assertThrows(IllegalArgumentException.class,
+            minimalBuilder().journalSegmentBytes(Integer.MAX_VALUE + 1L).build()::validate);
+        assertThrows(IllegalArgumentException.class, minimalBuilder().journalFsyncIntervalMs(-1).build()::validate);
+        assertThrows(IllegalArgumentException.class, minimalBuilder().journalQueueCapacity(0).build()::validate);
+    }
 }
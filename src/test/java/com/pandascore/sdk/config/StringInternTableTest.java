@@ -0,0 +1,103 @@
+package com.pandascore.sdk.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pandascore.sdk.model.feed.markets.MarketsMessage;
+import com.pandascore.sdk.model.feed.markets.MarketsMessageMarket;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for StringInternTable and InterningStringDeserializer.
+ */
+class StringInternTableTest {
+
+    // ========================================================================
+    // Table
+    // ========================================================================
+
+    @Test
+    @DisplayName("equal values from buffers and strings map to one instance")
+    void internsEqualValues() {
+        StringInternTable table = new StringInternTable(64);
+        char[] buffer = "xx-winner-xx".toCharArray();
+
+        String first = table.intern(buffer, 3, 6);
+        String second = table.intern("winner".toCharArray(), 0, 6);
+        String third = table.intern(new String("winner"));
+
+        assertEquals("winner", first);
+        assertSame(first, second);
+        assertSame(first, third);
+    }
+
+    @Test
+    @DisplayName("capacity is rounded up to a power of two")
+    void capacityRounded() {
+        assertEquals(64, new StringInternTable(64).capacity());
+        assertEquals(128, new StringInternTable(100).capacity());
+        assertThrows(IllegalArgumentException.class, () -> new StringInternTable(0));
+    }
+
+    @Test
+    @DisplayName("a single-slot table keeps only the latest value and stays correct")
+    void boundedByCapacity() {
+        StringInternTable table = new StringInternTable(1);
+
+        String a = table.intern("active".toCharArray(), 0, 6);
+        String b = table.intern("suspended".toCharArray(), 0, 9);
+        String a2 = table.intern("active".toCharArray(), 0, 6);
+
+        assertEquals("suspended", b);
+        assertEquals(a, a2);
+        assertNotSame(a, a2, "the colliding value evicted the first one");
+        assertSame(a2, table.intern("active".toCharArray(), 0, 6));
+    }
+
+    @Test
+    @DisplayName("long values and null are passed through")
+    void longValuesNotCached() {
+        StringInternTable table = new StringInternTable(64);
+        char[] longValue = new char[StringInternTable.MAX_LENGTH + 1];
+        java.util.Arrays.fill(longValue, 'x');
+
+        assertNotSame(table.intern(longValue, 0, longValue.length), table.intern(longValue, 0, longValue.length));
+        assertNull(table.intern(null));
+    }
+
+    // ========================================================================
+    // Deserializer
+    // ========================================================================
+
+    @Test
+    @DisplayName("annotated model fields share instances across decoded messages")
+    void modelFieldsInterned() throws Exception {
+        ObjectMapper mapper = JsonMapperFactory.create();
+        String json = "{\"type\":\"markets\",\"videogame_slug\":\"league-of-legends\",\"match_id\":1,"
+            + "\"markets\":[{\"id\":\"m1\",\"status\":\"active\",\"template\":\"winner-2-way\","
+            + "\"selections\":[{\"id\":\"s1\",\"name\":\"home\",\"template\":\"home\"}]}]}";
+
+        MarketsMessage first = mapper.readValue(json, MarketsMessage.class);
+        MarketsMessage second = mapper.readValue(json, MarketsMessage.class);
+        MarketsMessageMarket m1 = first.getMarkets().get(0);
+        MarketsMessageMarket m2 = second.getMarkets().get(0);
+
+        assertEquals("league-of-legends", first.getVideogameSlug());
+        assertSame(first.getVideogameSlug(), second.getVideogameSlug());
+        assertSame(m1.getStatus(), m2.getStatus());
+        assertSame(m1.getTemplate(), m2.getTemplate());
+        assertSame(m1.getSelections().get(0).getName(), m2.getSelections().get(0).getName());
+        assertNotSame(m1.getId(), m2.getId(), "ids are not interned");
+    }
+
+    @Test
+    @DisplayName("non-string tokens are coerced as by the default deserializer")
+    void coercesScalars() throws Exception {
+        MarketsMessageMarket market = JsonMapperFactory.create()
+            .readValue("{\"id\":\"m1\",\"status\":42,\"template\":null}", MarketsMessageMarket.class);
+
+        assertEquals("42", market.getStatus());
+        assertNull(market.getTemplate());
+    }
+}
@@ -0,0 +1,119 @@
+package com.pandascore.sdk.metrics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for LatencyHistogram — log-linear bucketing, percentiles and snapshot arithmetic.
+ */
+class LatencyHistogramTest {
+
+    // ============================================================
+    //  Bucketing
+    // ============================================================
+
+    @Test
+    @DisplayName("Every value falls in a bucket whose bounds contain it, within 1/32 of its size")
+    void bucketBounds() {
+        long[] values = {0, 1, 31, 32, 33, 63, 64, 65, 1_000, 123_456, 1L << 40, Long.MAX_VALUE};
+        for (long value : values) {
+            int index = LatencyHistogram.index(value);
+            assertTrue(index >= 0 && index < LatencyHistogram.BUCKETS, "index of " + value);
+            long highest = LatencyHistogram.highestValue(index);
+            assertTrue(highest >= value, "bucket of " + value + " ends at " + highest);
+            assertTrue(highest - value <= value / 32, "bucket of " + value + " is too wide");
+        }
+        assertEquals(LatencyHistogram.BUCKETS - 1, LatencyHistogram.index(Long.MAX_VALUE));
+    }
+
+    @Test
+    @DisplayName("Bucket indexes increase with the value")
+    void monotonicIndexes() {
+        int previous = -1;
+        for (long value = 0; value < 100_000; value += 7) {
+            int index = LatencyHistogram.index(value);
+            assertTrue(index >= previous);
+            previous = index;
+        }
+    }
+
+    // ============================================================
+    //  Snapshots
+    // ============================================================
+
+    @Test
+    @DisplayName("Percentiles are within 3% of the exact value")
+    void percentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long v = 1; v <= 100_000; v++) {
+            histogram.record(v * 1_000);
+        }
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        assertEquals(100_000, snapshot.getCount());
+        assertEquals(100_000_000, snapshot.getMax());
+        assertEquals(50_000_500, snapshot.getMean(), 1);
+        assertEquals(50_000_000, snapshot.percentile(50), 50_000_000 * 0.03);
+        assertEquals(99_000_000, snapshot.percentile(99), 99_000_000 * 0.03);
+        assertEquals(99_900_000, snapshot.percentile(99.9), 99_900_000 * 0.03);
+        assertEquals(100_000_000, snapshot.percentile(100));
+    }
+
+    @Test
+    @DisplayName("An empty histogram reports zeros; negative durations count as 0")
+    void emptyAndNegative() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.snapshot().percentile(99));
+        assertEquals(0, histogram.snapshot().getMean());
+
+        histogram.record(-5);
+        assertEquals(1, histogram.snapshot().getCount());
+        assertEquals(0, histogram.snapshot().getMax());
+        assertThrows(IllegalArgumentException.class, () -> histogram.snapshot().percentile(101));
+    }
+
+    @Test
+    @DisplayName("Subtracting an earlier snapshot leaves only the values recorded since")
+    void interval() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 1_000; i++) {
+            histogram.record(1_000_000);
+        }
+        LatencyHistogram.Snapshot earlier = histogram.snapshot();
+        for (int i = 0; i < 10; i++) {
+            histogram.record(1_000);
+        }
+
+        LatencyHistogram.Snapshot interval = histogram.snapshot().minus(earlier);
+
+        assertEquals(10, interval.getCount());
+        assertEquals(1_000, interval.getMean(), 0.001);
+        assertEquals(1_000, interval.percentile(99), 1_000 * 0.03);
+        assertTrue(interval.getMax() < 1_100);
+    }
+
+    @Test
+    @DisplayName("Concurrent recording loses no values")
+    void concurrentRecording() throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram();
+        int threads = 4;
+        int perThread = 50_000;
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    histogram.record(i % 5_000);
+                }
+                done.countDown();
+            }).start();
+        }
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals((long) threads * perThread, histogram.snapshot().getCount());
+        assertEquals(4_999, histogram.snapshot().getMax());
+    }
+}
@@ -0,0 +1,167 @@
+package com.pandascore.sdk.metrics;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for SDKMetrics — publishing metric sets, JMX MBeans and the reporter SPI.
+ */
+class SDKMetricsTest {
+
+    private static final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+    private final List<MetricSet> registered = new ArrayList<>();
+    private final List<MetricsReporter> reporters = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        registered.forEach(SDKMetrics::unregister);
+        reporters.forEach(SDKMetrics::removeReporter);
+    }
+
+    private MetricSet register(MetricSet metrics) {
+        registered.add(metrics);
+        SDKMetrics.register(metrics);
+        return metrics;
+    }
+
+    private static ObjectName name(String type, String name) throws Exception {
+        return new ObjectName("com.pandascore.sdk:type=" + type + ",name=" + ObjectName.quote(name));
+    }
+
+    /**
+     * Records the sets it is told about, as a bridge to another system would.
+     */
+    private static final class RecordingReporter implements MetricsReporter {
+        final List<String> events = new ArrayList<>();
+
+        @Override
+        public void added(MetricSet metrics) {
+            events.add("added " + metrics.getName());
+        }
+
+        @Override
+        public void removed(MetricSet metrics) {
+            events.add("removed " + metrics.getName());
+        }
+    }
+
+    // ============================================================
+    //  JMX
+    // ============================================================
+
+    @Test
+    @DisplayName("A registered set is an MBean exposing counters, gauges and histogram percentiles")
+    void jmxAttributes() throws Exception {
+        MetricSet metrics = register(new MetricSet("Test", "[q1, q2]"));
+        metrics.counter("messages").add(3);
+        metrics.gauge("depth", () -> 7);
+        for (int i = 1; i <= 100; i++) {
+            metrics.histogram("ackNanos").record(i * 1_000L);
+        }
+
+        ObjectName name = name("Test", "[q1, q2]");
+        assertTrue(server.isRegistered(name));
+        assertEquals(3L, server.getAttribute(name, "messages"));
+        assertEquals(7L, server.getAttribute(name, "depth"));
+        assertEquals(100L, server.getAttribute(name, "ackNanosCount"));
+        assertEquals(100_000L, server.getAttribute(name, "ackNanosMax"));
+        assertEquals(99_000.0, ((Long) server.getAttribute(name, "ackNanosP99")).doubleValue(), 99_000 * 0.03);
+
+        List<String> attributes = Arrays.stream(server.getMBeanInfo(name).getAttributes())
+            .map(MBeanAttributeInfo::getName).collect(Collectors.toList());
+        assertTrue(attributes.containsAll(Arrays.asList("messages", "depth", "ackNanosMean", "ackNanosP999")));
+    }
+
+    @Test
+    @DisplayName("Metrics created after registration show up on the MBean")
+    void lateMetrics() throws Exception {
+        MetricSet metrics = register(new MetricSet("Test", "late"));
+        metrics.counter("reconnects").increment();
+        assertEquals(1L, server.getAttribute(name("Test", "late"), "reconnects"));
+    }
+
+    @Test
+    @DisplayName("Unregistering withdraws the MBean")
+    void unregister() throws Exception {
+        MetricSet metrics = register(new MetricSet("Test", "closed"));
+        SDKMetrics.unregister(metrics);
+        assertFalse(server.isRegistered(name("Test", "closed")));
+        assertNull(SDKMetrics.find("Test", "closed"));
+    }
+
+    @Test
+    @DisplayName("A newer set with the same name replaces the old one, which can no longer unregister it")
+    void replacement() throws Exception {
+        MetricSet first = register(new MetricSet("Test", "same"));
+        MetricSet second = register(new MetricSet("Test", "same"));
+        second.counter("messages").increment();
+
+        SDKMetrics.unregister(first);
+
+        assertSame(second, SDKMetrics.find("Test", "same"));
+        assertEquals(1L, server.getAttribute(name("Test", "same"), "messages"));
+    }
+
+    // ============================================================
+    //  Reporter SPI
+    // ============================================================
+
+    @Test
+    @DisplayName("Reporters are told about existing sets when added, then about every change")
+    void reporter() {
+        register(new MetricSet("Test", "existing"));
+        RecordingReporter reporter = new RecordingReporter();
+        reporters.add(reporter);
+        SDKMetrics.addReporter(reporter);
+        assertTrue(reporter.events.contains("added existing"));
+
+        MetricSet later = register(new MetricSet("Test", "later"));
+        SDKMetrics.unregister(later);
+
+        List<String> tail = reporter.events.subList(reporter.events.size() - 2, reporter.events.size());
+        assertEquals(Arrays.asList("added later", "removed later"), tail);
+    }
+
+    @Test
+    @DisplayName("A failing reporter does not stop registration")
+    void failingReporter() throws Exception {
+        MetricsReporter failing = new MetricsReporter() {
+            @Override
+            public void added(MetricSet metrics) {
+                throw new IllegalStateException("down");
+            }
+
+            @Override
+            public void removed(MetricSet metrics) {
+                throw new IllegalStateException("down");
+            }
+        };
+        reporters.add(failing);
+        SDKMetrics.addReporter(failing);
+
+        register(new MetricSet("Test", "resilient"));
+
+        assertTrue(server.isRegistered(name("Test", "resilient")));
+    }
+
+    @Test
+    @DisplayName("Set type must be a plain identifier and name is required")
+    void validation() {
+        assertThrows(IllegalArgumentException.class, () -> new MetricSet("", "x"));
+        assertThrows(IllegalArgumentException.class, () -> new MetricSet("a,b", "x"));
+        assertThrows(IllegalArgumentException.class, () -> new MetricSet("Test", null));
+    }
+}
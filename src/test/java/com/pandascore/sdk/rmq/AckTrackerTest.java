@@ -0,0 +1,141 @@
+package com.pandascore.sdk.rmq;
+
+import com.rabbitmq.client.Channel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for AckTracker — cumulative acknowledgement of out-of-order completions.
+ */
+class AckTrackerTest {
+
+    private Channel channel;
+    private AckTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        channel = mock(Channel.class);
+        tracker = new AckTracker(channel);
+    }
+
+    @Test
+    @DisplayName("In-order completion acks each delivery cumulatively")
+    void inOrderCompletion_acksEach() throws Exception {
+        tracker.register(1);
+        tracker.register(2);
+
+        tracker.ack(1);
+        tracker.ack(2);
+
+        InOrder order = inOrder(channel);
+        order.verify(channel).basicAck(1L, true);
+        order.verify(channel).basicAck(2L, true);
+        assertEquals(0, tracker.outstandingCount());
+    }
+
+    @Test
+    @DisplayName("Early completion is held back until earlier deliveries complete")
+    void outOfOrderCompletion_heldBack() throws Exception {
+        tracker.register(1);
+        tracker.register(2);
+        tracker.register(3);
+
+        tracker.ack(3);
+        tracker.ack(2);
+        verify(channel, never()).basicAck(anyLong(), anyBoolean());
+        assertEquals(3, tracker.outstandingCount());
+
+        tracker.ack(1);
+        verify(channel, times(1)).basicAck(3L, true);
+        assertEquals(0, tracker.outstandingCount());
+    }
+
+    @Test
+    @DisplayName("Nack requeues the delivery and releases completions behind it")
+    void nack_releasesLaterCompletions() throws Exception {
+        tracker.register(1);
+        tracker.register(2);
+        tracker.register(3);
+
+        tracker.ack(2);
+        tracker.ack(3);
+        tracker.nack(1);
+
+        InOrder order = inOrder(channel);
+        order.verify(channel).basicNack(1L, false, true);
+        order.verify(channel).basicAck(3L, true);
+        assertEquals(0, tracker.outstandingCount());
+    }
+
+    @Test
+    @DisplayName("Ack never covers a delivery that has not completed")
+    void ack_stopsAtIncompleteDelivery() throws Exception {
+        tracker.register(1);
+        tracker.register(2);
+        tracker.register(3);
+
+        tracker.ack(1);
+        tracker.ack(3);
+
+        verify(channel).basicAck(1L, true);
+        verify(channel, never()).basicAck(3L, true);
+        assertEquals(2, tracker.outstandingCount());
+    }
+
+    // ============================================================
+    //  Batching
+    // ============================================================
+
+    @Test
+    @DisplayName("Batched tracker defers the cumulative ack until the batch is full")
+    void batch_defersUntilFull() throws Exception {
+        AckTracker batched = new AckTracker(channel, 3);
+        batched.register(1);
+        batched.register(2);
+        batched.register(3);
+
+        batched.ack(1);
+        batched.ack(2);
+        verify(channel, never()).basicAck(anyLong(), anyBoolean());
+        assertEquals(3, batched.outstandingCount());
+
+        batched.ack(3);
+        verify(channel, times(1)).basicAck(3L, true);
+        assertEquals(0, batched.outstandingCount());
+    }
+
+    @Test
+    @DisplayName("Flush sends the pending partial batch once")
+    void batch_flushSendsPending() throws Exception {
+        AckTracker batched = new AckTracker(channel, 10);
+        batched.register(1);
+        batched.register(2);
+        batched.ack(1);
+        batched.ack(2);
+
+        batched.flush();
+        batched.flush();
+
+        verify(channel, times(1)).basicAck(2L, true);
+        assertEquals(0, batched.outstandingCount());
+    }
+
+    @Test
+    @DisplayName("Flush with nothing ackable sends nothing")
+    void batch_flushEmpty_noop() throws Exception {
+        tracker.register(1);
+        tracker.flush();
+        verify(channel, never()).basicAck(anyLong(), anyBoolean());
+    }
+
+    @Test
+    @DisplayName("Batch size below 1 is rejected")
+    void batch_invalidSize_throws() {
+        assertThrows(IllegalArgumentException.class, () -> new AckTracker(channel, 0));
+    }
+}
@@ -0,0 +1,246 @@
+package com.pandascore.sdk.rmq;
+
+import com.pandascore.sdk.FeedListener;
+import com.pandascore.sdk.TypedFeedAdapter;
+import com.pandascore.sdk.config.SDKConfig;
+import com.pandascore.sdk.config.SDKOptions;
+import com.pandascore.sdk.events.EventHandler;
+import com.pandascore.sdk.model.feed.fixtures.FixtureMessage;
+import com.pandascore.sdk.model.feed.markets.MarketsMessage;
+import com.rabbitmq.client.CancelCallback;
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.DeliverCallback;
+import com.rabbitmq.client.Delivery;
+import com.rabbitmq.client.Envelope;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for allocation per delivered message on the consumer thread — DeliverCallback,
+ * TypedFeedAdapter decode and listener call, measured with the thread's allocated-bytes
+ * counter. A mocked Channel captures the DeliverCallback; its ack overhead is measured
+ * separately and subtracted.
+ * <p>
+ * The budgets are recorded values with headroom. A change that allocates more per message
+ * fails here; if the increase is intended, re-record the budget from the measured value in
+ * the failure message. Test logging (logback-test.xml) keeps the SDK at INFO: DEBUG would
+ * render every payload and dwarf the SDK's own allocation.
+ */
+class AllocationBudgetTest {
+
+    // Recorded bytes per message (measured 5.6 KB, 35 KB, 3.2 KB and 0.7 KB), with headroom
+    private static final long MARKETS_SMALL_BUDGET = 7_000;
+    private static final long MARKETS_LARGE_BUDGET = 44_000;
+    private static final long FIXTURE_BUDGET = 4_000;
+    private static final long HEARTBEAT_BUDGET = 1_000;
+
+    private static final int BATCH = 2_000;
+    private static final int WARMUP_ROUNDS = 15;
+    private static final int MEASURED_ROUNDS = 5;
+
+    private static final String MARKETS_RK = "v1.cs-go.match.1001.markets.odds_changed";
+    private static final String FIXTURE_RK = "v1.cs-go.match.1001.fixture.updated";
+
+    private static final com.sun.management.ThreadMXBean threads =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private EventHandler handler;
+    private RabbitMQFeed feed;
+    private Channel channel;
+    private DeliverCallback callback;
+    private Object lastMessage;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        assumeTrue(threads.isThreadAllocatedMemorySupported(), "thread allocation counters unavailable");
+        threads.setThreadAllocatedMemoryEnabled(true);
+        // The production logging setup: per-event lines folded into the activity summary
+        // and only the connection label in the MDC
+        SDKConfig.setOptions(SDKOptions.builder()
+            .apiToken("token")
+            .companyId(1)
+            .email("e@e.com")
+            .password("pass")
+            .apiBaseUrl("http://localhost:9999")
+            .activitySummaryIntervalMs(3_600_000)
+            .mdcMode(SDKOptions.MdcMode.MINIMAL)
+            .queueBinding(SDKOptions.QueueBinding.builder()
+                .queueName("q").routingKey("#").build())
+            .build());
+        handler = new EventHandler(event -> {});
+        feed = new RabbitMQFeed(handler);
+        // Stub-only: a recording mock would allocate per ack and retain every invocation
+        channel = mock(Channel.class, withSettings().stubOnly());
+        startConsumers(new TypedFeedAdapter(new FeedListener() {
+            @Override
+            public void onMarkets(MarketsMessage message) {
+                lastMessage = message;
+            }
+
+            @Override
+            public void onFixture(FixtureMessage message) {
+                lastMessage = message;
+            }
+        }));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (handler != null) {
+            handler.close();
+        }
+    }
+
+    // --- Helpers ---
+
+    private void startConsumers(Consumer<Object> sink) throws Exception {
+        AtomicReference<DeliverCallback> captured = new AtomicReference<>();
+        doAnswer(invocation -> {
+            captured.set(invocation.getArgument(3));
+            return "ctag";
+        }).when(channel).basicConsume(anyString(), anyBoolean(), anyString(),
+            any(DeliverCallback.class), any(CancelCallback.class));
+
+        Field chanField = RabbitMQFeed.class.getDeclaredField("chan");
+        chanField.setAccessible(true);
+        chanField.set(feed, channel);
+        Method m = RabbitMQFeed.class.getDeclaredMethod("startConsumers", Consumer.class);
+        m.setAccessible(true);
+        m.invoke(feed, sink);
+        callback = captured.get();
+    }
+
+    /**
+     * Deliveries are built up front: in production the client library allocates them, not the SDK.
+     */
+    private static Delivery[] deliveries(String routingKey, String json) {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        Delivery[] deliveries = new Delivery[BATCH];
+        for (int i = 0; i < BATCH; i++) {
+            deliveries[i] = new Delivery(new Envelope(i + 1, false, "pandascore.feed", routingKey), null, body);
+        }
+        return deliveries;
+    }
+
+    /**
+     * @return the lowest per-message allocation over the measured rounds, after warm-up,
+     *         less the mocked channel's ack
+     */
+    private long bytesPerMessage(Delivery[] deliveries) throws Exception {
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            deliverAll(deliveries);
+        }
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < MEASURED_ROUNDS; round++) {
+            long before = threads.getCurrentThreadAllocatedBytes();
+            deliverAll(deliveries);
+            best = Math.min(best, threads.getCurrentThreadAllocatedBytes() - before);
+        }
+        return Math.max(0, best / BATCH - ackBytes());
+    }
+
+    private void deliverAll(Delivery[] deliveries) throws Exception {
+        for (Delivery delivery : deliveries) {
+            callback.handle("ctag", delivery);
+        }
+    }
+
+    private long ackBytes() throws Exception {
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < WARMUP_ROUNDS + MEASURED_ROUNDS; round++) {
+            long before = threads.getCurrentThreadAllocatedBytes();
+            for (int i = 1; i <= BATCH; i++) {
+                channel.basicAck(i, false);
+            }
+            best = Math.min(best, threads.getCurrentThreadAllocatedBytes() - before);
+        }
+        return best / BATCH;
+    }
+
+    private static void assertWithinBudget(String what, long measured, long budget) {
+        assertTrue(measured <= budget,
+            what + " allocates " + measured + " bytes per message, over its budget of " + budget);
+    }
+
+    // ============================================================
+    //  Budgets
+    // ============================================================
+
+    @Test
+    @DisplayName("Markets message with one market stays within its allocation budget")
+    void marketsSmall() throws Exception {
+        long measured = bytesPerMessage(deliveries(MARKETS_RK, marketsJson(1)));
+        assertInstanceOf(MarketsMessage.class, lastMessage);
+        assertWithinBudget("markets (1 market)", measured, MARKETS_SMALL_BUDGET);
+    }
+
+    @Test
+    @DisplayName("Markets message with ten markets stays within its allocation budget")
+    void marketsLarge() throws Exception {
+        long measured = bytesPerMessage(deliveries(MARKETS_RK, marketsJson(10)));
+        assertEquals(10, ((MarketsMessage) lastMessage).getMarkets().size());
+        assertWithinBudget("markets (10 markets)", measured, MARKETS_LARGE_BUDGET);
+    }
+
+    @Test
+    @DisplayName("Fixture message stays within its allocation budget")
+    void fixture() throws Exception {
+        long measured = bytesPerMessage(deliveries(FIXTURE_RK, """
+            {"type":"fixture","at":"2026-01-20T18:42:07Z","action":"updated","event_type":"match",\
+            "event_id":1001,"videogame_slug":"cs-go","match_id":1001,"match":{"id":1001,\
+            "name":"NAVI vs VIT","status":"running","scheduled_at":"2026-01-20T18:00:00Z",\
+            "number_of_games":3,"league_id":4562,"serie_id":8123,"tournament_id":15012,\
+            "videogame":{"id":3,"name":"Counter-Strike","slug":"cs-go"}}}"""));
+        assertInstanceOf(FixtureMessage.class, lastMessage);
+        assertWithinBudget("fixture", measured, FIXTURE_BUDGET);
+    }
+
+    @Test
+    @DisplayName("Heartbeat stays within its allocation budget")
+    void heartbeat() throws Exception {
+        long measured = bytesPerMessage(deliveries("heartbeat", "{\"at\":\"2026-01-20T18:42:07Z\"}"));
+        assertNull(lastMessage);
+        assertWithinBudget("heartbeat", measured, HEARTBEAT_BUDGET);
+    }
+
+    private static String marketsJson(int markets) {
+        StringBuilder json = new StringBuilder("{\"type\":\"markets\",\"at\":\"2026-01-20T18:42:07Z\","
+            + "\"action\":\"odds_changed\",\"event_type\":\"match\",\"event_id\":1001,"
+            + "\"videogame_slug\":\"cs-go\",\"match_id\":1001,\"markets\":[");
+        for (int m = 0; m < markets; m++) {
+            if (m > 0) {
+                json.append(',');
+            }
+            json.append("{\"id\":\"1001-").append(m).append("\",\"name\":\"Map ").append(m)
+                .append(" winner\",\"status\":\"active\",\"template\":\"map-winner-2-way\",")
+                .append("\"overround\":1.04,\"margin\":0.05,\"selections\":[");
+            for (int s = 0; s < 2; s++) {
+                if (s > 0) {
+                    json.append(',');
+                }
+                json.append("{\"id\":\"1001-").append(m).append('-').append(s).append("\",\"position\":")
+                    .append(s + 1).append(",\"name\":\"").append(s == 0 ? "home" : "away")
+                    .append("\",\"participant_type\":\"Team\",\"participant_id\":").append(128001 + s)
+                    .append(",\"participant_side\":\"").append(s == 0 ? "home" : "away")
+                    .append("\",\"probability\":0.5,\"probability_with_overround\":0.52,")
+                    .append("\"probability_with_margin\":0.525,\"odds_decimal\":2.0,")
+                    .append("\"odds_decimal_with_overround\":1.92,\"odds_decimal_with_margin\":1.9}");
+            }
+            json.append("]}");
+        }
+        return json.append("]}").toString();
+    }
+}
@@ -0,0 +1,220 @@
+package com.pandascore.sdk.rmq;
+
+import com.pandascore.sdk.config.SDKOptions.BackpressurePolicy;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for DispatchQueue — bounded lane queue and its backpressure policies.
+ */
+class DispatchQueueTest {
+
+    private final List<String> dropped = new CopyOnWriteArrayList<>();
+
+    private PartitionedDispatcher.Task task(String name, Object conflationKey) {
+        return task(name, conflationKey, true);
+    }
+
+    private PartitionedDispatcher.Task task(String name, Object conflationKey, boolean droppable) {
+        return new PartitionedDispatcher.Task() {
+            @Override
+            public void run() {
+            }
+
+            @Override
+            public void drop() {
+                dropped.add(name);
+            }
+
+            @Override
+            public boolean droppable() {
+                return droppable;
+            }
+
+            @Override
+            public Object conflationKey() {
+                return conflationKey;
+            }
+
+            @Override
+            public String toString() {
+                return name;
+            }
+        };
+    }
+
+    // ============================================================
+    //  BLOCK
+    // ============================================================
+
+    @Test
+    @DisplayName("BLOCK: producer waits until the consumer frees a slot")
+    void block_waitsForSpace() throws Exception {
+        DispatchQueue queue = new DispatchQueue(1, BackpressurePolicy.BLOCK);
+        queue.put(task("a", null));
+
+        CountDownLatch enqueued = new CountDownLatch(1);
+        Thread producer = new Thread(() -> {
+            try {
+                queue.put(task("b", null));
+                enqueued.countDown();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        producer.start();
+
+        assertFalse(enqueued.await(100, TimeUnit.MILLISECONDS));
+        assertEquals("a", queue.take().toString());
+        assertTrue(enqueued.await(5, TimeUnit.SECONDS));
+        assertEquals(1, queue.size());
+        assertTrue(dropped.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Closing the queue releases a blocked producer with a rejection")
+    void close_releasesBlockedProducer() throws Exception {
+        DispatchQueue queue = new DispatchQueue(1, BackpressurePolicy.BLOCK);
+        queue.put(task("a", null));
+
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread producer = new Thread(() -> {
+            try {
+                queue.put(task("b", null));
+            } catch (Throwable t) {
+                failure.set(t);
+            }
+        });
+        producer.start();
+        Thread.sleep(50);
+        queue.close();
+        producer.join(5_000);
+
+        assertInstanceOf(RejectedExecutionException.class, failure.get());
+        // Already queued work is still handed out, then the queue reports exhaustion
+        assertEquals("a", queue.take().toString());
+        assertNull(queue.take());
+    }
+
+    // ============================================================
+    //  DROP_OLDEST
+    // ============================================================
+
+    @Test
+    @DisplayName("DROP_OLDEST: oldest task is discarded and counted")
+    void dropOldest_discardsHead() throws Exception {
+        DispatchQueue queue = new DispatchQueue(2, BackpressurePolicy.DROP_OLDEST);
+        queue.put(task("a", null));
+        queue.put(task("b", null));
+
+        PartitionedDispatcher.Task victim = queue.put(task("c", null));
+
+        assertEquals("a", victim.toString());
+        assertEquals(1, queue.droppedCount());
+        assertEquals("b", queue.take().toString());
+        assertEquals("c", queue.take().toString());
+    }
+
+    @Test
+    @DisplayName("DROP_OLDEST: internal markers are never dropped")
+    void dropOldest_skipsPlainRunnables() throws Exception {
+        DispatchQueue queue = new DispatchQueue(2, BackpressurePolicy.DROP_OLDEST);
+        Runnable marker = () -> {};
+        queue.putUnbounded(marker);
+        queue.put(task("a", null));
+
+        PartitionedDispatcher.Task victim = queue.put(task("b", null));
+
+        assertEquals("a", victim.toString());
+        assertSame(marker, queue.take());
+    }
+
+    @Test
+    @DisplayName("DROP_OLDEST: non-droppable tasks are skipped, and with none droppable the producer blocks")
+    void dropOldest_keepsNonDroppable() throws Exception {
+        DispatchQueue queue = new DispatchQueue(2, BackpressurePolicy.DROP_OLDEST);
+        queue.put(task("settled", null, false));
+        queue.put(task("fixture", null));
+
+        assertEquals("fixture", queue.put(task("suspended", null, false)).toString());
+
+        CountDownLatch enqueued = new CountDownLatch(1);
+        Thread producer = new Thread(() -> {
+            try {
+                queue.put(task("late", null));
+                enqueued.countDown();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        producer.start();
+
+        assertFalse(enqueued.await(100, TimeUnit.MILLISECONDS));
+        assertEquals("settled", queue.take().toString());
+        assertTrue(enqueued.await(5, TimeUnit.SECONDS));
+        assertEquals(1, queue.droppedCount());
+        assertEquals("suspended", queue.take().toString());
+    }
+
+    // ============================================================
+    //  CONFLATE
+    // ============================================================
+
+    @Test
+    @DisplayName("CONFLATE: queued task with the same key is replaced, new one goes last")
+    void conflate_replacesSameKey() throws Exception {
+        DispatchQueue queue = new DispatchQueue(2, BackpressurePolicy.CONFLATE);
+        queue.put(task("m1-old", "1:a"));
+        queue.put(task("m2", "2:a"));
+
+        PartitionedDispatcher.Task victim = queue.put(task("m1-new", "1:a"));
+
+        assertEquals("m1-old", victim.toString());
+        assertEquals(1, queue.conflatedCount());
+        assertEquals("m2", queue.take().toString());
+        assertEquals("m1-new", queue.take().toString());
+    }
+
+    @Test
+    @DisplayName("CONFLATE: nothing to conflate falls back to blocking")
+    void conflate_noMatch_blocks() throws Exception {
+        DispatchQueue queue = new DispatchQueue(1, BackpressurePolicy.CONFLATE);
+        queue.put(task("a", "1:a"));
+
+        CountDownLatch enqueued = new CountDownLatch(1);
+        Thread producer = new Thread(() -> {
+            try {
+                queue.put(task("b", null));
+                enqueued.countDown();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        producer.start();
+
+        assertFalse(enqueued.await(100, TimeUnit.MILLISECONDS));
+        queue.take();
+        assertTrue(enqueued.await(5, TimeUnit.SECONDS));
+        assertEquals(0, queue.conflatedCount());
+    }
+
+    @Test
+    @DisplayName("Unbounded queue never applies a policy")
+    void unbounded_acceptsEverything() throws Exception {
+        DispatchQueue queue = new DispatchQueue(0, BackpressurePolicy.DROP_OLDEST);
+        for (int i = 0; i < 1_000; i++) {
+            assertNull(queue.put(task("t" + i, null)));
+        }
+        assertEquals(1_000, queue.size());
+        assertEquals(0, queue.droppedCount());
+    }
+}
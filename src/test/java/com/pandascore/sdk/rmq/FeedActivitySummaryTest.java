@@ -0,0 +1,78 @@
+package com.pandascore.sdk.rmq;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for FeedActivitySummary — per videogame/type/action counters drained per interval.
+ */
+class FeedActivitySummaryTest {
+
+    @Test
+    @DisplayName("Counts are grouped per videogame/type/action and sorted")
+    void drain_groupsCounts() {
+        FeedActivitySummary summary = new FeedActivitySummary();
+        summary.record("dota-2", "fixture", "started");
+        summary.record("cs-go", "markets", "odds_changed");
+        summary.record("cs-go", "markets", "odds_changed");
+        summary.recordFiltered();
+
+        assertEquals("intervalMs=1000 total=3 filtered=1 counts="
+                + "{cs-go/markets/odds_changed=2, dota-2/fixture/started=1}",
+            summary.drain(1000));
+    }
+
+    @Test
+    @DisplayName("Drain resets counters and omits idle combinations")
+    void drain_resets() {
+        FeedActivitySummary summary = new FeedActivitySummary();
+        summary.record("cs-go", "markets", "odds_changed");
+        summary.drain(1000);
+
+        assertEquals("intervalMs=1000 total=0 filtered=0 counts={}", summary.drain(1000));
+    }
+
+    @Test
+    @DisplayName("Combinations beyond the bound are counted as other")
+    void combinationsBounded() {
+        FeedActivitySummary summary = new FeedActivitySummary();
+        for (int i = 0; i < FeedActivitySummary.MAX_COMBINATIONS; i++) {
+            summary.record("game", "markets", "a" + i);
+        }
+        summary.record("game", "markets", "extra");
+        summary.record("game", "markets", "extra");
+
+        String line = summary.drain(1000);
+        assertTrue(line.contains("total=" + (FeedActivitySummary.MAX_COMBINATIONS + 2)));
+        assertTrue(line.contains("other=2"));
+    }
+
+    @Test
+    @DisplayName("Concurrent recording loses no counts")
+    void concurrentRecording() throws Exception {
+        FeedActivitySummary summary = new FeedActivitySummary();
+        int threads = 4;
+        int perThread = 10_000;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            pool.execute(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    summary.record("cs-go", "markets", "odds_changed");
+                }
+                done.countDown();
+            });
+        }
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        pool.shutdown();
+
+        assertTrue(summary.drain(1000).contains("total=" + threads * perThread));
+    }
+}
@@ -0,0 +1,167 @@
+package com.pandascore.sdk.rmq;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for FeedJournal and JournalReader — record round trip, segment rolling and torn tails.
+ */
+class FeedJournalTest {
+
+    @TempDir
+    Path dir;
+
+    private static byte[] body(String json) {
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static List<JournalRecord> readAll(Path directory, long fromSequence) throws IOException {
+        List<JournalRecord> records = new ArrayList<>();
+        try (JournalReader reader = new JournalReader(directory, fromSequence)) {
+            JournalRecord record;
+            while ((record = reader.next()) != null) {
+                records.add(record);
+            }
+        }
+        return records;
+    }
+
+    // ========================================================================
+    // Round trip
+    // ========================================================================
+
+    @Test
+    @DisplayName("records keep body, routing key, receive time and delivery metadata")
+    void roundTrip() throws IOException {
+        try (FeedJournal journal = new FeedJournal(dir, 1 << 16, 0, 16, "journal-test")) {
+            assertTrue(journal.append("pandascore.feed", "v2.cs-go.match.1.markets.odds_changed", 7L, true,
+                1_700_000_000_123L, body("{\"type\":\"markets\"}")));
+            journal.append("pandascore.feed", "heartbeat", 8L, false, 1_700_000_000_456L, body("{\"at\":\"x\"}"));
+        }
+
+        List<JournalRecord> records = readAll(dir, 0);
+        assertEquals(2, records.size());
+        JournalRecord first = records.get(0);
+        assertEquals(1L, first.getSequence());
+        assertEquals("pandascore.feed", first.getExchange());
+        assertEquals("v2.cs-go.match.1.markets.odds_changed", first.getRoutingKey());
+        assertEquals(7L, first.getDeliveryTag());
+        assertTrue(first.isRedelivered());
+        assertEquals(1_700_000_000_123L, first.getReceivedAtMillis());
+        assertEquals("{\"type\":\"markets\"}", new String(first.getBody(), StandardCharsets.UTF_8));
+        assertFalse(records.get(1).isRedelivered());
+    }
+
+    @Test
+    @DisplayName("segments roll by size and a reopened journal continues the sequence")
+    void rollsAndContinuesSequence() throws IOException {
+        byte[] payload = new byte[300];
+        try (FeedJournal journal = new FeedJournal(dir, 1024, 0, 64, "journal-test")) {
+            for (int i = 0; i < 10; i++) {
+                journal.append("x", "rk", i, false, i, payload);
+            }
+        }
+        assertTrue(JournalReader.segments(dir).size() >= 4, "300-byte bodies fill a 1 KiB segment after 2 records");
+
+        try (FeedJournal journal = new FeedJournal(dir, 1024, 0, 64, "journal-test")) {
+            journal.append("x", "rk", 10, false, 10, body("{}"));
+        }
+
+        List<JournalRecord> records = readAll(dir, 0);
+        assertEquals(11, records.size());
+        for (int i = 0; i < records.size(); i++) {
+            assertEquals(i + 1, records.get(i).getSequence());
+        }
+        assertEquals(3, readAll(dir, 9).size());
+    }
+
+    @Test
+    @DisplayName("a reopened journal does not collide with an empty newest segment")
+    void reopenAfterEmptyNewestSegment() throws IOException {
+        try (FeedJournal journal = new FeedJournal(dir, 1 << 16, 0, 16, "journal-test")) {
+            journal.append("x", "rk", 1, false, 1, body("{\"n\":1}"));
+            journal.append("x", "rk", 2, false, 2, body("{\"n\":2}"));
+        }
+        // A crash right after a roll leaves a segment with no record in it
+        Path empty = dir.resolve(FeedJournal.segmentName(3));
+        try (FileChannel channel = FileChannel.open(empty, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(FeedJournal.SEGMENT_HEADER_BYTES)
+                .putInt(FeedJournal.SEGMENT_MAGIC).putInt(FeedJournal.FORMAT_VERSION).flip());
+        }
+
+        try (FeedJournal journal = new FeedJournal(dir, 1 << 16, 0, 16, "journal-test")) {
+            assertTrue(journal.append("x", "rk", 3, false, 3, body("{\"n\":3}")));
+        }
+
+        List<JournalRecord> records = readAll(dir, 0);
+        assertEquals(3, records.size());
+        assertEquals(3L, records.get(2).getDeliveryTag());
+        assertEquals(4L, records.get(2).getSequence());
+    }
+
+    @Test
+    @DisplayName("segment sizes a single mapping cannot hold are rejected")
+    void oversizedSegmentRejected() {
+        assertThrows(IllegalArgumentException.class,
+            () -> new FeedJournal(dir, Integer.MAX_VALUE + 1L, 0, 16, "journal-test"));
+    }
+
+    @Test
+    @DisplayName("a record larger than a segment gets a segment of its own")
+    void oversizedRecord() throws IOException {
+        try (FeedJournal journal = new FeedJournal(dir, 1024, 0, 4, "journal-test")) {
+            journal.append("x", "rk", 1, false, 1, new byte[5000]);
+        }
+        assertEquals(5000, readAll(dir, 0).get(0).getBody().length);
+    }
+
+    // ========================================================================
+    // Damage
+    // ========================================================================
+
+    @Test
+    @DisplayName("a corrupt record ends its segment and earlier records are kept")
+    void corruptTailSkipped() throws IOException {
+        try (FeedJournal journal = new FeedJournal(dir, 1 << 16, 0, 16, "journal-test")) {
+            journal.append("x", "rk", 1, false, 1, body("{\"n\":1}"));
+            journal.append("x", "rk", 2, false, 2, body("{\"n\":2}"));
+        }
+        Path segment = JournalReader.segments(dir).get(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer length = ByteBuffer.allocate(4);
+            channel.read(length, FeedJournal.SEGMENT_HEADER_BYTES);
+            length.flip();
+            long second = FeedJournal.SEGMENT_HEADER_BYTES + 4 + length.getInt();
+            // First byte of the second record's body: length prefix, fixed fields, "x", "rk"
+            long bodyOffset = second + 4 + FeedJournal.RECORD_OVERHEAD - 4 + 1 + 2;
+            channel.write(ByteBuffer.wrap(new byte[] {'#'}), bodyOffset);
+        }
+
+        List<JournalRecord> records = readAll(dir, 0);
+        assertEquals(1, records.size());
+        assertEquals(1L, records.get(0).getDeliveryTag());
+    }
+
+    @Test
+    @DisplayName("appends after close are counted as dropped")
+    void appendAfterClose() throws IOException {
+        FeedJournal journal = new FeedJournal(dir, 1 << 16, 100, 16, "journal-test");
+        journal.close();
+
+        assertFalse(journal.append("x", "rk", 1, false, 1, body("{}")));
+        assertEquals(1, journal.droppedCount());
+        assertTrue(readAll(dir, 0).isEmpty());
+    }
+}
@@ -0,0 +1,56 @@
+package com.pandascore.sdk.rmq;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pandascore.sdk.RawFeedMessage;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for MarketsConflation — which markets updates may supersede each other.
+ */
+class MarketsConflationTest {
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+    private static final String ODDS = "{\"type\": \"markets\", \"match_id\": 42, "
+        + "\"markets\": [{\"id\": \"m2\", \"selections\": [{\"id\": \"s\"}]}, {\"id\": \"m1\"}]}";
+
+    private static RawFeedMessage raw(String json) throws Exception {
+        return RawFeedMessage.peek(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Price update key combines match id and sorted market ids")
+    void priceUpdate_hasKey() throws Exception {
+        assertEquals("42:m1,m2", MarketsConflation.key(raw(ODDS), "odds_changed"));
+        assertEquals("42:m1,m2", MarketsConflation.key(raw(ODDS), "margin_changed"));
+    }
+
+    @Test
+    @DisplayName("Raw and JsonNode payloads produce the same key")
+    void jsonNode_sameKey() throws Exception {
+        assertEquals(MarketsConflation.key(raw(ODDS), "odds_changed"),
+            MarketsConflation.key(mapper.readTree(ODDS), "odds_changed"));
+    }
+
+    @Test
+    @DisplayName("Status transitions are never conflated")
+    void statusTransition_noKey() throws Exception {
+        assertNull(MarketsConflation.key(raw(ODDS), "suspended"));
+        assertNull(MarketsConflation.key(raw(ODDS), "settled"));
+        assertNull(MarketsConflation.key(raw(ODDS), "deactivated"));
+    }
+
+    @Test
+    @DisplayName("Non-markets messages and markets without ids get no key")
+    void otherMessages_noKey() throws Exception {
+        assertNull(MarketsConflation.key(raw("{\"type\": \"fixture\", \"match_id\": 42}"), "odds_changed"));
+        assertNull(MarketsConflation.key(
+            raw("{\"type\": \"markets\", \"match_id\": 42, \"markets\": [{\"name\": \"x\"}]}"), "odds_changed"));
+        assertNull(MarketsConflation.key(
+            raw("{\"type\": \"markets\", \"match_id\": 42, \"markets\": []}"), "odds_changed"));
+    }
+}
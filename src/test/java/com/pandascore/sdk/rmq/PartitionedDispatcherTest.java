@@ -0,0 +1,183 @@
+package com.pandascore.sdk.rmq;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pandascore.sdk.RawFeedMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for PartitionedDispatcher lane assignment and ordering, and for
+ * RabbitMQFeed's choice of partition key.
+ */
+class PartitionedDispatcherTest {
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+    private static final String EVENT_999 = "v1.cs-go.match.999.scoreboard.updated";
+    private PartitionedDispatcher dispatcher;
+
+    @AfterEach
+    void tearDown() {
+        if (dispatcher != null) {
+            dispatcher.shutdown(1, TimeUnit.SECONDS);
+        }
+    }
+
+    // ============================================================
+    //  Lane assignment
+    // ============================================================
+
+    @Test
+    @DisplayName("Same key always maps to the same lane within range")
+    void laneFor_isStableAndInRange() {
+        dispatcher = new PartitionedDispatcher(4, "test-lane");
+        for (long key = -50; key < 1000; key++) {
+            int lane = dispatcher.laneFor(key);
+            assertTrue(lane >= 0 && lane < 4);
+            assertEquals(lane, dispatcher.laneFor(key));
+        }
+    }
+
+    @Test
+    @DisplayName("Sequential keys are spread over all lanes")
+    void laneFor_spreadsSequentialKeys() {
+        dispatcher = new PartitionedDispatcher(4, "test-lane");
+        int[] counts = new int[4];
+        for (long key = 1_000_000; key < 1_000_400; key++) {
+            counts[dispatcher.laneFor(key)]++;
+        }
+        for (int count : counts) {
+            assertTrue(count > 0);
+        }
+    }
+
+    @Test
+    @DisplayName("Non-positive lane count is rejected")
+    void zeroLanes_throws() {
+        assertThrows(IllegalArgumentException.class, () -> new PartitionedDispatcher(0, "test-lane"));
+    }
+
+    // ============================================================
+    //  Ordering and parallelism
+    // ============================================================
+
+    @Test
+    @DisplayName("Tasks for one key run in submission order")
+    void dispatch_preservesOrderPerKey() throws Exception {
+        dispatcher = new PartitionedDispatcher(4, "test-lane");
+        List<CopyOnWriteArrayList<Integer>> seen = new ArrayList<>();
+        for (int k = 0; k < 8; k++) {
+            seen.add(new CopyOnWriteArrayList<>());
+        }
+
+        for (int seq = 0; seq < 200; seq++) {
+            for (int k = 0; k < 8; k++) {
+                int key = k;
+                int value = seq;
+                dispatcher.dispatch(key, () -> seen.get(key).add(value));
+            }
+        }
+        dispatcher.awaitIdle();
+
+        for (CopyOnWriteArrayList<Integer> values : seen) {
+            assertEquals(200, values.size());
+            for (int i = 0; i < values.size(); i++) {
+                assertEquals(i, values.get(i));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("A blocked lane does not stall keys on other lanes")
+    void dispatch_blockedLaneDoesNotStallOthers() throws Exception {
+        dispatcher = new PartitionedDispatcher(2, "test-lane");
+        long slowKey = 0;
+        long fastKey = 1;
+        while (dispatcher.laneFor(fastKey) == dispatcher.laneFor(slowKey)) {
+            fastKey++;
+        }
+
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch fastDone = new CountDownLatch(1);
+        dispatcher.dispatch(slowKey, () -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        dispatcher.dispatch(fastKey, fastDone::countDown);
+
+        assertTrue(fastDone.await(5, TimeUnit.SECONDS));
+        release.countDown();
+    }
+
+    @Test
+    @DisplayName("awaitIdle waits for previously queued tasks")
+    void awaitIdle_waitsForQueuedTasks() throws Exception {
+        dispatcher = new PartitionedDispatcher(3, "test-lane");
+        AtomicInteger done = new AtomicInteger();
+        for (int i = 0; i < 30; i++) {
+            dispatcher.dispatch(i, () -> {
+                try {
+                    Thread.sleep(1);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                done.incrementAndGet();
+            });
+        }
+        dispatcher.awaitIdle();
+        assertEquals(30, done.get());
+    }
+
+    @Test
+    @DisplayName("Dispatch after shutdown is rejected")
+    void dispatch_afterShutdown_rejected() {
+        dispatcher = new PartitionedDispatcher(1, "test-lane");
+        dispatcher.shutdown(1, TimeUnit.SECONDS);
+        assertThrows(RejectedExecutionException.class, () -> dispatcher.dispatch(1, () -> {}));
+    }
+
+    // ============================================================
+    //  Partition key selection
+    // ============================================================
+
+    @Test
+    @DisplayName("Partition key is the match_id of a raw message")
+    void partitionKey_rawMatchId() throws Exception {
+        RawFeedMessage raw = RawFeedMessage.peek(
+            "{\"type\": \"markets\", \"match_id\": 1234}".getBytes(StandardCharsets.UTF_8));
+        assertEquals(1234L, RabbitMQFeed.partitionKey(raw, RoutingKey.parse(EVENT_999), EVENT_999));
+    }
+
+    @Test
+    @DisplayName("Partition key is the match_id of a JsonNode message")
+    void partitionKey_jsonMatchId() throws Exception {
+        assertEquals(1234L, RabbitMQFeed.partitionKey(
+            mapper.readTree("{\"type\": \"markets\", \"match_id\": 1234}"),
+            RoutingKey.parse(EVENT_999), EVENT_999));
+    }
+
+    @Test
+    @DisplayName("Partition key falls back to the routing-key event id")
+    void partitionKey_fallsBackToEventId() throws Exception {
+        assertEquals(999L, RabbitMQFeed.partitionKey(
+            mapper.readTree("{\"type\": \"scoreboard\"}"), RoutingKey.parse(EVENT_999), EVENT_999));
+        String nonNumeric = "v1.cs-go.match.abc.scoreboard.updated";
+        assertEquals("abc".hashCode(), RabbitMQFeed.partitionKey(
+            mapper.readTree("{}"), RoutingKey.parse(nonNumeric), nonNumeric));
+        assertEquals("stray".hashCode(), RabbitMQFeed.partitionKey(mapper.readTree("{}"), null, "stray"));
+    }
+}
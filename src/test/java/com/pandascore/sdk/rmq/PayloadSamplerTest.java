@@ -0,0 +1,61 @@
+package com.pandascore.sdk.rmq;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for PayloadSampler — 1-in-N payload log sampling per message type.
+ */
+class PayloadSamplerTest {
+
+    @Test
+    @DisplayName("Rate 0 never samples")
+    void disabled_neverSamples() {
+        PayloadSampler sampler = new PayloadSampler(0);
+        for (int i = 0; i < 10; i++) {
+            assertFalse(sampler.sample("markets"));
+        }
+    }
+
+    @Test
+    @DisplayName("Rate N samples the first message and every Nth after it")
+    void samplesOneInN() {
+        PayloadSampler sampler = new PayloadSampler(3);
+        int sampled = 0;
+        for (int i = 0; i < 9; i++) {
+            if (sampler.sample("markets")) {
+                sampled++;
+                assertEquals(0, i % 3);
+            }
+        }
+        assertEquals(3, sampled);
+    }
+
+    @Test
+    @DisplayName("Each type has its own counter")
+    void countersPerType() {
+        PayloadSampler sampler = new PayloadSampler(100);
+        assertTrue(sampler.sample("markets"));
+        assertFalse(sampler.sample("markets"));
+        assertTrue(sampler.sample("fixture"));
+    }
+
+    @Test
+    @DisplayName("Types beyond the bound share a counter")
+    void typesBounded() {
+        PayloadSampler sampler = new PayloadSampler(1_000);
+        for (int i = 0; i < PayloadSampler.MAX_TYPES; i++) {
+            assertTrue(sampler.sample("type" + i));
+        }
+        assertTrue(sampler.sample("overflow-a"));
+        assertFalse(sampler.sample("overflow-b"));
+    }
+
+    @Test
+    @DisplayName("Negative rate is rejected")
+    void negativeRate_throws() {
+        assertThrows(IllegalArgumentException.class, () -> new PayloadSampler(-1));
+    }
+}
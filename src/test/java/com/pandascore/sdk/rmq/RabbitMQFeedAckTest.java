@@ -0,0 +1,463 @@
+package com.pandascore.sdk.rmq;
+
+import com.pandascore.sdk.RoutingKeyFilter;
+import com.pandascore.sdk.config.SDKConfig;
+import com.pandascore.sdk.config.SDKOptions;
+import com.pandascore.sdk.events.EventHandler;
+import com.rabbitmq.client.CancelCallback;
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.DeliverCallback;
+import com.rabbitmq.client.Delivery;
+import com.rabbitmq.client.Envelope;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.MDC;
+
+import java.io.UncheckedIOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for how RabbitMQFeed's consumer callback acknowledges deliveries.
+ * A mocked Channel captures the DeliverCallback so deliveries can be pushed
+ * through it without a broker.
+ */
+class RabbitMQFeedAckTest {
+
+    private static final String MARKETS_RK = "v1.cs-go.match.1001.markets.odds_changed";
+    private static final String FIXTURE_RK = "v1.cs-go.match.1001.fixture.updated";
+
+    private EventHandler handler;
+    private RabbitMQFeed feed;
+    private Channel channel;
+    private DeliverCallback callback;
+
+    @TempDir
+    Path dir;
+
+    @BeforeEach
+    void setUp() {
+        setUp(baseOptions());
+    }
+
+    private void setUp(SDKOptions.SDKOptionsBuilder options) {
+        SDKConfig.setOptions(options.build());
+        handler = new EventHandler(event -> {});
+        feed = new RabbitMQFeed(handler);
+        channel = mock(Channel.class);
+    }
+
+    private static SDKOptions.SDKOptionsBuilder baseOptions() {
+        return SDKOptions.builder()
+            .apiToken("token")
+            .companyId(1)
+            .email("e@e.com")
+            .password("pass")
+            .apiBaseUrl("http://localhost:9999")
+            .queueBinding(SDKOptions.QueueBinding.builder()
+                .queueName("q").routingKey("#").build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        handler.close();
+    }
+
+    // --- Helpers ---
+
+    private void startConsumers(Consumer<Object> sink) throws Exception {
+        AtomicReference<DeliverCallback> captured = new AtomicReference<>();
+        doAnswer(invocation -> {
+            captured.set(invocation.getArgument(3));
+            return "ctag";
+        }).when(channel).basicConsume(anyString(), anyBoolean(), anyString(),
+            any(DeliverCallback.class), any(CancelCallback.class));
+
+        Field chanField = RabbitMQFeed.class.getDeclaredField("chan");
+        chanField.setAccessible(true);
+        chanField.set(feed, channel);
+        Method m = RabbitMQFeed.class.getDeclaredMethod("startConsumers", Consumer.class);
+        m.setAccessible(true);
+        m.invoke(feed, sink);
+        callback = captured.get();
+    }
+
+    private void deliver(long tag, String routingKey, String json) throws Exception {
+        callback.handle("ctag", new Delivery(
+            new Envelope(tag, false, "pandascore.feed", routingKey), null,
+            json.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private void deliverMarkets(long tag) throws Exception {
+        deliver(tag, MARKETS_RK, "{\"type\": \"markets\", \"match_id\": 1001}");
+    }
+
+    private void deliverFixture(long tag) throws Exception {
+        deliver(tag, FIXTURE_RK, "{\"type\": \"fixture\", \"match_id\": 1001}");
+    }
+
+    // ============================================================
+    //  Synchronous sink
+    // ============================================================
+
+    @Test
+    @DisplayName("Synchronous sink: each delivery is acked individually after the sink returns")
+    void syncSink_acksIndividually() throws Exception {
+        List<Object> received = new CopyOnWriteArrayList<>();
+        startConsumers(received::add);
+
+        deliverMarkets(1);
+        deliverMarkets(2);
+
+        assertEquals(2, received.size());
+        verify(channel).basicAck(1L, false);
+        verify(channel).basicAck(2L, false);
+    }
+
+    @Test
+    @DisplayName("Synchronous sink: a throwing sink nacks with requeue")
+    void syncSink_exception_nacks() throws Exception {
+        startConsumers(msg -> {
+            throw new RuntimeException("boom");
+        });
+
+        deliverMarkets(1);
+
+        verify(channel).basicNack(1L, false, true);
+        verify(channel, never()).basicAck(anyLong(), anyBoolean());
+    }
+
+    // ============================================================
+    //  Async sink
+    // ============================================================
+
+    @Test
+    @DisplayName("Async sink: delivery is not acked until its stage completes")
+    void asyncSink_acksOnCompletion() throws Exception {
+        CompletableFuture<Void> pending = new CompletableFuture<>();
+        startConsumers(new RabbitMQFeed.AsyncSinkAdapter(msg -> pending));
+
+        deliverMarkets(1);
+        verify(channel, never()).basicAck(anyLong(), anyBoolean());
+
+        pending.complete(null);
+        verify(channel).basicAck(1L, true);
+    }
+
+    @Test
+    @DisplayName("Async sink: out-of-order completions are acked cumulatively in delivery order")
+    void asyncSink_outOfOrderCompletion_cumulativeAck() throws Exception {
+        List<CompletableFuture<Void>> stages = new CopyOnWriteArrayList<>();
+        startConsumers(new RabbitMQFeed.AsyncSinkAdapter(msg -> {
+            CompletableFuture<Void> f = new CompletableFuture<>();
+            stages.add(f);
+            return f;
+        }));
+
+        deliverMarkets(1);
+        deliverMarkets(2);
+        deliverMarkets(3);
+        assertEquals(3, stages.size());
+
+        stages.get(2).complete(null);
+        stages.get(1).complete(null);
+        verify(channel, never()).basicAck(anyLong(), anyBoolean());
+
+        stages.get(0).complete(null);
+        verify(channel, times(1)).basicAck(3L, true);
+    }
+
+    @Test
+    @DisplayName("Async sink: failed stage nacks with requeue")
+    void asyncSink_failedStage_nacks() throws Exception {
+        CompletableFuture<Void> pending = new CompletableFuture<>();
+        startConsumers(new RabbitMQFeed.AsyncSinkAdapter(msg -> pending));
+
+        deliverMarkets(1);
+        pending.completeExceptionally(new RuntimeException("db down"));
+
+        verify(channel).basicNack(1L, false, true);
+        verify(channel, never()).basicAck(anyLong(), anyBoolean());
+    }
+
+    @Test
+    @DisplayName("Async sink: heartbeats are acked through the same cumulative tracker")
+    void asyncSink_heartbeatTrackedInOrder() throws Exception {
+        CompletableFuture<Void> pending = new CompletableFuture<>();
+        startConsumers(new RabbitMQFeed.AsyncSinkAdapter(msg -> pending));
+
+        deliverMarkets(1);
+        deliver(2, "v1.beat", "{\"at\": \"2025-05-22T14:00:00Z\"}");
+        // Heartbeat completed, but it may not be acked ahead of the pending markets message
+        verify(channel, never()).basicAck(anyLong(), anyBoolean());
+
+        pending.complete(null);
+        verify(channel).basicAck(2L, true);
+    }
+
+    // ============================================================
+    //  Batched acks
+    // ============================================================
+
+    @Test
+    @DisplayName("Batched acks: one cumulative ack per full batch")
+    void batchedAcks_oneAckPerBatch() throws Exception {
+        handler.close();
+        setUp(baseOptions().ackBatchSize(3).ackBatchIntervalMs(0));
+        startConsumers(msg -> {});
+
+        deliverMarkets(1);
+        deliver(2, "v1.beat", "{\"at\": \"2025-05-22T14:00:00Z\"}");
+        verify(channel, never()).basicAck(anyLong(), anyBoolean());
+
+        deliverMarkets(3);
+        verify(channel, times(1)).basicAck(3L, true);
+        verify(channel, never()).basicAck(anyLong(), eq(false));
+    }
+
+    @Test
+    @DisplayName("Batched acks: a partial batch is flushed when recovery starts")
+    void batchedAcks_flushedOnRecoveryStart() throws Exception {
+        handler.close();
+        setUp(baseOptions().ackBatchSize(10).ackBatchIntervalMs(0));
+        startConsumers(msg -> {});
+
+        deliverMarkets(1);
+        deliverMarkets(2);
+        verify(channel, never()).basicAck(anyLong(), anyBoolean());
+
+        feed.startRecovery();
+        verify(channel).basicAck(2L, true);
+    }
+
+    @Test
+    @DisplayName("Batched acks: a partial batch is flushed by the interval timer")
+    void batchedAcks_flushedByTimer() throws Exception {
+        handler.close();
+        setUp(baseOptions().ackBatchSize(10).ackBatchIntervalMs(20));
+        startConsumers(msg -> {});
+
+        deliverMarkets(1);
+
+        verify(channel, timeout(2000)).basicAck(1L, true);
+    }
+
+    // ============================================================
+    //  Routing-key filter
+    // ============================================================
+
+    @Test
+    @DisplayName("Routing-key filter: rejected messages are acked and never reach the sink")
+    void routingKeyFilter_dropsAndAcks() throws Exception {
+        handler.close();
+        setUp(baseOptions().routingKeyFilter(RoutingKeyFilter.videogames("dota-2")));
+        List<Object> received = new CopyOnWriteArrayList<>();
+        startConsumers(received::add);
+
+        // Body is not valid JSON: a filtered message must not be parsed at all
+        deliver(1, MARKETS_RK, "not json");
+        deliver(2, "v1.dota-2.match.2002.markets.odds_changed", "{\"type\": \"markets\", \"match_id\": 2002}");
+
+        assertEquals(1, received.size());
+        verify(channel).basicAck(1L, false);
+        verify(channel).basicAck(2L, false);
+    }
+
+    @Test
+    @DisplayName("Routing-key filter: heartbeats bypass the filter")
+    void routingKeyFilter_heartbeatPasses() throws Exception {
+        handler.close();
+        setUp(baseOptions().routingKeyFilter(rk -> false));
+
+        List<Object> received = new CopyOnWriteArrayList<>();
+        startConsumers(received::add);
+
+        deliver(1, "v1.beat", "{\"at\": \"2025-05-22T14:00:00Z\"}");
+
+        verify(channel).basicAck(1L, false);
+        assertTrue(received.isEmpty());
+    }
+
+    // ============================================================
+    //  MDC propagation modes
+    // ============================================================
+
+    private Map<String, String> mdcSeenBySink(SDKOptions.MdcMode mode) throws Exception {
+        handler.close();
+        setUp(baseOptions().mdcMode(mode));
+        AtomicReference<Map<String, String>> seen = new AtomicReference<>();
+        startConsumers(msg -> seen.set(MDC.getCopyOfContextMap()));
+        MDC.clear();
+
+        deliverMarkets(1);
+
+        Map<String, String> mdc = seen.get();
+        MDC.clear();
+        return mdc != null ? mdc : Map.of();
+    }
+
+    @Test
+    @DisplayName("MDC mode NONE: no per-message context is set")
+    void mdcNone_setsNothing() throws Exception {
+        Map<String, String> mdc = mdcSeenBySink(SDKOptions.MdcMode.NONE);
+        assertNull(mdc.get("routingKey"));
+        assertNull(mdc.get("connection"));
+    }
+
+    @Test
+    @DisplayName("MDC mode MINIMAL: only the connection label is set")
+    void mdcMinimal_connectionOnly() throws Exception {
+        Map<String, String> mdc = mdcSeenBySink(SDKOptions.MdcMode.MINIMAL);
+        assertEquals("[q]", mdc.get("connection"));
+        assertNull(mdc.get("routingKey"));
+    }
+
+    @Test
+    @DisplayName("MDC mode FULL: routing key and message type are set per message")
+    void mdcFull_perMessageContext() throws Exception {
+        Map<String, String> mdc = mdcSeenBySink(SDKOptions.MdcMode.FULL);
+        assertEquals(MARKETS_RK, mdc.get("routingKey"));
+        assertEquals("markets", mdc.get("messageType"));
+    }
+
+    // ============================================================
+    //  Bounded dispatch queue
+    // ============================================================
+
+    @Test
+    @DisplayName("DROP_OLDEST: a dropped fixture is acked without reaching the sink")
+    void dropOldest_acksDroppedMessage() throws Exception {
+        handler.close();
+        setUp(baseOptions().dispatcherThreads(1).dispatchQueueCapacity(1)
+            .backpressurePolicy(SDKOptions.BackpressurePolicy.DROP_OLDEST));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Object> received = new CopyOnWriteArrayList<>();
+        startConsumers(msg -> {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            received.add(msg);
+        });
+
+        try {
+            deliverFixture(1);
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            deliverFixture(2);
+            deliverFixture(3);
+
+            verify(channel).basicAck(2L, false);
+            assertEquals(1, feed.getDispatchDroppedCount());
+            assertEquals(1, feed.getDispatchQueueDepth());
+
+            release.countDown();
+            verify(channel, timeout(5000)).basicAck(3L, false);
+            verify(channel).basicAck(1L, false);
+            assertEquals(2, received.size());
+        } finally {
+            release.countDown();
+            feed.close();
+        }
+    }
+
+    @Test
+    @DisplayName("DROP_OLDEST: a queued settled markets message is never dropped")
+    void dropOldest_neverDropsSettlement() throws Exception {
+        handler.close();
+        setUp(baseOptions().dispatcherThreads(1).dispatchQueueCapacity(1)
+            .backpressurePolicy(SDKOptions.BackpressurePolicy.DROP_OLDEST));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Object> received = new CopyOnWriteArrayList<>();
+        startConsumers(msg -> {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            received.add(msg);
+        });
+
+        try {
+            deliverMarkets(1);
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            deliver(2, "v1.cs-go.match.1001.markets.settled",
+                "{\"type\": \"markets\", \"match_id\": 1001, \"action\": \"settled\"}");
+
+            // The lane is full and holds nothing droppable, so the next delivery waits
+            CompletableFuture<Void> blocked = CompletableFuture.runAsync(() -> {
+                try {
+                    deliverFixture(3);
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            });
+            Thread.sleep(100);
+            assertFalse(blocked.isDone());
+            assertEquals(0, feed.getDispatchDroppedCount());
+
+            release.countDown();
+            blocked.get(5, TimeUnit.SECONDS);
+            verify(channel, timeout(5000)).basicAck(3L, false);
+            assertEquals(3, received.size());
+            assertEquals(0, feed.getDispatchDroppedCount());
+        } finally {
+            release.countDown();
+            feed.close();
+        }
+    }
+
+    // ============================================================
+    //  Journal
+    // ============================================================
+
+    @Test
+    @DisplayName("A journal that cannot be opened fails construction before any worker thread starts")
+    void unopenableJournal_startsNoThreads() throws Exception {
+        handler.close();
+        Path notADirectory = Files.createFile(dir.resolve("journal"));
+        long before = workerThreads();
+
+        try {
+            assertThrows(UncheckedIOException.class, () -> setUp(baseOptions()
+                .journalDirectory(notADirectory.toString())
+                .dispatcherThreads(2)
+                .ackBatchSize(10)
+                .activitySummaryIntervalMs(60_000)));
+
+            assertTrue(workerThreads() <= before);
+        } finally {
+            // Later tests construct feeds from the global options
+            SDKConfig.setOptions(baseOptions().build());
+        }
+    }
+
+    private static long workerThreads() {
+        return Thread.getAllStackTraces().keySet().stream()
+            .map(Thread::getName)
+            .filter(name -> name.startsWith("rmq-dispatch") || name.equals("rmq-ack-flush")
+                || name.equals("rmq-activity-summary"))
+            .count();
+    }
+}
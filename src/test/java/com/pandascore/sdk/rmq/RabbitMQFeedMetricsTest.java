@@ -0,0 +1,206 @@
+package com.pandascore.sdk.rmq;
+
+import com.pandascore.sdk.FeedListener;
+import com.pandascore.sdk.RoutingKeyFilter;
+import com.pandascore.sdk.TypedFeedAdapter;
+import com.pandascore.sdk.config.SDKConfig;
+import com.pandascore.sdk.config.SDKOptions;
+import com.pandascore.sdk.events.EventHandler;
+import com.pandascore.sdk.metrics.FeedMetrics;
+import com.pandascore.sdk.metrics.SDKMetrics;
+import com.pandascore.sdk.model.feed.markets.MarketsMessage;
+import com.rabbitmq.client.CancelCallback;
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.DeliverCallback;
+import com.rabbitmq.client.Delivery;
+import com.rabbitmq.client.Envelope;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for the metrics RabbitMQFeed records and publishes per connection label.
+ * A mocked Channel captures the DeliverCallback so deliveries can be pushed
+ * through it without a broker.
+ */
+class RabbitMQFeedMetricsTest {
+
+    private static final String MARKETS_RK = "v1.cs-go.match.1001.markets.odds_changed";
+
+    private EventHandler handler;
+    private RabbitMQFeed feed;
+    private Channel channel;
+    private DeliverCallback callback;
+
+    private void setUp(SDKOptions.SDKOptionsBuilder options) {
+        SDKConfig.setOptions(options.build());
+        handler = new EventHandler(event -> {});
+        feed = new RabbitMQFeed(handler);
+        channel = mock(Channel.class);
+    }
+
+    private static SDKOptions.SDKOptionsBuilder baseOptions() {
+        return SDKOptions.builder()
+            .apiToken("token")
+            .companyId(1)
+            .email("e@e.com")
+            .password("pass")
+            .apiBaseUrl("http://localhost:9999")
+            .metricsEnabled(true)
+            .queueBinding(SDKOptions.QueueBinding.builder()
+                .queueName("metrics-q").routingKey("#").build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (feed != null) {
+            feed.close();
+        }
+    }
+
+    // --- Helpers ---
+
+    private void startConsumers(Consumer<Object> sink) throws Exception {
+        AtomicReference<DeliverCallback> captured = new AtomicReference<>();
+        doAnswer(invocation -> {
+            captured.set(invocation.getArgument(3));
+            return "ctag";
+        }).when(channel).basicConsume(anyString(), anyBoolean(), anyString(),
+            any(DeliverCallback.class), any(CancelCallback.class));
+
+        Field chanField = RabbitMQFeed.class.getDeclaredField("chan");
+        chanField.setAccessible(true);
+        chanField.set(feed, channel);
+        Method m = RabbitMQFeed.class.getDeclaredMethod("startConsumers", Consumer.class);
+        m.setAccessible(true);
+        m.invoke(feed, sink);
+        callback = captured.get();
+    }
+
+    private void deliver(long tag, String routingKey, String json) throws Exception {
+        callback.handle("ctag", new Delivery(
+            new Envelope(tag, false, "pandascore.feed", routingKey), null,
+            json.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private void deliverMarkets(long tag) throws Exception {
+        deliver(tag, MARKETS_RK, "{\"type\":\"markets\",\"match_id\":1001,\"markets\":[]}");
+    }
+
+    // ============================================================
+    //  Recording
+    // ============================================================
+
+    @Test
+    @DisplayName("Typed listener: messages, heartbeats and per-stage timings are recorded")
+    void typedListener() throws Exception {
+        setUp(baseOptions());
+        FeedMetrics metrics = feed.getMetrics();
+        startConsumers(new TypedFeedAdapter(new FeedListener() {
+            @Override
+            public void onMarkets(MarketsMessage message) {
+            }
+        }, metrics));
+
+        deliverMarkets(1);
+        deliverMarkets(2);
+        deliver(3, "heartbeat", "{\"at\":\"2026-01-20T18:42:07Z\"}");
+
+        assertEquals(2, metrics.getMessages().sum());
+        assertEquals(1, metrics.getHeartbeats().sum());
+        assertEquals(3, metrics.getParseNanos().snapshot().getCount());
+        assertEquals(2, metrics.getDecodeNanos().snapshot().getCount());
+        assertEquals(2, metrics.getListenerNanos().snapshot().getCount());
+        assertEquals(2, metrics.getAckNanos().snapshot().getCount());
+    }
+
+    @Test
+    @DisplayName("Plain sink: the whole sink call is timed, and failures are counted")
+    void plainSink() throws Exception {
+        setUp(baseOptions());
+        FeedMetrics metrics = feed.getMetrics();
+        startConsumers(message -> {
+            throw new IllegalStateException("listener failure");
+        });
+
+        deliverMarkets(1);
+
+        assertEquals(1, metrics.getListenerErrors().sum());
+        assertEquals(0, metrics.getDecodeNanos().snapshot().getCount());
+        assertEquals(0, metrics.getAckNanos().snapshot().getCount());
+        verify(channel).basicNack(1L, false, true);
+    }
+
+    @Test
+    @DisplayName("Filtered and recovery-buffered messages are counted; buffer depth is a gauge")
+    void filteredAndBuffered() throws Exception {
+        setUp(baseOptions().routingKeyFilter(RoutingKeyFilter.types("fixture")));
+        FeedMetrics metrics = feed.getMetrics();
+        startConsumers(message -> { });
+
+        deliverMarkets(1);
+        feed.startRecovery();
+        deliver(2, "v1.cs-go.match.1001.fixture.updated", "{\"type\":\"fixture\",\"match_id\":1001}");
+
+        assertEquals(1, metrics.getFiltered().sum());
+        assertEquals(1, metrics.getRecoveryBuffered().sum());
+        assertEquals(1, metrics.getMetricSet().getGauges().get("recoveryBufferDepth").getAsLong());
+        feed.endRecovery();
+        assertEquals(0, metrics.getMetricSet().getGauges().get("recoveryBufferDepth").getAsLong());
+    }
+
+    @Test
+    @DisplayName("Disconnections detected by the event handler are counted on the feed")
+    void disconnections() {
+        setUp(baseOptions());
+        handler.setFeed(feed);
+
+        handler.handleDisconnection();
+
+        assertEquals(1, feed.getMetrics().getDisconnections().sum());
+    }
+
+    // ============================================================
+    //  Publishing
+    // ============================================================
+
+    @Test
+    @DisplayName("The feed's set is an MBean named after its connection label until close")
+    void jmx() throws Exception {
+        setUp(baseOptions());
+        startConsumers(message -> { });
+        deliverMarkets(1);
+
+        ObjectName name = new ObjectName("com.pandascore.sdk:type=Feed,name=" + ObjectName.quote("[metrics-q]"));
+        assertEquals(1L, ManagementFactory.getPlatformMBeanServer().getAttribute(name, "messages"));
+        assertEquals(1L, ManagementFactory.getPlatformMBeanServer().getAttribute(name, "ackNanosCount"));
+        assertNotNull(SDKMetrics.find("Connections", "all"));
+
+        feed.close();
+        feed = null;
+        assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+    }
+
+    @Test
+    @DisplayName("metricsEnabled=false records and publishes nothing")
+    void disabled() throws Exception {
+        setUp(baseOptions().metricsEnabled(false));
+        startConsumers(message -> { });
+        deliverMarkets(1);
+
+        assertNull(feed.getMetrics());
+        assertNull(SDKMetrics.find(FeedMetrics.TYPE, "[metrics-q]"));
+        verify(channel).basicAck(1L, false);
+    }
+}
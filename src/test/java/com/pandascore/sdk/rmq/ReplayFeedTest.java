@@ -0,0 +1,204 @@
+package com.pandascore.sdk.rmq;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.pandascore.sdk.FeedListener;
+import com.pandascore.sdk.RoutingKeyFilter;
+import com.pandascore.sdk.config.SDKOptions;
+import com.pandascore.sdk.model.feed.fixtures.FixtureMessage;
+import com.pandascore.sdk.model.feed.markets.MarketsMessage;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for ReplayFeed — dispatch semantics and pacing of recorded deliveries.
+ */
+class ReplayFeedTest {
+
+    @TempDir
+    Path dir;
+
+    private static JournalRecord record(long sequence, long receivedAt, String routingKey, String body) {
+        return new JournalRecord(sequence, receivedAt, sequence, false, "pandascore.feed", routingKey,
+            body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static JournalRecord markets(long sequence, long receivedAt, long matchId) {
+        return record(sequence, receivedAt, "v2.cs-go.match." + matchId + ".markets.odds_changed",
+            "{\"type\":\"markets\",\"action\":\"odds_changed\",\"match_id\":" + matchId
+                + ",\"at\":\"2026-01-20T10:00:00Z\",\"markets\":[]}");
+    }
+
+    private static JournalRecord fixture(long sequence, long receivedAt, long matchId) {
+        return record(sequence, receivedAt, "v2.dota-2.match." + matchId + ".fixture.started",
+            "{\"type\":\"fixture\",\"action\":\"started\",\"match_id\":" + matchId + "}");
+    }
+
+    private static JournalRecord heartbeat(long sequence, long receivedAt) {
+        return record(sequence, receivedAt, "heartbeat", "{\"at\":\"2026-01-20T10:00:00Z\"}");
+    }
+
+    // ========================================================================
+    // Dispatch
+    // ========================================================================
+
+    @Test
+    @DisplayName("typed listeners receive business messages; heartbeats are skipped")
+    void typedListener() throws IOException {
+        List<String> calls = Collections.synchronizedList(new ArrayList<>());
+        FeedListener listener = new FeedListener() {
+            @Override
+            public void onMarkets(MarketsMessage message) {
+                calls.add("markets:" + message.getMatchId());
+            }
+
+            @Override
+            public void onFixture(FixtureMessage message) {
+                calls.add("fixture:" + message.getMatchId());
+            }
+        };
+
+        ReplayFeed.Stats stats = ReplayFeed.builder()
+            .source(ReplayFeed.Source.of(Arrays.asList(markets(1, 0, 10), heartbeat(2, 1), fixture(3, 2, 11))))
+            .build()
+            .run(listener);
+
+        assertEquals(Arrays.asList("markets:10", "fixture:11"), calls);
+        assertEquals(3, stats.getRead());
+        assertEquals(2, stats.getDelivered());
+        assertEquals(1, stats.getHeartbeats());
+    }
+
+    @Test
+    @DisplayName("other sinks receive JsonNode payloads and the routing-key filter applies")
+    void jsonSinkWithFilter() throws IOException {
+        List<Object> payloads = new ArrayList<>();
+        ReplayFeed.Stats stats = ReplayFeed.builder()
+            .source(ReplayFeed.Source.of(Arrays.asList(markets(1, 0, 10), fixture(2, 0, 11))))
+            .routingKeyFilter(RoutingKeyFilter.videogames("cs-go"))
+            .build()
+            .run(payloads::add);
+
+        assertEquals(1, payloads.size());
+        assertTrue(payloads.get(0) instanceof JsonNode);
+        assertEquals(1, stats.getFiltered());
+    }
+
+    @Test
+    @DisplayName("with dispatcher lanes every message is processed in order per match")
+    void dispatcherLanes() throws IOException {
+        List<JournalRecord> records = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            records.add(markets(i + 1, 0, i % 5));
+        }
+        List<List<Long>> perMatch = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            perMatch.add(Collections.synchronizedList(new ArrayList<>()));
+        }
+        ReplayFeed.Stats stats = ReplayFeed.builder()
+            .source(ReplayFeed.Source.of(records))
+            .dispatcherThreads(3)
+            .backpressurePolicy(SDKOptions.BackpressurePolicy.BLOCK)
+            .build()
+            .run(payload -> {
+                JsonNode json = (JsonNode) payload;
+                perMatch.get(json.get("match_id").asInt()).add(Thread.currentThread().getId());
+            });
+
+        assertEquals(200, stats.getDelivered());
+        for (List<Long> threads : perMatch) {
+            assertEquals(40, threads.size());
+            assertEquals(1, threads.stream().distinct().count(), "one match stays on one lane");
+        }
+    }
+
+    @Test
+    @DisplayName("sink failures are counted and replay continues")
+    void sinkFailuresCounted() throws IOException {
+        ReplayFeed.Stats stats = ReplayFeed.builder()
+            .source(ReplayFeed.Source.of(Arrays.asList(markets(1, 0, 10), markets(2, 0, 10))))
+            .build()
+            .run(payload -> {
+                throw new IllegalStateException("boom");
+            });
+
+        assertEquals(2, stats.getDelivered());
+        assertEquals(2, stats.getFailures());
+    }
+
+    @Test
+    @DisplayName("malformed records are counted as decode errors and replay continues")
+    void malformedRecordsSkipped() throws IOException {
+        List<JournalRecord> records = Arrays.asList(
+            markets(1, 0, 10),
+            record(2, 0, "v2.cs-go.match.10.markets.odds_changed", "{\"type\":\"markets\",\"match_id\":"),
+            markets(3, 0, 10));
+        List<Long> typed = Collections.synchronizedList(new ArrayList<>());
+        FeedListener listener = new FeedListener() {
+            @Override
+            public void onMarkets(MarketsMessage message) {
+                typed.add(message.getMatchId());
+            }
+        };
+
+        ReplayFeed.Stats stats = ReplayFeed.builder().source(ReplayFeed.Source.of(records)).build().run(listener);
+        ReplayFeed.Stats json = ReplayFeed.builder().source(ReplayFeed.Source.of(records)).build().run(payload -> { });
+
+        assertEquals(Arrays.asList(10L, 10L), typed);
+        assertEquals(3, stats.getRead());
+        assertEquals(2, stats.getDelivered());
+        assertEquals(1, stats.getDecodeErrors());
+        assertEquals(1, json.getDecodeErrors());
+        assertEquals(2, json.getDelivered());
+    }
+
+    // ========================================================================
+    // Timing
+    // ========================================================================
+
+    @Test
+    @DisplayName("speed scales the recorded gaps")
+    void speedScalesGaps() throws IOException {
+        List<JournalRecord> records = Arrays.asList(markets(1, 1_000, 10), markets(2, 1_400, 10));
+
+        ReplayFeed.Stats scaled = ReplayFeed.builder().source(ReplayFeed.Source.of(records)).speed(4).build()
+            .run(payload -> { });
+        ReplayFeed.Stats flatOut = ReplayFeed.builder().source(ReplayFeed.Source.of(records)).build()
+            .run(payload -> { });
+
+        assertTrue(scaled.getElapsedNanos() >= TimeUnit.MILLISECONDS.toNanos(100), "400ms at 4x is 100ms");
+        assertTrue(flatOut.getElapsedNanos() < TimeUnit.MILLISECONDS.toNanos(100));
+    }
+
+    @Test
+    @DisplayName("a journal directory replays end to end")
+    void journalRoundTrip() throws IOException {
+        try (FeedJournal journal = new FeedJournal(dir, 1 << 16, 0, 16, "journal-test")) {
+            JournalRecord m = markets(0, 0, 10);
+            journal.append(m.getExchange(), m.getRoutingKey(), 1, false, 0, m.getBody());
+            JournalRecord h = heartbeat(0, 0);
+            journal.append(h.getExchange(), h.getRoutingKey(), 2, false, 0, h.getBody());
+        }
+        List<Long> matches = new ArrayList<>();
+        ReplayFeed.Stats stats = ReplayFeed.replay(dir, new FeedListener() {
+            @Override
+            public void onMarkets(MarketsMessage message) {
+                matches.add(message.getMatchId());
+            }
+        });
+
+        assertEquals(Collections.singletonList(10L), matches);
+        assertEquals(1, stats.getHeartbeats());
+    }
+}
@@ -0,0 +1,108 @@
+package com.pandascore.sdk.rmq;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for RoutingKey — index-based parsing and interned components.
+ */
+class RoutingKeyTest {
+
+    private static final String CS_MARKETS = "v1.cs-go.match.1001.markets.odds_changed";
+
+    // ============================================================
+    //  Parsing
+    // ============================================================
+
+    @Test
+    @DisplayName("All six components are resolved")
+    void parse_components() {
+        RoutingKey key = RoutingKey.parse(CS_MARKETS);
+        assertNotNull(key);
+        assertEquals("v1", key.version());
+        assertEquals("cs-go", key.videogame());
+        assertEquals("match", key.eventType());
+        assertEquals("1001", key.eventId());
+        assertEquals("markets", key.type());
+        assertEquals("odds_changed", key.action());
+        assertEquals(CS_MARKETS, key.toString());
+    }
+
+    @Test
+    @DisplayName("Keys with fewer than six segments are not business keys")
+    void parse_shortKey_null() {
+        assertNull(RoutingKey.parse("v1.heartbeat"));
+        assertNull(RoutingKey.parse("a.b.c.d.e"));
+        assertNull(RoutingKey.parse(""));
+    }
+
+    @Test
+    @DisplayName("Extra leading segments are folded into the version")
+    void parse_extraLeadingSegments() {
+        RoutingKey key = RoutingKey.parse("x.v1.cs-go.match.1001.markets.odds_changed");
+        assertEquals("v1", key.version());
+        assertEquals("cs-go", key.videogame());
+        assertEquals("odds_changed", key.action());
+    }
+
+    @Test
+    @DisplayName("Empty segments are preserved as empty strings")
+    void parse_emptySegments() {
+        RoutingKey key = RoutingKey.parse("v1..match.1.markets.");
+        assertEquals("", key.videogame());
+        assertEquals("", key.action());
+    }
+
+    // ============================================================
+    //  Event id
+    // ============================================================
+
+    @Test
+    @DisplayName("Numeric event id is read without copying")
+    void eventIdAsLong_numeric() {
+        assertEquals(1001L, RoutingKey.parse(CS_MARKETS).eventIdAsLong());
+    }
+
+    @Test
+    @DisplayName("Non-numeric, empty or oversized event id yields -1")
+    void eventIdAsLong_invalid() {
+        assertEquals(-1L, RoutingKey.parse("v1.cs-go.match.abc.markets.x").eventIdAsLong());
+        assertEquals(-1L, RoutingKey.parse("v1.cs-go.match..markets.x").eventIdAsLong());
+        assertEquals(-1L, RoutingKey.parse("v1.cs-go.match.1234567890123456789.markets.x").eventIdAsLong());
+    }
+
+    // ============================================================
+    //  Interning
+    // ============================================================
+
+    @Test
+    @DisplayName("Repeated component values return the same instance")
+    void components_interned() {
+        RoutingKey a = RoutingKey.parse(CS_MARKETS);
+        RoutingKey b = RoutingKey.parse(new String("v1.cs-go.match.2002.markets.odds_changed"));
+        assertSame(a.videogame(), b.videogame());
+        assertSame(a.type(), b.type());
+        assertSame(a.action(), b.action());
+        assertSame(a.videogame(), a.videogame());
+    }
+
+    @Test
+    @DisplayName("Interner stops growing at its bound but still returns correct values")
+    void interner_bounded() {
+        RoutingKey.Interner interner = new RoutingKey.Interner();
+        for (int i = 0; i < RoutingKey.Interner.MAX_ENTRIES + 10; i++) {
+            String value = "game" + i;
+            assertEquals(value, interner.intern(value, 0, value.length()));
+        }
+        assertEquals(RoutingKey.Interner.MAX_ENTRIES, interner.size());
+    }
+
+    @Test
+    @DisplayName("Equality follows the underlying key")
+    void equality() {
+        assertEquals(RoutingKey.parse(CS_MARKETS), RoutingKey.parse(new String(CS_MARKETS)));
+        assertEquals(CS_MARKETS.hashCode(), RoutingKey.parse(CS_MARKETS).hashCode());
+    }
+}
@@ -0,0 +1,145 @@
+package com.pandascore.sdk.rmq;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.pandascore.sdk.FeedListener;
+import com.pandascore.sdk.model.feed.fixtures.FixtureMessage;
+import com.pandascore.sdk.model.feed.markets.MarketsMessage;
+import com.pandascore.sdk.model.feed.markets.MarketsMessageSelection;
+import com.pandascore.sdk.model.feed.scoreboard.ScoreboardCs;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for SyntheticFeed — generated deliveries decode like broker traffic.
+ */
+class SyntheticFeedTest {
+
+    private static final Instant START = Instant.parse("2026-01-20T10:00:00Z");
+
+    private static SyntheticFeed feed(long messages, long seed) {
+        return SyntheticFeed.builder().matches(5).messages(messages).messagesPerSecond(100).seed(seed).start(START).build();
+    }
+
+    // ========================================================================
+    // Generation
+    // ========================================================================
+
+    @Test
+    @DisplayName("the same seed produces the same deliveries")
+    void deterministic() {
+        SyntheticFeed a = feed(200, 7);
+        SyntheticFeed b = feed(200, 7);
+        JournalRecord ra;
+        while ((ra = a.next()) != null) {
+            JournalRecord rb = b.next();
+            assertNotNull(rb);
+            assertEquals(ra.getRoutingKey(), rb.getRoutingKey());
+            assertArrayEquals(ra.getBody(), rb.getBody());
+        }
+        assertNull(b.next());
+    }
+
+    @Test
+    @DisplayName("routing keys follow the feed layout and heartbeats are spaced in feed time")
+    void routingKeys() {
+        SyntheticFeed feed = feed(3000, 1);
+        Set<String> types = new HashSet<>();
+        List<Long> heartbeats = new ArrayList<>();
+        JournalRecord record;
+        long last = 0;
+        while ((record = feed.next()) != null) {
+            assertTrue(record.getReceivedAtMillis() >= last);
+            last = record.getReceivedAtMillis();
+            if ("heartbeat".equals(record.getRoutingKey())) {
+                heartbeats.add(record.getReceivedAtMillis());
+                continue;
+            }
+            RoutingKey key = RoutingKey.parse(record.getRoutingKey());
+            assertNotNull(key, record.getRoutingKey());
+            assertEquals("cs-go", key.videogame());
+            types.add(key.type());
+        }
+        assertEquals(new HashSet<>(Arrays.asList("markets", "fixture", "scoreboard")), types);
+        // 3000 messages at 100/s span 30 s of feed time: heartbeats at 0, 10 and 20 s
+        assertEquals(3, heartbeats.size());
+        assertEquals(START.toEpochMilli() + 10_000, (long) heartbeats.get(1));
+    }
+
+    @Test
+    @DisplayName("the message limit counts business messages only")
+    void messageLimit() throws IOException {
+        ReplayFeed.Stats stats = ReplayFeed.builder().source(feed(500, 3)).build().run((Object message) -> { });
+        assertEquals(500, stats.getDelivered());
+        assertEquals(stats.getRead() - 500, stats.getHeartbeats());
+    }
+
+    @Test
+    @DisplayName("invalid settings are rejected")
+    void validation() {
+        assertThrows(IllegalArgumentException.class, () -> SyntheticFeed.builder().matches(-1).build());
+        assertThrows(IllegalArgumentException.class, () -> SyntheticFeed.builder().messagesPerSecond(-1).build());
+    }
+
+    // ========================================================================
+    // Decoding
+    // ========================================================================
+
+    @Test
+    @DisplayName("typed listeners receive markets, fixtures and CS scoreboards")
+    void typedListener() throws IOException {
+        AtomicInteger markets = new AtomicInteger();
+        AtomicInteger fixtures = new AtomicInteger();
+        AtomicInteger scoreboards = new AtomicInteger();
+        FeedListener listener = new FeedListener() {
+            @Override
+            public void onMarkets(MarketsMessage message) {
+                assertNotNull(message.getMatchId());
+                for (MarketsMessageSelection selection : message.getMarkets().get(0).getSelections()) {
+                    assertTrue(selection.getOddsDecimalWithMargin() > 1.0);
+                }
+                markets.incrementAndGet();
+            }
+
+            @Override
+            public void onFixture(FixtureMessage message) {
+                assertEquals(message.getMatchId(), message.getMatch().getId());
+                fixtures.incrementAndGet();
+            }
+
+            @Override
+            public void onScoreboard(ScoreboardCs scoreboard) {
+                assertEquals("cs", scoreboard.getScoreboardType());
+                assertEquals(2, scoreboard.getGames().get(0).getTeams().size());
+                scoreboards.incrementAndGet();
+            }
+        };
+
+        ReplayFeed.Stats stats = ReplayFeed.builder().source(feed(1000, 11)).build().run(listener);
+
+        assertEquals(0, stats.getFailures());
+        assertEquals(1000, markets.get() + fixtures.get() + scoreboards.get());
+        assertTrue(markets.get() > scoreboards.get());
+        assertTrue(scoreboards.get() > 0);
+        assertTrue(fixtures.get() >= 5);
+    }
+
+    @Test
+    @DisplayName("JSON sinks receive business messages with their type")
+    void jsonSink() throws IOException {
+        Set<String> types = new HashSet<>();
+        ReplayFeed.builder().source(feed(300, 5)).build()
+            .run((Object message) -> types.add(((JsonNode) message).path("type").asText()));
+        assertEquals(new HashSet<>(Arrays.asList("markets", "fixture", "scoreboard")), types);
+    }
+}